@@ -0,0 +1,33 @@
+package com.cfsl.easymrcp.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * 基准入口：参数与 JMH 命令行一致，默认附加 gc profiler，同时输出吞吐量(ops/s)和分配速率(gc.alloc.rate.norm)。
+ *
+ * <pre>
+ * java -jar benchmarks/target/benchmarks.jar                      # 全部基准
+ * java -jar benchmarks/target/benchmarks.jar RtpPacket -rf json   # 按正则筛选并输出json结果
+ * </pre>
+ */
+public final class BenchmarkMain {
+
+    private BenchmarkMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        if (commandLine.shouldHelp() || commandLine.shouldList() || commandLine.shouldListProfilers()
+                || commandLine.shouldListResultFormats()) {
+            org.openjdk.jmh.Main.main(args);
+            return;
+        }
+        new Runner(new OptionsBuilder()
+                .parent(commandLine)
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -0,0 +1,95 @@
+package com.cfsl.easymrcp.rtp;
+
+import com.cfsl.easymrcp.common.EMConstant;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 按协商Payload Type编解码的入口基准，单位为一个 8kHz 20ms 帧
+ * 返回新ByteBuf的版本对应TTS输出路径，写入调用方缓冲区的版本对应ASR收包路径。
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AudioCodecUtilBenchmark {
+
+    /** 0=PCMU, 8=PCMA */
+    @Param({"0", "8"})
+    public int payloadType;
+
+    private ByteBuf pcmFrame;
+    private ByteBuf encodedFrame;
+    private ByteBuf encodeOut;
+    private ByteBuf decodeOut;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        byte[] pcm = new byte[EMConstant.VOIP_L16_BYTES_PER_FRAME];
+        byte[] encoded = new byte[EMConstant.VOIP_SAMPLES_PER_FRAME];
+        random.nextBytes(pcm);
+        random.nextBytes(encoded);
+        pcmFrame = ByteBufAllocator.DEFAULT.directBuffer(pcm.length).writeBytes(pcm);
+        encodedFrame = ByteBufAllocator.DEFAULT.directBuffer(encoded.length).writeBytes(encoded);
+        encodeOut = ByteBufAllocator.DEFAULT.directBuffer(encoded.length);
+        decodeOut = ByteBufAllocator.DEFAULT.directBuffer(pcm.length);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pcmFrame.release();
+        encodedFrame.release();
+        encodeOut.release();
+        decodeOut.release();
+    }
+
+    @Benchmark
+    public int encode() {
+        // 该重载会移动输入的readerIndex，用duplicate保持输入不变
+        ByteBuf encoded = AudioCodecUtil.encode(pcmFrame.duplicate(), payloadType);
+        int length = encoded.readableBytes();
+        encoded.release();
+        return length;
+    }
+
+    @Benchmark
+    public ByteBuf encodeInto() {
+        encodeOut.clear();
+        AudioCodecUtil.encode(pcmFrame, encodeOut, payloadType);
+        return encodeOut;
+    }
+
+    @Benchmark
+    public int decode() {
+        ByteBuf pcm = AudioCodecUtil.decode(encodedFrame.duplicate(), payloadType);
+        int length = pcm.readableBytes();
+        pcm.release();
+        return length;
+    }
+
+    @Benchmark
+    public ByteBuf decodeInto() {
+        decodeOut.clear();
+        AudioCodecUtil.decode(encodedFrame, decodeOut, payloadType);
+        return decodeOut;
+    }
+}
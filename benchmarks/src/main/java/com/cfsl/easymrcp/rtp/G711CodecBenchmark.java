@@ -0,0 +1,137 @@
+package com.cfsl.easymrcp.rtp;
+
+import com.cfsl.easymrcp.common.EMConstant;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * G.711编解码与L16大小端转换的JMH基准，单位为一个20ms帧(8kHz)
+ * legacy*为改造前的逐样本实现(先拷贝到byte[]，逐样本分支计算后再写回)，table*为查表批量实现。
+ *
+ * <p>运行方式见 benchmarks/README.md。</p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class G711CodecBenchmark {
+
+    private ByteBuf pcmFrame;
+    private ByteBuf g711Frame;
+    private ByteBuf encodeOut;
+    private ByteBuf decodeOut;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        byte[] pcm = new byte[EMConstant.VOIP_L16_BYTES_PER_FRAME];
+        byte[] g711 = new byte[EMConstant.VOIP_SAMPLES_PER_FRAME];
+        random.nextBytes(pcm);
+        random.nextBytes(g711);
+        pcmFrame = ByteBufAllocator.DEFAULT.directBuffer(pcm.length).writeBytes(pcm);
+        g711Frame = ByteBufAllocator.DEFAULT.directBuffer(g711.length).writeBytes(g711);
+        encodeOut = ByteBufAllocator.DEFAULT.directBuffer(g711.length);
+        decodeOut = ByteBufAllocator.DEFAULT.directBuffer(pcm.length);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pcmFrame.release();
+        g711Frame.release();
+        encodeOut.release();
+        decodeOut.release();
+    }
+
+    @Benchmark
+    public ByteBuf legacyEncodeALaw() {
+        encodeOut.clear();
+        byte[] pcm = new byte[pcmFrame.readableBytes()];
+        pcmFrame.getBytes(pcmFrame.readerIndex(), pcm);
+        byte[] encoded = new byte[pcm.length / 2];
+        for (int i = 0, j = 0; i < encoded.length; i++, j += 2) {
+            encoded[i] = G711AUtil.linearToALawSample((short) ((pcm[j] & 0xFF) | (pcm[j + 1] << 8)));
+        }
+        return encodeOut.writeBytes(encoded);
+    }
+
+    @Benchmark
+    public ByteBuf tableEncodeALaw() {
+        encodeOut.clear();
+        G711Codec.encodeALaw(pcmFrame, encodeOut);
+        return encodeOut;
+    }
+
+    @Benchmark
+    public ByteBuf legacyEncodeULaw() {
+        encodeOut.clear();
+        byte[] pcm = new byte[pcmFrame.readableBytes()];
+        pcmFrame.getBytes(pcmFrame.readerIndex(), pcm);
+        byte[] encoded = new byte[pcm.length / 2];
+        for (int i = 0, j = 0; i < encoded.length; i++, j += 2) {
+            encoded[i] = G711UUtil.linearToUlaw((short) ((pcm[j] & 0xFF) | (pcm[j + 1] << 8)));
+        }
+        return encodeOut.writeBytes(encoded);
+    }
+
+    @Benchmark
+    public ByteBuf tableEncodeULaw() {
+        encodeOut.clear();
+        G711Codec.encodeULaw(pcmFrame, encodeOut);
+        return encodeOut;
+    }
+
+    @Benchmark
+    public ByteBuf legacyDecodeALaw() {
+        decodeOut.clear();
+        int start = g711Frame.readerIndex();
+        int end = start + g711Frame.readableBytes();
+        for (int i = start; i < end; i++) {
+            decodeOut.writeShortLE(G711Codec.decodeALaw(g711Frame.getByte(i)));
+        }
+        return decodeOut;
+    }
+
+    @Benchmark
+    public ByteBuf tableDecodeALaw() {
+        decodeOut.clear();
+        G711Codec.decodeALaw(g711Frame, decodeOut);
+        return decodeOut;
+    }
+
+    @Benchmark
+    public ByteBuf legacySwapL16() {
+        decodeOut.clear();
+        byte[] temp = new byte[pcmFrame.readableBytes()];
+        pcmFrame.getBytes(pcmFrame.readerIndex(), temp);
+        for (int i = 0; i + 1 < temp.length; i += 2) {
+            byte low = temp[i];
+            temp[i] = temp[i + 1];
+            temp[i + 1] = low;
+        }
+        return decodeOut.writeBytes(temp);
+    }
+
+    @Benchmark
+    public ByteBuf bulkSwapL16() {
+        decodeOut.clear();
+        AudioCodecUtil.swapL16(pcmFrame, pcmFrame.readerIndex(), pcmFrame.readableBytes(), decodeOut);
+        return decodeOut;
+    }
+}
@@ -0,0 +1,105 @@
+package com.cfsl.easymrcp.rtp;
+
+import com.cfsl.easymrcp.common.EMConstant;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * ASR收包重排窗口基准，按默认配置(窗口2包、最多连续补3个静音包)
+ * 每次调用投递一轮 {@link #ROUND} 个序号，模拟几种到达模式：
+ * <ul>
+ *     <li>inOrder：顺序到达</li>
+ *     <li>reorder：每8个包中有一对相邻包交换顺序</li>
+ *     <li>loss：每25个包丢1个(4%)，由窗口补静音</li>
+ *     <li>burstLoss：每50个包连续丢5个，超过补静音上限后触发resync</li>
+ * </ul>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InboundRtpReorderBufferBenchmark {
+    private static final int ROUND = 200;
+
+    @Param({"inOrder", "reorder", "loss", "burstLoss"})
+    public String pattern;
+
+    private final byte[] payload = new byte[EMConstant.VOIP_SAMPLES_PER_FRAME];
+    private InboundRtpReorderBuffer reorderBuffer;
+    /** 一轮内各位置投递的序号偏移，-1 表示该位置的包丢失 */
+    private int[] offsets;
+    private int baseSequence;
+    private int emitted;
+    // 包在回调返回后由重排窗口释放
+    private final Consumer<RtpPacket> consumer = packet -> emitted++;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        reorderBuffer = new InboundRtpReorderBuffer(AudioCodecUtil.PT_PCMA, EMConstant.VOIP_SAMPLES_PER_FRAME,
+                2, 3, EMConstant.VOIP_SAMPLES_PER_FRAME);
+        offsets = new int[ROUND];
+        for (int i = 0; i < ROUND; i++) {
+            offsets[i] = i;
+        }
+        switch (pattern) {
+            case "reorder":
+                for (int i = 3; i + 1 < ROUND; i += 8) {
+                    offsets[i] = i + 1;
+                    offsets[i + 1] = i;
+                }
+                break;
+            case "loss":
+                for (int i = 12; i < ROUND; i += 25) {
+                    offsets[i] = -1;
+                }
+                break;
+            case "burstLoss":
+                for (int i = 20; i + 5 <= ROUND; i += 50) {
+                    for (int j = i; j < i + 5; j++) {
+                        offsets[j] = -1;
+                    }
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        reorderBuffer.reset();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROUND)
+    public int offer() {
+        int base = baseSequence;
+        for (int offset : offsets) {
+            if (offset < 0) {
+                continue;
+            }
+            int sequenceNumber = (base + offset) & 0xFFFF;
+            long timestamp = (sequenceNumber * (long) EMConstant.VOIP_SAMPLES_PER_FRAME) & 0xFFFFFFFFL;
+            reorderBuffer.offer(RtpPacket.sharing(AudioCodecUtil.PT_PCMA, sequenceNumber, timestamp, payload), consumer);
+        }
+        baseSequence = (base + ROUND) & 0xFFFF;
+        return emitted;
+    }
+}
@@ -0,0 +1,78 @@
+package com.cfsl.easymrcp.rtp;
+
+import com.cfsl.easymrcp.common.EMConstant;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ASR音频环形缓冲基准，单位为一个 8kHz 20ms PCM 帧
+ * 缓冲区预先写入1秒音频，write/read 成对执行保持水位不变；readInto 为VAD取帧使用的无分配路径。
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NettyAudioRingBufferBenchmark {
+    private static final int FRAME_BYTES = EMConstant.VOIP_L16_BYTES_PER_FRAME;
+
+    private NettyAudioRingBuffer ringBuffer;
+    private ByteBuf frame;
+    private ByteBuf readTarget;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ringBuffer = new NettyAudioRingBuffer(ByteBufAllocator.DEFAULT, 8000);
+        frame = ByteBufAllocator.DEFAULT.directBuffer(FRAME_BYTES).writeZero(FRAME_BYTES);
+        readTarget = ByteBufAllocator.DEFAULT.directBuffer(FRAME_BYTES);
+        for (int i = 0; i < 50; i++) {
+            ringBuffer.write(frame.duplicate());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        ringBuffer.release();
+        frame.release();
+        readTarget.release();
+    }
+
+    @Benchmark
+    public int writeThenRead() {
+        ringBuffer.write(frame.duplicate());
+        ByteBuf data = ringBuffer.read(FRAME_BYTES);
+        int length = data.readableBytes();
+        data.release();
+        return length;
+    }
+
+    @Benchmark
+    public int writeThenReadInto() {
+        ringBuffer.write(frame.duplicate());
+        readTarget.clear();
+        return ringBuffer.readInto(readTarget, FRAME_BYTES);
+    }
+
+    @Benchmark
+    public int peek() {
+        ByteBuf data = ringBuffer.peek(FRAME_BYTES);
+        int length = data.readableBytes();
+        data.release();
+        return length;
+    }
+}
@@ -0,0 +1,66 @@
+package com.cfsl.easymrcp.rtp;
+
+import com.cfsl.easymrcp.common.EMConstant;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RTP包解析基准：一个 PCMA 20ms 数据报(12字节头 + 160字节负载)
+ * parse 拷贝负载到堆数组，view 为ASR收包路径使用的池化零拷贝视图。
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RtpPacketBenchmark {
+
+    private ByteBuf datagram;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        datagram = ByteBufAllocator.DEFAULT.directBuffer(12 + EMConstant.VOIP_SAMPLES_PER_FRAME);
+        datagram.writeByte(0x80);
+        datagram.writeByte(AudioCodecUtil.PT_PCMA);
+        datagram.writeShort(4660);
+        datagram.writeInt(160 * 1000);
+        datagram.writeInt(0x12345678);
+        datagram.writeZero(EMConstant.VOIP_SAMPLES_PER_FRAME);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        datagram.release();
+    }
+
+    @Benchmark
+    public int parse() {
+        RtpPacket packet = RtpPacket.parse(datagram);
+        int sequenceNumber = packet.getSequenceNumber();
+        packet.release();
+        return sequenceNumber;
+    }
+
+    @Benchmark
+    public int view() {
+        RtpPacket packet = RtpPacket.view(datagram);
+        int sequenceNumber = packet.getSequenceNumber();
+        packet.release();
+        return sequenceNumber;
+    }
+}
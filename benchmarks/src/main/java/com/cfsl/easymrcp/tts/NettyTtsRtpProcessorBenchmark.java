@@ -0,0 +1,67 @@
+package com.cfsl.easymrcp.tts;
+
+import com.cfsl.easymrcp.rtp.AudioCodecUtil;
+import com.cfsl.easymrcp.rtp.ChunkedAudioQueue;
+import com.cfsl.easymrcp.common.EMConstant;
+import com.cfsl.easymrcp.utils.PcmResampler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TTS处理调度单轮基准：写入100ms合成音频后执行一次processOnce(重采样 + G.711编码 + 写入output)
+ * 不启动调度器和发送任务，每轮结束丢弃output中的数据，保持队列水位不变。
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NettyTtsRtpProcessorBenchmark {
+
+    /** none 表示厂商直接返回8kHz音频 */
+    @Param({"none", PcmResampler.DOWNSAMPLE_24K_TO_8K})
+    public String reSample;
+
+    private NettyTtsRtpProcessor processor;
+    private byte[] batch;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        processor = new NettyTtsRtpProcessor("127.0.0.1", 40000, AudioCodecUtil.PT_PCMA,
+                EMConstant.VOIP_SAMPLES_PER_FRAME, 20);
+        processor.setReSample("none".equals(reSample) ? null : reSample);
+        int inputRate = "none".equals(reSample) ? 8000 : PcmResampler.forConfig(reSample).getInputRate();
+        batch = new byte[inputRate * 2 / 10];
+        new Random(42).nextBytes(batch);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        processor.stopRtpSender();
+    }
+
+    @Benchmark
+    public int processOnce() {
+        processor.putData(batch, batch.length);
+        processor.processOnce();
+        ChunkedAudioQueue output = processor.getOutputQueue();
+        int produced = output.readableBytes();
+        output.skip(produced);
+        return produced;
+    }
+}
@@ -0,0 +1,82 @@
+package com.cfsl.easymrcp.tts.scheduler;
+
+import com.cfsl.easymrcp.common.EMConstant;
+import com.cfsl.easymrcp.rtp.AudioCodecUtil;
+import com.cfsl.easymrcp.rtp.ChunkedAudioQueue;
+import com.cfsl.easymrcp.tts.NettyTtsRtpProcessor;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 共享发送调度单轮基准：每次调用推进一个20ms节拍，从output取一帧、组RTP包并写出
+ * 通道为EmbeddedChannel，测量不含系统调用，只覆盖取帧、补帧和组包开销。
+ * <ul>
+ *     <li>frame：output中始终有整帧数据</li>
+ *     <li>partialFrame：每次只有半帧，需要补静音</li>
+ *     <li>silence：output为空，发送静音帧</li>
+ * </ul>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RtpSendTaskBenchmark {
+    private static final long INTERVAL_NANOS = 20_000_000L;
+
+    @Param({"frame", "partialFrame", "silence"})
+    public String content;
+
+    private NettyTtsRtpProcessor processor;
+    private EmbeddedChannel channel;
+    private RtpSendTask task;
+    private ChunkedAudioQueue output;
+    private byte[] frame;
+    private long nowNanos;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        processor = new NettyTtsRtpProcessor("127.0.0.1", 40002, AudioCodecUtil.PT_PCMA,
+                EMConstant.VOIP_SAMPLES_PER_FRAME, 20);
+        channel = new EmbeddedChannel();
+        processor.setRtpChannel(channel);
+        task = new RtpSendTask("benchmark", processor, result -> {
+        });
+        output = processor.getOutputQueue();
+        int frameBytes = "partialFrame".equals(content) ? EMConstant.VOIP_SAMPLES_PER_FRAME / 2 : EMConstant.VOIP_SAMPLES_PER_FRAME;
+        frame = new byte[frameBytes];
+        nowNanos = System.nanoTime();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        task.release();
+        processor.stopRtpSender();
+        channel.finishAndReleaseAll();
+    }
+
+    @Benchmark
+    public boolean doSendOnce() {
+        if (!"silence".equals(content)) {
+            output.write(frame, 0, frame.length);
+        }
+        task.doSendOnce(nowNanos);
+        nowNanos += INTERVAL_NANOS;
+        return channel.releaseOutbound();
+    }
+}
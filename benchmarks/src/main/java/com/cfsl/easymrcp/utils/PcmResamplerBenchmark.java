@@ -0,0 +1,61 @@
+package com.cfsl.easymrcp.utils;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 流式重采样基准，每次调用处理 20ms 输入
+ * upsample8kTo16k 对应ASR收包路径，downsample24kTo8k 对应TTS处理路径(实际按100ms批处理，这里按帧折算)。
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PcmResamplerBenchmark {
+
+    @Param({PcmResampler.UPSAMPLE_8K_TO_16K, PcmResampler.DOWNSAMPLE_24K_TO_8K})
+    public String reSample;
+
+    private PcmResampler resampler;
+    private ByteBuf input;
+    private ByteBuf output;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        resampler = PcmResampler.forConfig(reSample);
+        byte[] pcm = new byte[resampler.getInputRate() * 2 / 50];
+        new Random(42).nextBytes(pcm);
+        input = ByteBufAllocator.DEFAULT.directBuffer(pcm.length).writeBytes(pcm);
+        output = ByteBufAllocator.DEFAULT.directBuffer(resampler.maxOutputBytes(pcm.length));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        input.release();
+        output.release();
+    }
+
+    @Benchmark
+    public int process() {
+        output.clear();
+        return resampler.process(input, output);
+    }
+}
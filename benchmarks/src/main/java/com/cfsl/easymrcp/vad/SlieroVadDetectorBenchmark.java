@@ -0,0 +1,75 @@
+package com.cfsl.easymrcp.vad;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * VAD同步检测基准：每次调用对一个VAD帧执行 apply(转换 + 能量计算 + onnx推理 + 状态判断)
+ * 帧长与ASR收包路径一致，8kHz为2048字节，16kHz为4096字节；模型从主工程jar中的silero_vad.onnx解压到临时文件加载。
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SlieroVadDetectorBenchmark {
+
+    @Param({"8000", "16000"})
+    public int sampleRate;
+
+    private Path modelFile;
+    private SlieroVadDetector detector;
+    private byte[] frame;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        modelFile = Files.createTempFile("silero_vad", ".onnx");
+        try (InputStream model = SlieroVadDetectorBenchmark.class.getClassLoader().getResourceAsStream("silero_vad.onnx")) {
+            if (model == null) {
+                throw new IllegalStateException("classpath中缺少silero_vad.onnx");
+            }
+            Files.copy(model, modelFile, StandardCopyOption.REPLACE_EXISTING);
+        }
+        detector = new SlieroVadDetector(modelFile.toString(), 0.4f, 0.8f, sampleRate, 300, 500);
+
+        // 300Hz正弦叠加白噪声，近似说话时的能量和频谱
+        frame = new byte[sampleRate == 16000 ? 4096 : 2048];
+        Random random = new Random(42);
+        for (int i = 0; i < frame.length / 2; i++) {
+            int value = (int) (6000 * Math.sin(2 * Math.PI * 300 * i / sampleRate)) + random.nextInt(2000) - 1000;
+            frame[i * 2] = (byte) value;
+            frame[i * 2 + 1] = (byte) (value >> 8);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        detector.close();
+        Files.deleteIfExists(modelFile);
+    }
+
+    @Benchmark
+    public Map<String, Double> apply() {
+        return detector.apply(frame, false);
+    }
+}
@@ -41,9 +41,6 @@ import java.util.function.BiConsumer;
 @Slf4j
 public class EnhancedNettyTcpClient implements AutoCloseable {
 
-    /** EasyMrcp TCP 协议固定魔数：4 字节魔数 + 4 字节长度 + JSON 消息体。 */
-    private static final int MAGIC_NUMBER = 0x66AABB99;
-
     /** EasyMrcp 服务地址。 */
     private final String serverHost;
     /** EasyMrcp 服务端口。 */
@@ -54,6 +51,8 @@ public class EnhancedNettyTcpClient implements AutoCloseable {
     private final boolean ownsGroup;
     /** 按事件类型注册回调，收到服务端事件后按类型分发。 */
     private final Map<TcpEventType, BiConsumer<String, String>> eventCallbacks = new ConcurrentHashMap<>();
+    /** 是否使用二进制消息体，服务端会按客户端发送的帧格式回复。 */
+    private final boolean binaryProtocol;
 
     /** 当前 TCP 连接通道。 */
     private Channel channel;
@@ -66,6 +65,12 @@ public class EnhancedNettyTcpClient implements AutoCloseable {
     private String clientId;
 
     public EnhancedNettyTcpClient(String serverHost, int serverPort, String clientId, EventLoopGroup eventLoopGroup) {
+        this(serverHost, serverPort, clientId, eventLoopGroup, false);
+    }
+
+    public EnhancedNettyTcpClient(String serverHost, int serverPort, String clientId, EventLoopGroup eventLoopGroup,
+                                  boolean binaryProtocol) {
+        this.binaryProtocol = binaryProtocol;
         this.serverHost = serverHost;
         this.serverPort = serverPort;
         this.clientId = clientId;
@@ -98,9 +103,9 @@ public class EnhancedNettyTcpClient implements AutoCloseable {
                     @Override
                     protected void initChannel(SocketChannel ch) {
                         ChannelPipeline pipeline = ch.pipeline();
-                        // 入站：按 EasyMrcp 自定义头格式解出 JSON 文本
+                        // 入站：按 EasyMrcp 自定义头格式解出 JSON 文本或二进制事件
                         pipeline.addLast(new MessagePacketDecoder());
-                        // 出站：把 JSON 文本编码成 EasyMrcp 自定义头格式
+                        // 出站：把 JSON 文本或事件对象编码成 EasyMrcp 自定义头格式
                         pipeline.addLast(new MessagePacketEncoder());
                         // 业务事件处理器
                         pipeline.addLast(new ClientHandler());
@@ -139,9 +144,8 @@ public class EnhancedNettyTcpClient implements AutoCloseable {
         }
 
         MrcpEvent event = new MrcpEvent(clientId, eventId, eventType, data);
-        String jsonEvent = JSON.toJSONString(event);
-        log.info("发送EasyMrcp事件: {}", jsonEvent);
-        channel.writeAndFlush(jsonEvent);
+        log.info("发送EasyMrcp事件: {}", event);
+        channel.writeAndFlush(encodeEvent(event));
     }
 
     /**
@@ -154,9 +158,8 @@ public class EnhancedNettyTcpClient implements AutoCloseable {
         Channel currentChannel = channel;
         if (connected && currentChannel != null) {
             MrcpEvent event = new MrcpEvent(clientId, null, TcpEventType.ClientDisConnect, null);
-            String jsonEvent = JSON.toJSONString(event);
-            log.info("发送EasyMrcp事件: {}", jsonEvent);
-            currentChannel.writeAndFlush(jsonEvent).awaitUninterruptibly();
+            log.info("发送EasyMrcp事件: {}", event);
+            currentChannel.writeAndFlush(encodeEvent(event)).awaitUninterruptibly();
         }
         connected = false;
         if (currentChannel != null) {
@@ -173,6 +176,11 @@ public class EnhancedNettyTcpClient implements AutoCloseable {
         disconnect();
     }
 
+    /** 二进制模式直接发送事件对象，由编码器写成二进制帧；否则发送 JSON 文本。 */
+    private Object encodeEvent(MrcpEvent event) {
+        return binaryProtocol ? event : JSON.toJSONString(event);
+    }
+
     /**
      * 连接阶段失败时的轻量清理。
      *
@@ -212,7 +220,7 @@ public class EnhancedNettyTcpClient implements AutoCloseable {
     }
 
     /** 处理 EasyMrcp TCP 通道上的入站消息。 */
-    private class ClientHandler extends SimpleChannelInboundHandler<String> {
+    private class ClientHandler extends SimpleChannelInboundHandler<Object> {
 
         @Override
         public void channelActive(ChannelHandlerContext ctx) {
@@ -227,7 +235,13 @@ public class EnhancedNettyTcpClient implements AutoCloseable {
         }
 
         @Override
-        protected void channelRead0(ChannelHandlerContext ctx, String message) {
+        protected void channelRead0(ChannelHandlerContext ctx, Object msg) {
+            if (msg instanceof MrcpEvent) {
+                MrcpEvent event = (MrcpEvent) msg;
+                handleStandardEvent(event.getEventId(), event.getEvent(), event.getData());
+                return;
+            }
+            String message = (String) msg;
             try {
                 JSONObject jsonObject = JSONObject.parseObject(message);
                 handleStandardEvent(
@@ -250,7 +264,7 @@ public class EnhancedNettyTcpClient implements AutoCloseable {
     /**
      * 入站消息解码器。
      *
-     * 协议格式固定为：4 字节魔数 + 4 字节长度 + UTF-8 JSON 文本。
+     * 协议格式固定为：4 字节魔数 + 4 字节长度 + 消息体，JSON 帧解出文本，二进制帧直接解出事件对象。
      */
     private static class MessagePacketDecoder extends ByteToMessageDecoder {
 
@@ -264,7 +278,7 @@ public class EnhancedNettyTcpClient implements AutoCloseable {
             }
 
             int magic = in.readInt();
-            if (magic != MAGIC_NUMBER) {
+            if (magic != MrcpBinaryCodec.JSON_MAGIC && magic != MrcpBinaryCodec.BINARY_MAGIC) {
                 in.resetReaderIndex();
                 in.skipBytes(1);
                 return;
@@ -281,20 +295,37 @@ public class EnhancedNettyTcpClient implements AutoCloseable {
                 return;
             }
 
-            byte[] bodyBytes = new byte[bodyLength];
-            in.readBytes(bodyBytes);
-            out.add(new String(bodyBytes, StandardCharsets.UTF_8));
+            if (magic == MrcpBinaryCodec.JSON_MAGIC) {
+                out.add(in.readCharSequence(bodyLength, StandardCharsets.UTF_8).toString());
+                return;
+            }
+            // 二进制帧直接解析为事件，命令响应只做确认，直接丢弃
+            int bodyEnd = in.readerIndex() + bodyLength;
+            try {
+                MrcpEvent event = MrcpBinaryCodec.readEvent(in.slice(in.readerIndex(), bodyLength));
+                if (event != null) {
+                    out.add(event);
+                }
+            } catch (RuntimeException e) {
+                log.error("EasyMrcp二进制消息解析失败, 长度: {}", bodyLength, e);
+            } finally {
+                in.readerIndex(bodyEnd);
+            }
         }
     }
 
-    /** 把 JSON 文本编码成 EasyMrcp TCP 协议消息。 */
-    private static class MessagePacketEncoder extends MessageToByteEncoder<String> {
+    /** 把 JSON 文本或事件对象编码成 EasyMrcp TCP 协议消息，直接写入输出缓冲区。 */
+    private static class MessagePacketEncoder extends MessageToByteEncoder<Object> {
         @Override
-        protected void encode(ChannelHandlerContext ctx, String msg, ByteBuf out) {
-            byte[] bodyBytes = msg.getBytes(StandardCharsets.UTF_8);
-            out.writeInt(MAGIC_NUMBER);
-            out.writeInt(bodyBytes.length);
-            out.writeBytes(bodyBytes);
+        protected void encode(ChannelHandlerContext ctx, Object msg, ByteBuf out) {
+            if (msg instanceof MrcpEvent) {
+                MrcpBinaryCodec.writeEventFrame((MrcpEvent) msg, out);
+                return;
+            }
+            out.writeInt(MrcpBinaryCodec.JSON_MAGIC);
+            int lengthIndex = out.writerIndex();
+            out.writeInt(0);
+            out.setInt(lengthIndex, out.writeCharSequence((String) msg, StandardCharsets.UTF_8));
         }
     }
 }
@@ -20,16 +20,17 @@ import java.util.concurrent.CountDownLatch;
 public class EnhancedNettyTcpClientExample {
 
     public static void main(String[] args) throws InterruptedException {
-        // 允许直接通过命令行传入 host / port / clientId，便于快速联调。
+        // 允许直接通过命令行传入 host / port / clientId / binary，便于快速联调。
         String host = args.length > 0 ? args[0] : "127.0.0.1";
         int port = args.length > 1 ? Integer.parseInt(args[1]) : 9090;
         String clientId = args.length > 2 ? args[2] : UUID.randomUUID().toString();
+        boolean binaryProtocol = args.length > 3 && "binary".equalsIgnoreCase(args[3]);
 
         // 这里显式创建 EventLoopGroup，退出时再统一释放，方便看清客户端生命周期。
         EventLoopGroup group = new NioEventLoopGroup();
         CountDownLatch shutdownLatch = new CountDownLatch(1);
 
-        EnhancedNettyTcpClient client = new EnhancedNettyTcpClient(host, port, clientId, group);
+        EnhancedNettyTcpClient client = new EnhancedNettyTcpClient(host, port, clientId, group, binaryProtocol);
 
         // 服务端确认 ClientConnect 后，开始一轮 ASR 识别。
         client.registerEventCallback(TcpEventType.ClientConnect, (eventId, data) -> {
@@ -0,0 +1,76 @@
+package com.cfsl.easymrcp.examples.client;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * EasyMrcp TCP 协议的二进制消息体，与服务端 MrcpBinaryCodec 保持一致。
+ *
+ * 分帧与 JSON 相同，只是魔数换成 0x66AABB9A。客户端发送二进制帧后，服务端对该连接按二进制回复。
+ * 消息体 = 类型(1字节) + 字段，字符串字段为 4 字节长度(-1 表示 null) + UTF-8 字节：
+ * MrcpEvent(1)：id, eventId, event, data；TcpResponse(2)：id, code(4字节), message, dataType(1字节), data。
+ */
+final class MrcpBinaryCodec {
+    /** JSON 消息魔数。 */
+    static final int JSON_MAGIC = 0x66AABB99;
+    /** 二进制消息魔数。 */
+    static final int BINARY_MAGIC = 0x66AABB9A;
+
+    private static final byte TYPE_EVENT = 1;
+
+    private MrcpBinaryCodec() {
+    }
+
+    /** 把事件写成完整的二进制帧，消息体直接写入 out，最后回填长度。 */
+    static void writeEventFrame(MrcpEvent event, ByteBuf out) {
+        out.writeInt(BINARY_MAGIC);
+        int lengthIndex = out.writerIndex();
+        out.writeInt(0);
+        out.writeByte(TYPE_EVENT);
+        writeString(event.getId(), out);
+        writeString(event.getEventId(), out);
+        writeString(event.getEvent(), out);
+        writeString(event.getData(), out);
+        out.setInt(lengthIndex, out.writerIndex() - lengthIndex - 4);
+    }
+
+    /**
+     * 读取二进制消息体。
+     *
+     * 服务端事件返回 MrcpEvent；命令响应只用于确认，返回 null。
+     */
+    static MrcpEvent readEvent(ByteBuf body) {
+        if (body.readByte() != TYPE_EVENT) {
+            return null;
+        }
+        MrcpEvent event = new MrcpEvent();
+        event.setId(readString(body));
+        event.setEventId(readString(body));
+        event.setEvent(readString(body));
+        event.setData(readString(body));
+        return event;
+    }
+
+    private static void writeString(String value, ByteBuf out) {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        int lengthIndex = out.writerIndex();
+        out.writeInt(0);
+        out.setInt(lengthIndex, ByteBufUtil.writeUtf8(out, value));
+    }
+
+    private static String readString(ByteBuf in) {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        if (length > in.readableBytes()) {
+            throw new IllegalArgumentException("字段长度越界: " + length);
+        }
+        return in.readCharSequence(length, StandardCharsets.UTF_8).toString();
+    }
+}
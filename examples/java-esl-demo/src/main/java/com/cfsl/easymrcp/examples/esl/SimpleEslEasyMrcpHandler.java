@@ -41,7 +41,8 @@ public class SimpleEslEasyMrcpHandler {
                 properties.getHost(),
                 properties.getPort(),
                 uuid,
-                eventLoopGroup
+                eventLoopGroup,
+                properties.isBinaryProtocol()
         );
     }
 
@@ -32,13 +32,12 @@ import java.util.function.BiConsumer;
 @Slf4j
 public class EnhancedNettyTcpClient implements AutoCloseable {
 
-    private static final int MAGIC_NUMBER = 0x66AABB99;
-
     private final String serverHost;
     private final int serverPort;
     private final EventLoopGroup group;
     private final boolean ownsGroup;
     private final Map<TcpEventType, BiConsumer<String, String>> eventCallbacks = new ConcurrentHashMap<>();
+    private final boolean binaryProtocol;
 
     private Channel channel;
     private volatile boolean connected;
@@ -48,6 +47,12 @@ public class EnhancedNettyTcpClient implements AutoCloseable {
     private String clientId;
 
     public EnhancedNettyTcpClient(String serverHost, int serverPort, String clientId, EventLoopGroup eventLoopGroup) {
+        this(serverHost, serverPort, clientId, eventLoopGroup, false);
+    }
+
+    public EnhancedNettyTcpClient(String serverHost, int serverPort, String clientId, EventLoopGroup eventLoopGroup,
+                                  boolean binaryProtocol) {
+        this.binaryProtocol = binaryProtocol;
         this.serverHost = serverHost;
         this.serverPort = serverPort;
         this.clientId = clientId;
@@ -99,18 +104,16 @@ public class EnhancedNettyTcpClient implements AutoCloseable {
         }
 
         MrcpEvent event = new MrcpEvent(clientId, eventId, eventType, data);
-        String jsonEvent = JSON.toJSONString(event);
-        log.info("发送EasyMrcp事件: {}", jsonEvent);
-        channel.writeAndFlush(jsonEvent);
+        log.info("发送EasyMrcp事件: {}", event);
+        channel.writeAndFlush(encodeEvent(event));
     }
 
     public void disconnect() {
         Channel currentChannel = channel;
         if (connected && currentChannel != null) {
             MrcpEvent event = new MrcpEvent(clientId, null, TcpEventType.ClientDisConnect, null);
-            String jsonEvent = JSON.toJSONString(event);
-            log.info("发送EasyMrcp事件: {}", jsonEvent);
-            currentChannel.writeAndFlush(jsonEvent).awaitUninterruptibly();
+            log.info("发送EasyMrcp事件: {}", event);
+            currentChannel.writeAndFlush(encodeEvent(event)).awaitUninterruptibly();
         }
         connected = false;
         if (currentChannel != null) {
@@ -127,6 +130,10 @@ public class EnhancedNettyTcpClient implements AutoCloseable {
         disconnect();
     }
 
+    private Object encodeEvent(MrcpEvent event) {
+        return binaryProtocol ? event : JSON.toJSONString(event);
+    }
+
     private void handleConnectFailure(Channel failedChannel) {
         connected = false;
         if (channel == failedChannel) {
@@ -173,7 +180,7 @@ public class EnhancedNettyTcpClient implements AutoCloseable {
         );
     }
 
-    private class ClientHandler extends SimpleChannelInboundHandler<String> {
+    private class ClientHandler extends SimpleChannelInboundHandler<Object> {
 
         @Override
         public void channelActive(ChannelHandlerContext ctx) {
@@ -188,7 +195,13 @@ public class EnhancedNettyTcpClient implements AutoCloseable {
         }
 
         @Override
-        protected void channelRead0(ChannelHandlerContext ctx, String message) {
+        protected void channelRead0(ChannelHandlerContext ctx, Object msg) {
+            if (msg instanceof MrcpEvent) {
+                MrcpEvent event = (MrcpEvent) msg;
+                handleStandardEvent(event.getEventId(), event.getEvent(), event.getData());
+                return;
+            }
+            String message = (String) msg;
             try {
                 handleServerMessage(message);
             } catch (Exception e) {
@@ -215,7 +228,7 @@ public class EnhancedNettyTcpClient implements AutoCloseable {
             }
 
             int magic = in.readInt();
-            if (magic != MAGIC_NUMBER) {
+            if (magic != MrcpBinaryCodec.JSON_MAGIC && magic != MrcpBinaryCodec.BINARY_MAGIC) {
                 in.resetReaderIndex();
                 in.skipBytes(1);
                 return;
@@ -232,19 +245,36 @@ public class EnhancedNettyTcpClient implements AutoCloseable {
                 return;
             }
 
-            byte[] bodyBytes = new byte[bodyLength];
-            in.readBytes(bodyBytes);
-            out.add(new String(bodyBytes, StandardCharsets.UTF_8));
+            if (magic == MrcpBinaryCodec.JSON_MAGIC) {
+                out.add(in.readCharSequence(bodyLength, StandardCharsets.UTF_8).toString());
+                return;
+            }
+            // 二进制帧直接解析为事件，命令响应只做确认，直接丢弃
+            int bodyEnd = in.readerIndex() + bodyLength;
+            try {
+                MrcpEvent event = MrcpBinaryCodec.readEvent(in.slice(in.readerIndex(), bodyLength));
+                if (event != null) {
+                    out.add(event);
+                }
+            } catch (RuntimeException e) {
+                log.error("EasyMrcp二进制消息解析失败, 长度: {}", bodyLength, e);
+            } finally {
+                in.readerIndex(bodyEnd);
+            }
         }
     }
 
-    private static class MessagePacketEncoder extends MessageToByteEncoder<String> {
+    private static class MessagePacketEncoder extends MessageToByteEncoder<Object> {
         @Override
-        protected void encode(ChannelHandlerContext ctx, String msg, ByteBuf out) {
-            byte[] bodyBytes = msg.getBytes(StandardCharsets.UTF_8);
-            out.writeInt(MAGIC_NUMBER);
-            out.writeInt(bodyBytes.length);
-            out.writeBytes(bodyBytes);
+        protected void encode(ChannelHandlerContext ctx, Object msg, ByteBuf out) {
+            if (msg instanceof MrcpEvent) {
+                MrcpBinaryCodec.writeEventFrame((MrcpEvent) msg, out);
+                return;
+            }
+            out.writeInt(MrcpBinaryCodec.JSON_MAGIC);
+            int lengthIndex = out.writerIndex();
+            out.writeInt(0);
+            out.setInt(lengthIndex, out.writeCharSequence((String) msg, StandardCharsets.UTF_8));
         }
     }
 }
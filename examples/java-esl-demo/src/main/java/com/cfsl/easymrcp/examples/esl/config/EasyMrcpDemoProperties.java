@@ -9,4 +9,5 @@ public class EasyMrcpDemoProperties {
     private String host;
     private int port;
     private String sipUser;
+    private boolean binaryProtocol;
 }
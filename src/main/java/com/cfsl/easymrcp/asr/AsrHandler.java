@@ -185,6 +185,10 @@ public abstract class AsrHandler implements MrcpConnection {
      */
     public abstract void asrClose();
 
+    /**
+     * 一句话识别检测到说话时重新创建asr客户端
+     * 厂商连接从预热池租用时，create()内即可回调onOpen释放countDownLatch，不再等待建连和握手
+     */
     private void reCreate() {
         countDownLatch = new CountDownLatch(1);
         this.create();
@@ -17,9 +17,11 @@ public class AsrText {
     private ScheduledFuture<?> scheduledFuture;
     private final ReentrantLock lock = new ReentrantLock();
     private AsrCallback xfyunAsrCallback;
+    private final String callId;
     String result = "";
 
-    public AsrText(AsrCallback xfyunAsrCallback) {
+    public AsrText(String callId, AsrCallback xfyunAsrCallback) {
+        this.callId = callId;
         this.xfyunAsrCallback = xfyunAsrCallback;
     }
 
@@ -43,9 +45,11 @@ public class AsrText {
             }
             // 创建新定时任务
             scheduledFuture = executor.schedule(() -> {
-                SipUtils.executeTask(() -> xfyunAsrCallback.apply(ASRConstant.Result, result, 0L));
                 lock.lock();
                 try {
+                    // 回调异步执行，先取出本段文本再清空
+                    String text = result;
+                    SipUtils.executeTask(callId, () -> xfyunAsrCallback.apply(ASRConstant.Result, text, 0L));
                     result = "";
                 } finally {
                     lock.unlock();
@@ -38,4 +38,6 @@ public class AliyunFunasrConfig extends AsrConfig {
     private Boolean semanticPunctuationEnabled;
     /** 是否开启服务端心跳事件。 */
     private Boolean heartbeat;
+    /** 预热连接在未开始任务前的空闲保留时间，单位毫秒，需小于服务端的空闲断开时间。 */
+    private long poolIdleTtlMs = 50000;
 }
@@ -3,11 +3,16 @@ package com.cfsl.easymrcp.asr.aliyunfunasr.dictation;
 import com.cfsl.easymrcp.asr.AsrHandler;
 import com.cfsl.easymrcp.asr.aliyunfunasr.AliyunFunasrConfig;
 import com.cfsl.easymrcp.mrcp.AsrCallback;
-import okhttp3.OkHttpClient;
-import okhttp3.Request;
-import okhttp3.WebSocket;
-import okhttp3.WebSocketListener;
-
+import com.cfsl.easymrcp.utils.SipUtils;
+import com.cfsl.easymrcp.utils.SpringUtils;
+import com.cfsl.easymrcp.ws.WsClientManager;
+import com.cfsl.easymrcp.ws.WsCodec;
+import com.cfsl.easymrcp.ws.WsConnection;
+import com.cfsl.easymrcp.ws.WsConnectionPool;
+import com.cfsl.easymrcp.ws.WsEndpoint;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.UUID;
 
 /**
@@ -19,12 +24,11 @@ public class AliyunFunasrDictationProcessor extends AsrHandler {
     private final AliyunFunasrConfig config;
     private final WebSocketFactory webSocketFactory;
 
-    private OkHttpClient client;
     private AliyunFunasrDictationWsClient wsClient;
-    private WebSocket webSocket;
+    private WsConnection webSocket;
 
     public AliyunFunasrDictationProcessor(AliyunFunasrConfig aliyunFunasrConfig) {
-        this(aliyunFunasrConfig, new DefaultWebSocketFactory());
+        this(aliyunFunasrConfig, new DefaultWebSocketFactory(aliyunFunasrConfig.getPoolIdleTtlMs()));
     }
 
     AliyunFunasrDictationProcessor(
@@ -36,12 +40,15 @@ public class AliyunFunasrDictationProcessor extends AsrHandler {
 
     @Override
     public void create() {
-        AsrCallback callbackProxy = (action, msg, audioDurationMs) -> {
+        // 上一句的任务已结束时，连接可以直接用于下一句
+        recycleFinishedSocket();
+        // websocket回调在netty io线程上，识别结果交给通话的事件邮箱处理
+        AsrCallback callbackProxy = (action, msg, audioDurationMs) -> SipUtils.executeTask(getCallId(), () -> {
             AsrCallback callback = getCallback();
             if (callback != null) {
                 callback.apply(action, msg, audioDurationMs);
             }
-        };
+        });
 
         wsClient = new AliyunFunasrDictationWsClient(
                 config,
@@ -53,16 +60,14 @@ public class AliyunFunasrDictationProcessor extends AsrHandler {
                 getInterruptEnable(),
                 getPushAsrRealtimeResult()
         );
-        client = webSocketFactory.createClient();
 
-        Request.Builder builder = new Request.Builder()
-                .url(config.getWebsocketUrl())
-                .header("Authorization", "Bearer " + config.getApiKey());
+        Map<String, String> headers = new LinkedHashMap<>();
+        headers.put("Authorization", "Bearer " + config.getApiKey());
         if (config.getWorkspaceId() != null && !config.getWorkspaceId().trim().isEmpty()) {
-            builder.header("X-DashScope-WorkSpace", config.getWorkspaceId());
+            headers.put("X-DashScope-WorkSpace", config.getWorkspaceId());
         }
 
-        webSocket = webSocketFactory.open(client, builder.build(), wsClient);
+        webSocket = webSocketFactory.open(config.getWebsocketUrl(), headers, wsClient);
     }
 
     @Override
@@ -81,6 +86,9 @@ public class AliyunFunasrDictationProcessor extends AsrHandler {
 
     @Override
     public void asrClose() {
+        if (recycleFinishedSocket()) {
+            return;
+        }
         if (wsClient != null && !wsClient.isFinishTaskSent()) {
             wsClient.sendFinishTask();
         }
@@ -91,29 +99,56 @@ public class AliyunFunasrDictationProcessor extends AsrHandler {
         }
         webSocket = null;
         wsClient = null;
+    }
 
-        if (client != null) {
-            client.dispatcher().executorService().shutdown();
-            client.connectionPool().evictAll();
-            client = null;
+    /**
+     * 任务已结束的连接归还预热池，未结束的连接保持原有的关闭流程
+     *
+     * @return 是否已归还
+     */
+    private boolean recycleFinishedSocket() {
+        if (wsClient == null || webSocket == null || !wsClient.isTaskFinished()) {
+            return false;
         }
+        webSocketFactory.recycle(webSocket);
+        webSocket = null;
+        wsClient = null;
+        return true;
     }
 
     interface WebSocketFactory {
-        OkHttpClient createClient();
+        WsConnection open(String url, Map<String, String> headers, WsCodec codec);
 
-        WebSocket open(OkHttpClient client, Request request, WebSocketListener listener);
+        /**
+         * 回收任务已结束的连接，默认直接关闭
+         */
+        default void recycle(WsConnection webSocket) {
+            webSocket.close(1000, "正常关闭");
+        }
     }
 
+    /**
+     * 从预热池租用连接，一句话识别结束后连接归还池中供下一句复用
+     */
     private static final class DefaultWebSocketFactory implements WebSocketFactory {
+        private static final String POOL_NAME = "aliyun-funasr";
+        private final long poolIdleTtlMs;
+        private WsConnectionPool pool;
+
+        private DefaultWebSocketFactory(long poolIdleTtlMs) {
+            this.poolIdleTtlMs = poolIdleTtlMs;
+        }
+
         @Override
-        public OkHttpClient createClient() {
-            return new OkHttpClient();
+        public WsConnection open(String url, Map<String, String> headers, WsCodec codec) {
+            pool = SpringUtils.getBean(WsClientManager.class)
+                    .pool(POOL_NAME, () -> new WsEndpoint(url, headers), poolIdleTtlMs);
+            return pool.lease(codec);
         }
 
         @Override
-        public WebSocket open(OkHttpClient client, Request request, WebSocketListener listener) {
-            return client.newWebSocket(request, listener);
+        public void recycle(WsConnection webSocket) {
+            pool.release(webSocket);
         }
     }
 }
@@ -5,21 +5,19 @@ import com.cfsl.easymrcp.asr.aliyunfunasr.AliyunFunasrConfig;
 import com.cfsl.easymrcp.common.EMConstant;
 import com.cfsl.easymrcp.mrcp.AsrCallback;
 import com.cfsl.easymrcp.utils.SipUtils;
+import com.cfsl.easymrcp.ws.WsCodec;
+import com.cfsl.easymrcp.ws.WsConnection;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
 import lombok.extern.slf4j.Slf4j;
-import okhttp3.Response;
-import okhttp3.WebSocket;
-import okhttp3.WebSocketListener;
-import okio.ByteString;
 
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 @Slf4j
-public class AliyunFunasrDictationWsClient extends WebSocketListener {
+public class AliyunFunasrDictationWsClient implements WsCodec {
 
     private final AliyunFunasrConfig config;
     private final String taskId;
@@ -31,9 +29,11 @@ public class AliyunFunasrDictationWsClient extends WebSocketListener {
     private final AtomicBoolean pushAsrRealtimeResult;
     private final AtomicBoolean terminalStateReached = new AtomicBoolean(false);
 
-    private WebSocket webSocket;
+    private WsConnection webSocket;
     private boolean paragraphOpen = true;
     private boolean finishTaskSent;
+    // 收到task-finished后连接可以开始新任务
+    private volatile boolean taskFinished;
 
     public AliyunFunasrDictationWsClient(
             AliyunFunasrConfig config,
@@ -55,10 +55,10 @@ public class AliyunFunasrDictationWsClient extends WebSocketListener {
     }
 
     @Override
-    public void onOpen(WebSocket webSocket, Response response) {
+    public void onOpen(WsConnection webSocket) {
         this.webSocket = webSocket;
         log.info("阿里云 FunASR 听写 WebSocket连接已建立, taskId={}, callId={}", taskId, callId);
-        boolean accepted = webSocket.send(buildRunTaskFrame().toString());
+        boolean accepted = webSocket.sendText(buildRunTaskFrame().toString());
         if (!accepted) {
             terminalStateReached.set(true);
             releaseStartLatch();
@@ -71,7 +71,7 @@ public class AliyunFunasrDictationWsClient extends WebSocketListener {
     }
 
     @Override
-    public void onMessage(WebSocket webSocket, String text) {
+    public void onText(WsConnection webSocket, String text) {
         JsonObject message;
         try {
             message = JsonParser.parseString(text).getAsJsonObject();
@@ -103,6 +103,7 @@ public class AliyunFunasrDictationWsClient extends WebSocketListener {
                 break;
             case "task-finished":
                 terminalStateReached.set(true);
+                taskFinished = true;
                 log.info("阿里云 FunASR 听写任务已结束, taskId={}, callId={}", taskId, callId);
                 break;
             case "task-failed":
@@ -117,27 +118,24 @@ public class AliyunFunasrDictationWsClient extends WebSocketListener {
     }
 
     @Override
-    public void onFailure(WebSocket webSocket, Throwable t, Response response) {
+    public void onFailure(WsConnection webSocket, Throwable t) {
         releaseStartLatch();
         terminalStateReached.set(true);
         log.error("阿里云 FunASR 听写 WebSocket异常, taskId={}, callId={}", taskId, callId, t);
-        if (response != null) {
-            response.close();
-        }
     }
 
     public void sendAudio(byte[] audio) {
         if (webSocket == null || audio == null) {
             return;
         }
-        webSocket.send(ByteString.of(audio));
+        webSocket.sendBinary(audio);
     }
 
     public void sendFinishTask() {
         if (webSocket == null || finishTaskSent) {
             return;
         }
-        boolean accepted = webSocket.send(buildFinishTaskFrame().toString());
+        boolean accepted = webSocket.sendText(buildFinishTaskFrame().toString());
         if (accepted) {
             finishTaskSent = true;
             log.info("阿里云 FunASR 听写 finish-task已发送, taskId={}, callId={}", taskId, callId);
@@ -158,6 +156,10 @@ public class AliyunFunasrDictationWsClient extends WebSocketListener {
         return finishTaskSent;
     }
 
+    public boolean isTaskFinished() {
+        return taskFinished;
+    }
+
     private void handleResultGenerated(JsonObject message) {
         JsonObject sentence = getSentence(message);
         if (sentence == null || getBoolean(sentence, "heartbeat")) {
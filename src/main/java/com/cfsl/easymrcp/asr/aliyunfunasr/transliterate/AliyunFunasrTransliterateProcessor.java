@@ -3,11 +3,14 @@ package com.cfsl.easymrcp.asr.aliyunfunasr.transliterate;
 import com.cfsl.easymrcp.asr.AsrHandler;
 import com.cfsl.easymrcp.asr.aliyunfunasr.AliyunFunasrConfig;
 import com.cfsl.easymrcp.mrcp.AsrCallback;
-import okhttp3.OkHttpClient;
-import okhttp3.Request;
-import okhttp3.WebSocket;
-import okhttp3.WebSocketListener;
-
+import com.cfsl.easymrcp.utils.SipUtils;
+import com.cfsl.easymrcp.utils.SpringUtils;
+import com.cfsl.easymrcp.ws.WsClientManager;
+import com.cfsl.easymrcp.ws.WsCodec;
+import com.cfsl.easymrcp.ws.WsConnection;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.UUID;
 
 /**
@@ -19,9 +22,8 @@ public class AliyunFunasrTransliterateProcessor extends AsrHandler {
     private final AliyunFunasrConfig config;
     private final WebSocketFactory webSocketFactory;
 
-    private OkHttpClient client;
     private AliyunFunasrTransliterateWsClient wsClient;
-    private WebSocket webSocket;
+    private WsConnection webSocket;
 
     public AliyunFunasrTransliterateProcessor(AliyunFunasrConfig aliyunFunasrConfig) {
         this(aliyunFunasrConfig, new DefaultWebSocketFactory());
@@ -39,12 +41,13 @@ public class AliyunFunasrTransliterateProcessor extends AsrHandler {
      */
     @Override
     public void create() {
-        AsrCallback callbackProxy = (action, msg, audioDurationMs) -> {
+        // websocket回调在netty io线程上，识别结果交给通话的事件邮箱处理
+        AsrCallback callbackProxy = (action, msg, audioDurationMs) -> SipUtils.executeTask(getCallId(), () -> {
             AsrCallback callback = getCallback();
             if (callback != null) {
                 callback.apply(action, msg, audioDurationMs);
             }
-        };
+        });
 
         wsClient = new AliyunFunasrTransliterateWsClient(
                 config,
@@ -55,16 +58,14 @@ public class AliyunFunasrTransliterateProcessor extends AsrHandler {
                 getCountDownLatch(),
                 getPushAsrRealtimeResult()
         );
-        client = webSocketFactory.createClient();
 
-        Request.Builder builder = new Request.Builder()
-                .url(config.getWebsocketUrl())
-                .header("Authorization", "Bearer " + config.getApiKey());
+        Map<String, String> headers = new LinkedHashMap<>();
+        headers.put("Authorization", "Bearer " + config.getApiKey());
         if (config.getWorkspaceId() != null && !config.getWorkspaceId().trim().isEmpty()) {
-            builder.header("X-DashScope-WorkSpace", config.getWorkspaceId());
+            headers.put("X-DashScope-WorkSpace", config.getWorkspaceId());
         }
 
-        webSocket = webSocketFactory.open(client, builder.build(), wsClient);
+        webSocket = webSocketFactory.open(config.getWebsocketUrl(), headers, wsClient);
     }
 
     /**
@@ -97,29 +98,16 @@ public class AliyunFunasrTransliterateProcessor extends AsrHandler {
         }
         webSocket = null;
         wsClient = null;
-
-        if (client != null) {
-            client.dispatcher().executorService().shutdown();
-            client.connectionPool().evictAll();
-            client = null;
-        }
     }
 
     interface WebSocketFactory {
-        OkHttpClient createClient();
-
-        WebSocket open(OkHttpClient client, Request request, WebSocketListener listener);
+        WsConnection open(String url, Map<String, String> headers, WsCodec codec);
     }
 
     private static final class DefaultWebSocketFactory implements WebSocketFactory {
         @Override
-        public OkHttpClient createClient() {
-            return new OkHttpClient();
-        }
-
-        @Override
-        public WebSocket open(OkHttpClient client, Request request, WebSocketListener listener) {
-            return client.newWebSocket(request, listener);
+        public WsConnection open(String url, Map<String, String> headers, WsCodec codec) {
+            return SpringUtils.getBean(WsClientManager.class).connect(url, headers, codec);
         }
     }
 }
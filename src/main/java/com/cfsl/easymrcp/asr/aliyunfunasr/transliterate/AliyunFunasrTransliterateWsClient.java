@@ -5,15 +5,13 @@ import com.cfsl.easymrcp.asr.aliyunfunasr.AliyunFunasrConfig;
 import com.cfsl.easymrcp.common.EMConstant;
 import com.cfsl.easymrcp.mrcp.AsrCallback;
 import com.cfsl.easymrcp.utils.SipUtils;
+import com.cfsl.easymrcp.ws.WsCodec;
+import com.cfsl.easymrcp.ws.WsConnection;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
 import lombok.extern.slf4j.Slf4j;
-import okhttp3.Response;
-import okhttp3.WebSocket;
-import okhttp3.WebSocketListener;
-import okio.ByteString;
 
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -22,7 +20,7 @@ import java.util.concurrent.atomic.AtomicBoolean;
 /**
  * 阿里云 FunASR 长时间转写 WebSocket 协议适配器。
  */
-public class AliyunFunasrTransliterateWsClient extends WebSocketListener {
+public class AliyunFunasrTransliterateWsClient implements WsCodec {
 
     private final AliyunFunasrConfig config;
     private final String taskId;
@@ -33,7 +31,7 @@ public class AliyunFunasrTransliterateWsClient extends WebSocketListener {
     private final AtomicBoolean pushAsrRealtimeResult;
     private final AtomicBoolean terminalStateReached = new AtomicBoolean(false);
 
-    private WebSocket webSocket;
+    private WsConnection webSocket;
     private boolean finishTaskSent;
     private long audioDurationMs;
 
@@ -55,9 +53,9 @@ public class AliyunFunasrTransliterateWsClient extends WebSocketListener {
     }
 
     @Override
-    public void onOpen(WebSocket webSocket, Response response) {
+    public void onOpen(WsConnection webSocket) {
         this.webSocket = webSocket;
-        boolean accepted = webSocket.send(buildRunTaskFrame().toString());
+        boolean accepted = webSocket.sendText(buildRunTaskFrame().toString());
         if (!accepted) {
             terminalStateReached.set(true);
             releaseStartLatch();
@@ -68,7 +66,7 @@ public class AliyunFunasrTransliterateWsClient extends WebSocketListener {
     }
 
     @Override
-    public void onMessage(WebSocket webSocket, String text) {
+    public void onText(WsConnection webSocket, String text) {
         JsonObject message;
         try {
             message = JsonParser.parseString(text).getAsJsonObject();
@@ -116,27 +114,24 @@ public class AliyunFunasrTransliterateWsClient extends WebSocketListener {
     }
 
     @Override
-    public void onFailure(WebSocket webSocket, Throwable t, Response response) {
+    public void onFailure(WsConnection webSocket, Throwable t) {
         releaseStartLatch();
         terminalStateReached.set(true);
         log.error("阿里云 FunASR 长时间转写 WebSocket 异常，taskId={}", taskId, t);
-        if (response != null) {
-            response.close();
-        }
     }
 
     public void sendAudio(byte[] audio) {
         if (webSocket == null || audio == null) {
             return;
         }
-        webSocket.send(ByteString.of(audio));
+        webSocket.sendBinary(audio);
     }
 
     public void sendFinishTask() {
         if (webSocket == null || finishTaskSent) {
             return;
         }
-        boolean accepted = webSocket.send(buildFinishTaskFrame().toString());
+        boolean accepted = webSocket.sendText(buildFinishTaskFrame().toString());
         if (accepted) {
             finishTaskSent = true;
         }
@@ -2,12 +2,13 @@ package com.cfsl.easymrcp.asr.funasr;
 
 import com.cfsl.easymrcp.asr.AsrHandler;
 import com.cfsl.easymrcp.mrcp.AsrCallback;
-import com.cfsl.easymrcp.utils.SipUtils;
+import com.cfsl.easymrcp.utils.SpringUtils;
+import com.cfsl.easymrcp.ws.WsClientManager;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.extern.slf4j.Slf4j;
 
-import java.net.URI;
+import java.util.Collections;
 
 @Data
 @Slf4j
@@ -36,13 +37,14 @@ public class FunAsrProcessor extends AsrHandler {
                     getCallback().apply(action, msg, audioDurationMs);
                 }
             };
-            funasrWsClient = new FunasrWsClient(new URI(wsAddress), funasrCallback, stop, getCountDownLatch(), getCallId(), getPushAsrRealtimeResult());
+            funasrWsClient = new FunasrWsClient(funasrCallback, stop, getCountDownLatch(), getCallId(), getPushAsrRealtimeResult());
             funasrWsClient.setMode(funasrConfig.getMode());
             funasrWsClient.setHotwords(funasrConfig.getHotwords());
             funasrWsClient.setFsthotwords(funasrConfig.getFsthotwords());
             funasrWsClient.setStrChunkSize(funasrConfig.getStrChunkSize());
             funasrWsClient.setChunkInterval(funasrConfig.getChunkInterval());
-            funasrWsClient.connect();
+            funasrWsClient.setConnection(SpringUtils.getBean(WsClientManager.class)
+                    .connect(wsAddress, Collections.emptyMap(), funasrWsClient));
             log.info("wsAddress:{}", wsAddress);
         } catch (Exception e) {
             log.error(e.getMessage(), e);
@@ -14,15 +14,14 @@ import com.cfsl.easymrcp.asr.ASRConstant;
 import com.cfsl.easymrcp.common.EMConstant;
 import com.cfsl.easymrcp.mrcp.AsrCallback;
 import com.cfsl.easymrcp.utils.SipUtils;
+import com.cfsl.easymrcp.ws.WsCodec;
+import com.cfsl.easymrcp.ws.WsConnection;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
-import org.java_websocket.client.WebSocketClient;
-import org.java_websocket.handshake.ServerHandshake;
 import org.json.simple.JSONArray;
 import org.json.simple.JSONObject;
 import org.json.simple.parser.JSONParser;
 
-import java.net.URI;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.regex.Matcher;
@@ -30,7 +29,7 @@ import java.util.regex.Pattern;
 
 @Slf4j
 /** This example demonstrates how to connect to websocket server. */
-public class FunasrWsClient extends WebSocketClient {
+public class FunasrWsClient implements WsCodec {
     private String callId;
     private boolean isParagraphOver;
     private boolean iseof = true;
@@ -49,9 +48,10 @@ public class FunasrWsClient extends WebSocketClient {
     CountDownLatch countDownLatch;
     // 是否实时推送asr内容
     AtomicBoolean pushAsrRealtimeResult;
+    @Setter
+    WsConnection connection;
 
-    public FunasrWsClient(URI serverURI, AsrCallback callback, Boolean stop, CountDownLatch countDownLatch, String callId, AtomicBoolean pushAsrRealtimeResult) {
-        super(serverURI);
+    public FunasrWsClient(AsrCallback callback, Boolean stop, CountDownLatch countDownLatch, String callId, AtomicBoolean pushAsrRealtimeResult) {
         this.callback = callback;
         this.stop = stop;
         this.countDownLatch = countDownLatch;
@@ -102,7 +102,7 @@ public class FunasrWsClient extends WebSocketClient {
             log.info("sendJson: " + obj);
             // return;
 
-            send(obj.toString());
+            connection.sendText(obj.toString());
 
             return;
         } catch (Exception e) {
@@ -120,9 +120,9 @@ public class FunasrWsClient extends WebSocketClient {
             log.info("sendEof: " + obj);
             // return;
 
-            send(obj.toString());
+            connection.sendText(obj.toString());
             iseof = true;
-            close();
+            connection.close(1000, "");
         } catch (Exception e) {
             e.printStackTrace();
         }
@@ -134,18 +134,19 @@ public class FunasrWsClient extends WebSocketClient {
 
 
     public void recPcm(byte[] pcmData) {
-        send(pcmData);
+        connection.sendBinary(pcmData);
     }
 
     @Override
-    public void onOpen(ServerHandshake handshakedata) {
+    public void onOpen(WsConnection connection) {
+        this.connection = connection;
         start();
         // 必须执行，此时asr创建成功，并且开始识别
         countDownLatch.countDown();
     }
 
     @Override
-    public void onMessage(String message) {
+    public void onText(WsConnection connection, String message) {
         JSONObject jsonObject = new JSONObject();
         JSONParser jsonParser = new JSONParser();
         log.info("received: " + message);
@@ -153,14 +154,14 @@ public class FunasrWsClient extends WebSocketClient {
             jsonObject = (JSONObject) jsonParser.parse(message);
             String result = jsonObject.get("text").toString();
             log.info("text: " + result);
-            if (isParagraphOver) SipUtils.executeTask(() -> callback.apply(ASRConstant.Interrupt, "打断", 0L));
+            if (isParagraphOver) SipUtils.executeTask(callId, () -> callback.apply(ASRConstant.Interrupt, "打断", 0L));
             isParagraphOver = false;
             if (pushAsrRealtimeResult.get() && !result.isEmpty()) {
                 // 实时推送asr识别结果
                 SipUtils.sendAsrRealTimeResultEvent(callId, EMConstant.XFYUN, result);
             }
             if (!stop && (jsonObject.containsKey("timestamp") || (jsonObject.containsKey("mode") && jsonObject.get("mode").equals("2pass-offline")))) {
-                SipUtils.executeTask(() -> callback.apply(ASRConstant.Result, result, 0L));
+                SipUtils.executeTask(callId, () -> callback.apply(ASRConstant.Result, result, 0L));
                 isParagraphOver = true;
             }
             if (jsonObject.containsKey("timestamp")) {
@@ -170,20 +171,19 @@ public class FunasrWsClient extends WebSocketClient {
             e.printStackTrace();
         }
         if (iseof && mode.equals("offline") && !jsonObject.containsKey("is_final")) {
-            close();
+            connection.close(1000, "");
         }
 
         if (iseof && mode.equals("offline") && jsonObject.containsKey("is_final") && jsonObject.get("is_final").equals("false")) {
-            close();
+            connection.close(1000, "");
         }
     }
 
     @Override
-    public void onClose(int code, String reason, boolean remote) {
+    public void onClose(WsConnection connection, int code, String reason) {
 
         log.info(
-                "Connection closed by "
-                        + (remote ? "remote peer" : "us")
+                "Connection closed,"
                         + " Code: "
                         + code
                         + " Reason: "
@@ -191,9 +191,9 @@ public class FunasrWsClient extends WebSocketClient {
     }
 
     @Override
-    public void onError(Exception ex) {
+    public void onFailure(WsConnection connection, Throwable ex) {
         log.info("ex: " + ex);
         ex.printStackTrace();
-        // if the error is fatal then onClose will be called additionally
+        // 连接已不可用，不会再回调onClose
     }
 }
@@ -18,10 +18,12 @@ public class TxCloudAsrClient {
     TxCloudAsrConfig txCloudConfig;
     SpeechRecognizer speechRecognizer;
     AsrCallback txCloudCallback;
+    String callId;
     long currentTimeMillis;
 
-    public TxCloudAsrClient(TxCloudAsrConfig txCloudConfig, AsrCallback txCloudCallback) {
+    public TxCloudAsrClient(TxCloudAsrConfig txCloudConfig, String callId, AsrCallback txCloudCallback) {
         this.txCloudConfig = txCloudConfig;
+        this.callId = callId;
         this.txCloudCallback = txCloudCallback;
     }
 
@@ -52,7 +54,7 @@ public class TxCloudAsrClient {
             @Override
             public void onSentenceEnd(SpeechRecognizerResponse response) {//一段话识别结束，slice_type=2,voice_text_str 为稳态结果(该段识别结果不再变化)
                 log.info("{} voice_id:{},{}", "onSentenceEnd", response.getVoiceId(), new Gson().toJson(response));
-                SipUtils.executeTask(() -> txCloudCallback.apply(ASRConstant.Result, response.getResult().getVoiceTextStr(), 0L));
+                SipUtils.executeTask(callId, () -> txCloudCallback.apply(ASRConstant.Result, response.getResult().getVoiceTextStr(), 0L));
             }
 
             @Override
@@ -27,7 +27,7 @@ public class TxCloudAsrProcessor extends AsrHandler {
                 getCallback().apply(action, msg, audioDurationMs);
             }
         };
-        txCloudClient = new TxCloudAsrClient(txCloudConfig, txCloudCallback);
+        txCloudClient = new TxCloudAsrClient(txCloudConfig, getCallId(), txCloudCallback);
         txCloudClient.create();
         // 必须执行，此时asr创建成功，并且开始识别
         // 腾讯云sdk已经进行了封装，解决了异步问题，同样需要执行countDown
@@ -19,4 +19,6 @@ public class XfyunAsrConfig extends AsrConfig {
     public String APPID;
     public String APISecret;
     public String APIKey;
+    // 一句话识别预热连接的空闲保留时间(ms)，服务端约10秒收不到数据会断开连接
+    public long poolIdleTtlMs = 8000;
 }
\ No newline at end of file
@@ -3,11 +3,13 @@ package com.cfsl.easymrcp.asr.xfyun.dictation;
 import com.cfsl.easymrcp.asr.AsrHandler;
 import com.cfsl.easymrcp.asr.xfyun.XfyunAsrConfig;
 import com.cfsl.easymrcp.mrcp.AsrCallback;
+import com.cfsl.easymrcp.utils.SpringUtils;
+import com.cfsl.easymrcp.ws.WsClientManager;
+import com.cfsl.easymrcp.ws.WsConnection;
+import com.cfsl.easymrcp.ws.WsEndpoint;
 import lombok.extern.slf4j.Slf4j;
-import okhttp3.OkHttpClient;
-import okhttp3.Request;
-import okhttp3.WebSocket;
-import java.util.concurrent.TimeUnit;
+
+import java.util.function.Supplier;
 
 /**
  * 讯飞云实时语音听写（一句话语音识别）
@@ -15,43 +17,27 @@ import java.util.concurrent.TimeUnit;
  */
 @Slf4j
 public class XfyunDictationAsrProcessor extends AsrHandler {
+    private static final String POOL_NAME = "xfyun-iat";
     private String hostUrl; //中英文，http url 不支持解析 ws/wss schema
     // private static final String hostUrl = "https://iat-niche-api.xfyun.cn/v2/iat";//小语种
     private String appid; //在控制台-我的应用获取
     private String apiSecret; //在控制台-我的应用-语音听写（流式版）获取
     private String apiKey; //在控制台-我的应用-语音听写（流式版）获取
+    private long poolIdleTtlMs;
     AsrCallback xfyunCallback;
     XfyunDictationWsClient xfyunWsClient;
-    WebSocket webSocket;
-    private OkHttpClient client;
+    WsConnection webSocket;
 
     public XfyunDictationAsrProcessor(XfyunAsrConfig xfyunAsrConfig) {
         this.hostUrl = xfyunAsrConfig.getHostUrl();
         this.appid = xfyunAsrConfig.getAPPID();
         this.apiSecret = xfyunAsrConfig.getAPISecret();
         this.apiKey = xfyunAsrConfig.getAPIKey();
+        this.poolIdleTtlMs = xfyunAsrConfig.getPoolIdleTtlMs();
     }
 
     @Override
     public void create() {
-        // 构建鉴权url
-        String authUrl = null;
-        try {
-            authUrl = XfyunDictationWsClient.getAuthUrl(hostUrl, apiKey, apiSecret);
-        } catch (Exception e) {
-            log.error(e.getMessage(), e);
-        }
-        client = new OkHttpClient.Builder()
-                .connectTimeout(10, TimeUnit.SECONDS)
-                .readTimeout(30, TimeUnit.SECONDS)
-                .writeTimeout(30, TimeUnit.SECONDS)
-                .build();
-        //将url中的 schema http://和https://分别替换为ws:// 和 wss://
-        String url = authUrl.toString().replace("http://", "ws://").replace("https://", "wss://");
-        //System.out.println(url);
-        Request request = new Request.Builder().url(url).build();
-        // System.out.println(client.newCall(request).execute());
-        //System.out.println("url===>" + url);
         xfyunCallback = new AsrCallback() {
             @Override
             public void apply(String action, String msg, long audioDurationMs) {
@@ -63,7 +49,26 @@ public class XfyunDictationAsrProcessor extends AsrHandler {
         xfyunWsClient.setAppid(appid);
         xfyunWsClient.setApiSecret(apiSecret);
         xfyunWsClient.setApiKey(apiKey);
-        webSocket = client.newWebSocket(request, xfyunWsClient);
+        // 从预热池租用已握手的连接，会话结束后由服务端/客户端关闭，不归还
+        webSocket = SpringUtils.getBean(WsClientManager.class)
+                .pool(POOL_NAME, endpoint(hostUrl, apiKey, apiSecret), poolIdleTtlMs)
+                .lease(xfyunWsClient);
+    }
+
+    /**
+     * 构建鉴权url，并将schema http://和https://分别替换为ws:// 和 wss://
+     * 签名带有时间戳，每次建连都重新生成
+     */
+    private static Supplier<WsEndpoint> endpoint(String hostUrl, String apiKey, String apiSecret) {
+        return () -> {
+            String authUrl;
+            try {
+                authUrl = XfyunDictationWsClient.getAuthUrl(hostUrl, apiKey, apiSecret);
+            } catch (Exception e) {
+                throw new IllegalStateException("讯飞鉴权url生成失败", e);
+            }
+            return new WsEndpoint(authUrl.replace("http://", "ws://").replace("https://", "wss://"));
+        };
     }
 
     @Override
@@ -87,14 +92,7 @@ public class XfyunDictationAsrProcessor extends AsrHandler {
             log.info("Xfyun webSocket connection closed");
             webSocket = null;
         }
-        
-        if (client != null) {
-            client.dispatcher().executorService().shutdown();
-            client.connectionPool().evictAll();
-            log.info("Xfyun OkHttpClient resources released");
-            client = null;
-        }
-        
+
         xfyunWsClient = null;
     }
 }
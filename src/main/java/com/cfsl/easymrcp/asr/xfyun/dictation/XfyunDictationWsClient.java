@@ -4,19 +4,16 @@ import com.cfsl.easymrcp.asr.ASRConstant;
 import com.cfsl.easymrcp.common.EMConstant;
 import com.cfsl.easymrcp.mrcp.AsrCallback;
 import com.cfsl.easymrcp.utils.SipUtils;
+import com.cfsl.easymrcp.ws.WsCodec;
+import com.cfsl.easymrcp.ws.WsConnection;
 import com.google.gson.Gson;
 import com.google.gson.JsonObject;
 import lombok.Data;
-import lombok.EqualsAndHashCode;
 import lombok.extern.slf4j.Slf4j;
 import okhttp3.HttpUrl;
-import okhttp3.Response;
-import okhttp3.WebSocket;
-import okhttp3.WebSocketListener;
 
 import javax.crypto.Mac;
 import javax.crypto.spec.SecretKeySpec;
-import java.io.IOException;
 import java.net.URL;
 import java.nio.charset.Charset;
 import java.text.SimpleDateFormat;
@@ -30,8 +27,7 @@ import java.util.concurrent.atomic.AtomicBoolean;
  */
 @Data
 @Slf4j
-@EqualsAndHashCode(callSuper = true)
-public class XfyunDictationWsClient extends WebSocketListener {
+public class XfyunDictationWsClient implements WsCodec {
     private String callId;
     private boolean isParagraphOver = true;
     private String hostUrl; //中英文，http url 不支持解析 ws/wss schema
@@ -50,7 +46,7 @@ public class XfyunDictationWsClient extends WebSocketListener {
     // 结束时间
     private static Date dateEnd = new Date();
     private static final SimpleDateFormat sdf = new SimpleDateFormat("yyy-MM-dd HH:mm:ss.SSS");
-    WebSocket webSocket;
+    WsConnection webSocket;
     AsrCallback callback;
     Boolean stop;
     CountDownLatch countDownLatch;
@@ -68,8 +64,7 @@ public class XfyunDictationWsClient extends WebSocketListener {
     }
 
     @Override
-    public void onOpen(WebSocket webSocket, Response response) {
-        super.onOpen(webSocket, response);
+    public void onOpen(WsConnection webSocket) {
         this.webSocket = webSocket;
         start();
         dateBegin = new Date();
@@ -78,8 +73,7 @@ public class XfyunDictationWsClient extends WebSocketListener {
     }
 
     @Override
-    public void onMessage(WebSocket webSocket, String text) {
-        super.onMessage(webSocket, text);
+    public void onText(WsConnection webSocket, String text) {
         //log.info(text);
         XfyunDictationWsClient.ResponseData resp = json.fromJson(text, XfyunDictationWsClient.ResponseData.class);
         if (resp != null) {
@@ -97,7 +91,7 @@ public class XfyunDictationWsClient extends WebSocketListener {
                     try {
                         decoder.decode(te);
                         String midResult = decoder.toString();
-                        if (isParagraphOver && interruptEnable.get() && !midResult.isEmpty()) SipUtils.executeTask(() -> callback.apply(ASRConstant.Interrupt, "打断", 0L));
+                        if (isParagraphOver && interruptEnable.get() && !midResult.isEmpty()) SipUtils.executeTask(callId, () -> callback.apply(ASRConstant.Interrupt, "打断", 0L));
                         isParagraphOver = false;
                         log.info("中间识别结果 ==》" + midResult);
                         if (pushAsrRealtimeResult.get() && !midResult.isEmpty()) {
@@ -117,7 +111,7 @@ public class XfyunDictationWsClient extends WebSocketListener {
                     String result = decoder.toString();
                     log.info("最终识别结果 ==》" + result);
                     log.info("本次识别sid ==》" + resp.getSid());
-                    if (!stop && !result.isEmpty()) SipUtils.executeTask(() -> callback.apply(ASRConstant.Result, result, 0L));
+                    if (!stop && !result.isEmpty()) SipUtils.executeTask(callId, () -> callback.apply(ASRConstant.Result, result, 0L));
                     isParagraphOver = true;
                     decoder.discard();
                     webSocket.close(1000, "Normal closure after completion");
@@ -129,31 +123,8 @@ public class XfyunDictationWsClient extends WebSocketListener {
     }
 
     @Override
-    public void onFailure(WebSocket webSocket, Throwable t, Response response) {
-        super.onFailure(webSocket, t, response);
+    public void onFailure(WsConnection webSocket, Throwable t) {
         log.error("WebSocket failure", t);
-        try {
-            if (null != response) {
-                int code = response.code();
-                log.info("onFailure code:" + code);
-                try {
-                    if (response.body() != null) {
-                        log.info("onFailure body:" + response.body().string());
-                    }
-                } catch (IOException e) {
-                    log.error("Error reading response body", e);
-                } finally {
-                    response.close(); // 确保关闭Response
-                }
-                
-                if (101 != code) {
-                    log.info("connection failed");
-                    webSocket.close(1000, "Connection failed");
-                }
-            }
-        } catch (Exception e) {
-            log.error("Error in onFailure handler", e);
-        }
     }
 
     public void start() {
@@ -187,7 +158,7 @@ public class XfyunDictationWsClient extends WebSocketListener {
         frame.add("common", common);
         frame.add("business", business);
         frame.add("data", data);
-        webSocket.send(frame.toString());
+        webSocket.sendText(frame.toString());
     }
 
     public void sendBuffer(byte[] buffer) {
@@ -198,7 +169,7 @@ public class XfyunDictationWsClient extends WebSocketListener {
         data1.addProperty("encoding", "raw");
         data1.addProperty("audio", Base64.getEncoder().encodeToString(Arrays.copyOf(buffer, buffer.length)));
         frame1.add("data", data1);
-        webSocket.send(frame1.toString());
+        webSocket.sendText(frame1.toString());
     }
 
     public void sendEof() {
@@ -209,7 +180,7 @@ public class XfyunDictationWsClient extends WebSocketListener {
         data2.addProperty("format", "audio/L16;rate=8000");
         data2.addProperty("encoding", "raw");
         frame2.add("data", data2);
-        webSocket.send(frame2.toString());
+        webSocket.sendText(frame2.toString());
     }
 
     public static String getAuthUrl(String hostUrl, String apiKey, String apiSecret) throws Exception {
@@ -3,9 +3,11 @@ package com.cfsl.easymrcp.asr.xfyun.transliterate;
 import com.cfsl.easymrcp.asr.AsrHandler;
 import com.cfsl.easymrcp.asr.xfyun.XfyunAsrConfig;
 import com.cfsl.easymrcp.mrcp.AsrCallback;
+import com.cfsl.easymrcp.utils.SpringUtils;
+import com.cfsl.easymrcp.ws.WsClientManager;
+import com.cfsl.easymrcp.ws.WsConnection;
 
-import java.net.URI;
-import java.net.URISyntaxException;
+import java.util.Collections;
 
 /**
  * TODO 精准程度需要进一步优化
@@ -20,7 +22,7 @@ public class XfyunTransliterateAsrProcessor extends AsrHandler {
     private String HOST;
     AsrCallback xfyunAsrCallback;
     XfyunTransliterateWsClient xfyunWsClient;
-    XfyunTransliterateWsClient.MyWebSocketClient client;
+    WsConnection client;
 
     public XfyunTransliterateAsrProcessor(XfyunAsrConfig xfyunAsrConfig) {
         this.APPID = xfyunAsrConfig.getAPPID();
@@ -30,16 +32,11 @@ public class XfyunTransliterateAsrProcessor extends AsrHandler {
 
     @Override
     public void create() {
-        try {
-            String BASE_URL = "wss://" + HOST;
-            String ORIGIN = "https://" + HOST;
-            URI url = new URI(BASE_URL + XfyunTransliterateWsClient.getHandShakeParams(APPID, APIKey));
-            DraftWithOrigin draft = new DraftWithOrigin(ORIGIN);
-            client = new XfyunTransliterateWsClient.MyWebSocketClient(url, draft, getCountDownLatch());
-            client.connect();
-        } catch (URISyntaxException e) {
-            throw new RuntimeException(e);
-        }
+        String BASE_URL = "wss://" + HOST;
+        String ORIGIN = "https://" + HOST;
+        String url = BASE_URL + XfyunTransliterateWsClient.getHandShakeParams(APPID, APIKey);
+        client = SpringUtils.getBean(WsClientManager.class).connect(url, Collections.singletonMap("Origin", ORIGIN),
+                new XfyunTransliterateWsClient.TransliterateCodec(getCountDownLatch()));
 
         xfyunAsrCallback = new AsrCallback() {
             @Override
@@ -47,7 +44,7 @@ public class XfyunTransliterateAsrProcessor extends AsrHandler {
                 getCallback().apply(action, msg, audioDurationMs);
             }
         };
-        xfyunWsClient = new XfyunTransliterateWsClient(xfyunAsrCallback, stop, client);
+        xfyunWsClient = new XfyunTransliterateWsClient(xfyunAsrCallback, getCallId(), stop, client);
     }
 
     @Override
@@ -63,6 +60,6 @@ public class XfyunTransliterateAsrProcessor extends AsrHandler {
     @Override
     public void asrClose() {
         xfyunWsClient.sendEof();
-        xfyunWsClient.client.close();
+        xfyunWsClient.client.close(1000, "");
     }
 }
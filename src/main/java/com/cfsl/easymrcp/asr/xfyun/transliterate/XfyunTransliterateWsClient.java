@@ -5,20 +5,13 @@ import com.alibaba.fastjson.JSONArray;
 import com.alibaba.fastjson.JSONObject;
 import com.cfsl.easymrcp.asr.AsrText;
 import com.cfsl.easymrcp.mrcp.AsrCallback;
+import com.cfsl.easymrcp.ws.WsCodec;
+import com.cfsl.easymrcp.ws.WsConnection;
+import io.netty.buffer.ByteBuf;
 import lombok.extern.slf4j.Slf4j;
-import org.java_websocket.client.WebSocketClient;
-import org.java_websocket.drafts.Draft;
-import org.java_websocket.handshake.ServerHandshake;
-
-import javax.net.ssl.SSLContext;
-import javax.net.ssl.TrustManager;
-import javax.net.ssl.X509TrustManager;
-import java.io.UnsupportedEncodingException;
-import java.net.URI;
+
 import java.net.URLEncoder;
-import java.nio.ByteBuffer;
-import java.security.cert.CertificateException;
-import java.security.cert.X509Certificate;
+import java.nio.charset.StandardCharsets;
 import java.text.SimpleDateFormat;
 import java.util.Date;
 import java.util.Objects;
@@ -32,13 +25,13 @@ import java.util.concurrent.CountDownLatch;
 public class XfyunTransliterateWsClient {
     private static final SimpleDateFormat sdf = new SimpleDateFormat("yyy-MM-dd HH:mm:ss.SSS");
     Boolean stop;
-    MyWebSocketClient client;
+    WsConnection client;
     static AsrText asrText;
 
-    public XfyunTransliterateWsClient(AsrCallback xfyunAsrCallback, Boolean stop, MyWebSocketClient client) {
+    public XfyunTransliterateWsClient(AsrCallback xfyunAsrCallback, String callId, Boolean stop, WsConnection client) {
         this.stop = stop;
         this.client = client;
-        asrText = new AsrText(xfyunAsrCallback);
+        asrText = new AsrText(callId, xfyunAsrCallback);
     }
 
     public void sendBuffer(byte[] buffer) {
@@ -64,38 +57,33 @@ public class XfyunTransliterateWsClient {
         return "";
     }
 
-    public static void send(WebSocketClient client, byte[] bytes) {
-        if (client.isClosed()) {
+    public static void send(WsConnection client, byte[] bytes) {
+        if (!client.isOpen()) {
             throw new RuntimeException("client connect closed!");
         }
 
-        client.send(bytes);
+        client.sendBinary(bytes);
     }
 
     public static String getCurrentTimeStr() {
         return sdf.format(new Date());
     }
 
-    static class MyWebSocketClient extends WebSocketClient {
+    static class TransliterateCodec implements WsCodec {
 
         private CountDownLatch handshakeSuccess;
-        private CountDownLatch connectClose;
 
-        public MyWebSocketClient(URI serverUri, Draft protocolDraft, CountDownLatch handshakeSuccess) {
-            super(serverUri, protocolDraft);
+        public TransliterateCodec(CountDownLatch handshakeSuccess) {
             this.handshakeSuccess = handshakeSuccess;
-            if(serverUri.toString().contains("wss")){
-                trustAllHosts(this);
-            }
         }
 
         @Override
-        public void onOpen(ServerHandshake handshake) {
+        public void onOpen(WsConnection connection) {
             log.info(getCurrentTimeStr() + "\t连接建立成功！");
         }
 
         @Override
-        public void onMessage(String msg) {
+        public void onText(WsConnection connection, String msg) {
             JSONObject msgObj = JSON.parseObject(msg);
             String action = msgObj.getString("action");
             if (Objects.equals("started", action)) {
@@ -115,53 +103,18 @@ public class XfyunTransliterateWsClient {
         }
 
         @Override
-        public void onError(Exception e) {
+        public void onFailure(WsConnection connection, Throwable e) {
             log.info(getCurrentTimeStr() + "\t连接发生错误：" + e.getMessage() + ", " + new Date());
-            e.printStackTrace();
         }
 
         @Override
-        public void onClose(int arg0, String arg1, boolean arg2) {
+        public void onClose(WsConnection connection, int code, String reason) {
             log.info(getCurrentTimeStr() + "\t链接关闭");
         }
 
         @Override
-        public void onMessage(ByteBuffer bytes) {
-            try {
-                log.info(getCurrentTimeStr() + "\t服务端返回：" + new String(bytes.array(), "UTF-8"));
-            } catch (UnsupportedEncodingException e) {
-                e.printStackTrace();
-            }
-        }
-
-        public void trustAllHosts(XfyunTransliterateWsClient.MyWebSocketClient appClient) {
-            log.info("wss");
-            TrustManager[] trustAllCerts = new TrustManager[]{new X509TrustManager() {
-                @Override
-                public X509Certificate[] getAcceptedIssuers() {
-                    return new X509Certificate[]{};
-                }
-
-                @Override
-                public void checkClientTrusted(X509Certificate[] arg0, String arg1) throws CertificateException {
-                    // TODO Auto-generated method stub
-
-                }
-
-                @Override
-                public void checkServerTrusted(X509Certificate[] arg0, String arg1) throws CertificateException {
-                    // TODO Auto-generated method stub
-
-                }
-            }};
-
-            try {
-                SSLContext sc = SSLContext.getInstance("TLS");
-                sc.init(null, trustAllCerts, new java.security.SecureRandom());
-                appClient.setSocket(sc.getSocketFactory().createSocket());
-            } catch (Exception e) {
-                e.printStackTrace();
-            }
+        public void onBinary(WsConnection connection, ByteBuf bytes) {
+            log.info(getCurrentTimeStr() + "\t服务端返回：" + bytes.toString(StandardCharsets.UTF_8));
         }
     }
 
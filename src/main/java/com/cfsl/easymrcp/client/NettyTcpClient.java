@@ -3,22 +3,21 @@ package com.cfsl.easymrcp.client;
 import com.alibaba.fastjson.JSON;
 import com.alibaba.fastjson.JSONObject;
 import com.cfsl.easymrcp.asr.ASRConstant;
+import com.cfsl.easymrcp.tcp.MrcpBinaryCodec;
 import com.cfsl.easymrcp.tcp.MrcpEvent;
+import com.cfsl.easymrcp.tcp.NettyMessageDecoder;
+import com.cfsl.easymrcp.tcp.NettyMessageEncoder;
 import com.cfsl.easymrcp.tcp.TcpEventType;
+import com.cfsl.easymrcp.tcp.TcpResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.netty.bootstrap.Bootstrap;
-import io.netty.buffer.ByteBuf;
-import io.netty.buffer.Unpooled;
 import io.netty.channel.*;
 import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.channel.socket.SocketChannel;
 import io.netty.channel.socket.nio.NioSocketChannel;
-import io.netty.handler.codec.ByteToMessageDecoder;
-import io.netty.handler.codec.MessageToByteEncoder;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 
-import java.nio.charset.StandardCharsets;
-import java.util.List;
 import java.util.Scanner;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
@@ -33,11 +32,10 @@ public class NettyTcpClient {
     private static final String SERVER_HOST = "localhost";
     private static final int SERVER_PORT = 9090;
     
-    // 魔数，用于标识消息的开始，固定为 0x66AABB99（与服务端一致）
-    private static final int MAGIC_NUMBER = 0x66AABB99;
-    
     private final String serverHost;
     private final int serverPort;
+    // 是否使用二进制消息体，服务端按客户端发送的帧格式回复
+    private final boolean binaryMode;
     private EventLoopGroup group;
     private Channel channel;
     private boolean connected = false;
@@ -47,8 +45,13 @@ public class NettyTcpClient {
     private final CountDownLatch connectLatch = new CountDownLatch(1);
     
     public NettyTcpClient(String serverHost, int serverPort) {
+        this(serverHost, serverPort, false);
+    }
+    
+    public NettyTcpClient(String serverHost, int serverPort, boolean binaryMode) {
         this.serverHost = serverHost;
         this.serverPort = serverPort;
+        this.binaryMode = binaryMode;
         // 通话建立后将pbx的通话uuid作为EasyMrcp本轮通话的唯一ID
         this.clientId = "63af808f-ce0e-47a3-9c8a-43880b88840a";
     }
@@ -69,9 +72,10 @@ public class NettyTcpClient {
                     @Override
                     protected void initChannel(SocketChannel ch) {
                         ChannelPipeline pipeline = ch.pipeline();
-                        // 添加解码器和编码器
-                        pipeline.addLast(new MessagePacketDecoder());
-                        pipeline.addLast(new MessagePacketEncoder());
+                        ch.attr(MrcpBinaryCodec.BINARY_MODE).set(binaryMode);
+                        // 添加解码器和编码器，与服务端使用同一套编解码
+                        pipeline.addLast(new NettyMessageDecoder());
+                        pipeline.addLast(new NettyMessageEncoder(new ObjectMapper()));
                         // 添加业务处理器
                         pipeline.addLast(new ClientHandler());
                     }
@@ -132,6 +136,13 @@ public class NettyTcpClient {
             // 创建TcpEvent对象
             MrcpEvent event = new MrcpEvent(clientId, null,eventType, data);
             
+            if (binaryMode) {
+                // 二进制模式直接发送事件对象，由编码器写入缓冲区
+                System.out.println("发送事件: " + event);
+                channel.writeAndFlush(event);
+                return;
+            }
+            
             // 转换为JSON
             String jsonEvent = JSON.toJSONString(event);
             System.out.println("发送事件: " + jsonEvent);
@@ -242,7 +253,7 @@ public class NettyTcpClient {
     /**
      * 客户端处理器
      */
-    private class ClientHandler extends SimpleChannelInboundHandler<String> {
+    private class ClientHandler extends SimpleChannelInboundHandler<Object> {
         
         @Override
         public void channelActive(ChannelHandlerContext ctx) {
@@ -257,9 +268,18 @@ public class NettyTcpClient {
         }
         
         @Override
-        protected void channelRead0(ChannelHandlerContext ctx, String message) {
-            System.out.println("收到响应: " + message);
+        protected void channelRead0(ChannelHandlerContext ctx, Object msg) {
+            System.out.println("收到响应: " + msg);
             
+            if (msg instanceof MrcpEvent) {
+                MrcpEvent event = (MrcpEvent) msg;
+                handleStandardEvent(event.getEvent(), event.getData());
+                return;
+            }
+            if (msg instanceof TcpResponse) {
+                return;
+            }
+            String message = (String) msg;
             try {
                 // 解析JSON
                 JSONObject jsonObject = JSONObject.parseObject(message);
@@ -280,81 +300,6 @@ public class NettyTcpClient {
         }
     }
     
-    /**
-     * 消息解码器
-     */
-    private static class MessagePacketDecoder extends ByteToMessageDecoder {
-        
-        private static final int HEADER_LENGTH = 8;
-        
-        @Override
-        protected void decode(ChannelHandlerContext ctx, ByteBuf in, List<Object> out) {
-            // 标记当前读取位置
-            in.markReaderIndex();
-            
-            // 如果数据不足以解析头部，则等待更多数据
-            if (in.readableBytes() < HEADER_LENGTH) {
-                return;
-            }
-            
-            // 读取魔数
-            int magic = in.readInt();
-            
-            // 验证魔数
-            if (magic != MAGIC_NUMBER) {
-                in.resetReaderIndex();
-                in.skipBytes(1);
-                return;
-            }
-            
-            // 读取消息体长度
-            int bodyLength = in.readInt();
-            
-            // 长度校验
-            if (bodyLength < 0 || bodyLength > 10 * 1024 * 1024) {
-                ctx.close();
-                return;
-            }
-            
-            // 如果数据不足以解析消息体，则重置读取位置，等待更多数据
-            if (in.readableBytes() < bodyLength) {
-                in.resetReaderIndex();
-                return;
-            }
-            
-            // 读取消息体
-            byte[] bodyBytes = new byte[bodyLength];
-            in.readBytes(bodyBytes);
-            
-            // 解析为字符串
-            String messageContent = new String(bodyBytes, StandardCharsets.UTF_8);
-            
-            // 输出解析后的消息
-            out.add(messageContent);
-        }
-    }
-    
-    /**
-     * 消息编码器
-     */
-    private static class MessagePacketEncoder extends MessageToByteEncoder<String> {
-        
-        @Override
-        protected void encode(ChannelHandlerContext ctx, String msg, ByteBuf out) {
-            byte[] bodyBytes = msg.getBytes(StandardCharsets.UTF_8);
-            int bodyLength = bodyBytes.length;
-            
-            // 写入魔数
-            out.writeInt(MAGIC_NUMBER);
-            
-            // 写入消息体长度
-            out.writeInt(bodyLength);
-            
-            // 写入消息体
-            out.writeBytes(bodyBytes);
-        }
-    }
-    
     public static void main(String[] args) {
         String host = SERVER_HOST;
         int port = SERVER_PORT;
@@ -370,8 +315,10 @@ public class NettyTcpClient {
                 System.err.println("端口格式错误，使用默认端口: " + SERVER_PORT);
             }
         }
+        // 第三个参数为binary时使用二进制消息体
+        boolean binaryMode = args.length >= 3 && "binary".equalsIgnoreCase(args[2]);
         
-        NettyTcpClient client = new NettyTcpClient(host, port);
+        NettyTcpClient client = new NettyTcpClient(host, port, binaryMode);
         if (client.connect()) {
             client.startCommandLine();
         }
@@ -2,25 +2,36 @@ package com.cfsl.easymrcp.common;
 
 import com.aliyun.oss.OSS;
 import com.aliyun.oss.OSSClientBuilder;
+import com.aliyun.oss.model.ListObjectsRequest;
 import com.aliyun.oss.model.OSSObject;
+import com.aliyun.oss.model.OSSObjectSummary;
+import com.aliyun.oss.model.ObjectListing;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.security.MessageDigest;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CompletableFuture;
@@ -47,14 +58,43 @@ public class AudioCacheService {
     private String cacheDir;
     @Value("${audio.cache.retain-days:1}")
     private int retainDays;
+    // 内存缓存的PCM总大小上限，0表示不使用内存缓存
+    @Value("${audio.cache.memory-max-mb:64}")
+    private int memoryMaxMb;
+    // 以内存映射方式读取缓存文件，PCM由页缓存承载，多路通话共享同一份数据且不占堆
+    @Value("${audio.cache.mmap-enabled:true}")
+    private boolean mmapEnabled;
 
     private volatile OSS ossClient;
+    private PcmMemoryCache memoryCache;
 
+    @PostConstruct
+    public void init() {
+        if (memoryMaxMb > 0) {
+            memoryCache = new PcmMemoryCache(memoryMaxMb * 1024L * 1024L);
+        }
+    }
+
+    /**
+     * 获取录音PCM：先查内存缓存，再查本地文件，都没有时从OSS下载
+     * 文件只在下载时做完整的SHA-256校验，校验通过后原子移动到缓存路径，之后只检查文件大小
+     */
     public CachedAudio getOrDownload(String objectName) {
         AudioObjectName metadata = AudioObjectName.parse(objectName, allowedPrefix);
+        PcmMemoryCache memory = memoryCache;
+        CachedAudio cached = memory == null ? null : memory.get(metadata.getObjectName());
+        if (cached != null) {
+            return cached;
+        }
         Path target = cachePath(metadata);
-        if (isValid(target, metadata)) {
-            return readAudio(target, metadata);
+        if (isCached(target, metadata)) {
+            try {
+                return remember(metadata, readAudio(target, metadata));
+            } catch (IllegalArgumentException e) {
+                // 文件头已损坏，删除后重新下载
+                log.warn("录音缓存文件损坏，重新下载: {}", target);
+                deleteQuietly(target);
+            }
         }
         CompletableFuture<CachedAudio> current = new CompletableFuture<>();
         CompletableFuture<CachedAudio> running = downloads.putIfAbsent(objectName, current);
@@ -66,10 +106,10 @@ public class AudioCacheService {
             }
         }
         try {
-            if (!isValid(target, metadata)) {
+            if (!isCached(target, metadata)) {
                 download(metadata, target);
             }
-            CachedAudio audio = readAudio(target, metadata);
+            CachedAudio audio = remember(metadata, readAudio(target, metadata));
             current.complete(audio);
             return audio;
         } catch (RuntimeException e) {
@@ -80,6 +120,32 @@ public class AudioCacheService {
         }
     }
 
+    /**
+     * 列出前缀下的全部录音objectName，前缀必须位于允许下载的范围内
+     */
+    public List<String> listObjects(String prefix) {
+        if (!enabled) {
+            throw new IllegalStateException("录音 OSS 缓存未启用");
+        }
+        if (prefix == null || !prefix.startsWith(allowedPrefix) || prefix.contains("..") || prefix.contains("\\")) {
+            throw new IllegalArgumentException("非法录音前缀");
+        }
+        List<String> objectNames = new ArrayList<>();
+        String marker = null;
+        ObjectListing listing;
+        do {
+            listing = client().listObjects(new ListObjectsRequest(bucket)
+                    .withPrefix(prefix).withMarker(marker).withMaxKeys(1000));
+            for (OSSObjectSummary summary : listing.getObjectSummaries()) {
+                if (summary.getKey().endsWith(".wav")) {
+                    objectNames.add(summary.getKey());
+                }
+            }
+            marker = listing.getNextMarker();
+        } while (listing.isTruncated());
+        return objectNames;
+    }
+
     protected void download(AudioObjectName metadata, Path target) {
         if (!enabled) {
             throw new IllegalStateException("录音 OSS 缓存未启用");
@@ -111,6 +177,9 @@ public class AudioCacheService {
 
     private CachedAudio readAudio(Path path, AudioObjectName metadata) {
         try {
+            if (mmapEnabled) {
+                return new CachedAudio(mapPcm(path), metadata.getCharCount());
+            }
             byte[] wav = Files.readAllBytes(path);
             return new CachedAudio(extractPcm(wav), metadata.getCharCount());
         } catch (IOException e) {
@@ -118,6 +187,72 @@ public class AudioCacheService {
         }
     }
 
+    /**
+     * 只读映射WAV的data块
+     * 缓存文件只会被原子替换或删除，不会原地改写，已建立的映射在文件删除后仍然有效；
+     * 映射在ByteBuf及其切片都不再被引用、被GC回收时解除。
+     */
+    static ByteBuf mapPcm(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            ByteBuffer header = ByteBuffer.allocate(44);
+            readFully(channel, header, 0);
+            if (!isPcmWav(header.array())) {
+                throw new IllegalArgumentException("录音不是 8kHz/16bit/mono PCM WAV");
+            }
+            ByteBuffer chunk = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+            long offset = 12;
+            while (offset + 8 <= fileSize) {
+                chunk.clear();
+                readFully(channel, chunk, offset);
+                String id = new String(chunk.array(), 0, 4, java.nio.charset.StandardCharsets.US_ASCII);
+                int length = chunk.getInt(4);
+                long dataOffset = offset + 8;
+                if ("data".equals(id) && length >= 0 && dataOffset + length <= fileSize) {
+                    MappedByteBuffer pcm = channel.map(FileChannel.MapMode.READ_ONLY, dataOffset, length);
+                    return Unpooled.wrappedBuffer(pcm);
+                }
+                offset = dataOffset + length + (length & 1);
+            }
+            throw new IllegalArgumentException("WAV 缺少 data 块");
+        }
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) {
+                throw new IllegalArgumentException("WAV 文件不完整");
+            }
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException ignored) {
+        }
+    }
+
+    private CachedAudio remember(AudioObjectName metadata, CachedAudio audio) {
+        PcmMemoryCache memory = memoryCache;
+        if (memory != null) {
+            memory.put(metadata.getObjectName(), audio);
+        }
+        return audio;
+    }
+
+    /**
+     * 缓存路径上的文件都是校验通过后才移动过来的，这里只检查文件大小
+     */
+    private boolean isCached(Path path, AudioObjectName metadata) {
+        try {
+            return Files.isRegularFile(path) && Files.size(path) == metadata.getSize();
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
     private boolean isValid(Path path, AudioObjectName metadata) {
         try {
             if (!Files.isRegularFile(path) || Files.size(path) != metadata.getSize()) {
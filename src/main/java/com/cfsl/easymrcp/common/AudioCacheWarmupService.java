@@ -0,0 +1,170 @@
+package com.cfsl.easymrcp.common;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * 录音缓存预热
+ * 新活动上线前把开场白等录音提前下载、校验并载入内存缓存，避免首批通话在TTS线程上等待OSS下载，
+ * 或因下载失败回退到实时TTS。下载并发受专用线程池大小限制，不占用TTS线程。
+ */
+@Slf4j
+@Component
+public class AudioCacheWarmupService {
+    // 保留最近的预热任务数量，供查询进度
+    private static final int MAX_TASKS = 32;
+
+    private final AudioCacheService cacheService;
+
+    // 同时下载的录音数量
+    @Value("${audio.cache.warmup.concurrency:4}")
+    private int concurrency;
+    // 启动后自动预热的objectName，逗号分隔
+    @Value("${audio.cache.warmup.startup-objects:}")
+    private String startupObjects;
+    // 启动后自动预热的前缀，逗号分隔
+    @Value("${audio.cache.warmup.startup-prefixes:}")
+    private String startupPrefixes;
+
+    private ExecutorService executor;
+    private final Map<String, AudioCacheWarmupTask> tasks = new LinkedHashMap<String, AudioCacheWarmupTask>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, AudioCacheWarmupTask> eldest) {
+            return size() > MAX_TASKS;
+        }
+    };
+
+    public AudioCacheWarmupService(AudioCacheService cacheService) {
+        this.cacheService = cacheService;
+    }
+
+    @PostConstruct
+    public void init() {
+        int threads = Math.max(1, concurrency);
+        AtomicInteger index = new AtomicInteger();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "audio-cache-warmup-" + index.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        pool.allowCoreThreadTimeOut(true);
+        executor = pool;
+    }
+
+    /**
+     * 应用启动完成后预热配置中的录音
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmupOnStartup() {
+        List<String> objectNames = split(startupObjects);
+        List<String> prefixes = split(startupPrefixes);
+        if (objectNames.isEmpty() && prefixes.isEmpty()) {
+            return;
+        }
+        AudioCacheWarmupTask task = warmup(objectNames, prefixes);
+        log.info("启动预热录音缓存, taskId={}, objectNames={}, prefixes={}", task.getId(), objectNames.size(), prefixes);
+    }
+
+    /**
+     * 异步预热录音缓存，立即返回任务，可通过{@link #getTask(String)}查询进度
+     *
+     * @param objectNames 录音objectName
+     * @param prefixes    OSS前缀，前缀下的全部录音一并预热
+     */
+    public AudioCacheWarmupTask warmup(Collection<String> objectNames, Collection<String> prefixes) {
+        Set<String> targets = new LinkedHashSet<>(clean(objectNames));
+        List<String> targetPrefixes = clean(prefixes);
+        if (targets.isEmpty() && targetPrefixes.isEmpty()) {
+            throw new IllegalArgumentException("objectNames 和 prefix 不能同时为空");
+        }
+        AudioCacheWarmupTask task = new AudioCacheWarmupTask(UUID.randomUUID().toString());
+        synchronized (tasks) {
+            tasks.put(task.getId(), task);
+        }
+        executor.execute(() -> {
+            for (String prefix : targetPrefixes) {
+                try {
+                    targets.addAll(cacheService.listObjects(prefix));
+                } catch (RuntimeException e) {
+                    log.warn("列出录音前缀失败: {}, reason={}", prefix, e.getMessage());
+                    task.recordFailure(prefix, e);
+                }
+            }
+            task.start(targets.size());
+            for (String objectName : targets) {
+                executor.execute(() -> prefetch(task, objectName));
+            }
+        });
+        return task;
+    }
+
+    public AudioCacheWarmupTask getTask(String id) {
+        synchronized (tasks) {
+            return tasks.get(id);
+        }
+    }
+
+    public List<AudioCacheWarmupTask> getTasks() {
+        synchronized (tasks) {
+            List<AudioCacheWarmupTask> recent = new ArrayList<>(tasks.values());
+            Collections.reverse(recent);
+            return recent;
+        }
+    }
+
+    private void prefetch(AudioCacheWarmupTask task, String objectName) {
+        boolean finished;
+        try {
+            cacheService.getOrDownload(objectName);
+            finished = task.succeed();
+        } catch (RuntimeException e) {
+            log.warn("预热录音缓存失败: {}, reason={}", objectName, e.getMessage());
+            finished = task.fail(objectName, e);
+        }
+        if (finished) {
+            log.info("录音缓存预热完成, taskId={}, 成功: {}, 失败: {}", task.getId(), task.getSucceeded(), task.getFailed());
+        }
+    }
+
+    private static List<String> clean(Collection<String> values) {
+        if (values == null) {
+            return Collections.emptyList();
+        }
+        return values.stream().filter(StringUtils::hasText).map(String::trim).distinct().collect(Collectors.toList());
+    }
+
+    private static List<String> split(String value) {
+        return clean(Arrays.asList(StringUtils.commaDelimitedListToStringArray(value)));
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.cfsl.easymrcp.common;
+
+import lombok.Getter;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 一次录音缓存预热的进度
+ * 失败原因只保留前若干条，避免大批量失败时占用过多内存。
+ */
+public class AudioCacheWarmupTask {
+    private static final int MAX_FAILURES = 100;
+
+    public enum State {
+        /** 正在列出前缀下的录音 */
+        LISTING,
+        /** 正在下载 */
+        RUNNING,
+        /** 全部处理完成 */
+        FINISHED
+    }
+
+    @Getter
+    private final String id;
+    @Getter
+    private final long startedAt = System.currentTimeMillis();
+    @Getter
+    private volatile State state = State.LISTING;
+    @Getter
+    private volatile int total;
+    @Getter
+    private volatile long finishedAt;
+    private final AtomicInteger succeeded = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+    private final Map<String, String> failures = new LinkedHashMap<>();
+
+    AudioCacheWarmupTask(String id) {
+        this.id = id;
+    }
+
+    public int getSucceeded() {
+        return succeeded.get();
+    }
+
+    public int getFailed() {
+        return failed.get();
+    }
+
+    /**
+     * objectName/前缀 -> 失败原因
+     */
+    public Map<String, String> getFailures() {
+        synchronized (failures) {
+            return Collections.unmodifiableMap(new LinkedHashMap<>(failures));
+        }
+    }
+
+    void start(int total) {
+        this.total = total;
+        state = State.RUNNING;
+        if (total == 0) {
+            finish();
+        }
+    }
+
+    /**
+     * @return 本次调用是否使任务完成
+     */
+    boolean succeed() {
+        succeeded.incrementAndGet();
+        return checkFinished();
+    }
+
+    /**
+     * @return 本次调用是否使任务完成
+     */
+    boolean fail(String objectName, Throwable cause) {
+        failed.incrementAndGet();
+        recordFailure(objectName, cause);
+        return checkFinished();
+    }
+
+    /**
+     * 记录不计入总数的失败，如前缀列表失败
+     */
+    void recordFailure(String key, Throwable cause) {
+        synchronized (failures) {
+            if (failures.size() < MAX_FAILURES) {
+                failures.put(key, cause.getMessage());
+            }
+        }
+    }
+
+    private boolean checkFinished() {
+        return succeeded.get() + failed.get() >= total && finish();
+    }
+
+    private synchronized boolean finish() {
+        if (state == State.FINISHED) {
+            return false;
+        }
+        finishedAt = System.currentTimeMillis();
+        state = State.FINISHED;
+        return true;
+    }
+}
@@ -1,11 +1,91 @@
 package com.cfsl.easymrcp.common;
 
-import lombok.AllArgsConstructor;
+import com.cfsl.easymrcp.rtp.AudioCodecUtil;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import lombok.AccessLevel;
 import lombok.Getter;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 缓存录音的PCM数据
+ * data为只读缓冲区，可能位于堆内存，也可能是映射的缓存文件(由页缓存承载，不占堆)。
+ * 同一录音在多路通话间共享，播放时只取切片，不要修改data的索引。
+ * G.711编码结果按需生成并随录音缓存，同一录音只编码一次，编码结果计入所在内存缓存的容量。
+ */
 @Getter
-@AllArgsConstructor
 public class CachedAudio {
-    private final byte[] pcm;
+    private final ByteBuf data;
     private final int charCount;
+    // payloadType -> 编码后的只读RTP负载
+    private final Map<Integer, ByteBuf> encoded = new ConcurrentHashMap<>(2);
+    // 编码结果占用的字节数
+    @Getter(AccessLevel.NONE)
+    private final AtomicLong encodedBytes = new AtomicLong();
+    // 新增编码结果后通知所在的内存缓存重新计算容量
+    @Getter(AccessLevel.NONE)
+    private volatile Runnable resizeListener;
+
+    public CachedAudio(byte[] pcm, int charCount) {
+        this(Unpooled.wrappedBuffer(pcm), charCount);
+    }
+
+    public CachedAudio(ByteBuf data, int charCount) {
+        this.data = data.asReadOnly();
+        this.charCount = charCount;
+    }
+
+    /**
+     * 复制一份PCM数据，播放请直接使用{@link #getData()}
+     */
+    public byte[] getPcm() {
+        return ByteBufUtil.getBytes(data);
+    }
+
+    /**
+     * 获取(首次调用时编码)PCMA/PCMU负载，可直接按帧发送
+     *
+     * @param payloadType {@link AudioCodecUtil#PT_PCMA}或{@link AudioCodecUtil#PT_PCMU}
+     */
+    public ByteBuf encoded(int payloadType) {
+        ByteBuf payload = encoded.get(payloadType);
+        if (payload != null) {
+            return payload;
+        }
+        boolean[] created = new boolean[1];
+        payload = encoded.computeIfAbsent(payloadType, type -> {
+            ByteBuf buf = Unpooled.buffer(data.readableBytes() / 2);
+            AudioCodecUtil.encode(data, buf, type);
+            encodedBytes.addAndGet(buf.readableBytes());
+            created[0] = true;
+            return buf.asReadOnly();
+        });
+        Runnable listener = resizeListener;
+        if (created[0] && listener != null) {
+            listener.run();
+        }
+        return payload;
+    }
+
+    /**
+     * PCM字节数
+     */
+    public int size() {
+        return data.readableBytes();
+    }
+
+    /**
+     * 占用的内存字节数，PCM加上已生成的编码结果
+     */
+    public long memorySize() {
+        return data.readableBytes() + encodedBytes.get();
+    }
+
+    void setResizeListener(Runnable resizeListener) {
+        this.resizeListener = resizeListener;
+    }
 }
@@ -0,0 +1,88 @@
+package com.cfsl.easymrcp.common;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 已校验录音的内存缓存
+ * 按录音占用的总字节数(PCM加上随录音缓存的G.711编码结果)限制大小，超出时淘汰最久未播放的录音。
+ * 缓存项可能是映射的文件，淘汰后等正在播放的切片都释放、对象被回收时才解除映射。
+ * objectName 中带有文件的 SHA-256，同名录音内容不会变化，缓存项无需失效检查。
+ */
+class PcmMemoryCache {
+    private final long maxBytes;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalBytes;
+
+    PcmMemoryCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    synchronized CachedAudio get(String objectName) {
+        Entry entry = entries.get(objectName);
+        return entry == null ? null : entry.audio;
+    }
+
+    synchronized void put(String objectName, CachedAudio audio) {
+        Entry entry = new Entry(audio);
+        // 先挂监听再取大小，之后完成的编码都会通过resized补记
+        audio.setResizeListener(() -> resized(objectName, entry));
+        long size = audio.memorySize();
+        if (size > maxBytes) {
+            return;
+        }
+        entry.bytes = size;
+        Entry previous = entries.put(objectName, entry);
+        if (previous != null) {
+            totalBytes -= previous.bytes;
+        }
+        totalBytes += size;
+        evict();
+    }
+
+    /**
+     * 缓存项生成了新的编码结果，按新的占用重新计数并淘汰
+     */
+    private synchronized void resized(String objectName, Entry entry) {
+        // 已被淘汰或替换的缓存项不再计数
+        if (entries.get(objectName) != entry) {
+            return;
+        }
+        long size = entry.audio.memorySize();
+        totalBytes += size - entry.bytes;
+        entry.bytes = size;
+        if (size > maxBytes) {
+            entries.remove(objectName);
+            totalBytes -= size;
+            return;
+        }
+        evict();
+    }
+
+    private void evict() {
+        Iterator<Map.Entry<String, Entry>> eldest = entries.entrySet().iterator();
+        while (totalBytes > maxBytes && eldest.hasNext()) {
+            totalBytes -= eldest.next().getValue().bytes;
+            eldest.remove();
+        }
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    synchronized long totalBytes() {
+        return totalBytes;
+    }
+
+    private static final class Entry {
+        private final CachedAudio audio;
+        // 计入totalBytes的字节数
+        private long bytes;
+
+        private Entry(CachedAudio audio) {
+            this.audio = audio;
+        }
+    }
+}
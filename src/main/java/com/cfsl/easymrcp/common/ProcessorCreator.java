@@ -74,6 +74,8 @@ public class ProcessorCreator {
     RtpAsrProperties rtpAsrProperties;
     @Autowired
     MrcpManage mrcpManage;
+    @Autowired
+    TtsResultCache ttsResultCache;
 
     public AsrHandler getAsrHandler(String selectedAsrMode) {
         AsrHandler asrHandler = createAsrHandler(selectedAsrMode);
@@ -141,7 +143,7 @@ public class ProcessorCreator {
      */
     public TtsProcessor getTtsProcessor(String id) {
         TtsHandler ttsHandler = mrcpManage.getTtsHandler(id);
-        TtsProcessor ttsProcessor = new TtsProcessor(executorService);
+        TtsProcessor ttsProcessor = new TtsProcessor(executorService, null, ttsResultCache);
         ttsProcessor.setTtsHandler(ttsHandler);
         return ttsProcessor;
     }
@@ -189,6 +191,7 @@ public class ProcessorCreator {
         ttsEngine.setTtsVersion(ttsVersion);
         ttsProcessor.setTtsEngine(ttsEngineId, ttsEngine);
         ttsEngine.setTtsHandler(ttsHandler);
+        ttsEngine.setEngineName(ttsEngineName);
         if (voice != null && !voice.isEmpty()) {
             ttsEngine.setVoice(voice);
         }
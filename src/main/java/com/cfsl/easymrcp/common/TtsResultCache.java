@@ -0,0 +1,106 @@
+package com.cfsl.easymrcp.common;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 实时TTS合成结果缓存
+ * 按 hash(引擎, 音色, 重采样配置, 文本) 缓存厂商首次合成的PCM，之后相同的Speak直接播放缓存，不再调用厂商。
+ * 适合确认语、等待提示、固定数字播报等重复文本；只缓存正常结束的合成，单条超过上限的结果不缓存。
+ */
+@Slf4j
+@Component
+public class TtsResultCache {
+    @Value("${tts.result-cache.enabled:false}")
+    private boolean enabled;
+    // 缓存的PCM总大小上限
+    @Value("${tts.result-cache.max-mb:32}")
+    private int maxMb;
+    // 单条合成结果的大小上限，超过时不缓存
+    @Getter
+    @Value("${tts.result-cache.max-entry-kb:1024}")
+    private int maxEntryKb;
+
+    private PcmMemoryCache cache;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong stores = new AtomicLong();
+    private final AtomicLong charsSaved = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        if (enabled && maxMb > 0) {
+            cache = new PcmMemoryCache(maxMb * 1024L * 1024L);
+            log.info("实时TTS结果缓存已开启，上限: {}MB，单条上限: {}KB", maxMb, maxEntryKb);
+        }
+    }
+
+    public boolean isActive() {
+        return cache != null;
+    }
+
+    /**
+     * 缓存键，任一参数不同都会得到不同的合成结果
+     */
+    public static String key(String engine, String voice, String reSample, String text) {
+        String source = String.join("\u0000", String.valueOf(engine), String.valueOf(voice),
+                String.valueOf(reSample), text);
+        return AudioCacheService.sha256(source.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 查询缓存并统计命中率
+     *
+     * @param charCount 文本字数，命中时计入节省的厂商字数
+     */
+    public CachedAudio get(String key, int charCount) {
+        PcmMemoryCache current = cache;
+        CachedAudio audio = current == null ? null : current.get(key);
+        if (audio == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        charsSaved.addAndGet(charCount);
+        return audio;
+    }
+
+    /**
+     * 保存一次正常结束的合成结果
+     */
+    public void put(String key, byte[] pcm, int charCount) {
+        PcmMemoryCache current = cache;
+        if (current == null || pcm.length == 0 || pcm.length > maxEntryKb * 1024) {
+            return;
+        }
+        current.put(key, new CachedAudio(pcm, charCount));
+        stores.incrementAndGet();
+    }
+
+    /**
+     * 命中率、节省的厂商字数等统计
+     */
+    public Map<String, Object> stats() {
+        long hit = hits.get();
+        long total = hit + misses.get();
+        PcmMemoryCache current = cache;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", current != null);
+        stats.put("hits", hit);
+        stats.put("misses", total - hit);
+        stats.put("hitRatio", total == 0 ? 0.0 : (double) hit / total);
+        stats.put("charsSaved", charsSaved.get());
+        stats.put("stores", stores.get());
+        stats.put("entries", current == null ? 0 : current.size());
+        stats.put("bytes", current == null ? 0 : current.totalBytes());
+        return stats;
+    }
+}
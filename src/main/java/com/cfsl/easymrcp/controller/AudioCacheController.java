@@ -0,0 +1,62 @@
+package com.cfsl.easymrcp.controller;
+
+import com.cfsl.easymrcp.common.AudioCacheWarmupService;
+import com.cfsl.easymrcp.common.AudioCacheWarmupTask;
+import com.cfsl.easymrcp.common.TtsResultCache;
+import com.cfsl.easymrcp.controller.vo.AudioCacheWarmupVo;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 录音缓存接口：预热接口在活动上线前调用，使首批通话直接命中本地缓存；另提供实时合成结果缓存的统计。
+ */
+@RestController
+@RequestMapping("/api/audio-cache")
+public class AudioCacheController {
+    private final AudioCacheWarmupService warmupService;
+    private final TtsResultCache ttsResultCache;
+
+    public AudioCacheController(AudioCacheWarmupService warmupService, TtsResultCache ttsResultCache) {
+        this.warmupService = warmupService;
+        this.ttsResultCache = ttsResultCache;
+    }
+
+    @PostMapping("/warmup")
+    public ResponseEntity<?> warmup(@RequestBody AudioCacheWarmupVo request) {
+        List<String> prefixes = request.getPrefix() == null
+                ? Collections.emptyList() : Collections.singletonList(request.getPrefix());
+        try {
+            return ResponseEntity.accepted().body(warmupService.warmup(request.getObjectNames(), prefixes));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Collections.singletonMap("message", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/warmup")
+    public List<AudioCacheWarmupTask> tasks() {
+        return warmupService.getTasks();
+    }
+
+    @GetMapping("/warmup/{id}")
+    public ResponseEntity<AudioCacheWarmupTask> task(@PathVariable String id) {
+        AudioCacheWarmupTask task = warmupService.getTask(id);
+        return task == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(task);
+    }
+
+    /**
+     * 实时合成结果缓存的命中率和节省的厂商字数
+     */
+    @GetMapping("/tts-results")
+    public Map<String, Object> ttsResultStats() {
+        return ttsResultCache.stats();
+    }
+}
@@ -0,0 +1,26 @@
+package com.cfsl.easymrcp.controller;
+
+import com.cfsl.easymrcp.mrcp.MrcpManage;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+/**
+ * MRCP事件线程池接口：提交数、邮箱满被拒绝的事件数、执行异常数和邮箱排队深度
+ */
+@RestController
+@RequestMapping("/api/mrcp-event")
+public class MrcpEventController {
+    private final MrcpManage mrcpManage;
+
+    public MrcpEventController(MrcpManage mrcpManage) {
+        this.mrcpManage = mrcpManage;
+    }
+
+    @GetMapping("/stats")
+    public Map<String, Object> stats() {
+        return mrcpManage.getMrcpEventExecutor().stats();
+    }
+}
@@ -0,0 +1,26 @@
+package com.cfsl.easymrcp.controller;
+
+import com.cfsl.easymrcp.rtp.RtpManager;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+/**
+ * RTP资源接口：按路绑定模式下的端口使用率、隔离中的端口数和耗尽次数
+ */
+@RestController
+@RequestMapping("/api/rtp")
+public class RtpController {
+    private final RtpManager rtpManager;
+
+    public RtpController(RtpManager rtpManager) {
+        this.rtpManager = rtpManager;
+    }
+
+    @GetMapping("/ports")
+    public Map<String, Object> ports() {
+        return rtpManager.getPortAllocator().stats();
+    }
+}
@@ -0,0 +1,31 @@
+package com.cfsl.easymrcp.controller;
+
+import com.cfsl.easymrcp.tts.scheduler.TtsRtpScheduler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+/**
+ * TTS RTP 发送调度指标：各 worker 的发送延迟、循环耗时、报文间隔分布和超限次数，
+ * 用于按实际数据调整 worker-capacity / max-workers。
+ */
+@RestController
+@RequestMapping("/api/rtp-scheduler")
+public class RtpSchedulerController {
+    private final TtsRtpScheduler rtpScheduler;
+
+    public RtpSchedulerController(TtsRtpScheduler rtpScheduler) {
+        this.rtpScheduler = rtpScheduler;
+    }
+
+    /**
+     * @param tasks 为 true 时附带每个通话的音频帧 / 静音帧计数
+     */
+    @GetMapping("/stats")
+    public Map<String, Object> stats(@RequestParam(defaultValue = "false") boolean tasks) {
+        return rtpScheduler.stats(tasks);
+    }
+}
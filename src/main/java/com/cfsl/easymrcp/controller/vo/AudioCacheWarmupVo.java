@@ -0,0 +1,14 @@
+package com.cfsl.easymrcp.controller.vo;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 录音缓存预热请求，objectNames 和 prefix 至少填写一项
+ */
+@Data
+public class AudioCacheWarmupVo {
+    private List<String> objectNames;
+    private String prefix;
+}
@@ -0,0 +1,196 @@
+package com.cfsl.easymrcp.mrcp;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 按通话串行执行事件的线程池
+ * callId哈希到固定数量的邮箱上，同一个邮箱同一时刻只在一个线程上执行，所以同一通电话的
+ * speak、播放完成、打断、asr结果和超时回调严格按提交顺序执行，不需要加锁；不同邮箱共享同一组线程并行执行。
+ * 邮箱有容量上限，满了直接拒绝并计数，不会退化成在提交线程（netty io线程、tcp worker）上执行。
+ */
+@Slf4j
+public class CallSerialExecutor {
+    /** 一个邮箱一次最多连续执行的任务数，执行完让出线程，避免一通电话占住线程 */
+    private static final int DRAIN_BATCH = 32;
+
+    private final Executor executor;
+    private final Mailbox[] mailboxes;
+    private final int mask;
+    private final int mailboxCapacity;
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicInteger peakMailboxDepth = new AtomicInteger();
+
+    public CallSerialExecutor(int threads, long keepAliveSeconds, int stripes, int mailboxCapacity) {
+        this(newPool(threads, keepAliveSeconds), stripes, mailboxCapacity);
+    }
+
+    CallSerialExecutor(Executor executor, int stripes, int mailboxCapacity) {
+        this.executor = executor;
+        // 邮箱数取2的幂，按位与定位
+        int size = stripes <= 1 ? 1 : Integer.highestOneBit(stripes - 1) << 1;
+        this.mailboxes = new Mailbox[size];
+        for (int i = 0; i < size; i++) {
+            mailboxes[i] = new Mailbox();
+        }
+        this.mask = size - 1;
+        this.mailboxCapacity = mailboxCapacity;
+    }
+
+    private static ThreadPoolExecutor newPool(int threads, long keepAliveSeconds) {
+        AtomicInteger index = new AtomicInteger();
+        // 无界队列只存放待执行的邮箱，每个邮箱最多排队一次，数量不超过邮箱数
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, keepAliveSeconds, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "mrcp-event-" + index.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+
+    /**
+     * 在通话的邮箱中按顺序执行任务
+     *
+     * @param callId 通话的uuid，为空时不保证顺序
+     * @return 邮箱已满或线程池已关闭时返回false，任务被丢弃
+     */
+    public boolean execute(String callId, Runnable task) {
+        if (callId == null) {
+            return execute(task);
+        }
+        Mailbox mailbox = mailboxes[spread(callId.hashCode()) & mask];
+        int depth = mailbox.size.incrementAndGet();
+        if (depth > mailboxCapacity) {
+            mailbox.size.decrementAndGet();
+            rejected.incrementAndGet();
+            log.warn("callId:{} 事件邮箱已满({})，丢弃事件", callId, mailboxCapacity);
+            return false;
+        }
+        peakMailboxDepth.accumulateAndGet(depth, Math::max);
+        submitted.incrementAndGet();
+        mailbox.queue.offer(task);
+        mailbox.schedule();
+        return true;
+    }
+
+    /**
+     * 执行与通话顺序无关的任务，如asr重连、sip注册，只占用共享线程，不进入邮箱
+     *
+     * @return 线程池已关闭时返回false
+     */
+    public boolean execute(Runnable task) {
+        try {
+            executor.execute(() -> runSafely(task));
+            submitted.incrementAndGet();
+            return true;
+        } catch (RejectedExecutionException e) {
+            rejected.incrementAndGet();
+            log.warn("事件线程池已关闭，丢弃事件");
+            return false;
+        }
+    }
+
+    public void shutdown() {
+        if (executor instanceof ThreadPoolExecutor) {
+            ((ThreadPoolExecutor) executor).shutdown();
+        }
+    }
+
+    /**
+     * 提交数、拒绝数、执行异常数、当前排队事件数和邮箱峰值深度
+     */
+    public Map<String, Object> stats() {
+        int queued = 0;
+        int busiest = 0;
+        for (Mailbox mailbox : mailboxes) {
+            int size = mailbox.size.get();
+            queued += size;
+            busiest = Math.max(busiest, size);
+        }
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("stripes", mailboxes.length);
+        stats.put("mailboxCapacity", mailboxCapacity);
+        if (executor instanceof ThreadPoolExecutor) {
+            ThreadPoolExecutor pool = (ThreadPoolExecutor) executor;
+            stats.put("threads", pool.getPoolSize());
+            stats.put("activeThreads", pool.getActiveCount());
+        }
+        stats.put("submitted", submitted.get());
+        stats.put("rejected", rejected.get());
+        stats.put("failed", failed.get());
+        stats.put("queued", queued);
+        stats.put("busiestMailboxDepth", busiest);
+        stats.put("peakMailboxDepth", peakMailboxDepth.get());
+        return stats;
+    }
+
+    private void runSafely(Runnable task) {
+        try {
+            task.run();
+        } catch (Throwable e) {
+            failed.incrementAndGet();
+            log.error("执行MRCP事件异常: {}", e.getMessage(), e);
+        }
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    private class Mailbox implements Runnable {
+        private final ConcurrentLinkedQueue<Runnable> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger size = new AtomicInteger();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        void schedule() {
+            if (!scheduled.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                executor.execute(this);
+            } catch (RejectedExecutionException e) {
+                // 线程池已关闭，清空邮箱
+                int dropped = 0;
+                while (queue.poll() != null) {
+                    size.decrementAndGet();
+                    dropped++;
+                }
+                rejected.addAndGet(dropped);
+                scheduled.set(false);
+                log.warn("事件线程池已关闭，丢弃{}个事件", dropped);
+            }
+        }
+
+        @Override
+        public void run() {
+            for (int i = 0; i < DRAIN_BATCH; i++) {
+                Runnable task = queue.poll();
+                if (task == null) {
+                    break;
+                }
+                size.decrementAndGet();
+                runSafely(task);
+            }
+            scheduled.set(false);
+            // 清除标志前入队的任务可能没有触发调度，这里补一次
+            if (!queue.isEmpty()) {
+                schedule();
+            }
+        }
+    }
+}
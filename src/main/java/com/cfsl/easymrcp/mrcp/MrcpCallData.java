@@ -6,7 +6,7 @@ import com.cfsl.easymrcp.tts.TtsHandler;
 import lombok.Getter;
 import lombok.Setter;
 
-import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.atomic.AtomicBoolean;
 
@@ -77,11 +77,11 @@ public class MrcpCallData {
     private Boolean pushAsrRealtimeResult;
 
     /**
-     * sip等待easymrcp client连接
+     * sip等待easymrcp client连接，client连接后完成，INVITE在完成回调中继续初始化媒体
      */
     @Setter
     @Getter
-    private CountDownLatch sipLatch;
+    private CompletableFuture<Void> clientConnected;
 
     public void setSpeaking(Boolean speaking) {
         this.speaking.set(speaking);
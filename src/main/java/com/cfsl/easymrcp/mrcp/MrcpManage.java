@@ -4,11 +4,13 @@ import com.cfsl.easymrcp.asr.AsrHandler;
 import com.cfsl.easymrcp.tcp.MrcpEventWithCallback;
 import com.cfsl.easymrcp.tcp.TcpEventType;
 import com.cfsl.easymrcp.tts.TtsHandler;
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Consumer;
@@ -20,52 +22,74 @@ import java.util.function.Consumer;
 @Component
 public class MrcpManage {
     // MRCP事件处理线程池配置
-    @Value("${mrcp.event-thread-pool.core-pool-size:8}")
-    private int eventCorePoolSize;
     @Value("${mrcp.event-thread-pool.max-pool-size:100}")
     private int eventMaxPoolSize;
     @Value("${mrcp.event-thread-pool.keep-alive-seconds:60}")
     private long eventKeepAliveSeconds;
-    @Value("${mrcp.event-thread-pool.queue-capacity:1000}")
-    private int eventQueueCapacity;
+    @Value("${mrcp.event-thread-pool.stripes:256}")
+    private int eventStripes;
+    @Value("${mrcp.event-thread-pool.mailbox-capacity:1000}")
+    private int eventMailboxCapacity;
 
-    ThreadPoolExecutor mrcpEventThreadPool;
+    /**
+     * 同一通电话的事件按提交顺序串行执行
+     */
+    @Getter
+    CallSerialExecutor mrcpEventExecutor;
 
     private ConcurrentHashMap<String, MrcpCallData> mrcpCallDataConcurrentHashMap = new ConcurrentHashMap<>();
 
     @PostConstruct
     public void init() {
         // 初始化MRCP事件处理线程池
-        mrcpEventThreadPool = new ThreadPoolExecutor(
-                eventCorePoolSize,
-                eventMaxPoolSize,
-                eventKeepAliveSeconds, TimeUnit.SECONDS,
-                new LinkedBlockingQueue<>(eventQueueCapacity),
-                new ThreadPoolExecutor.CallerRunsPolicy()
-        );
-        log.info("MRCP事件处理线程池初始化完成: core={}, max={}, queueCapacity={}",
-                eventCorePoolSize, eventMaxPoolSize, eventQueueCapacity);
+        mrcpEventExecutor = new CallSerialExecutor(eventMaxPoolSize, eventKeepAliveSeconds, eventStripes, eventMailboxCapacity);
+        log.info("MRCP事件处理线程池初始化完成: threads={}, stripes={}, mailboxCapacity={}",
+                eventMaxPoolSize, eventStripes, eventMailboxCapacity);
     }
 
-    public void updateConnection(String callId, CountDownLatch countDownLatch, String asrEngineName) {
-        if (!mrcpCallDataConcurrentHashMap.containsKey(callId)) {
-            MrcpCallData mrcpCallData = new MrcpCallData();
-            mrcpCallData.setCallId(callId);
-            mrcpCallData.setSipLatch(countDownLatch);
-            if (asrEngineName != null) {
-                mrcpCallData.setAsrEngineName(asrEngineName);
-            }
-            mrcpCallDataConcurrentHashMap.put(callId, mrcpCallData);
-        } else {
-            MrcpCallData mrcpCallData = mrcpCallDataConcurrentHashMap.get(callId);
-            if (asrEngineName != null) {
-                mrcpCallData.setAsrEngineName(asrEngineName);
-            }
-            // sip等待client连接情况，ASR引擎参数写入完成后放行等待
-            if (mrcpCallData.getSipLatch() != null) {
-                mrcpCallData.getSipLatch().countDown();
-            }
+    @PreDestroy
+    public void destroy() {
+        if (mrcpEventExecutor != null) {
+            mrcpEventExecutor.shutdown();
+        }
+    }
+
+    /**
+     * easymrcp client连接，写入ASR引擎参数，并让等待该client的INVITE继续初始化
+     */
+    public void updateConnection(String callId, String asrEngineName) {
+        MrcpCallData mrcpCallData = mrcpCallDataConcurrentHashMap.computeIfAbsent(callId, id -> {
+            MrcpCallData callData = new MrcpCallData();
+            callData.setCallId(id);
+            return callData;
+        });
+        if (asrEngineName != null) {
+            mrcpCallData.setAsrEngineName(asrEngineName);
+        }
+        // sip等待client连接情况，ASR引擎参数写入完成后放行等待
+        if (mrcpCallData.getClientConnected() != null) {
+            mrcpCallData.getClientConnected().complete(null);
+        }
+    }
+
+    /**
+     * INVITE等待easymrcp client连接，不阻塞调用线程
+     * client已经连接时返回已完成的future，否则登记一个等待项，由{@link #updateConnection}完成
+     *
+     * @param callId pbx的uuid
+     */
+    public CompletableFuture<Void> awaitClientConnection(String callId) {
+        CompletableFuture<Void> pending = new CompletableFuture<>();
+        MrcpCallData mrcpCallData = mrcpCallDataConcurrentHashMap.computeIfAbsent(callId, id -> {
+            MrcpCallData callData = new MrcpCallData();
+            callData.setCallId(id);
+            callData.setClientConnected(pending);
+            return callData;
+        });
+        if (mrcpCallData.getClientConnected() == null) {
+            return CompletableFuture.completedFuture(null);
         }
+        return mrcpCallData.getClientConnected();
     }
 
     public boolean containsCallId(String callId) {
@@ -246,6 +270,7 @@ public class MrcpManage {
 
     /**
      * 添加speak事件
+     * 由通话的事件邮箱调用，与播放完成、打断回调串行执行，队列操作都不阻塞
      * @param callId 通话的uuid
      * @param event 队列中取出任务的执行回调
      */
@@ -255,28 +280,27 @@ public class MrcpManage {
             return;
         }
         MrcpCallData mrcpCallData = mrcpCallDataConcurrentHashMap.get(callId);
-        try {
-            LinkedBlockingQueue<MrcpEventWithCallback> mrcpEventQueue = mrcpCallData.getMrcpEventQueue();
-            mrcpEventQueue.put(event);
-            if (!mrcpCallData.isSpeaking()) {
-                mrcpEventQueue.take().getConsumer().accept("normal");
-            } else {
-                if (event.getEventType().equals(TcpEventType.Silence.name())) {
-                    return;
-                }
-                // 判断是否预加载
-                MrcpEventWithCallback peek = mrcpEventQueue.peek();
-                if (peek == event) {
-                    event.setPre(true);
-                    log.debug("开始预加载");
-                    // 预加载
-                    mrcpEventThreadPool.execute(() -> {
-                        peek.getConsumer().accept("pre");
-                    });
-                }
+        LinkedBlockingQueue<MrcpEventWithCallback> mrcpEventQueue = mrcpCallData.getMrcpEventQueue();
+        mrcpEventQueue.offer(event);
+        if (!mrcpCallData.isSpeaking()) {
+            MrcpEventWithCallback next = mrcpEventQueue.poll();
+            if (next != null) {
+                next.getConsumer().accept("normal");
+            }
+        } else {
+            if (event.getEventType().equals(TcpEventType.Silence.name())) {
+                return;
+            }
+            // 判断是否预加载
+            MrcpEventWithCallback peek = mrcpEventQueue.peek();
+            if (peek == event) {
+                event.setPre(true);
+                log.debug("开始预加载");
+                // 预加载
+                executeTask(callId, () -> {
+                    peek.getConsumer().accept("pre");
+                });
             }
-        } catch (InterruptedException e) {
-            log.error(e.getMessage(), e);
         }
     }
 
@@ -285,34 +309,29 @@ public class MrcpManage {
      * @param callId 通话的uuid
      */
     public void runNextSpeak(String callId) {
-        try {
-            MrcpCallData mrcpCallData = mrcpCallDataConcurrentHashMap.get(callId);
-            LinkedBlockingQueue<MrcpEventWithCallback> mrcpEventQueue = mrcpCallData.getMrcpEventQueue();
-            if (!mrcpEventQueue.isEmpty()) {
-                MrcpEventWithCallback take = mrcpEventQueue.take();
-//                mrcpEventThreadPool.execute(take.getConsumer());
-                mrcpEventThreadPool.execute(() -> {
-                    if (take.isPre()) {
-                        take.getConsumer().accept("playPre");
-                    } else {
-                        take.getConsumer().accept("normal");
-                    }
-
-                    // 判断是否需要预加载下一个Speak
-                    MrcpEventWithCallback peek = mrcpEventQueue.peek();
-                    if (peek != null && !peek.getEventType().equals(TcpEventType.Silence.name())) {
-                        // 预加载下一个Speak
-                        peek.setPre(true);
-                        log.info("预加载下一个Speak");
-                        // 预加载
-                        mrcpEventThreadPool.execute(() -> {
-                            peek.getConsumer().accept("pre");
-                        });
-                    }
-                });
-            }
-        } catch (InterruptedException e) {
-            log.error(e.getMessage(), e);
+        MrcpCallData mrcpCallData = mrcpCallDataConcurrentHashMap.get(callId);
+        LinkedBlockingQueue<MrcpEventWithCallback> mrcpEventQueue = mrcpCallData.getMrcpEventQueue();
+        MrcpEventWithCallback take = mrcpEventQueue.poll();
+        if (take != null) {
+            executeTask(callId, () -> {
+                if (take.isPre()) {
+                    take.getConsumer().accept("playPre");
+                } else {
+                    take.getConsumer().accept("normal");
+                }
+
+                // 判断是否需要预加载下一个Speak
+                MrcpEventWithCallback peek = mrcpEventQueue.peek();
+                if (peek != null && !peek.getEventType().equals(TcpEventType.Silence.name())) {
+                    // 预加载下一个Speak
+                    peek.setPre(true);
+                    log.info("预加载下一个Speak");
+                    // 预加载
+                    executeTask(callId, () -> {
+                        peek.getConsumer().accept("pre");
+                    });
+                }
+            });
         }
     }
 
@@ -333,7 +352,22 @@ public class MrcpManage {
         interrupt(callId);
     }
 
+    /**
+     * 执行与通话顺序无关的任务
+     */
     public void executeTask(Runnable runnable) {
-        mrcpEventThreadPool.execute(runnable);
+        mrcpEventExecutor.execute(runnable);
+    }
+
+    /**
+     * 在通话的事件邮箱中按提交顺序执行任务
+     * @param callId 通话的uuid
+     */
+    public void executeTask(String callId, Runnable runnable) {
+        if (callId == null) {
+            executeTask(runnable);
+            return;
+        }
+        mrcpEventExecutor.execute(callId, runnable);
     }
 }
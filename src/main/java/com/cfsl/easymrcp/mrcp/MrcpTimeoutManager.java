@@ -30,6 +30,8 @@ public class MrcpTimeoutManager {
 
     // 超时回调
     private TimeoutCallback timeoutCallback;
+    // 超时回调在该通话的事件邮箱中执行
+    private final String callId;
 
     public interface TimeoutCallback {
         void onNoInputTimeout();
@@ -38,7 +40,8 @@ public class MrcpTimeoutManager {
         void onSpeechCompleteTimeout();
     }
 
-    public MrcpTimeoutManager(TimeoutCallback callback) {
+    public MrcpTimeoutManager(String callId, TimeoutCallback callback) {
+        this.callId = callId;
         this.timeoutCallback = callback;
 
         // 默认超时值（毫秒）
@@ -78,7 +81,7 @@ public class MrcpTimeoutManager {
                 cancelAllTimers();
             }
             noInputTimeoutTask = SipUtils.wheelTimer.newTimeout(timeout -> {
-                SipUtils.executeTask(() -> {
+                SipUtils.executeTask(callId, () -> {
                     log.info("No input timeout triggered");
                     timeoutCallback.onNoInputTimeout();
                 });
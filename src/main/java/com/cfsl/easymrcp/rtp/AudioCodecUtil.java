@@ -56,6 +56,21 @@ public class AudioCodecUtil {
         }
     }
     
+    /**
+     * 根据Payload Type把PCM数据编码写入调用方提供的缓冲区，不改变输入的readerIndex
+     *
+     * @param pcmData PCM(16-bit 小端序)数据
+     * @param encodedOut 写入编码数据的目标缓冲区
+     * @param payloadType SDP协商的Payload Type (0=PCMU, 8=PCMA)
+     */
+    public static void encode(ByteBuf pcmData, ByteBuf encodedOut, int payloadType) {
+        if (payloadType == PT_PCMU) {
+            G711Codec.encodeULaw(pcmData, encodedOut);
+        } else {
+            G711Codec.encodeALaw(pcmData, encodedOut);
+        }
+    }
+
     /**
      * 根据Payload Type解码音频数据
      * 
@@ -92,6 +107,47 @@ public class AudioCodecUtil {
         }
     }
     
+    /**
+     * 根据Payload Type把音频数据解码写入调用方提供的缓冲区，不改变输入的readerIndex
+     *
+     * @param encodedData 编码数据ByteBuf
+     * @param pcmOut 写入PCM(16-bit 小端序)的目标缓冲区
+     * @param payloadType SDP协商的Payload Type (0=PCMU, 8=PCMA)
+     */
+    public static void decode(ByteBuf encodedData, ByteBuf pcmOut, int payloadType) {
+        if (payloadType == PT_PCMU) {
+            G711Codec.decodeULaw(encodedData, pcmOut);
+        } else {
+            G711Codec.decodeALaw(encodedData, pcmOut);
+        }
+    }
+
+    /**
+     * L16大小端互换：把src中[index, index+length)的16-bit采样逐个交换高低字节后写入dst
+     * 每次处理8字节(4个采样)，奇数长度时末尾字节不处理，由调用方决定如何补齐
+     *
+     * @return 写入dst的字节数
+     */
+    public static int swapL16(ByteBuf src, int index, int length, ByteBuf dst) {
+        int bytes = length & ~1;
+        if (bytes == 0) {
+            return 0;
+        }
+        dst.ensureWritable(bytes);
+        int in = index;
+        int out = dst.writerIndex();
+        int end = index + bytes;
+        for (int blockEnd = index + (bytes & ~7); in < blockEnd; in += 8, out += 8) {
+            long v = src.getLong(in);
+            dst.setLong(out, ((v & 0x00FF00FF00FF00FFL) << 8) | ((v >>> 8) & 0x00FF00FF00FF00FFL));
+        }
+        for (; in < end; in += 2, out += 2) {
+            dst.setShortLE(out, src.getShort(in));
+        }
+        dst.writerIndex(out);
+        return bytes;
+    }
+
     /**
      * 获取编码名称
      * 
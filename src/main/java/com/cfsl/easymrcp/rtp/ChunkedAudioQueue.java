@@ -0,0 +1,324 @@
+package com.cfsl.easymrcp.rtp;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayDeque;
+
+/**
+ * 分段音频队列
+ * 由固定大小的分段串成的FIFO，分段从共享的池化分配器申请，读空即归还。
+ * 结束/中断等控制标记作为独立条目与音频分段排在同一队列中，读取音频时不会越过标记，
+ * 调用方无需扫描或拷贝音频数据来查找标记，标记也不会与真实采样值冲突。
+ *
+ * <p>与{@link NettyAudioRingBuffer}的区别：</p>
+ * <ul>
+ *   <li>不预分配容量，空闲时不持有任何分段</li>
+ *   <li>按分段增长和收缩，没有整体拷贝的扩容</li>
+ *   <li>不覆盖旧数据，适合TTS这类数据不能丢的场景</li>
+ * </ul>
+ *
+ * <p>线程安全：TTS引擎回调线程写入、共享调度线程读取，方法均加锁</p>
+ */
+@Slf4j
+public class ChunkedAudioQueue {
+
+    /** 默认分段大小：8kHz 16bit PCM下160ms */
+    public static final int DEFAULT_SEGMENT_BYTES = 2560;
+
+    /**
+     * 控制标记
+     */
+    public enum Marker {
+        /** 本次合成结束 */
+        END,
+        /** 播放被打断 */
+        INTERRUPT
+    }
+
+    /** ByteBuf分配器，默认使用Netty共享的池化分配器 */
+    private final ByteBufAllocator allocator;
+
+    /** 单个分段的字节数 */
+    private final int segmentBytes;
+
+    /** 条目列表，元素为音频分段(ByteBuf)或控制标记(Marker)，头部读、尾部写 */
+    private final ArrayDeque<Object> entries = new ArrayDeque<>();
+
+    /** 当前有效音频数据大小，不含标记 */
+    private int size;
+
+    /** 当前排队中的标记数量 */
+    private int markerCount;
+
+    /** 队列是否已关闭 */
+    private boolean closed;
+
+    public ChunkedAudioQueue(ByteBufAllocator allocator) {
+        this(allocator, DEFAULT_SEGMENT_BYTES);
+    }
+
+    /**
+     * @param allocator ByteBuf分配器
+     * @param segmentBytes 单个分段的字节数
+     */
+    public ChunkedAudioQueue(ByteBufAllocator allocator, int segmentBytes) {
+        if (segmentBytes <= 0) {
+            throw new IllegalArgumentException("segmentBytes must be positive");
+        }
+        this.allocator = allocator;
+        this.segmentBytes = segmentBytes;
+    }
+
+    /**
+     * 写入音频数据，不改变data的readerIndex，也不接管data的引用
+     */
+    public synchronized void write(ByteBuf data) {
+        if (closed || data == null || !data.isReadable()) {
+            return;
+        }
+        int index = data.readerIndex();
+        int remaining = data.readableBytes();
+        while (remaining > 0) {
+            ByteBuf tail = writableTail();
+            int length = Math.min(remaining, tail.writableBytes());
+            tail.writeBytes(data, index, length);
+            index += length;
+            remaining -= length;
+            size += length;
+        }
+    }
+
+    /**
+     * 直接从byte[]写入音频数据，省去中间ByteBuf
+     */
+    public synchronized void write(byte[] data, int offset, int length) {
+        if (closed || data == null || length <= 0) {
+            return;
+        }
+        int index = offset;
+        int remaining = length;
+        while (remaining > 0) {
+            ByteBuf tail = writableTail();
+            int chunk = Math.min(remaining, tail.writableBytes());
+            tail.writeBytes(data, index, chunk);
+            index += chunk;
+            remaining -= chunk;
+            size += chunk;
+        }
+    }
+
+    /**
+     * 以只读切片追加共享音频，不拷贝数据
+     * 切片作为独立条目排队，读空或清空时释放切片的引用；不改变data的索引，也不接管data的引用。
+     * 用于多路通话同时播放同一段缓存录音(如内存映射的录音文件)。
+     */
+    public synchronized void writeShared(ByteBuf data) {
+        if (closed || data == null || !data.isReadable()) {
+            return;
+        }
+        // 只读切片不可写，后续写入不会追加到该条目
+        ByteBuf slice = data.retainedSlice().asReadOnly();
+        entries.addLast(slice);
+        size += slice.readableBytes();
+    }
+
+    /**
+     * 在已写入的音频之后追加控制标记，之后写入的音频排在标记之后
+     */
+    public synchronized void writeMarker(Marker marker) {
+        if (closed || marker == null) {
+            return;
+        }
+        entries.addLast(marker);
+        markerCount++;
+    }
+
+    /**
+     * 读取指定长度的数据，最多读到下一个标记之前
+     */
+    public synchronized ByteBuf read(int length) {
+        int actualLength = Math.min(length, readableBytes());
+        if (closed || actualLength <= 0) {
+            return allocator.buffer(0);
+        }
+        ByteBuf result = allocator.buffer(actualLength);
+        drainTo(result, actualLength);
+        return result;
+    }
+
+    /**
+     * 读取指定长度的数据到调用方复用的缓冲区，最多读到下一个标记之前
+     *
+     * @return 实际读取的字节数
+     */
+    public synchronized int readInto(ByteBuf dest, int length) {
+        int actualLength = Math.min(Math.min(length, readableBytes()), dest.writableBytes());
+        if (closed || actualLength <= 0) {
+            return 0;
+        }
+        drainTo(dest, actualLength);
+        return actualLength;
+    }
+
+    /**
+     * 读取下一个标记之前的全部数据
+     */
+    public synchronized ByteBuf readAll() {
+        return read(readableBytes());
+    }
+
+    /**
+     * 丢弃指定长度的数据，最多丢到下一个标记之前，不拷贝
+     *
+     * @return 实际丢弃的字节数
+     */
+    public synchronized int skip(int length) {
+        int remaining = Math.min(length, readableBytes());
+        int skipped = remaining;
+        while (remaining > 0) {
+            ByteBuf head = (ByteBuf) entries.peekFirst();
+            int chunk = Math.min(remaining, head.readableBytes());
+            head.skipBytes(chunk);
+            remaining -= chunk;
+            size -= chunk;
+            if (!head.isReadable()) {
+                ((ByteBuf) entries.pollFirst()).release();
+            }
+        }
+        return Math.max(skipped, 0);
+    }
+
+    /**
+     * 下一个标记之前可读的音频字节数，没有标记时等于{@link #getSize()}
+     */
+    public synchronized int readableBytes() {
+        if (markerCount == 0) {
+            return size;
+        }
+        int readable = 0;
+        for (Object entry : entries) {
+            if (entry instanceof Marker) {
+                break;
+            }
+            readable += ((ByteBuf) entry).readableBytes();
+        }
+        return readable;
+    }
+
+    /**
+     * 是否有排队中的标记
+     */
+    public synchronized boolean hasMarker() {
+        return markerCount > 0;
+    }
+
+    /**
+     * 队头是标记时取出该标记，队头是音频或队列为空时返回null
+     */
+    public synchronized Marker pollMarker() {
+        Object head = entries.peekFirst();
+        if (!(head instanceof Marker)) {
+            return null;
+        }
+        entries.pollFirst();
+        markerCount--;
+        return (Marker) head;
+    }
+
+    /**
+     * 清空队列并归还全部分段，排队中的标记一并丢弃
+     */
+    public synchronized void clear() {
+        releaseSegments();
+        log.trace("清空分段音频队列");
+    }
+
+    /**
+     * 获取当前音频数据大小，不含标记
+     */
+    public synchronized int getSize() {
+        return size;
+    }
+
+    /**
+     * 检查是否为空，既没有音频也没有标记
+     */
+    public synchronized boolean isEmpty() {
+        return size == 0 && markerCount == 0;
+    }
+
+    /**
+     * 当前持有的分段数量
+     */
+    public synchronized int getSegmentCount() {
+        return entries.size() - markerCount;
+    }
+
+    /**
+     * 检查是否已关闭
+     */
+    public synchronized boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * 释放资源，关闭后读写均为空操作
+     */
+    public synchronized void release() {
+        if (closed) {
+            return;
+        }
+        releaseSegments();
+        closed = true;
+        log.debug("释放分段音频队列资源");
+    }
+
+    /**
+     * 返回有剩余空间的尾部分段，写满或尾部是标记时申请新分段
+     */
+    private ByteBuf writableTail() {
+        Object last = entries.peekLast();
+        if (last instanceof ByteBuf && ((ByteBuf) last).isWritable()) {
+            return (ByteBuf) last;
+        }
+        ByteBuf tail = allocator.buffer(segmentBytes, segmentBytes);
+        entries.addLast(tail);
+        return tail;
+    }
+
+    /**
+     * 从头部分段依次读出数据，读空的分段立即归还；length不超过下一个标记之前的字节数
+     */
+    private void drainTo(ByteBuf dest, int length) {
+        int remaining = length;
+        while (remaining > 0) {
+            ByteBuf head = (ByteBuf) entries.peekFirst();
+            int chunk = Math.min(remaining, head.readableBytes());
+            dest.writeBytes(head, chunk);
+            remaining -= chunk;
+            size -= chunk;
+            if (!head.isReadable()) {
+                ((ByteBuf) entries.pollFirst()).release();
+            }
+        }
+    }
+
+    private void releaseSegments() {
+        Object entry;
+        while ((entry = entries.pollFirst()) != null) {
+            if (entry instanceof ByteBuf) {
+                ((ByteBuf) entry).release();
+            }
+        }
+        size = 0;
+        markerCount = 0;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("ChunkedAudioQueue{size=%d bytes, segments=%d x %d bytes, markers=%d, closed=%s}",
+                size, entries.size() - markerCount, segmentBytes, markerCount, closed);
+    }
+}
@@ -5,9 +5,10 @@ import io.netty.buffer.ByteBufAllocator;
 
 /**
  * G.711A编码解码工具类
+ * 编解码均通过{@link G711Codec}查表完成，{@link #linearToALawSample(short)}保留为生成编码表的参考实现
  */
 public class G711AUtil {
-    private static short aLawDecompressTable[] = new short[]
+    static final short[] ALAW_TO_LINEAR = new short[]
             { -5504, -5248, -6016, -5760, -4480, -4224, -4992, -4736, -7552, -7296, -8064, -7808, -6528, -6272, -7040, -6784, -2752, -2624, -3008, -2880, -2240, -2112, -2496, -2368, -3776, -3648, -4032, -3904, -3264, -3136, -3520, -3392, -22016, -20992, -24064, -23040, -17920, -16896, -19968, -18944, -30208, -29184, -32256, -31232, -26112, -25088, -28160, -27136, -11008, -10496, -12032, -11520, -8960, -8448, -9984, -9472, -15104, -14592, -16128, -15616, -13056, -12544, -14080, -13568, -344, -328, -376,
                     -360, -280, -264, -312, -296, -472, -456, -504, -488, -408, -392, -440, -424, -88, -72, -120, -104, -24, -8, -56, -40, -216, -200, -248, -232, -152, -136, -184, -168, -1376, -1312, -1504, -1440, -1120, -1056, -1248, -1184, -1888, -1824, -2016, -1952, -1632, -1568, -1760, -1696, -688, -656, -752, -720, -560, -528, -624, -592, -944, -912, -1008, -976, -816, -784, -880, -848, 5504, 5248, 6016, 5760, 4480, 4224, 4992, 4736, 7552, 7296, 8064, 7808, 6528, 6272, 7040, 6784, 2752, 2624,
                     3008, 2880, 2240, 2112, 2496, 2368, 3776, 3648, 4032, 3904, 3264, 3136, 3520, 3392, 22016, 20992, 24064, 23040, 17920, 16896, 19968, 18944, 30208, 29184, 32256, 31232, 26112, 25088, 28160, 27136, 11008, 10496, 12032, 11520, 8960, 8448, 9984, 9472, 15104, 14592, 16128, 15616, 13056, 12544, 14080, 13568, 344, 328, 376, 360, 280, 264, 312, 296, 472, 456, 504, 488, 408, 392, 440, 424, 88, 72, 120, 104, 24, 8, 56, 40, 216, 200, 248, 232, 152, 136, 184, 168, 1376, 1312, 1504, 1440, 1120,
@@ -23,15 +24,9 @@ public class G711AUtil {
      * @return
      */
     public static byte[] encode( byte[] b){
-        int j = 0;
         int count = b.length / 2;
-        short sample = 0;
         byte[] res = new byte[count];
-        for ( int i = 0; i < count; i++ )
-        {
-            sample = (short) ( ( ( b[j++] & 0xff ) | ( b[j++] ) << 8 ) );
-            res[i] = linearToALawSample( sample );
-        }
+        G711Codec.encodeALaw(b, res, count);
         return res;
     }
 
@@ -47,15 +42,9 @@ public class G711AUtil {
         
         int count = input.readableBytes() / 2;
         ByteBuf output = ByteBufAllocator.DEFAULT.buffer(count);
-        
-        for (int i = 0; i < count; i++) {
-            // 保持与旧版一致的字节序：小端序读取
-            byte lowByte = input.readByte();
-            byte highByte = input.readByte();
-            short sample = (short) ((lowByte & 0xff) | (highByte << 8));
-            output.writeByte(linearToALawSample(sample));
-        }
-        
+        // 保持与旧版一致：小端序读取，并推进readerIndex
+        G711Codec.encodeALaw(input, output);
+        input.skipBytes(count * 2);
         return output;
     }
 
@@ -70,7 +59,7 @@ public class G711AUtil {
         byte[] res = new byte[b.length*2];
         for ( int i = 0; i < b.length; i++ )
         {
-            short s = aLawDecompressTable[b[i] & 0xff];
+            short s = ALAW_TO_LINEAR[b[i] & 0xff];
             res[j++] = (byte) s;
             res[j++] = (byte) ( s >> 8 );
         }
@@ -89,19 +78,26 @@ public class G711AUtil {
         
         int length = input.readableBytes();
         ByteBuf output = ByteBufAllocator.DEFAULT.buffer(length * 2);
-        
-        for (int i = 0; i < length; i++) {
-            short s = aLawDecompressTable[input.readByte() & 0xff];
-            // 保持与旧版一致的字节序：小端序写入
-            output.writeByte((byte) s);
-            output.writeByte((byte) (s >> 8));
-        }
-        
+        // 保持与旧版一致：小端序写入，并推进readerIndex
+        G711Codec.decodeALaw(input, output);
+        input.skipBytes(length);
         return output;
     }
 
+    /**
+     * 解码 G711 a-law to PCM，写入调用方提供的缓冲区，不改变输入的readerIndex
+     * @param input G711编码数据的ByteBuf
+     * @param output 写入PCM(小端序)的目标缓冲区
+     */
+    public static void decode(ByteBuf input, ByteBuf output) {
+        G711Codec.decodeALaw(input, output);
+    }
+
 
-    private static byte linearToALawSample( short sample ){
+    /**
+     * 逐样本A-law编码的参考实现，仅用于生成{@link G711Codec}的编码表
+     */
+    static byte linearToALawSample( short sample ){
         int sign;
         int exponent;
         int mantissa;
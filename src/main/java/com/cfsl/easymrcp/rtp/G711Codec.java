@@ -0,0 +1,184 @@
+package com.cfsl.easymrcp.rtp;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * G.711 查表编解码
+ * 编码使用按16-bit采样值索引的64K查找表，解码使用256项查找表，A-law与μ-law各一套；
+ * 批量方法直接在两个ByteBuf之间转码，不经过中间byte[]，也不改变输入的readerIndex。
+ *
+ * <p>编码表在类加载时由{@link G711AUtil}/{@link G711UUtil}中的逐样本参考实现生成，结果与原实现逐值一致。</p>
+ */
+public final class G711Codec {
+
+    /** 线性PCM -> A-law，下标为 sample & 0xFFFF */
+    private static final byte[] LINEAR_TO_ALAW = new byte[65536];
+    /** 线性PCM -> μ-law，下标为 sample & 0xFFFF */
+    private static final byte[] LINEAR_TO_ULAW = new byte[65536];
+
+    static {
+        for (int i = 0; i < 65536; i++) {
+            short sample = (short) i;
+            LINEAR_TO_ALAW[i] = G711AUtil.linearToALawSample(sample);
+            LINEAR_TO_ULAW[i] = G711UUtil.linearToUlaw(sample);
+        }
+    }
+
+    private G711Codec() {
+    }
+
+    /**
+     * 单个样本：线性PCM -> A-law
+     */
+    public static byte encodeALaw(short sample) {
+        return LINEAR_TO_ALAW[sample & 0xFFFF];
+    }
+
+    /**
+     * 单个样本：线性PCM -> μ-law
+     */
+    public static byte encodeULaw(short sample) {
+        return LINEAR_TO_ULAW[sample & 0xFFFF];
+    }
+
+    /**
+     * 单个样本：A-law -> 线性PCM
+     */
+    public static short decodeALaw(byte alaw) {
+        return G711AUtil.ALAW_TO_LINEAR[alaw & 0xFF];
+    }
+
+    /**
+     * 单个样本：μ-law -> 线性PCM
+     */
+    public static short decodeULaw(byte ulaw) {
+        return G711UUtil.ULAW_TO_LINEAR[ulaw & 0xFF];
+    }
+
+    /**
+     * PCM(16-bit 小端序) -> A-law，写入output，尾部奇数字节忽略
+     *
+     * @return 写入的字节数
+     */
+    public static int encodeALaw(ByteBuf pcm, ByteBuf output) {
+        return encode(pcm, output, LINEAR_TO_ALAW);
+    }
+
+    /**
+     * PCM(16-bit 小端序) -> μ-law，写入output，尾部奇数字节忽略
+     *
+     * @return 写入的字节数
+     */
+    public static int encodeULaw(ByteBuf pcm, ByteBuf output) {
+        return encode(pcm, output, LINEAR_TO_ULAW);
+    }
+
+    /**
+     * A-law -> PCM(16-bit 小端序)，写入output
+     *
+     * @return 写入的字节数
+     */
+    public static int decodeALaw(ByteBuf encoded, ByteBuf output) {
+        return decode(encoded, output, G711AUtil.ALAW_TO_LINEAR);
+    }
+
+    /**
+     * μ-law -> PCM(16-bit 小端序)，写入output
+     *
+     * @return 写入的字节数
+     */
+    public static int decodeULaw(ByteBuf encoded, ByteBuf output) {
+        return decode(encoded, output, G711UUtil.ULAW_TO_LINEAR);
+    }
+
+    /**
+     * PCM(16-bit 小端序) byte[] -> A-law byte[]，转换前count个采样
+     */
+    static void encodeALaw(byte[] pcm, byte[] output, int count) {
+        encode(pcm, 0, count, output, 0, LINEAR_TO_ALAW);
+    }
+
+    /**
+     * PCM(16-bit 小端序) byte[] -> μ-law byte[]，转换前count个采样
+     */
+    static void encodeULaw(byte[] pcm, byte[] output, int count) {
+        encode(pcm, 0, count, output, 0, LINEAR_TO_ULAW);
+    }
+
+    /**
+     * 每次读8字节(4个采样)、写4字节，剩余不足4个采样的逐个处理
+     */
+    private static int encode(ByteBuf pcm, ByteBuf output, byte[] table) {
+        int count = pcm.readableBytes() >> 1;
+        if (count == 0) {
+            return 0;
+        }
+        output.ensureWritable(count);
+        int in = pcm.readerIndex();
+        int out = output.writerIndex();
+        if (pcm.hasArray() && output.hasArray()) {
+            encode(pcm.array(), pcm.arrayOffset() + in, count, output.array(), output.arrayOffset() + out, table);
+        } else {
+            int blocks = count >> 2;
+            for (int i = 0; i < blocks; i++, in += 8, out += 4) {
+                long samples = pcm.getLongLE(in);
+                int packed = (table[(int) samples & 0xFFFF] & 0xFF)
+                        | (table[(int) (samples >>> 16) & 0xFFFF] & 0xFF) << 8
+                        | (table[(int) (samples >>> 32) & 0xFFFF] & 0xFF) << 16
+                        | (table[(int) (samples >>> 48) & 0xFFFF] & 0xFF) << 24;
+                output.setIntLE(out, packed);
+            }
+            for (int i = blocks << 2; i < count; i++, in += 2, out++) {
+                output.setByte(out, table[pcm.getShortLE(in) & 0xFFFF]);
+            }
+        }
+        output.writerIndex(output.writerIndex() + count);
+        return count;
+    }
+
+    private static void encode(byte[] pcm, int in, int count, byte[] output, int out, byte[] table) {
+        for (int i = 0; i < count; i++, in += 2) {
+            output[out + i] = table[(pcm[in] & 0xFF) | ((pcm[in + 1] & 0xFF) << 8)];
+        }
+    }
+
+    /**
+     * 每次读4字节、写8字节(4个采样)，剩余不足4字节的逐个处理
+     */
+    private static int decode(ByteBuf encoded, ByteBuf output, short[] table) {
+        int count = encoded.readableBytes();
+        if (count == 0) {
+            return 0;
+        }
+        int bytes = count << 1;
+        output.ensureWritable(bytes);
+        int in = encoded.readerIndex();
+        int out = output.writerIndex();
+        if (encoded.hasArray() && output.hasArray()) {
+            byte[] src = encoded.array();
+            byte[] dst = output.array();
+            int s = encoded.arrayOffset() + in;
+            int d = output.arrayOffset() + out;
+            for (int i = 0; i < count; i++, d += 2) {
+                short sample = table[src[s + i] & 0xFF];
+                dst[d] = (byte) sample;
+                dst[d + 1] = (byte) (sample >> 8);
+            }
+        } else {
+            int blocks = count >> 2;
+            for (int i = 0; i < blocks; i++, in += 4, out += 8) {
+                int codes = encoded.getIntLE(in);
+                long samples = (table[codes & 0xFF] & 0xFFFFL)
+                        | (table[(codes >>> 8) & 0xFF] & 0xFFFFL) << 16
+                        | (table[(codes >>> 16) & 0xFF] & 0xFFFFL) << 32
+                        | (table[codes >>> 24] & 0xFFFFL) << 48;
+                output.setLongLE(out, samples);
+            }
+            for (int i = blocks << 2; i < count; i++, in++, out += 2) {
+                output.setShortLE(out, table[encoded.getByte(in) & 0xFF]);
+            }
+        }
+        output.writerIndex(output.writerIndex() + bytes);
+        return bytes;
+    }
+}
@@ -5,7 +5,8 @@ import io.netty.buffer.ByteBufAllocator;
 
 /**
  * G.711 μ-law (PCMU) 编解码工具。
- * 参考 ITU-T G.711 与 Sun/CCITT 公开实现，采用查表解码与指数查表编码，兼顾正确性与性能。
+ * 参考 ITU-T G.711 与 Sun/CCITT 公开实现；编解码均通过 {@link G711Codec} 查表完成，
+ * {@link #linearToUlaw(short)} 保留为生成编码表的参考实现。
  */
 public final class G711UUtil {
 
@@ -13,7 +14,7 @@ public final class G711UUtil {
     private static final int CLIP = 32635;
 
     // μ-law 解码查找表（标准值，性能最佳）
-    private static final short[] ULAW_TO_LINEAR = new short[] {
+    static final short[] ULAW_TO_LINEAR = new short[] {
         -32124, -31100, -30076, -29052, -28028, -27004, -25980, -24956,
         -23932, -22908, -21884, -20860, -19836, -18812, -17788, -16764,
         -15996, -15484, -14972, -14460, -13948, -13436, -12924, -12412,
@@ -90,11 +91,12 @@ public final class G711UUtil {
         }
         int count = pcmData.length / 2;
         byte[] output = new byte[count];
+        if (littleEndian) {
+            G711Codec.encodeULaw(pcmData, output, count);
+            return output;
+        }
         for (int i = 0, j = 0; i < count; i++, j += 2) {
-            short pcm = littleEndian
-                ? littleEndianToShort(pcmData[j], pcmData[j + 1])
-                : bigEndianToShort(pcmData[j], pcmData[j + 1]);
-            output[i] = linearToUlaw(pcm);
+            output[i] = G711Codec.encodeULaw(bigEndianToShort(pcmData[j], pcmData[j + 1]));
         }
         return output;
     }
@@ -109,11 +111,13 @@ public final class G711UUtil {
         }
         int count = input.readableBytes() / 2;
         ByteBuf output = ByteBufAllocator.DEFAULT.buffer(count);
+        if (littleEndian) {
+            G711Codec.encodeULaw(input, output);
+            input.skipBytes(count * 2);
+            return output;
+        }
         for (int i = 0; i < count; i++) {
-            byte b0 = input.readByte();
-            byte b1 = input.readByte();
-            short pcm = littleEndian ? littleEndianToShort(b0, b1) : bigEndianToShort(b0, b1);
-            output.writeByte(linearToUlaw(pcm));
+            output.writeByte(G711Codec.encodeULaw(input.readShort()));
         }
         return output;
     }
@@ -150,19 +154,23 @@ public final class G711UUtil {
         }
         int length = input.readableBytes();
         ByteBuf output = ByteBufAllocator.DEFAULT.buffer(length * 2);
-        for (int i = 0; i < length; i++) {
-            short pcm = ULAW_TO_LINEAR[input.readByte() & 0xFF];
-            output.writeByte((byte) (pcm & 0xFF));
-            output.writeByte((byte) (pcm >> 8));
-        }
+        G711Codec.decodeULaw(input, output);
+        input.skipBytes(length);
         return output;
     }
 
+    /**
+     * μ-law -> PCM(16-bit 小端序)，写入调用方提供的缓冲区，不改变输入的 readerIndex。
+     */
+    public static void decode(ByteBuf input, ByteBuf output) {
+        G711Codec.decodeULaw(input, output);
+    }
+
     /**
      * 单个样本：线性 PCM -> μ-law。
      */
     public static byte encodeSample(short pcm) {
-        return linearToUlaw(pcm);
+        return G711Codec.encodeULaw(pcm);
     }
 
     /**
@@ -172,18 +180,14 @@ public final class G711UUtil {
         return ULAW_TO_LINEAR[ulaw & 0xFF];
     }
 
-    private static short littleEndianToShort(byte low, byte high) {
-        return (short) ((low & 0xFF) | (high << 8));
-    }
-
     private static short bigEndianToShort(byte high, byte low) {
         return (short) ((high << 8) | (low & 0xFF));
     }
 
     /**
-     * 参考 ITU-T G.711 / Sun 公开实现的 μ-law 编码。
+     * 参考 ITU-T G.711 / Sun 公开实现的 μ-law 编码，仅用于生成 {@link G711Codec} 的编码表。
      */
-    private static byte linearToUlaw(short pcm) {
+    static byte linearToUlaw(short pcm) {
         int sample = pcm;
         int sign = (sample >> 8) & 0x80; // 0x80 表示负数
 
@@ -3,15 +3,21 @@ package com.cfsl.easymrcp.rtp;
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.Arrays;
-import java.util.function.Consumer;
-import java.util.HashMap;
-import java.util.Map;
 import java.util.Objects;
+import java.util.function.Consumer;
 
+/**
+ * 入向RTP重排窗口。
+ * 窗口是按 seq & mask 下标的定长环形数组，稳态下收包、释放都不分配对象。
+ * offer 接管包的所有权：晚到/重复包直接 release，输出的包在 consumer 返回后 release，
+ * consumer 只能在回调期间使用包内容。
+ */
 @Slf4j
 public final class InboundRtpReorderBuffer {
     private static final int MAX_SEQUENCE = 0x10000;
     private static final long MAX_TIMESTAMP = 0x1_0000_0000L;
+    // 环形窗口最小容量，约 1.3 秒的 20ms 包，正常丢包/乱序不会出现下标冲突。
+    private static final int MIN_RING_CAPACITY = 64;
 
     // 当前 RTP 流的 payload type，补静音包时沿用它。
     private final int payloadType;
@@ -27,8 +33,10 @@ public final class InboundRtpReorderBuffer {
     private final long timestampStep;
     // 预先构造好的静音 payload，补包时直接复用。
     private final byte[] silencePayload;
-    // 当前窗口里暂存、但还没释放的 RTP 包，key 是 sequence number。
-    private final Map<Integer, RtpPacket> bufferedPackets = new HashMap<>();
+    // 当前窗口里暂存、但还没释放的 RTP 包，下标是 seq & ringMask。
+    private final RtpPacket[] ring;
+    private final int ringMask;
+    private int bufferedCount;
 
     // 是否已经完成启动预热并确定了 expectedSequenceNumber。
     private boolean started;
@@ -42,8 +50,11 @@ public final class InboundRtpReorderBuffer {
     private int lossFillCount;
     // 当前连续补静音了多少次，用来判断是否触发 resync。
     private int consecutiveLossFillCount;
-    // 最近一次输出的包，可能是真实包，也可能是补出来的静音包。
-    private RtpPacket lastEmittedPacket;
+    // 最近一次输出的包（真实包或静音包）的 payload type 和时间戳，补静音包时沿用。
+    // 包输出后即被释放回收，这里只保留需要的字段。
+    private boolean hasLastEmitted;
+    private int lastEmittedPayloadType;
+    private long lastEmittedTimestamp;
 
     public InboundRtpReorderBuffer(int payloadType,
                                    int defaultPayloadSize,
@@ -71,6 +82,9 @@ public final class InboundRtpReorderBuffer {
         this.maxConsecutiveLossFill = maxConsecutiveLossFill;
         this.timestampStep = timestampStep;
         this.silencePayload = createSilencePayload(payloadType, defaultPayloadSize);
+        int capacity = Integer.highestOneBit(Math.max(MIN_RING_CAPACITY, reorderWindowPackets * 4) - 1) << 1;
+        this.ring = new RtpPacket[capacity];
+        this.ringMask = capacity - 1;
     }
 
     /**
@@ -81,22 +95,32 @@ public final class InboundRtpReorderBuffer {
         Objects.requireNonNull(packet, "packet must not be null");
         Objects.requireNonNull(consumer, "consumer must not be null");
         int sequenceNumber = packet.getSequenceNumber();
+        int slot = sequenceNumber & ringMask;
+        RtpPacket occupant = ring[slot];
+        if (occupant != null && occupant.getSequenceNumber() == sequenceNumber) {
+            duplicateCount++;
+            log.info("RTP重排丢弃重复包: seq={}, expectedSeq={}", sequenceNumber, expectedSequenceNumber);
+            packet.release();
+            return;
+        }
         if (started && compareSequence(sequenceNumber, expectedSequenceNumber) < 0) {
+            // 晚到包先丢弃，即使它落在已占用的下标上也不能影响窗口里的包
             lateCount++;
             log.info("RTP重排丢弃晚到包: seq={}, expectedSeq={}", sequenceNumber, expectedSequenceNumber);
+            packet.release();
             return;
         }
-        if (bufferedPackets.containsKey(sequenceNumber)) {
-            duplicateCount++;
-            log.info("RTP重排丢弃重复包: seq={}, expectedSeq={}", sequenceNumber, expectedSequenceNumber);
-            return;
+        if (occupant != null) {
+            // 与窗口里的包相差整数倍环容量，说明序号跳变，先把占位包之前的部分按丢包规则放掉
+            drainUntilFree(slot, consumer);
         }
         if (started && compareSequence(sequenceNumber, expectedSequenceNumber) > 0) {
             reorderedCount++;
         }
 
-        bufferedPackets.put(sequenceNumber, packet);
-        if (!started && bufferedPackets.size() >= startDepthPackets()) {
+        ring[slot] = packet;
+        bufferedCount++;
+        if (!started && bufferedCount >= startDepthPackets()) {
             expectedSequenceNumber = findEarliestBufferedSequence();
             started = true;
         }
@@ -111,13 +135,21 @@ public final class InboundRtpReorderBuffer {
     public void reset() {
         started = false;
         expectedSequenceNumber = 0;
-        bufferedPackets.clear();
+        if (bufferedCount > 0) {
+            for (int i = 0; i < ring.length; i++) {
+                if (ring[i] != null) {
+                    ring[i].release();
+                    ring[i] = null;
+                }
+            }
+            bufferedCount = 0;
+        }
         duplicateCount = 0;
         lateCount = 0;
         reorderedCount = 0;
         lossFillCount = 0;
         consecutiveLossFillCount = 0;
-        lastEmittedPacket = null;
+        hasLastEmitted = false;
     }
 
     public int getDuplicateCount() {
@@ -137,7 +169,7 @@ public final class InboundRtpReorderBuffer {
     }
 
     public int getBufferedPacketCount() {
-        return bufferedPackets.size();
+        return bufferedCount;
     }
 
     /**
@@ -152,17 +184,17 @@ public final class InboundRtpReorderBuffer {
         }
 
         while (true) {
-            RtpPacket packet = bufferedPackets.remove(expectedSequenceNumber);
+            RtpPacket packet = take(expectedSequenceNumber);
             if (packet != null) {
                 emitPacket(packet, consumer);
                 continue;
             }
 
-            if (bufferedPackets.isEmpty()) {
+            if (bufferedCount == 0) {
                 return;
             }
 
-            int packetsAhead = bufferedPackets.size();
+            int packetsAhead = bufferedCount;
             if (packetsAhead < reorderWindowPackets) {
                 log.info("RTP重排等待缺失包: expectedSeq={}, packetsAhead={}, reorderWindowPackets={}",
                         expectedSequenceNumber, packetsAhead, reorderWindowPackets);
@@ -179,11 +211,46 @@ public final class InboundRtpReorderBuffer {
         }
     }
 
+    /**
+     * 新包的环形下标被另一个序号占用时，不再等待窗口凑满，
+     * 按补静音/resync 规则一直推进到占位包被输出，腾出下标。
+     */
+    private void drainUntilFree(int slot, Consumer<RtpPacket> consumer) {
+        if (!started) {
+            expectedSequenceNumber = findEarliestBufferedSequence();
+            started = true;
+        }
+        while (ring[slot] != null) {
+            RtpPacket packet = take(expectedSequenceNumber);
+            if (packet != null) {
+                emitPacket(packet, consumer);
+            } else if (consecutiveLossFillCount >= maxConsecutiveLossFill) {
+                resyncToEarliestBuffered();
+            } else {
+                emitSilencePacket(consumer);
+            }
+        }
+    }
+
+    /**
+     * 取出并移除指定序号的包，不在窗口里时返回 null。
+     */
+    private RtpPacket take(int sequenceNumber) {
+        int slot = sequenceNumber & ringMask;
+        RtpPacket packet = ring[slot];
+        if (packet == null || packet.getSequenceNumber() != sequenceNumber) {
+            return null;
+        }
+        ring[slot] = null;
+        bufferedCount--;
+        return packet;
+    }
+
     /**
      * 连续补静音超过预算时，直接把 expectedSeq 跳到窗口里当前最早可释放的包。
      */
     private boolean resyncToEarliestBuffered() {
-        if (bufferedPackets.isEmpty()) {
+        if (bufferedCount == 0) {
             return false;
         }
         consecutiveLossFillCount = 0;
@@ -195,10 +262,14 @@ public final class InboundRtpReorderBuffer {
      * 输出一个真实 RTP 包，并把 expectedSeq 推进到下一个序号。
      */
     private void emitPacket(RtpPacket packet, Consumer<RtpPacket> consumer) {
-        consumer.accept(packet);
-        lastEmittedPacket = packet;
+        rememberEmitted(packet);
         consecutiveLossFillCount = 0;
         expectedSequenceNumber = nextSequence(packet.getSequenceNumber());
+        try {
+            consumer.accept(packet);
+        } finally {
+            packet.release();
+        }
     }
 
     /**
@@ -206,11 +277,17 @@ public final class InboundRtpReorderBuffer {
      */
     private void emitSilencePacket(Consumer<RtpPacket> consumer) {
         RtpPacket silencePacket = createSilencePacket();
-        consumer.accept(silencePacket);
-        lastEmittedPacket = silencePacket;
+        rememberEmitted(silencePacket);
         expectedSequenceNumber = nextSequence(expectedSequenceNumber);
         lossFillCount++;
         consecutiveLossFillCount++;
+        consumer.accept(silencePacket);
+    }
+
+    private void rememberEmitted(RtpPacket packet) {
+        hasLastEmitted = true;
+        lastEmittedPayloadType = packet.getPayloadType();
+        lastEmittedTimestamp = packet.getTimestamp();
     }
 
     /**
@@ -221,22 +298,21 @@ public final class InboundRtpReorderBuffer {
         return Math.max(reorderWindowPackets, 1);
     }
 
-    /*
-     * 统计 expectedSeq 后面已经看到了多少个更大的序号。
-     * 当这个数量达到窗口深度时，认为当前 expectedSeq 大概率不会再来了。
-     */
-
     /**
      * 在当前窗口里找到逻辑上最早的那个序号，作为启动后的 expectedSeq。
      */
     private int findEarliestBufferedSequence() {
-        Integer earliest = null;
-        for (Integer candidate : bufferedPackets.keySet()) {
-            if (earliest == null || compareSequence(candidate, earliest) < 0) {
+        int earliest = -1;
+        for (RtpPacket packet : ring) {
+            if (packet == null) {
+                continue;
+            }
+            int candidate = packet.getSequenceNumber();
+            if (earliest < 0 || compareSequence(candidate, earliest) < 0) {
                 earliest = candidate;
             }
         }
-        if (earliest == null) {
+        if (earliest < 0) {
             throw new IllegalStateException("bufferedPackets must not be empty when starting");
         }
         return earliest;
@@ -244,21 +320,16 @@ public final class InboundRtpReorderBuffer {
 
     /**
      * 根据固定 timestampStep 生成补静音包的时间戳。
+     * 静音 payload 是只读共享的，补包时不再拷贝。
      */
     private RtpPacket createSilencePacket() {
-        long timestamp = 0L;
-        if (lastEmittedPacket != null) {
-            timestamp = (lastEmittedPacket.getTimestamp() + timestampStep) % MAX_TIMESTAMP;
-            return RtpPacket.silenceLike(lastEmittedPacket, expectedSequenceNumber, timestamp, silencePayload);
+        if (hasLastEmitted) {
+            long timestamp = (lastEmittedTimestamp + timestampStep) % MAX_TIMESTAMP;
+            return RtpPacket.sharing(lastEmittedPayloadType, expectedSequenceNumber, timestamp, silencePayload);
         }
-        return RtpPacket.of(payloadType, expectedSequenceNumber, timestamp, silencePayload);
+        return RtpPacket.sharing(payloadType, expectedSequenceNumber, 0L, silencePayload);
     }
 
-    /**
-     * 在当前窗口里找到 expectedSeq 后面距离最近的真实包。
-     * 这个包用于补静音时间戳推算以及 resync 目标选择。
-     */
-
     /**
      * 比较两个 16 bit RTP 序号的前后关系。
      * 输入:
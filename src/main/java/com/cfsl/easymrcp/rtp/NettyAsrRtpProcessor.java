@@ -3,7 +3,7 @@ package com.cfsl.easymrcp.rtp;
 import com.cfsl.easymrcp.asr.ASRConstant;
 import com.cfsl.easymrcp.common.EMConstant;
 import com.cfsl.easymrcp.mrcp.Callback;
-import com.cfsl.easymrcp.utils.ReSample;
+import com.cfsl.easymrcp.utils.PcmResampler;
 import com.cfsl.easymrcp.utils.SipUtils;
 import com.cfsl.easymrcp.vad.VadHandle;
 import io.netty.buffer.ByteBuf;
@@ -28,8 +28,9 @@ public class NettyAsrRtpProcessor extends ChannelInitializer<DatagramChannel> {
     private static final int DEFAULT_REORDER_WINDOW_PACKETS = 2;
     private static final int DEFAULT_MAX_CONSECUTIVE_LOSS_FILL = 3;
 
-    @Setter
     private String reSample;
+    // 8k->16k上采样器，跨包保留滤波器历史，只在收包线程上使用
+    private PcmResampler upsampler;
     @Setter
     private VadHandle vadHandle;
     @Setter
@@ -50,10 +51,18 @@ public class NettyAsrRtpProcessor extends ChannelInitializer<DatagramChannel> {
     private final long timestampStep;
     private final int reorderWindowPackets;
     private final int maxConsecutiveLossFill;
-    private InboundRtpReorderBuffer reorderBuffer;
+    private final InboundRtpReorderBuffer reorderBuffer;
+    // 重排窗口释放出的包在这里解码，复用同一个实例避免每个包创建lambda
+    private final PacketDecoder packetDecoder = new PacketDecoder();
+    // setRun(false)可能在非EventLoop线程调用，这里只做标记，由收包线程清空窗口并释放其中的包
+    private volatile boolean reorderResetPending;
 
     // 音频缓冲区，在构造时创建
     private NettyAudioRingBuffer ringBuffer;
+    // 共享媒体端口模式下代替pipeline使用的业务处理器
+    private AsrBusinessHandler sharedBusinessHandler;
+    private ChannelHandlerContext sharedContext;
+    private final Consumer<ByteBuf> sharedSink = this::onSharedPcm;
     private final int SEND_CHUNK_SIZE = 2048;
     private volatile boolean isReconnecting = false;
     // 防止出现vad结束时asr还没连接成功而导致无法发送eof问题
@@ -88,11 +97,16 @@ public class NettyAsrRtpProcessor extends ChannelInitializer<DatagramChannel> {
         this.reorderBuffer = createReorderBuffer();
     }
 
+    public void setReSample(String reSample) {
+        this.reSample = reSample;
+        this.upsampler = PcmResampler.UPSAMPLE_8K_TO_16K.equals(reSample) ? PcmResampler.forConfig(reSample) : null;
+    }
+
     public void setRun(boolean run) {
         boolean wasRunning = this.run;
         this.run = run;
         if (wasRunning && !run) {
-            clearReorderRuntimeState();
+            reorderResetPending = true;
         }
     }
 
@@ -101,7 +115,7 @@ public class NettyAsrRtpProcessor extends ChannelInitializer<DatagramChannel> {
      */
     public void initializeBuffer(ByteBufAllocator allocator) {
         if (ringBuffer == null) {
-            int sampleRate = "upsample8kTo16k".equals(reSample) ? 16000 : 8000;
+            int sampleRate = upsampler != null ? upsampler.getOutputRate() : 8000;
             // 固定3秒缓冲容量
             ringBuffer = new NettyAudioRingBuffer(allocator, sampleRate);
             log.info("初始化音频缓冲区，采样率: {}Hz, 固定缓冲: 3秒", sampleRate);
@@ -114,25 +128,53 @@ public class NettyAsrRtpProcessor extends ChannelInitializer<DatagramChannel> {
     }
 
     /**
-     * pause/close 时清掉当前重排窗口。
+     * pause/close 时清掉当前重排窗口并释放其中的包。
      * 恢复后只处理新的 RTP 包，不继续吐出暂停前残留的数据。
+     * 需在收包的EventLoop上调用。
      */
     private void clearReorderRuntimeState() {
-        if (reorderBuffer != null && reorderBuffer.getBufferedPacketCount() > 0) {
+        reorderResetPending = false;
+        if (reorderBuffer.getBufferedPacketCount() > 0) {
             log.info("清空RTP重排窗口缓存: bufferedPackets={}", reorderBuffer.getBufferedPacketCount());
         }
-        reorderBuffer = createReorderBuffer();
+        reorderBuffer.reset();
+        if (upsampler != null) {
+            upsampler.reset();
+        }
     }
 
     /**
      * 收到一个 RTP 包后，直接把本次可释放的包解码并交给 consumer，避免在热路径上再攒一层 PCM list。
+     * 接管packet的所有权，处理完或丢弃时释放。
      */
     private void processIncomingPacket(RtpPacket packet, ByteBufAllocator allocator, Consumer<ByteBuf> consumer) {
         if (!run) {
+            packet.release();
             return;
         }
-        reorderBuffer.offer(packet, decodedPacket -> {
-            ByteBuf pcm = decodePayload(decodedPacket.payloadView(), allocator);
+        if (reorderResetPending) {
+            clearReorderRuntimeState();
+        }
+        packetDecoder.allocator = allocator;
+        packetDecoder.sink = consumer;
+        try {
+            reorderBuffer.offer(packet, packetDecoder);
+        } finally {
+            packetDecoder.allocator = null;
+            packetDecoder.sink = null;
+        }
+    }
+
+    /**
+     * 把重排窗口按序释放的包解码成PCM交给当前的sink
+     */
+    private final class PacketDecoder implements Consumer<RtpPacket> {
+        private ByteBufAllocator allocator;
+        private Consumer<ByteBuf> sink;
+
+        @Override
+        public void accept(RtpPacket packet) {
+            ByteBuf pcm = decodePayload(packet.payloadBuffer(), allocator);
             if (pcm == null) {
                 return;
             }
@@ -140,31 +182,44 @@ public class NettyAsrRtpProcessor extends ChannelInitializer<DatagramChannel> {
                 pcm.release();
                 return;
             }
-            consumer.accept(pcm);
-        });
+            sink.accept(pcm);
+        }
     }
 
     /**
-     * 处理接收到的RTP数据，按协商编码返回PCM数据
+     * 处理接收到的RTP数据，按协商编码把PCM直接写入从allocator申请的缓冲区
+     * 不改变payload的readerIndex
      */
-    private ByteBuf decodePayload(byte[] payload, ByteBufAllocator allocator) {
+    private ByteBuf decodePayload(ByteBuf payload, ByteBufAllocator allocator) {
+        ByteBuf pcm = null;
         try {
-            byte[] pcmData;
+            boolean g711 = mediaType == AudioCodecUtil.PT_PCMA || mediaType == AudioCodecUtil.PT_PCMU;
+            int payloadLength = payload.readableBytes();
+            pcm = allocator.buffer(g711 ? payloadLength * 2 : payloadLength);
 
-            if (mediaType == AudioCodecUtil.PT_PCMA || mediaType == AudioCodecUtil.PT_PCMU) {
-                pcmData = AudioCodecUtil.decode(payload, mediaType);
+            if (g711) {
+                AudioCodecUtil.decode(payload, pcm, mediaType);
             } else {
                 // L16使用网络字节序（大端），Java处理通常使用小端序
-                pcmData = convertL16Endianness(payload);
+                convertL16Endianness(payload, pcm);
             }
 
-            if (reSample != null && reSample.equals("upsample8kTo16k")) {
-                pcmData = ReSample.resampleFrame(pcmData);
+            PcmResampler resampler = upsampler;
+            if (resampler != null) {
+                ByteBuf source = pcm;
+                pcm = allocator.buffer(resampler.maxOutputBytes(source.readableBytes()));
+                try {
+                    resampler.process(source, pcm);
+                } finally {
+                    source.release();
+                }
             }
-
-            return allocator.buffer(pcmData.length).writeBytes(pcmData);
+            return pcm;
         } catch (Exception e) {
             log.error("处理RTP数据包异常", e);
+            if (pcm != null) {
+                pcm.release();
+            }
             return null;
         }
     }
@@ -173,15 +228,13 @@ public class NettyAsrRtpProcessor extends ChannelInitializer<DatagramChannel> {
      * 转换L16音频数据的字节序
      * RTP传输的L16是大端序，Java处理通常使用小端序
      */
-    private byte[] convertL16Endianness(byte[] data) {
-        byte[] result = new byte[data.length];
-        for (int i = 0; i < data.length; i += 2) {
-            if (i + 1 < data.length) {
-                result[i] = data[i + 1];
-                result[i + 1] = data[i];
-            }
+    private void convertL16Endianness(ByteBuf data, ByteBuf out) {
+        int length = data.readableBytes();
+        AudioCodecUtil.swapL16(data, data.readerIndex(), length, out);
+        if ((length & 1) != 0) {
+            // 奇数长度时末尾字节无法成对，补0保持长度不变
+            out.writeByte(0);
         }
-        return result;
     }
 
     /**
@@ -191,9 +244,25 @@ public class NettyAsrRtpProcessor extends ChannelInitializer<DatagramChannel> {
         // VAD检测需要的环形缓冲区（固定容量，防止内存泄漏）
         private NettyAudioRingBuffer vadBuffer;
         private int vadFrameSizeBytes;
+        // 复用的VAD帧缓冲区，帧内容在提交时即被拷入推理窗口，可立即复用
+        private ByteBuf vadFrame;
+        // 当前是否有VAD帧在共享引擎中推理，同一路同时只提交一帧
+        private boolean vadInFlight;
+        // 提交VAD帧前的说话状态
+        private boolean vadSpeakingBefore;
+        // handler移除后，迟到的VAD结果不再处理
+        private boolean removed;
+        private final Runnable onVadComplete = this::onVadComplete;
 
         @Override
         protected void channelRead0(ChannelHandlerContext ctx, ByteBuf msg) {
+            onPcm(ctx, msg);
+        }
+
+        /**
+         * 处理一段解码后的PCM，独占端口时由channelRead0调用，共享端口时由分发器直接调用
+         */
+        void onPcm(ChannelHandlerContext ctx, ByteBuf msg) {
             try {
                 // 确保缓冲区已初始化
                 if (ringBuffer == null) {
@@ -202,9 +271,10 @@ public class NettyAsrRtpProcessor extends ChannelInitializer<DatagramChannel> {
 
                 // 初始化VAD缓冲区（环形缓冲区，固定容量）
                 if (vadBuffer == null) {
-                    vadFrameSizeBytes = "upsample8kTo16k".equals(reSample) ? 4096 : 2048;
+                    vadFrameSizeBytes = upsampler != null ? 4096 : 2048;
                     // VAD缓冲区容量：能容纳2-3个VAD帧，防止数据积压
-                    vadBuffer = new NettyAudioRingBuffer(ctx.alloc(), vadFrameSizeBytes * 3, false);
+                    vadBuffer = NettyAudioRingBuffer.withCapacity(ctx.alloc(), vadFrameSizeBytes * 3);
+                    vadFrame = ctx.alloc().buffer(vadFrameSizeBytes, vadFrameSizeBytes);
                     log.debug("初始化VAD环形缓冲区，容量: {}字节", vadFrameSizeBytes * 3);
                 }
 
@@ -230,41 +300,53 @@ public class NettyAsrRtpProcessor extends ChannelInitializer<DatagramChannel> {
             // 将数据添加到VAD环形缓冲区（自动覆盖旧数据，防止内存泄漏）
             vadBuffer.write(msg);
 
-            // 只处理一个VAD帧，保持与PCM接收的自然节奏
-            if (vadBuffer.getSize() >= vadFrameSizeBytes) {
-                // 读取一个聚合音频帧。8k 保持 2048 字节，16k 对应放大到 4096 字节。
-                ByteBuf vadFrameBuf = vadBuffer.read(vadFrameSizeBytes);
-                byte[] vadFrame = new byte[vadFrameSizeBytes];
-                vadFrameBuf.readBytes(vadFrame);
-                vadFrameBuf.release();
-
-                // 进行VAD检测
-                boolean isSpeakingBefore = vadHandle.getIsSpeaking();
-                vadHandle.receivePcm(vadFrame);
-                boolean isSpeakingNow = vadHandle.getIsSpeaking();
-
-                // 处理VAD状态变化
-                if (isSpeakingNow) {
-                    if (!isSpeakingBefore && !isReconnecting) {
-                        // 语音开始，移动读指针到500ms前，然后异步连接ASR
-                        log.debug("VAD检测到语音开始，移动读指针到500ms前");
-                        ringBuffer.moveReadPointerBack(500);
-                        asyncReconnectAsr();
-                    }
+            // 只处理一个VAD帧，保持与PCM接收的自然节奏；上一帧还在共享引擎中推理时先不取帧
+            if (!vadInFlight && vadBuffer.getSize() >= vadFrameSizeBytes) {
+                // 读取一个聚合音频帧到复用缓冲区。8k 保持 2048 字节，16k 对应放大到 4096 字节。
+                vadFrame.clear();
+                vadBuffer.readInto(vadFrame, vadFrameSizeBytes);
+
+                // 进行VAD检测，推理结果回到当前通道的EventLoop上处理状态变化
+                vadSpeakingBefore = vadHandle.getIsSpeaking();
+                vadInFlight = true;
+                if (!vadHandle.receivePcmAsync(vadFrame, ctx.executor(), onVadComplete)) {
+                    vadInFlight = false;
+                }
+            }
+        }
 
-                    // 语音期间，如果不在连接中则发送数据
-                    if (!isReconnecting) {
-                        sendBufferedAudio();
-                    }
-                } else if (isSpeakingBefore) {
-                    log.debug("VAD检测到语音结束");
-                    if (isReconnecting) {
-                        connectedAndSendRemain = true;
-                    } else {
-                        // 语音结束，发送所有剩余数据
-                        sendRemainingAudio();
-                        sendEof.execute();
-                    }
+        /**
+         * VAD检测完成后处理状态变化，在通道EventLoop上执行
+         */
+        private void onVadComplete() {
+            vadInFlight = false;
+            if (removed || ringBuffer == null || ringBuffer.isClosed()) {
+                return;
+            }
+            boolean isSpeakingBefore = vadSpeakingBefore;
+            boolean isSpeakingNow = vadHandle.getIsSpeaking();
+
+            // 处理VAD状态变化
+            if (isSpeakingNow) {
+                if (!isSpeakingBefore && !isReconnecting) {
+                    // 语音开始，移动读指针到500ms前，然后异步连接ASR
+                    log.debug("VAD检测到语音开始，移动读指针到500ms前");
+                    ringBuffer.moveReadPointerBack(500);
+                    asyncReconnectAsr();
+                }
+
+                // 语音期间，如果不在连接中则发送数据
+                if (!isReconnecting) {
+                    sendBufferedAudio();
+                }
+            } else if (isSpeakingBefore) {
+                log.debug("VAD检测到语音结束");
+                if (isReconnecting) {
+                    connectedAndSendRemain = true;
+                } else {
+                    // 语音结束，发送所有剩余数据
+                    sendRemainingAudio();
+                    sendEof.execute();
                 }
             }
         }
@@ -342,6 +424,12 @@ public class NettyAsrRtpProcessor extends ChannelInitializer<DatagramChannel> {
 
         @Override
         public void handlerRemoved(ChannelHandlerContext ctx) throws Exception {
+            releaseBuffers();
+            super.handlerRemoved(ctx);
+        }
+
+        void releaseBuffers() {
+            removed = true;
             if (ringBuffer != null) {
                 log.debug("释放音频缓冲区: {}", ringBuffer.getStatusInfo());
                 ringBuffer.release();
@@ -350,26 +438,72 @@ public class NettyAsrRtpProcessor extends ChannelInitializer<DatagramChannel> {
                 log.debug("释放VAD环形缓冲区: {}", vadBuffer.getStatusInfo());
                 vadBuffer.release();
             }
-            super.handlerRemoved(ctx);
+            if (vadFrame != null) {
+                vadFrame.release();
+                vadFrame = null;
+            }
         }
     }
 
+    /**
+     * 共享媒体端口模式下，由{@link SharedRtpSocket}在接收该路RTP的EventLoop上直接调用，
+     * 复用独占端口时的重排、解码和业务处理逻辑，不再为每路通话单独建立UDP通道
+     */
+    void receiveShared(ChannelHandlerContext ctx, DatagramPacket msg) {
+        if (!run) {
+            return;
+        }
+        if (sharedBusinessHandler == null) {
+            sharedBusinessHandler = new AsrBusinessHandler();
+        }
+        sharedContext = ctx;
+        processIncomingPacket(RtpPacket.view(msg.content()), ctx.alloc(), sharedSink);
+    }
+
+    private void onSharedPcm(ByteBuf buffer) {
+        try {
+            if (run && buffer.readableBytes() > 0 && sharedBusinessHandler != null) {
+                sharedBusinessHandler.onPcm(sharedContext, buffer);
+            }
+        } finally {
+            buffer.release();
+        }
+    }
+
+    /**
+     * 共享媒体端口模式下该路注销时释放缓冲区，需在接收该路RTP的EventLoop上调用
+     */
+    void detachShared() {
+        clearReorderRuntimeState();
+        if (sharedBusinessHandler != null) {
+            sharedBusinessHandler.releaseBuffers();
+            sharedBusinessHandler = null;
+        }
+        sharedContext = null;
+    }
+
     @Override
     protected void initChannel(DatagramChannel ch) {
         ChannelPipeline pipeline = ch.pipeline();
         // RTP处理器
         pipeline.addLast("rtpHandler", new SimpleChannelInboundHandler<DatagramPacket>() {
+            private ChannelHandlerContext context;
+            private final Consumer<ByteBuf> forward = this::forward;
+
             @Override
             protected void channelRead0(ChannelHandlerContext ctx, DatagramPacket msg) {
                 if (run) {
-                    RtpPacket packet = RtpPacket.parse(msg.content());
-                    processIncomingPacket(packet, ctx.alloc(), buffer -> {
-                        if (run && buffer.readableBytes() > 0) {
-                            ctx.fireChannelRead(buffer);
-                        } else {
-                            buffer.release();
-                        }
-                    });
+                    context = ctx;
+                    // 包直接切片引用datagram内容，由重排窗口负责释放
+                    processIncomingPacket(RtpPacket.view(msg.content()), ctx.alloc(), forward);
+                }
+            }
+
+            private void forward(ByteBuf buffer) {
+                if (run && buffer.readableBytes() > 0) {
+                    context.fireChannelRead(buffer);
+                } else {
+                    buffer.release();
                 }
             }
 
@@ -12,8 +12,9 @@ import lombok.extern.slf4j.Slf4j;
  * <ul>
  *   <li>单个连续内存块，缓存友好</li>
  *   <li>读写指针环形移动</li>
- *   <li>固定3秒音频数据容量</li>
+ *   <li>固定容量（默认3秒音频数据），不扩容</li>
  *   <li>容量满时自动覆盖最旧数据</li>
+ *   <li>TTS等不能丢数据的场景使用{@link ChunkedAudioQueue}</li>
  *   <li>O(1)复杂度的指针操作</li>
  * </ul>
  * 
@@ -33,19 +34,16 @@ public class NettyAudioRingBuffer {
     private final ByteBufAllocator allocator;
     
     /** 环形缓冲区 */
-    private ByteBuf circularBuffer;
+    private final ByteBuf circularBuffer;
     
-    /** 缓冲区当前容量（字节） */
-    private int capacity;
+    /** 缓冲区容量（字节） */
+    private final int capacity;
     
     /** 采样率 */
     private final int sampleRate;
     
     /** 缓冲时长（秒） */
-    private int bufferSeconds;
-    
-    /** 是否启用自动扩容（TTS模式） */
-    private final boolean enableAutoExpand;
+    private final int bufferSeconds;
     
     /** 写指针位置 */
     private int writePos = 0;
@@ -60,54 +58,46 @@ public class NettyAudioRingBuffer {
     private boolean closed = false;
 
     /**
-     * 构造函数 - 默认3秒缓冲容量（ASR模式，不扩容）
+     * 构造函数 - 默认3秒缓冲容量
      * 
      * @param allocator ByteBuf分配器
      * @param sampleRate 采样率（Hz）
      */
     public NettyAudioRingBuffer(ByteBufAllocator allocator, int sampleRate) {
-        this(allocator, sampleRate, 3, false); // 默认3秒，ASR模式
+        this(allocator, sampleRate, 3); // 默认3秒
     }
     
     /**
-     * 构造函数 - 自定义缓冲容量和扩容模式
+     * 构造函数 - 自定义缓冲时长
      * 
      * @param allocator ByteBuf分配器
      * @param sampleRate 采样率（Hz）
      * @param bufferSeconds 缓冲时长（秒）
-     * @param enableAutoExpand 是否启用自动扩容（TTS模式）
      */
-    public NettyAudioRingBuffer(ByteBufAllocator allocator, int sampleRate, int bufferSeconds, boolean enableAutoExpand) {
+    public NettyAudioRingBuffer(ByteBufAllocator allocator, int sampleRate, int bufferSeconds) {
+        this(allocator, sampleRate, Math.max(1, bufferSeconds), calculateCapacity(sampleRate, Math.max(1, bufferSeconds))); // 最少1秒
+    }
+    
+    private NettyAudioRingBuffer(ByteBufAllocator allocator, int sampleRate, int bufferSeconds, int capacity) {
         this.allocator = allocator;
         this.sampleRate = sampleRate;
-        this.bufferSeconds = Math.max(1, bufferSeconds); // 最少1秒
-        this.enableAutoExpand = enableAutoExpand;
-        this.capacity = calculateCapacity(sampleRate, this.bufferSeconds);
+        this.bufferSeconds = bufferSeconds;
+        this.capacity = capacity;
         this.circularBuffer = allocator.buffer(capacity);
         
-        String mode = enableAutoExpand ? "TTS模式(支持扩容)" : "ASR模式(固定容量)";
-        log.debug("创建环形缓冲区 - 采样率: {}Hz, 缓冲时长: {}秒, 容量: {}字节({:.1f}MB), {}", 
-                sampleRate, this.bufferSeconds, capacity, capacity / 1024.0 / 1024.0, mode);
+        log.debug("创建环形缓冲区 - 采样率: {}Hz, 缓冲时长: {}秒, 容量: {}字节", sampleRate, bufferSeconds, capacity);
     }
     
     /**
-     * 构造函数 - 直接按字节数分配容量（用于VAD等特殊场景）
+     * 按字节数创建固定容量的环形缓冲区（用于VAD等特殊场景）
      * 
      * @param allocator ByteBuf分配器
-     * @param capacityBytes 直接指定的缓冲区容量（字节）
-     * @param enableAutoExpand 是否启用自动扩容
+     * @param capacityBytes 缓冲区容量（字节），最少1KB
      */
-    public NettyAudioRingBuffer(ByteBufAllocator allocator, int capacityBytes, boolean enableAutoExpand) {
-        this.allocator = allocator;
-        this.sampleRate = 16000; // 默认采样率，仅用于日志显示
-        this.capacity = Math.max(1024, capacityBytes); // 最少1KB
-        this.bufferSeconds = capacity / (sampleRate * 2); // 计算等效时长
-        this.enableAutoExpand = enableAutoExpand;
-        this.circularBuffer = allocator.buffer(capacity);
-        
-        String mode = enableAutoExpand ? "TTS模式(支持扩容)" : "ASR模式(固定容量)";
-        log.debug("创建环形缓冲区(按字节) - 容量: {}字节({:.1f}KB), 等效时长: {}秒, {}", 
-                capacity, capacity / 1024.0, bufferSeconds, mode);
+    public static NettyAudioRingBuffer withCapacity(ByteBufAllocator allocator, int capacityBytes) {
+        int capacity = Math.max(1024, capacityBytes); // 最少1KB
+        int sampleRate = 16000; // 默认采样率，仅用于日志显示
+        return new NettyAudioRingBuffer(allocator, sampleRate, capacity / (sampleRate * 2), capacity);
     }
     
     /**
@@ -122,85 +112,7 @@ public class NettyAudioRingBuffer {
     }
     
     /**
-     * 尝试扩容缓冲区到原来时间的两倍
-     * 
-     * @param additionalSize 需要额外的字节数
-     * @return 是否扩容成功
-     */
-    private boolean tryExpand(int additionalSize) {
-        // 计算新的缓冲时长（两倍）
-        int newBufferSeconds = bufferSeconds * 2;
-        int newCapacity = calculateCapacity(sampleRate, newBufferSeconds);
-        
-        // 检查是否还需要更多容量
-        if (dataSize + additionalSize > newCapacity) {
-            // 计算实际需要的秒数
-            int requiredBytes = dataSize + additionalSize;
-            int requiredSeconds = (requiredBytes / (sampleRate * 2)) + 1;
-            newBufferSeconds = Math.max(newBufferSeconds, requiredSeconds);
-            newCapacity = calculateCapacity(sampleRate, newBufferSeconds);
-        }
-        
-        try {
-            // 创建新的更大的缓冲区
-            ByteBuf newBuffer = allocator.buffer(newCapacity);
-            
-            // 复制现有数据到新缓冲区
-            if (dataSize > 0) {
-                copyDataToNewBuffer(newBuffer);
-            }
-            
-            // 释放旧缓冲区
-            circularBuffer.release();
-            
-            // 更新状态
-            circularBuffer = newBuffer;
-            int oldCapacity = capacity;
-            capacity = newCapacity;
-            bufferSeconds = newBufferSeconds;
-            
-            // 重置指针（新缓冲区中数据是线性排列的）
-            readPos = 0;
-            writePos = dataSize;
-            
-            log.info("TTS模式：缓冲区扩容成功 - 从{}秒({:.1f}MB)扩容到{}秒({:.1f}MB)", 
-                    oldCapacity / (sampleRate * 2), oldCapacity / 1024.0 / 1024.0,
-                    bufferSeconds, capacity / 1024.0 / 1024.0);
-            
-            return true;
-            
-        } catch (Exception e) {
-            log.warn("TTS模式：缓冲区扩容失败: {}", e.getMessage());
-            return false;
-        }
-    }
-    
-    /**
-     * 将现有数据复制到新缓冲区
-     */
-    private void copyDataToNewBuffer(ByteBuf newBuffer) {
-        if (dataSize == 0) {
-            return;
-        }
-        
-        // 按顺序读取所有现有数据并写入新缓冲区
-        int remaining = dataSize;
-        int currentReadPos = readPos;
-        
-        while (remaining > 0) {
-            int dataToEnd = capacity - currentReadPos;
-            int bytesToCopy = Math.min(remaining, dataToEnd);
-            
-            // 从旧缓冲区复制到新缓冲区
-            newBuffer.writeBytes(circularBuffer, currentReadPos, bytesToCopy);
-            
-            currentReadPos = (currentReadPos + bytesToCopy) % capacity;
-            remaining -= bytesToCopy;
-        }
-    }
-    
-    /**
-     * 写入音频数据，支持自动扩容，满时可选择覆盖或扩容
+     * 写入音频数据，容量不足时覆盖最旧数据
      * 注意：设计为单线程使用（EventLoop线程），无需同步锁
      */
     public void write(ByteBuf data) {
@@ -214,23 +126,12 @@ public class NettyAudioRingBuffer {
         
         int dataLength = data.readableBytes();
         
-        // 检查是否需要扩容（仅在TTS模式下）
+        // 容量不足时直接覆盖旧数据，不扩容
         if (dataSize + dataLength > capacity) {
-            if (enableAutoExpand) {
-                // TTS模式：尝试扩容，如果扩容失败则覆盖旧数据
-                if (!tryExpand(dataLength)) {
-                    int overflow = dataSize + dataLength - capacity;
-                    moveReadPointer(overflow);
-                    dataSize -= overflow;
-                    log.debug("TTS模式：扩容失败，覆盖旧数据: {}字节", overflow);
-                }
-            } else {
-                // ASR模式：直接覆盖旧数据，不扩容
-                int overflow = dataSize + dataLength - capacity;
-                moveReadPointer(overflow);
-                dataSize -= overflow;
-                log.trace("ASR模式：容量不足，覆盖旧数据: {}字节", overflow);
-            }
+            int overflow = dataSize + dataLength - capacity;
+            moveReadPointer(overflow);
+            dataSize -= overflow;
+            log.trace("容量不足，覆盖旧数据: {}字节", overflow);
         }
         
         // 写入数据（可能需要环形写入）
@@ -263,6 +164,22 @@ public class NettyAudioRingBuffer {
         return result;
     }
     
+    /**
+     * 读取指定长度的数据到调用方复用的缓冲区，不额外分配ByteBuf
+     *
+     * @return 实际读取的字节数
+     */
+    public int readInto(ByteBuf dest, int length) {
+        if (checkClosed() || length <= 0 || dataSize == 0) {
+            return 0;
+        }
+
+        int actualLength = Math.min(Math.min(length, dataSize), dest.writableBytes());
+        readFromCircularBuffer(dest, actualLength);
+        dataSize -= actualLength;
+        return actualLength;
+    }
+
     /**
      * 读取所有数据
      */
@@ -437,9 +354,8 @@ public class NettyAudioRingBuffer {
      * 获取状态信息
      */
     public String getStatusInfo() {
-        String mode = enableAutoExpand ? "TTS" : "ASR";
-        return String.format("CircularAudioBuffer[%s]{size=%d/%d bytes(%.1fs/%.1fs), usage=%.1f%%, sampleRate=%dHz, closed=%s}",
-                mode, dataSize, capacity, getUsedSeconds(), (double)bufferSeconds, 
+        return String.format("CircularAudioBuffer{size=%d/%d bytes(%.1fs/%.1fs), usage=%.1f%%, sampleRate=%dHz, closed=%s}",
+                dataSize, capacity, getUsedSeconds(), (double)bufferSeconds, 
                 getUsageRatio() * 100, sampleRate, closed);
     }
     
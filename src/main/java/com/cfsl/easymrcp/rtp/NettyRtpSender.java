@@ -31,6 +31,9 @@ public class NettyRtpSender {
     private final InetAddress destAddress;
     private final int destPort;
     private Channel channel;
+    private boolean sharedChannel;
+    // 发送线程的延迟flush集合，为null时每帧直接writeAndFlush
+    private RtpFlushBatch flushBatch;
     private ByteBuf silenceFrame;
     private int frameBytes = EMConstant.VOIP_SAMPLES_PER_FRAME;
     private boolean endianSwapRequired;
@@ -64,7 +67,22 @@ public class NettyRtpSender {
      * 设置 RTP 通道。
      */
     public void setRtpChannel(Channel channel) {
+        setRtpChannel(channel, false);
+    }
+
+    /**
+     * 设置 RTP 通道；共享媒体端口的通道由 RtpManager 统一管理，关闭发送器时不关闭通道。
+     */
+    public void setRtpChannel(Channel channel, boolean sharedChannel) {
         this.channel = channel;
+        this.sharedChannel = sharedChannel;
+    }
+
+    /**
+     * 绑定发送线程的延迟flush集合，之后每帧只write，由发送线程在节拍结束时统一flush。
+     */
+    public void setFlushBatch(RtpFlushBatch flushBatch) {
+        this.flushBatch = flushBatch;
     }
 
     /**
@@ -83,7 +101,13 @@ public class NettyRtpSender {
         try {
             ByteBuf rtpPacket = buildRtpPacket(payloadData, payloadData.readerIndex(), payloadData.readableBytes());
             DatagramPacket packet = new DatagramPacket(rtpPacket, new InetSocketAddress(destAddress, destPort));
-            channel.writeAndFlush(packet);
+            RtpFlushBatch batch = flushBatch;
+            if (batch != null) {
+                channel.write(packet, channel.voidPromise());
+                batch.add(channel);
+            } else {
+                channel.writeAndFlush(packet);
+            }
             updateRtpHeader();
         } catch (Exception e) {
             log.error("RTP 发送失败", e);
@@ -109,17 +133,11 @@ public class NettyRtpSender {
         rtpPacket.writeInt(ssrc);
 
         if (endianSwapRequired) {
-            byte[] tempBuffer = new byte[length];
-            payload.getBytes(offset, tempBuffer);
-            for (int i = 0; i < tempBuffer.length; i += 2) {
-                if (i + 1 < tempBuffer.length) {
-                    byte lowByte = tempBuffer[i];
-                    byte highByte = tempBuffer[i + 1];
-                    tempBuffer[i] = highByte;
-                    tempBuffer[i + 1] = lowByte;
-                }
+            int swapped = AudioCodecUtil.swapL16(payload, offset, length, rtpPacket);
+            if (swapped < length) {
+                // 奇数长度时末尾字节无法成对，原样写出
+                rtpPacket.writeByte(payload.getByte(offset + swapped));
             }
-            rtpPacket.writeBytes(tempBuffer);
         } else {
             rtpPacket.writeBytes(payload, offset, length);
         }
@@ -157,7 +175,7 @@ public class NettyRtpSender {
                 log.warn("释放静音帧失败", e);
             }
         }
-        if (channel != null) {
+        if (channel != null && !sharedChannel) {
             channel.close();
         }
     }
@@ -0,0 +1,46 @@
+package com.cfsl.easymrcp.rtp;
+
+import io.netty.channel.Channel;
+
+import java.util.Arrays;
+
+/**
+ * 一个发送节拍内的延迟flush集合
+ * 发送线程在一个节拍内只write不flush，节拍结束时对涉及的通道统一flush一次，
+ * epoll传输下同一通道积压的多个报文会通过一次sendmmsg发出。
+ * 只能由单个发送线程使用。
+ */
+public final class RtpFlushBatch {
+    private Channel[] channels = new Channel[8];
+    private int size;
+
+    /**
+     * 记录本节拍写过的通道，同一通道只记录一次
+     */
+    public void add(Channel channel) {
+        for (int i = 0; i < size; i++) {
+            if (channels[i] == channel) {
+                return;
+            }
+        }
+        if (size == channels.length) {
+            channels = Arrays.copyOf(channels, size * 2);
+        }
+        channels[size++] = channel;
+    }
+
+    /**
+     * flush本节拍写过的全部通道
+     */
+    public void flush() {
+        for (int i = 0; i < size; i++) {
+            channels[i].flush();
+            channels[i] = null;
+        }
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+}
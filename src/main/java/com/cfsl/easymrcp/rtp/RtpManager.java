@@ -1,9 +1,9 @@
 package com.cfsl.easymrcp.rtp;
 
+import com.cfsl.easymrcp.utils.NettyTransport;
 import io.netty.bootstrap.Bootstrap;
 import io.netty.channel.*;
-import io.netty.channel.nio.NioEventLoopGroup;
-import io.netty.channel.socket.nio.NioDatagramChannel;
+import io.netty.channel.epoll.EpollChannelOption;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -18,43 +18,120 @@ import java.util.concurrent.ConcurrentHashMap;
 /**
  * RTP资源管理器
  * 负责管理RTP端口分配和Netty资源
+ * 按路绑定时端口由{@link RtpPortAllocator}分配，通话关闭时归还
  */
 @Slf4j
 @Component
 public class RtpManager {
+    private static final int RTP_SOCKET_BUFFER_BYTES = 1024 * 1024;
+
     @Value("${rtp.nettyThreads:0}")
     private int nettyThreads;
+    // 传输层：nio或epoll，epoll不可用时自动退回nio
+    @Value("${rtp.transport:nio}")
+    private String transportName;
+    // epoll下单个UDP报文的最大长度，大于0时启用recvmmsg批量读取
+    @Value("${rtp.epoll.max-datagram-bytes:1500}")
+    private int epollMaxDatagramBytes;
+    // epoll下一次recvmmsg最多读取的报文数
+    @Value("${rtp.epoll.recv-batch:16}")
+    private int epollRecvBatch;
+    // 是否启用共享媒体端口，启用后SIP通话不再按路绑定UDP端口
+    @Value("${rtp.shared-socket.enabled:false}")
+    private boolean sharedSocketEnabled;
+    // 共享媒体端口
+    @Value("${rtp.shared-socket.port:19999}")
+    private int sharedSocketPort;
+    // epoll模式下绑定的socket数量，0表示取CPU核心数
+    @Value("${rtp.shared-socket.sockets:0}")
+    private int sharedSocketCount;
+    // 按路分配的RTP端口范围
+    @Value("${rtp.asrStartPort:20000}")
+    private int rtpStartPort;
+    @Value("${rtp.asrStopPort:22000}")
+    private int rtpStopPort;
+    // 端口释放后的隔离时间，隔离期内不再分配，吸收上一通电话的迟到报文
+    @Value("${rtp.port-quarantine-ms:2000}")
+    private long portQuarantineMs;
 
     // 共享的EventLoopGroup
     @Getter
     private EventLoopGroup rtpEventLoopGroup;
+    @Getter
+    private NettyTransport transport;
 
     private final Map<String, Channel> rtpChannels = new ConcurrentHashMap<>();
+    /** 通话占用的本地RTP端口，通话关闭时释放 */
+    private final Map<String, Integer> allocatedPorts = new ConcurrentHashMap<>();
+    @Getter
+    private RtpPortAllocator portAllocator;
+
+    private SharedRtpSocket sharedRtpSocket;
 
     /**
      * 初始化RTP管理器
      */
     @PostConstruct
     public void init() {
+        transport = NettyTransport.resolve(transportName);
+        portAllocator = new RtpPortAllocator(rtpStartPort, rtpStopPort, portQuarantineMs);
         // 创建共享的EventLoopGroup
         if (nettyThreads <= 0) {
             // 如果未设置或设置为0，则使用默认值（CPU核心数的2倍）
-            rtpEventLoopGroup = new NioEventLoopGroup();
-            log.info("使用默认线程数（CPU核心数的2倍）初始化Netty EventLoopGroup");
+            rtpEventLoopGroup = transport.newEventLoopGroup(0);
+            log.info("使用默认线程数（CPU核心数的2倍）初始化Netty EventLoopGroup，传输层: {}", transport);
         } else {
-            rtpEventLoopGroup = new NioEventLoopGroup(nettyThreads);
-            log.info("使用配置的线程数 {} 初始化Netty EventLoopGroup", nettyThreads);
+            rtpEventLoopGroup = transport.newEventLoopGroup(nettyThreads);
+            log.info("使用配置的线程数 {} 初始化Netty EventLoopGroup，传输层: {}", nettyThreads, transport);
+        }
+        if (sharedSocketEnabled) {
+            try {
+                int socketCount = transport == NettyTransport.EPOLL
+                        ? (sharedSocketCount > 0 ? sharedSocketCount : Runtime.getRuntime().availableProcessors())
+                        : 1;
+                sharedRtpSocket = new SharedRtpSocket(sharedSocketPort, socketCount, transport == NettyTransport.EPOLL, newDatagramBootstrap());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException(e);
+            }
+        }
+    }
+
+    public boolean isSharedSocketEnabled() {
+        return sharedRtpSocket != null;
+    }
+
+    /**
+     * SDP中通告的本地RTP端口：共享模式下为共享端口，否则按路分配
+     */
+    public int getSharedSocketPort() {
+        return sharedRtpSocket.getPort();
+    }
+
+    /**
+     * 为通话分配本地RTP端口，同一通话重复调用返回同一端口，{@link #close(String)}时释放
+     */
+    public int allocateRtpPort(String dialogId) {
+        return allocatedPorts.computeIfAbsent(dialogId, id -> portAllocator.allocate());
+    }
+
+    /**
+     * 为SIP通话建立RTP收发：共享模式下注册到共享端口按远端地址分发，否则绑定独立端口
+     *
+     * @param remoteAddress 远端RTP地址，共享模式下用于分发
+     * @return TTS发送RTP使用的通道
+     */
+    public Channel createRtpChannel(String dialogId, int localPort, InetSocketAddress remoteAddress, NettyAsrRtpProcessor nettyAsrRtpProcessor) {
+        if (sharedRtpSocket != null) {
+            return sharedRtpSocket.register(dialogId, remoteAddress, nettyAsrRtpProcessor);
         }
+        return createRtpChannel(dialogId, localPort, nettyAsrRtpProcessor);
     }
 
     public Channel createRtpChannel(String dialogId, int localPort, NettyAsrRtpProcessor nettyAsrRtpProcessor) {
         try {
-            Bootstrap bootstrap = new Bootstrap()
-                    .group(rtpEventLoopGroup)
-                    .channel(NioDatagramChannel.class)
+            Bootstrap bootstrap = newDatagramBootstrap()
                     .option(ChannelOption.SO_BROADCAST, true)
-                    .option(ChannelOption.SO_RCVBUF, 1024 * 1024)
-                    .option(ChannelOption.SO_SNDBUF, 1024 * 1024)
                     .handler(nettyAsrRtpProcessor);
             Channel channel = bootstrap.bind(new InetSocketAddress(localPort)).sync().channel();
             rtpChannels.put(dialogId, channel);
@@ -64,6 +141,23 @@ public class RtpManager {
         }
     }
 
+    /**
+     * 按当前传输层创建UDP Bootstrap。
+     * epoll下设置最大报文长度并让接收缓冲能容纳多个报文，一次读事件通过recvmmsg批量读取。
+     */
+    private Bootstrap newDatagramBootstrap() {
+        Bootstrap bootstrap = new Bootstrap()
+                .group(rtpEventLoopGroup)
+                .channel(transport.datagramChannelClass())
+                .option(ChannelOption.SO_RCVBUF, RTP_SOCKET_BUFFER_BYTES)
+                .option(ChannelOption.SO_SNDBUF, RTP_SOCKET_BUFFER_BYTES);
+        if (transport == NettyTransport.EPOLL && epollMaxDatagramBytes > 0 && epollRecvBatch > 1) {
+            bootstrap.option(EpollChannelOption.MAX_DATAGRAM_PAYLOAD_SIZE, epollMaxDatagramBytes)
+                    .option(ChannelOption.RCVBUF_ALLOCATOR, new FixedRecvByteBufAllocator(epollMaxDatagramBytes * epollRecvBatch));
+        }
+        return bootstrap;
+    }
+
     /**
      * 销毁RTP管理器，释放资源
      */
@@ -72,6 +166,10 @@ public class RtpManager {
         // 关闭所有RTP通道
         rtpChannels.values().forEach(Channel::close);
         rtpChannels.clear();
+        allocatedPorts.clear();
+        if (sharedRtpSocket != null) {
+            sharedRtpSocket.close();
+        }
 
         // 关闭EventLoopGroup
         if (rtpEventLoopGroup != null) {
@@ -91,7 +189,15 @@ public class RtpManager {
     }
 
     public void close(String dialogId) {
-        rtpChannels.get(dialogId).close();
-        rtpChannels.remove(dialogId);
+        Channel channel = rtpChannels.remove(dialogId);
+        if (channel != null) {
+            channel.close();
+        } else if (sharedRtpSocket != null) {
+            sharedRtpSocket.unregister(dialogId);
+        }
+        Integer port = allocatedPorts.remove(dialogId);
+        if (port != null) {
+            portAllocator.release(port);
+        }
     }
 } 
\ No newline at end of file
@@ -1,20 +1,43 @@
 package com.cfsl.easymrcp.rtp;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
 import io.netty.buffer.Unpooled;
+import io.netty.util.AbstractReferenceCounted;
+import io.netty.util.internal.ObjectPool;
 
 import java.util.Arrays;
 import java.util.Objects;
 
-public final class RtpPacket {
+/**
+ * An RTP packet.
+ *
+ * <p>Packets created by {@link #parse(ByteBuf)}, {@link #of} and {@link #silenceLike} own a heap copy of
+ * their payload. Packets created by {@link #view(ByteBuf)} are pooled flyweights whose payload is a
+ * retained slice of the received datagram; they must be released exactly once after use, after which
+ * the instance is recycled and must not be touched again.
+ */
+public final class RtpPacket extends AbstractReferenceCounted {
     private static final int RTP_HEADER_LENGTH = 12;
     private static final int CSRC_LENGTH = 4;
     private static final int EXTENSION_HEADER_LENGTH = 4;
 
-    private final int payloadType;
-    private final int sequenceNumber;
-    private final long timestamp;
-    private final byte[] payload;
+    private static final ObjectPool<RtpPacket> POOL = ObjectPool.newPool(RtpPacket::new);
+
+    // Only set for pooled views
+    private final ObjectPool.Handle<RtpPacket> handle;
+
+    private int payloadType;
+    private int sequenceNumber;
+    private long timestamp;
+    // Heap payload of copied packets
+    private byte[] payload;
+    // Payload slice of pooled views, holds one reference to the datagram buffer
+    private ByteBuf payloadBuf;
+
+    private RtpPacket(ObjectPool.Handle<RtpPacket> handle) {
+        this.handle = handle;
+    }
 
     private RtpPacket(int payloadType, int sequenceNumber, long timestamp, byte[] payload) {
         this(payloadType, sequenceNumber, timestamp, payload, true);
@@ -24,6 +47,7 @@ public final class RtpPacket {
         validatePayloadType(payloadType);
         validateSequenceNumber(sequenceNumber);
         validateTimestamp(timestamp);
+        this.handle = null;
         this.payloadType = payloadType;
         this.sequenceNumber = sequenceNumber;
         this.timestamp = timestamp;
@@ -33,6 +57,38 @@ public final class RtpPacket {
 
     public static RtpPacket parse(ByteBuf byteBuf) {
         Objects.requireNonNull(byteBuf, "byteBuf must not be null");
+        int headerLength = headerLength(byteBuf);
+        int payloadLength = payloadLength(byteBuf, headerLength);
+        int readerIndex = byteBuf.readerIndex();
+
+        byte[] payload = new byte[payloadLength];
+        byteBuf.getBytes(readerIndex + headerLength, payload);
+        return new RtpPacket(payloadType(byteBuf), sequenceNumber(byteBuf), timestamp(byteBuf), payload, false);
+    }
+
+    /**
+     * Parse the header and slice the payload without copying.
+     * The returned packet is taken from a pool and retains {@code byteBuf}; the caller owns one
+     * reference and must {@link #release()} it. The readerIndex of {@code byteBuf} is not changed.
+     */
+    public static RtpPacket view(ByteBuf byteBuf) {
+        Objects.requireNonNull(byteBuf, "byteBuf must not be null");
+        int headerLength = headerLength(byteBuf);
+        int payloadLength = payloadLength(byteBuf, headerLength);
+
+        RtpPacket packet = POOL.get();
+        packet.setRefCnt(1);
+        packet.payloadType = payloadType(byteBuf);
+        packet.sequenceNumber = sequenceNumber(byteBuf);
+        packet.timestamp = timestamp(byteBuf);
+        packet.payloadBuf = byteBuf.retainedSlice(byteBuf.readerIndex() + headerLength, payloadLength);
+        return packet;
+    }
+
+    /**
+     * Validate the fixed header, CSRC list and extension, and return the header length.
+     */
+    private static int headerLength(ByteBuf byteBuf) {
         int length = byteBuf.readableBytes();
         if (length < RTP_HEADER_LENGTH) {
             throw new IllegalArgumentException("RTP packet must be at least 12 bytes");
@@ -42,7 +98,6 @@ public final class RtpPacket {
         int firstByte = byteBuf.getByte(readerIndex) & 0xFF;
         int csrcCount = firstByte & 0x0F;
         boolean hasExtension = (firstByte & 0x10) != 0;
-        boolean hasPadding = (firstByte & 0x20) != 0;
         int headerLength = RTP_HEADER_LENGTH + (csrcCount * CSRC_LENGTH);
         if (length < headerLength) {
             throw malformedPacket("CSRC entries exceed packet length");
@@ -60,7 +115,16 @@ public final class RtpPacket {
             }
             headerLength += extensionLength;
         }
+        return headerLength;
+    }
 
+    /**
+     * Payload length after the header, excluding padding.
+     */
+    private static int payloadLength(ByteBuf byteBuf, int headerLength) {
+        int length = byteBuf.readableBytes();
+        int readerIndex = byteBuf.readerIndex();
+        boolean hasPadding = (byteBuf.getByte(readerIndex) & 0x20) != 0;
         int payloadLength = length - headerLength;
         if (hasPadding) {
             int paddingLength = byteBuf.getByte(readerIndex + length - 1) & 0xFF;
@@ -72,18 +136,19 @@ public final class RtpPacket {
         if (payloadLength < 0) {
             throw malformedPacket("payload bounds are invalid");
         }
+        return payloadLength;
+    }
 
-        int payloadType = byteBuf.getByte(readerIndex + 1) & 0x7F;
-        int sequenceNumber = ((byteBuf.getByte(readerIndex + 2) & 0xFF) << 8)
-                | (byteBuf.getByte(readerIndex + 3) & 0xFF);
-        long timestamp = ((long) (byteBuf.getByte(readerIndex + 4) & 0xFF) << 24)
-                | ((long) (byteBuf.getByte(readerIndex + 5) & 0xFF) << 16)
-                | ((long) (byteBuf.getByte(readerIndex + 6) & 0xFF) << 8)
-                | (byteBuf.getByte(readerIndex + 7) & 0xFFL);
+    private static int payloadType(ByteBuf byteBuf) {
+        return byteBuf.getByte(byteBuf.readerIndex() + 1) & 0x7F;
+    }
 
-        byte[] payload = new byte[payloadLength];
-        byteBuf.getBytes(readerIndex + headerLength, payload);
-        return new RtpPacket(payloadType, sequenceNumber, timestamp, payload, false);
+    private static int sequenceNumber(ByteBuf byteBuf) {
+        return byteBuf.getUnsignedShort(byteBuf.readerIndex() + 2);
+    }
+
+    private static long timestamp(ByteBuf byteBuf) {
+        return byteBuf.getUnsignedInt(byteBuf.readerIndex() + 4);
     }
 
     public static RtpPacket parseRtpHeader(byte[] data, int length) {
@@ -111,6 +176,13 @@ public final class RtpPacket {
         return new RtpPacket(source.payloadType, sequenceNumber, timestamp, payload);
     }
 
+    /**
+     * Packet backed by a caller-owned payload that is never modified, such as a shared silence frame.
+     */
+    static RtpPacket sharing(int payloadType, int sequenceNumber, long timestamp, byte[] payload) {
+        return new RtpPacket(payloadType, sequenceNumber, timestamp, payload, false);
+    }
+
     public int getPayloadType() {
         return payloadType;
     }
@@ -124,13 +196,50 @@ public final class RtpPacket {
     }
 
     public byte[] getPayload() {
+        if (payloadBuf != null) {
+            return ByteBufUtil.getBytes(payloadBuf);
+        }
         return Arrays.copyOf(payload, payload.length);
     }
 
     byte[] payloadView() {
+        if (payloadBuf != null) {
+            return ByteBufUtil.getBytes(payloadBuf);
+        }
         return payload;
     }
 
+    /**
+     * Payload as a buffer that is only valid while this packet is retained.
+     * The caller must not release it or move its reader index.
+     */
+    ByteBuf payloadBuffer() {
+        if (payloadBuf != null) {
+            return payloadBuf;
+        }
+        return Unpooled.wrappedBuffer(payload);
+    }
+
+    @Override
+    public RtpPacket touch(Object hint) {
+        if (payloadBuf != null) {
+            payloadBuf.touch(hint);
+        }
+        return this;
+    }
+
+    @Override
+    protected void deallocate() {
+        if (payloadBuf != null) {
+            payloadBuf.release();
+            payloadBuf = null;
+        }
+        // Copied packets keep their payload readable after release
+        if (handle != null) {
+            handle.recycle(this);
+        }
+    }
+
     private static void validatePayloadType(int payloadType) {
         if (payloadType < 0 || payloadType > 127) {
             throw new IllegalArgumentException("payloadType must be between 0 and 127");
@@ -0,0 +1,153 @@
+package com.cfsl.easymrcp.rtp;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+/**
+ * RTP端口分配器
+ * 用位图记录端口范围内正在使用的端口，只分配偶数端口，奇数端口留给RTCP。
+ * 端口释放后先隔离一段时间再复用，避免上一通电话的迟到报文被新通话收到。
+ * 分配和释放都只用CAS，不加锁。
+ */
+public class RtpPortAllocator {
+    private final int basePort;
+    private final int slots;
+    private final long quarantineMs;
+    private final LongSupplier clock;
+    /** 每个bit对应一个偶数端口，置位表示正在使用 */
+    private final AtomicLongArray inUse;
+    /** 端口释放后可再次分配的时间 */
+    private final AtomicLongArray reusableAt;
+    /** 下一次分配的起始位置，轮转分配，使刚释放的端口尽量晚被复用 */
+    private final AtomicInteger cursor = new AtomicInteger();
+    private final AtomicInteger inUseCount = new AtomicInteger();
+    private final AtomicInteger peakInUse = new AtomicInteger();
+    private final AtomicLong allocations = new AtomicLong();
+    private final AtomicLong exhausted = new AtomicLong();
+
+    public RtpPortAllocator(int startPort, int stopPort, long quarantineMs) {
+        this(startPort, stopPort, quarantineMs, System::currentTimeMillis);
+    }
+
+    RtpPortAllocator(int startPort, int stopPort, long quarantineMs, LongSupplier clock) {
+        this.basePort = (startPort + 1) & ~1;
+        // 最后一个偶数端口的RTCP端口也要落在范围内
+        this.slots = Math.max(0, (stopPort - 1 - basePort) / 2 + 1);
+        if (slots == 0) {
+            throw new IllegalArgumentException("RTP端口范围无效: " + startPort + "-" + stopPort);
+        }
+        this.quarantineMs = quarantineMs;
+        this.clock = clock;
+        this.inUse = new AtomicLongArray((slots + 63) >>> 6);
+        this.reusableAt = new AtomicLongArray(slots);
+    }
+
+    /**
+     * 分配一个空闲的偶数端口
+     *
+     * @throws IllegalStateException 端口范围内没有可用端口
+     */
+    public int allocate() {
+        long now = clock.getAsLong();
+        int start = Math.floorMod(cursor.getAndIncrement(), slots);
+        for (int i = 0; i < slots; i++) {
+            int slot = start + i < slots ? start + i : start + i - slots;
+            if (isSet(slot) || reusableAt.get(slot) > now) {
+                continue;
+            }
+            if (trySet(slot)) {
+                int count = inUseCount.incrementAndGet();
+                peakInUse.accumulateAndGet(count, Math::max);
+                allocations.incrementAndGet();
+                cursor.set(slot + 1);
+                return basePort + slot * 2;
+            }
+        }
+        exhausted.incrementAndGet();
+        throw new IllegalStateException("RTP端口已耗尽，使用中: " + inUseCount.get() + "/" + slots);
+    }
+
+    /**
+     * 释放端口，隔离期过后才会再次分配；重复释放或范围外的端口忽略
+     */
+    public void release(int port) {
+        int offset = port - basePort;
+        if (offset < 0 || (offset & 1) != 0 || offset / 2 >= slots) {
+            return;
+        }
+        int slot = offset / 2;
+        // 先写隔离截止时间再清位，分配方看到空闲位时一定能看到新的截止时间
+        reusableAt.set(slot, clock.getAsLong() + quarantineMs);
+        if (tryClear(slot)) {
+            inUseCount.decrementAndGet();
+        }
+    }
+
+    public int capacity() {
+        return slots;
+    }
+
+    public int inUse() {
+        return inUseCount.get();
+    }
+
+    /**
+     * 端口使用率、隔离中的端口数、峰值和耗尽次数
+     */
+    public Map<String, Object> stats() {
+        long now = clock.getAsLong();
+        int quarantined = 0;
+        for (int slot = 0; slot < slots; slot++) {
+            if (!isSet(slot) && reusableAt.get(slot) > now) {
+                quarantined++;
+            }
+        }
+        int used = inUseCount.get();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("range", basePort + "-" + (basePort + slots * 2 - 1));
+        stats.put("capacity", slots);
+        stats.put("inUse", used);
+        stats.put("quarantined", quarantined);
+        stats.put("utilization", (double) used / slots);
+        stats.put("peakInUse", peakInUse.get());
+        stats.put("allocations", allocations.get());
+        stats.put("exhausted", exhausted.get());
+        return stats;
+    }
+
+    private boolean isSet(int slot) {
+        return (inUse.get(slot >>> 6) & (1L << slot)) != 0;
+    }
+
+    private boolean trySet(int slot) {
+        int word = slot >>> 6;
+        long mask = 1L << slot;
+        while (true) {
+            long current = inUse.get(word);
+            if ((current & mask) != 0) {
+                return false;
+            }
+            if (inUse.compareAndSet(word, current, current | mask)) {
+                return true;
+            }
+        }
+    }
+
+    private boolean tryClear(int slot) {
+        int word = slot >>> 6;
+        long mask = 1L << slot;
+        while (true) {
+            long current = inUse.get(word);
+            if ((current & mask) == 0) {
+                return false;
+            }
+            if (inUse.compareAndSet(word, current, current & ~mask)) {
+                return true;
+            }
+        }
+    }
+}
@@ -0,0 +1,258 @@
+package com.cfsl.easymrcp.rtp;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.EventLoop;
+import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.channel.epoll.EpollChannelOption;
+import io.netty.channel.socket.DatagramPacket;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 共享媒体端口
+ * 所有SIP通话共用同一个本地RTP端口，按远端地址分发到对应通话的{@link NettyAsrRtpProcessor}；
+ * 远端端口变化（如NAT重映射）时按SSRC找回原通话并更新远端地址；SSRC是明文，
+ * 只接受来自SDP协商主机或当前锁定主机的端口变化，其他主机带着已知SSRC的包丢弃并计数。
+ * 地址和SSRC都对不上时，按对称RTP的方式锁定到还没收到过RTP的通话：优先同IP的通话，
+ * 否则只有一路在等待时锁定到该路；仍无法确定的包丢弃并计数。
+ * epoll传输下绑定多个SO_REUSEPORT的UDP socket，由内核按四元组把同一路RTP固定分到同一个socket；
+ * 否则只绑定一个socket。
+ */
+@Slf4j
+public class SharedRtpSocket {
+    private static final int RTP_HEADER_LENGTH = 12;
+    private static final int SSRC_OFFSET = 8;
+
+    @Getter
+    private final int port;
+    private final List<Channel> channels;
+
+    private final Map<InetSocketAddress, Route> routesByRemote = new ConcurrentHashMap<>();
+    private final Map<Integer, Route> routesBySsrc = new ConcurrentHashMap<>();
+    private final Map<String, Route> routesByDialog = new ConcurrentHashMap<>();
+    // 还没收到过RTP的通话，未知来源的包按对称RTP锁定到这里的通话
+    private final Map<String, Route> pendingRoutes = new ConcurrentHashMap<>();
+    // 找不到对应通话而丢弃的包数
+    private final LongAdder unmatchedDrops = new LongAdder();
+
+    /**
+     * 一路通话的分发信息
+     */
+    private static final class Route {
+        private final String dialogId;
+        private final NettyAsrRtpProcessor processor;
+        // SDP协商的远端主机
+        private final InetAddress sdpHost;
+        private volatile InetSocketAddress remote;
+        private volatile Integer ssrc;
+        // 最近一次处理该路RTP的EventLoop，注销时在这里释放该路缓冲区
+        private volatile EventLoop eventLoop;
+
+        private Route(String dialogId, InetSocketAddress remote, NettyAsrRtpProcessor processor) {
+            this.dialogId = dialogId;
+            this.remote = remote;
+            this.sdpHost = remote.getAddress();
+            this.processor = processor;
+        }
+    }
+
+    /**
+     * 绑定共享端口
+     *
+     * @param port        本地RTP端口
+     * @param socketCount 绑定的socket数量，reusePort为false时只绑定一个
+     * @param reusePort   是否使用SO_REUSEPORT（仅epoll传输支持）
+     * @param bootstrap   已设置好EventLoopGroup、通道类型和收发缓冲的Bootstrap
+     */
+    public SharedRtpSocket(int port, int socketCount, boolean reusePort, Bootstrap bootstrap) throws InterruptedException {
+        this.port = port;
+        int count = reusePort ? Math.max(socketCount, 1) : 1;
+        List<Channel> bound = new ArrayList<>(count);
+        bootstrap.handler(new DemuxHandler());
+        if (reusePort) {
+            bootstrap.option(EpollChannelOption.SO_REUSEPORT, true);
+        }
+        for (int i = 0; i < count; i++) {
+            bound.add(bootstrap.bind(new InetSocketAddress(port)).sync().channel());
+        }
+        if (reusePort) {
+            log.info("共享RTP端口已绑定(epoll + SO_REUSEPORT): port={}, sockets={}", port, count);
+        } else {
+            log.warn("共享RTP端口使用单个socket，高并发下建议配置rtp.transport=epoll: port={}", port);
+        }
+        this.channels = Collections.unmodifiableList(bound);
+    }
+
+    /**
+     * 注册一路通话
+     *
+     * @return 该路TTS发送RTP使用的通道
+     */
+    public Channel register(String dialogId, InetSocketAddress remote, NettyAsrRtpProcessor processor) {
+        Route route = new Route(dialogId, remote, processor);
+        Route previous = routesByDialog.put(dialogId, route);
+        if (previous != null) {
+            removeRoute(previous);
+        }
+        routesByRemote.put(remote, route);
+        pendingRoutes.put(dialogId, route);
+        log.debug("共享RTP端口注册通话: dialogId={}, remote={}", dialogId, remote);
+        return channels.get((remote.hashCode() & Integer.MAX_VALUE) % channels.size());
+    }
+
+    /**
+     * 注销一路通话，并在其处理线程上释放缓冲区
+     *
+     * @return 是否存在该路通话
+     */
+    public boolean unregister(String dialogId) {
+        Route route = routesByDialog.remove(dialogId);
+        if (route == null) {
+            return false;
+        }
+        removeRoute(route);
+        EventLoop eventLoop = route.eventLoop;
+        if (eventLoop != null && !eventLoop.isShuttingDown()) {
+            eventLoop.execute(route.processor::detachShared);
+        } else {
+            route.processor.detachShared();
+        }
+        log.debug("共享RTP端口注销通话: dialogId={}", dialogId);
+        return true;
+    }
+
+    public boolean contains(String dialogId) {
+        return routesByDialog.containsKey(dialogId);
+    }
+
+    public int getRouteCount() {
+        return routesByDialog.size();
+    }
+
+    public long getUnmatchedDropCount() {
+        return unmatchedDrops.sum();
+    }
+
+    private void removeRoute(Route route) {
+        pendingRoutes.remove(route.dialogId, route);
+        routesByRemote.remove(route.remote, route);
+        Integer ssrc = route.ssrc;
+        if (ssrc != null) {
+            routesBySsrc.remove(ssrc, route);
+        }
+    }
+
+    public void close() {
+        routesByDialog.keySet().forEach(this::unregister);
+        channels.forEach(Channel::close);
+    }
+
+    /**
+     * 按远端地址分发，未知地址按SSRC重新锁定
+     */
+    @ChannelHandler.Sharable
+    private class DemuxHandler extends SimpleChannelInboundHandler<DatagramPacket> {
+        @Override
+        protected void channelRead0(ChannelHandlerContext ctx, DatagramPacket msg) {
+            ByteBuf content = msg.content();
+            if (content.readableBytes() < RTP_HEADER_LENGTH) {
+                return;
+            }
+            int ssrc = content.getInt(content.readerIndex() + SSRC_OFFSET);
+            InetSocketAddress sender = msg.sender();
+            Route route = routesByRemote.get(sender);
+            if (route == null) {
+                route = routesBySsrc.get(ssrc);
+                if (route != null && !isKnownHost(route, sender)) {
+                    // 其他主机带着已知SSRC，可能是第三方或串流，不能接管通话媒体
+                    dropUnmatched(sender, ssrc);
+                    return;
+                }
+                if (route == null) {
+                    route = latchPending(sender);
+                }
+                if (route == null) {
+                    dropUnmatched(sender, ssrc);
+                    return;
+                }
+                // 远端端口变化，按SSRC或对称RTP锁定到新地址
+                log.info("共享RTP端口远端地址变化: dialogId={}, {} -> {}", route.dialogId, route.remote, sender);
+                routesByRemote.remove(route.remote, route);
+                route.remote = sender;
+                routesByRemote.put(sender, route);
+            }
+            pendingRoutes.remove(route.dialogId, route);
+            Integer learned = route.ssrc;
+            if (learned == null || learned != ssrc) {
+                if (learned != null) {
+                    routesBySsrc.remove(learned, route);
+                }
+                route.ssrc = ssrc;
+                routesBySsrc.put(ssrc, route);
+            }
+            route.eventLoop = ctx.channel().eventLoop();
+            try {
+                route.processor.receiveShared(ctx, msg);
+            } catch (Exception e) {
+                log.error("共享RTP端口处理数据异常: dialogId={}", route.dialogId, e);
+            }
+        }
+
+        private boolean isKnownHost(Route route, InetSocketAddress sender) {
+            InetAddress host = sender.getAddress();
+            return Objects.equals(host, route.sdpHost) || Objects.equals(host, route.remote.getAddress());
+        }
+
+        private void dropUnmatched(InetSocketAddress sender, int ssrc) {
+            unmatchedDrops.increment();
+            long drops = unmatchedDrops.sum();
+            if (drops == 1 || drops % 1000 == 0) {
+                log.warn("共享RTP端口丢弃未知来源的包: sender={}, ssrc={}, 累计丢弃={}", sender, ssrc, drops);
+            }
+        }
+
+        /**
+         * 为未知来源挑选还没收到过RTP的通话：优先SDP地址与来源同IP的通话（NAT只改了端口），
+         * 否则只有一路在等待时选它；多路都可能时不猜，返回null
+         */
+        private Route latchPending(InetSocketAddress sender) {
+            Route sameHost = null;
+            int sameHostCount = 0;
+            Route only = null;
+            int pendingCount = 0;
+            for (Route route : pendingRoutes.values()) {
+                if (Objects.equals(route.remote.getAddress(), sender.getAddress())) {
+                    sameHost = route;
+                    sameHostCount++;
+                }
+                only = route;
+                pendingCount++;
+            }
+            Route candidate = sameHostCount == 1 ? sameHost : (sameHostCount == 0 && pendingCount == 1 ? only : null);
+            if (candidate == null) {
+                return null;
+            }
+            // 多个socket线程可能同时锁定，先移出等待集合的一方生效
+            return pendingRoutes.remove(candidate.dialogId, candidate) ? candidate : null;
+        }
+
+        @Override
+        public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+            log.error("共享RTP通道异常", cause);
+        }
+    }
+}
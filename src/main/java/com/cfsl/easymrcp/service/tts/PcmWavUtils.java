@@ -1,6 +1,7 @@
 package com.cfsl.easymrcp.service.tts;
 
-import java.io.ByteArrayOutputStream;
+import com.cfsl.easymrcp.utils.PcmResampler;
+
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.charset.StandardCharsets;
@@ -33,8 +34,8 @@ final class PcmWavUtils {
             System.arraycopy(pcm, start, trimmed, 0, trimmed.length);
             pcm = trimmed;
         }
-        if ("downsample24kTo8k".equals(reSample)) {
-            pcm = downsample24kTo8k(pcm);
+        if (PcmResampler.DOWNSAMPLE_24K_TO_8K.equals(reSample)) {
+            pcm = new PcmResampler(24000, 8000).process(pcm);
         }
         return wrapPcm(pcm, 8000, 1, 16);
     }
@@ -59,17 +60,6 @@ final class PcmWavUtils {
         throw new IllegalArgumentException("TTS 返回的 WAV 缺少 data 块");
     }
 
-    private static byte[] downsample24kTo8k(byte[] input) {
-        int sampleCount = input.length / 2;
-        ByteArrayOutputStream output = new ByteArrayOutputStream(input.length / 3);
-        for (int sample = 0; sample < sampleCount; sample += 3) {
-            int offset = sample * 2;
-            output.write(input[offset]);
-            output.write(input[offset + 1]);
-        }
-        return output.toByteArray();
-    }
-
     private static byte[] wrapPcm(byte[] pcm, int sampleRate, int channels, int bits) {
         int byteRate = sampleRate * channels * bits / 8;
         ByteBuffer header = ByteBuffer.allocate(44).order(ByteOrder.LITTLE_ENDIAN);
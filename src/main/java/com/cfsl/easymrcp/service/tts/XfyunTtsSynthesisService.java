@@ -3,16 +3,16 @@ package com.cfsl.easymrcp.service.tts;
 import com.alibaba.fastjson.JSONObject;
 import com.cfsl.easymrcp.common.EMConstant;
 import com.cfsl.easymrcp.tts.xfyun.XfyunTtsConfig;
+import com.cfsl.easymrcp.ws.WsClientManager;
+import com.cfsl.easymrcp.ws.WsCodec;
+import com.cfsl.easymrcp.ws.WsConnection;
 import okhttp3.HttpUrl;
-import org.java_websocket.client.WebSocketClient;
-import org.java_websocket.handshake.ServerHandshake;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.Mac;
 import javax.crypto.spec.SecretKeySpec;
 import java.io.ByteArrayOutputStream;
-import java.net.URI;
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
 import java.text.SimpleDateFormat;
@@ -32,12 +32,14 @@ import java.util.concurrent.atomic.AtomicReference;
 @Service
 public class XfyunTtsSynthesisService implements TtsSynthesisProvider {
     private final XfyunTtsConfig config;
+    private final WsClientManager wsClientManager;
 
     @Value("${audio.synthesis.timeout-seconds:60}")
     private long timeoutSeconds;
 
-    public XfyunTtsSynthesisService(XfyunTtsConfig config) {
+    public XfyunTtsSynthesisService(XfyunTtsConfig config, WsClientManager wsClientManager) {
         this.config = config;
+        this.wsClientManager = wsClientManager;
     }
 
     @Override
@@ -51,62 +53,61 @@ public class XfyunTtsSynthesisService implements TtsSynthesisProvider {
         ByteArrayOutputStream pcm = new ByteArrayOutputStream();
         CountDownLatch completed = new CountDownLatch(1);
         AtomicBoolean successful = new AtomicBoolean();
-        AtomicReference<Exception> failure = new AtomicReference<>();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
         String actualVoice = voice == null || voice.isEmpty() ? config.getVoice() : voice;
 
-        WebSocketClient client;
+        String wsUrl;
         try {
-            String wsUrl = getAuthUrl(config.getHostUrl(), config.getAPIKey(), config.getAPISecret())
+            wsUrl = getAuthUrl(config.getHostUrl(), config.getAPIKey(), config.getAPISecret())
                     .replace("https://", "wss://");
-            client = new WebSocketClient(new URI(wsUrl)) {
-                @Override
-                public void onOpen(ServerHandshake handshake) {
-                    send(createRequest(text, actualVoice).toJSONString());
-                }
+        } catch (Exception e) {
+            throw new IllegalStateException("讯飞 TTS 创建连接失败", e);
+        }
 
-                @Override
-                public void onMessage(String message) {
-                    JSONObject response = JSONObject.parseObject(message);
-                    int code = response.getIntValue("code");
-                    if (code != 0) {
-                        failure.set(new IllegalStateException("讯飞 TTS 请求失败，错误码: " + code));
-                        completed.countDown();
-                        return;
-                    }
-                    JSONObject data = response.getJSONObject("data");
-                    if (data == null) {
-                        return;
-                    }
-                    String audio = data.getString("audio");
-                    if (audio != null && !audio.isEmpty()) {
-                        byte[] chunk = Base64.getDecoder().decode(audio);
-                        pcm.write(chunk, 0, chunk.length);
-                    }
-                    if (data.getIntValue("status") == 2) {
-                        successful.set(true);
-                        completed.countDown();
-                    }
-                }
+        WsConnection client = wsClientManager.connect(wsUrl, new WsCodec() {
+            @Override
+            public void onOpen(WsConnection connection) {
+                connection.sendText(createRequest(text, actualVoice).toJSONString());
+            }
 
-                @Override
-                public void onClose(int code, String reason, boolean remote) {
-                    if (!successful.get() && failure.get() == null) {
-                        failure.set(new IllegalStateException("讯飞 TTS 连接提前关闭: " + reason));
-                    }
+            @Override
+            public void onText(WsConnection connection, String message) {
+                JSONObject response = JSONObject.parseObject(message);
+                int code = response.getIntValue("code");
+                if (code != 0) {
+                    failure.set(new IllegalStateException("讯飞 TTS 请求失败，错误码: " + code));
                     completed.countDown();
+                    return;
                 }
-
-                @Override
-                public void onError(Exception e) {
-                    failure.set(e);
+                JSONObject data = response.getJSONObject("data");
+                if (data == null) {
+                    return;
+                }
+                String audio = data.getString("audio");
+                if (audio != null && !audio.isEmpty()) {
+                    byte[] chunk = Base64.getDecoder().decode(audio);
+                    pcm.write(chunk, 0, chunk.length);
+                }
+                if (data.getIntValue("status") == 2) {
+                    successful.set(true);
                     completed.countDown();
                 }
-            };
-        } catch (Exception e) {
-            throw new IllegalStateException("讯飞 TTS 创建连接失败", e);
-        }
+            }
 
-        client.connect();
+            @Override
+            public void onClose(WsConnection connection, int code, String reason) {
+                if (!successful.get() && failure.get() == null) {
+                    failure.set(new IllegalStateException("讯飞 TTS 连接提前关闭: " + reason));
+                }
+                completed.countDown();
+            }
+
+            @Override
+            public void onFailure(WsConnection connection, Throwable e) {
+                failure.set(e);
+                completed.countDown();
+            }
+        });
         try {
             if (!completed.await(timeoutSeconds, TimeUnit.SECONDS)) {
                 throw new IllegalStateException("讯飞 TTS 合成超时");
@@ -118,7 +119,7 @@ public class XfyunTtsSynthesisService implements TtsSynthesisProvider {
             Thread.currentThread().interrupt();
             throw new IllegalStateException("讯飞 TTS 合成被中断", e);
         } finally {
-            client.close();
+            client.close(1000, "");
         }
         if (pcm.size() == 0) {
             throw new IllegalStateException("讯飞 TTS 未返回音频");
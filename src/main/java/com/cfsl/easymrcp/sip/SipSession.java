@@ -21,7 +21,8 @@ public class SipSession {
 
     private boolean established;
 
-    private boolean cancelled;
+    // CANCEL 在 SIP 栈线程上设置，INVITE 初始化回调在其他线程上读取
+    private volatile boolean cancelled;
 
     // 记录首轮协商后的本地 RTP 端口，后续已建立会话的 re-INVITE
     // 只刷新 SIP session 时直接复用，避免重新建媒体链导致端口漂移。
@@ -1,6 +1,7 @@
 package com.cfsl.easymrcp.sip.handle;
 
 import com.cfsl.easymrcp.common.SipContext;
+import com.cfsl.easymrcp.rtp.RtpManager;
 import com.cfsl.easymrcp.sip.SipManage;
 import com.cfsl.easymrcp.sip.SipSession;
 import gov.nist.javax.sip.stack.SIPServerTransaction;
@@ -27,6 +28,9 @@ public class HandleCancel {
     @Autowired
     SipManage sipManage;
 
+    @Autowired
+    RtpManager rtpManager;
+
     public void processCancel(RequestEvent requestEvent) {
         Request request = requestEvent.getRequest();
 
@@ -74,6 +78,8 @@ public class HandleCancel {
         if (!session.isEstablished()) {
             session.setCancelled(true);
             sipManage.removeSipSession(dialogId);
+            // 媒体初始化可能已经分配了端口，未建立的会话不会再收到BYE
+            rtpManager.close(dialogId);
         }
     }
 
@@ -18,6 +18,8 @@ import javax.sip.message.Request;
 import javax.sip.message.Response;
 import java.text.ParseException;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @Slf4j
 @Service
@@ -65,19 +67,32 @@ public class HandleInvite {
                 String contentString = new String(rawContent);
                 SessionDescription sessionDescription = sdpFactory.createSessionDescription(contentString);
                 SdpMessage sdpSessionMessage = SdpMessage.createSdpSessionMessage(sessionDescription);
-                SdpMessage invite;
                 // 已建立会话后的 re-INVITE 只允许刷新 SIP session，
                 // 不能重新初始化媒体链，否则会把既有 RTP 端口和 TTS/ASR 会话打乱。
                 if (shouldRefreshSessionOnly(sipSession)) {
-                    invite = refreshSession(sdpSessionMessage, sipSession);
+                    sendOk(sipSession, refreshSession(sdpSessionMessage, sipSession));
                 } else {
-                    invite = invite(sdpSessionMessage, sipSession, customHeaderUUID);
-                }
-                try {
-                    handleOk.sendResponse(sipSession, invite);
-                } catch (SipException e) {
-                    log.warn("error processing bye: " + e.getMessage(), e);
-                    throw new SdpException(e.getMessage(), e);
+                    // 首次 INVITE 已回复 180，等待 client 连接和媒体初始化都在回调中完成，不占用 SIP 栈线程
+                    String callId = customHeaderUUID;
+                    invite(sdpSessionMessage, sipSession, callId).whenComplete((invite, e) -> {
+                        if (e != null) {
+                            log.warn("INVITE初始化未完成, callId: {}, reason: {}", callId, e.getMessage());
+                            handleSipInit.abortSetup(sipSession, callId);
+                            return;
+                        }
+                        // 初始化完成后、回复前收到CANCEL，已经回复了487
+                        if (sipSession.isCancelled()) {
+                            log.info("INVITE已取消，不再回复200 OK, callId: {}", callId);
+                            handleSipInit.abortSetup(sipSession, callId);
+                            return;
+                        }
+                        try {
+                            sendOk(sipSession, invite);
+                        } catch (SdpException | RuntimeException ex) {
+                            log.warn("发送INVITE 200 OK失败, callId: {}, reason: {}", callId, ex.getMessage());
+                            handleSipInit.abortSetup(sipSession, callId);
+                        }
+                    });
                 }
             }
         } catch (TransactionAlreadyExistsException | TransactionUnavailableException | ParseException e) {
@@ -142,9 +157,23 @@ public class HandleInvite {
         return sdpMessage;
     }
 
-    private SdpMessage invite(SdpMessage sdpMessage, SipSession session, String customHeaderUUID) throws SdpException {
-        sdpMessage = handleSipInit.initAsrAndTts(sdpMessage, session, customHeaderUUID);
-        sdpMessage.getSessionDescription().getConnection().setAddress(sipContext.getSipServerIp());
-        return sdpMessage;
+    private void sendOk(SipSession sipSession, SdpMessage sdpMessage) throws SdpException {
+        try {
+            handleOk.sendResponse(sipSession, sdpMessage);
+        } catch (SipException e) {
+            log.warn("error processing bye: " + e.getMessage(), e);
+            throw new SdpException(e.getMessage(), e);
+        }
+    }
+
+    private CompletableFuture<SdpMessage> invite(SdpMessage sdpMessage, SipSession session, String customHeaderUUID) {
+        return handleSipInit.initAsrAndTtsAsync(sdpMessage, session, customHeaderUUID).thenApply(initialized -> {
+            try {
+                initialized.getSessionDescription().getConnection().setAddress(sipContext.getSipServerIp());
+            } catch (SdpException e) {
+                throw new CompletionException(e);
+            }
+            return initialized;
+        });
     }
 }
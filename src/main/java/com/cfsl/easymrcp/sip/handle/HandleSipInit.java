@@ -17,15 +17,26 @@ import gov.nist.javax.sdp.fields.AttributeField;
 import io.netty.channel.Channel;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.sdp.MediaDescription;
 import javax.sdp.SdpParseException;
+import javax.sip.Dialog;
 import java.net.InetAddress;
+import java.net.InetSocketAddress;
 import java.util.List;
 import java.util.Vector;
-import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Slf4j
 @Service
@@ -47,6 +58,80 @@ public class HandleSipInit {
     @Autowired
     HandleError handleError;
 
+    // 等待EasyMrcp client连接的超时时间
+    @Value("${sip.invite.client-connect-timeout-ms:30000}")
+    private long clientConnectTimeoutMs;
+    // 媒体初始化线程数，ASR厂商握手在这些线程上等待，不占用SIP栈线程
+    @Value("${sip.invite.setup-pool-size:16}")
+    private int setupPoolSize;
+
+    private ExecutorService setupExecutor;
+
+    @PostConstruct
+    public void init() {
+        int threads = Math.max(1, setupPoolSize);
+        AtomicInteger index = new AtomicInteger();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "sip-invite-setup-" + index.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        pool.allowCoreThreadTimeOut(true);
+        setupExecutor = pool;
+    }
+
+    /**
+     * 异步初始化ASR和TTS，调用方（SIP栈线程）立即返回
+     * 先登记等待EasyMrcp client连接，client连接后由{@link MrcpManage#updateConnection}完成等待，超时则回复486；
+     * 随后在媒体初始化线程上创建ASR/TTS和RTP通道，完成后返回应答用的SDP。
+     * 初始化前后都检查会话是否已被CANCEL；任何失败或取消都会释放已创建的媒体资源和通话数据。
+     */
+    public CompletableFuture<SdpMessage> initAsrAndTtsAsync(SdpMessage sdpMessage, SipSession session, String customHeaderUUID) {
+        return mrcpManage.awaitClientConnection(customHeaderUUID)
+                .orTimeout(clientConnectTimeoutMs, TimeUnit.MILLISECONDS)
+                .whenComplete((connected, e) -> {
+                    if (e != null) {
+                        handleError.send486(session);
+                        if (e instanceof TimeoutException) {
+                            log.error("连接错误，超{}ms EasyMrcp client仍然未连接，请检查client连接, callId: {}",
+                                    clientConnectTimeoutMs, customHeaderUUID);
+                        }
+                    }
+                })
+                .thenApplyAsync(connected -> {
+                    if (session.isCancelled()) {
+                        throw new CancellationException("SIP session already cancelled");
+                    }
+                    SdpMessage answer = initAsrAndTts(sdpMessage, session, customHeaderUUID);
+                    // 初始化期间收到CANCEL，已经回复了487，不能再回复200 OK
+                    if (session.isCancelled()) {
+                        throw new CancellationException("SIP session cancelled during media setup");
+                    }
+                    return answer;
+                }, setupExecutor)
+                .whenComplete((answer, e) -> {
+                    if (e != null) {
+                        abortSetup(session, customHeaderUUID);
+                    }
+                });
+    }
+
+    /**
+     * 释放未建立通话的媒体资源：ASR/TTS处理器、RTP通道和端口，以及通话数据
+     * CANCEL处理时通道可能还没建立，只能由初始化流程在失败或取消后自行清理，可重复调用
+     */
+    public void abortSetup(SipSession session, String customHeaderUUID) {
+        Dialog dialog = session.getDialog();
+        if (dialog != null) {
+            rtpManager.close(dialog.getDialogId());
+            rtpManage.removeMrcpUuid(dialog.getDialogId());
+        }
+        if (mrcpManage.containsCallId(customHeaderUUID)) {
+            mrcpManage.close(customHeaderUUID);
+        }
+    }
+
     public SdpMessage initAsrAndTts(SdpMessage sdpMessage, SipSession session, String customHeaderUUID) {
         String dialogId = session.getDialog().getDialogId();
         log.debug("{} is a dialog", dialogId);
@@ -106,27 +191,10 @@ public class HandleSipInit {
                     InetAddress remoteHost = InetAddress.getByName(sdpMessage.getSessionAddress());
                     int remotePort = rtpmd.get(0).getMedia().getMediaPort();
                     
-                    // 获取初始RTP端口
-                    int rtpPort = sipContext.getAsrRtpPort();
+                    // 获取初始RTP端口，共享媒体端口模式下所有通话通告同一个端口
+                    int rtpPort = rtpManager.isSharedSocketEnabled() ? rtpManager.getSharedSocketPort() : rtpManager.allocateRtpPort(dialogId);
                     log.debug("获取初始RTP端口: {}", rtpPort);
 
-                    // mrcpManage检查有没有连接，没有则等待easymrcp client的连接
-                    if (!mrcpManage.containsCallId(customHeaderUUID)) {
-                        try {
-                            CountDownLatch countDownLatch = new CountDownLatch(1);
-                            mrcpManage.updateConnection(customHeaderUUID, countDownLatch, null);
-                            boolean await = countDownLatch.await(30, TimeUnit.SECONDS);
-                            if (!await) {
-                                mrcpManage.removeMrcpCallData(customHeaderUUID);
-                                throw new RuntimeException();
-                            }
-                        } catch (Exception e) {
-                            mrcpManage.removeMrcpCallData(customHeaderUUID);
-                            handleError.send486(session);
-                            throw new RuntimeException("连接错误，超30秒EasyMrcp client仍然未连接，请检查client连接");
-                        }
-                    }
-                    
                     try {
                         // 更新SDP媒体描述中的端口
                         rtpmd.get(0).getMedia().setMediaFormats(useProtocol);
@@ -141,14 +209,17 @@ public class HandleSipInit {
                         // 初始化TTS，传递mediaType
                         TtsHandler ttsHandler = initTts(rtpPort, remoteHost.getHostAddress(), remotePort, mediaType, frameBytes, sendIntervalMs, customHeaderUUID);
                         // 建立rtp连接
-                        Channel rtpChannel = rtpManager.createRtpChannel(dialogId, rtpPort, asrHandler.getNettyAsrRtpProcessor());
-                        ttsHandler.setRtpChannel(rtpChannel);
+                        Channel rtpChannel = rtpManager.createRtpChannel(dialogId, rtpPort,
+                                new InetSocketAddress(remoteHost, remotePort), asrHandler.getNettyAsrRtpProcessor());
+                        ttsHandler.setRtpChannel(rtpChannel, rtpManager.isSharedSocketEnabled());
                         ttsHandler.startRtpSender();
                         JSONObject connectParams = new JSONObject();
                         connectParams.put("msg", "SipInitSuccess");
                         tcpClientNotifier.sendEvent(customHeaderUUID, null,TcpEventType.ClientConnect, connectParams.toJSONString());
                     } catch (Exception e) {
                         log.error("初始化RTP通道失败", e);
+                        // 通道未建立时归还已分配的端口
+                        rtpManager.close(dialogId);
                         throw e;
                     }
                 }
@@ -192,4 +263,11 @@ public class HandleSipInit {
             throw new RuntimeException("初始化TTS失败", e);
         }
     }
+
+    @PreDestroy
+    public void destroy() {
+        if (setupExecutor != null) {
+            setupExecutor.shutdownNow();
+        }
+    }
 }
@@ -0,0 +1,152 @@
+package com.cfsl.easymrcp.tcp;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufOutputStream;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.util.AttributeKey;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * EasyMrcp TCP协议的二进制消息体
+ * 与JSON消息使用同样的“魔数+长度+消息体”分帧，只是魔数不同。客户端发送二进制帧即表示启用二进制模式，
+ * 服务端之后按该连接最近一次收到的帧格式回复，不需要额外的握手。
+ *
+ * <pre>
+ * 消息体 = 类型(1字节) + 字段
+ * MrcpEvent(1)   : id, eventId, event, data
+ * TcpResponse(2) : id, code(4字节), message, dataType(1字节), data
+ * 字符串字段      : 长度(4字节，-1表示null) + UTF-8字节
+ * </pre>
+ * TcpResponse的data为字符串时dataType为1，其他对象用与JSON消息相同的ObjectMapper序列化后写入，dataType为2，null为0。
+ */
+public final class MrcpBinaryCodec {
+    // JSON消息魔数
+    public static final int JSON_MAGIC = 0x66AABB99;
+    // 二进制消息魔数
+    public static final int BINARY_MAGIC = 0x66AABB9A;
+    // 消息头长度为8字节：4字节魔数 + 4字节消息体长度
+    public static final int HEADER_LENGTH = 8;
+    // 消息体长度上限
+    public static final int MAX_BODY_LENGTH = 10 * 1024 * 1024;
+
+    public static final byte TYPE_EVENT = 1;
+    public static final byte TYPE_RESPONSE = 2;
+
+    private static final byte DATA_NULL = 0;
+    private static final byte DATA_STRING = 1;
+    private static final byte DATA_JSON = 2;
+
+    /**
+     * 连接当前使用的消息格式，true为二进制，由解码器按收到的帧设置，编码器按它选择回复格式
+     */
+    public static final AttributeKey<Boolean> BINARY_MODE = AttributeKey.valueOf("easymrcpBinaryMode");
+
+    private MrcpBinaryCodec() {
+    }
+
+    /**
+     * 写入一个完整的二进制帧，消息体直接写入out，最后回填长度
+     *
+     * @param objectMapper 序列化TcpResponse中非字符串data，与JSON消息保持一致
+     */
+    public static void writeFrame(Object msg, ByteBuf out, ObjectMapper objectMapper) throws IOException {
+        out.writeInt(BINARY_MAGIC);
+        int lengthIndex = out.writerIndex();
+        out.writeInt(0);
+        if (msg instanceof MrcpEvent) {
+            writeEvent((MrcpEvent) msg, out);
+        } else if (msg instanceof TcpResponse) {
+            writeResponse((TcpResponse) msg, out, objectMapper);
+        } else {
+            throw new IllegalArgumentException("不支持的消息类型: " + msg.getClass().getName());
+        }
+        out.setInt(lengthIndex, out.writerIndex() - lengthIndex - 4);
+    }
+
+    private static void writeEvent(MrcpEvent event, ByteBuf out) {
+        out.writeByte(TYPE_EVENT);
+        writeString(event.getId(), out);
+        writeString(event.getEventId(), out);
+        writeString(event.getEvent(), out);
+        writeString(event.getData(), out);
+    }
+
+    private static void writeResponse(TcpResponse response, ByteBuf out, ObjectMapper objectMapper) throws IOException {
+        out.writeByte(TYPE_RESPONSE);
+        writeString(response.getId(), out);
+        out.writeInt(response.getCode());
+        writeString(response.getMessage(), out);
+        Object data = response.getData();
+        if (data == null) {
+            out.writeByte(DATA_NULL);
+        } else if (data instanceof String) {
+            out.writeByte(DATA_STRING);
+            writeString((String) data, out);
+        } else {
+            out.writeByte(DATA_JSON);
+            int lengthIndex = out.writerIndex();
+            out.writeInt(0);
+            OutputStream json = new ByteBufOutputStream(out);
+            objectMapper.writeValue(json, data);
+            out.setInt(lengthIndex, out.writerIndex() - lengthIndex - 4);
+        }
+    }
+
+    /**
+     * 读取二进制消息体
+     *
+     * @param body 只包含一个消息体的缓冲区
+     * @return MrcpEvent或TcpResponse
+     * @throws IllegalArgumentException 消息类型未知或字段长度越界
+     */
+    public static Object read(ByteBuf body) {
+        byte type = body.readByte();
+        switch (type) {
+            case TYPE_EVENT: {
+                MrcpEvent event = new MrcpEvent();
+                event.setId(readString(body));
+                event.setEventId(readString(body));
+                event.setEvent(readString(body));
+                event.setData(readString(body));
+                return event;
+            }
+            case TYPE_RESPONSE: {
+                TcpResponse response = new TcpResponse();
+                response.setId(readString(body));
+                response.setCode(body.readInt());
+                response.setMessage(readString(body));
+                byte dataType = body.readByte();
+                response.setData(dataType == DATA_NULL ? null : readString(body));
+                return response;
+            }
+            default:
+                throw new IllegalArgumentException("未知的二进制消息类型: " + type);
+        }
+    }
+
+    private static void writeString(String value, ByteBuf out) {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        int lengthIndex = out.writerIndex();
+        out.writeInt(0);
+        int written = ByteBufUtil.writeUtf8(out, value);
+        out.setInt(lengthIndex, written);
+    }
+
+    private static String readString(ByteBuf in) {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        if (length > in.readableBytes()) {
+            throw new IllegalArgumentException("字段长度越界: " + length);
+        }
+        return in.readCharSequence(length, StandardCharsets.UTF_8).toString();
+    }
+}
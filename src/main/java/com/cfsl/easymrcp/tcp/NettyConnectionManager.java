@@ -1,10 +1,8 @@
 package com.cfsl.easymrcp.tcp;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import java.util.Map;
@@ -21,13 +19,6 @@ public class NettyConnectionManager {
     // 客户端连接映射表，key为客户端ID，value为客户端Channel
     private final Map<String, Channel> clientChannels = new ConcurrentHashMap<>();
     
-    private final ObjectMapper objectMapper;
-    
-    @Autowired
-    public NettyConnectionManager(ObjectMapper objectMapper) {
-        this.objectMapper = objectMapper;
-    }
-    
     /**
      * 检查客户端连接是否存在
      *
@@ -79,13 +70,10 @@ public class NettyConnectionManager {
         }
         
         try {
-            // 将对象转换为JSON字符串
-            String jsonData = objectMapper.writeValueAsString(data);
-            
-            // 使用Netty的写入方法
-            channel.writeAndFlush(jsonData);
+            // 由编码器按连接协商的格式（JSON或二进制）直接序列化
+            channel.writeAndFlush(data);
             
-            log.debug("发送数据到客户端 {}: {}", clientId, jsonData);
+            log.debug("发送数据到客户端 {}: {}", clientId, data);
             return true;
         } catch (Exception e) {
             log.error("发送数据到客户端失败: {}", clientId, e);
@@ -11,63 +11,67 @@ import java.util.List;
 /**
  * Netty消息解码器
  * 将字节流解码为消息对象，处理TCP粘包/拆包问题
+ * JSON帧解码为字符串；二进制帧直接从缓冲区解码为MrcpEvent或TcpResponse，并把连接标记为二进制模式
  */
 @Slf4j
 public class NettyMessageDecoder extends ByteToMessageDecoder {
-    
-    // 魔数，用于标识消息的开始，固定为 0x66AABB99
-    private static final int MAGIC_NUMBER = 0x66AABB99;
-    
-    // 消息头长度为8字节：4字节魔数 + 4字节消息体长度
-    private static final int HEADER_LENGTH = 8;
-    
+
     @Override
     protected void decode(ChannelHandlerContext ctx, ByteBuf in, List<Object> out) throws Exception {
         // 标记当前读取位置
         in.markReaderIndex();
-        
+
         // 如果数据不足以解析头部，则等待更多数据
-        if (in.readableBytes() < HEADER_LENGTH) {
+        if (in.readableBytes() < MrcpBinaryCodec.HEADER_LENGTH) {
             return;
         }
-        
+
         // 读取魔数
         int magic = in.readInt();
-        
+
         // 验证魔数
-        if (magic != MAGIC_NUMBER) {
-            log.error("魔数不匹配: 0x{}, 期望: 0x{}", Integer.toHexString(magic), Integer.toHexString(MAGIC_NUMBER));
-            
+        if (magic != MrcpBinaryCodec.JSON_MAGIC && magic != MrcpBinaryCodec.BINARY_MAGIC) {
+            log.error("魔数不匹配: 0x{}, 期望: 0x{}或0x{}", Integer.toHexString(magic),
+                    Integer.toHexString(MrcpBinaryCodec.JSON_MAGIC), Integer.toHexString(MrcpBinaryCodec.BINARY_MAGIC));
+
             // 魔数不匹配，跳过一个字节，继续查找
             in.resetReaderIndex();
             in.skipBytes(1);
             return;
         }
-        
+
         // 读取消息体长度
         int bodyLength = in.readInt();
-        
+
         // 长度校验
-        if (bodyLength < 0 || bodyLength > 10 * 1024 * 1024) { // 限制10MB
+        if (bodyLength < 0 || bodyLength > MrcpBinaryCodec.MAX_BODY_LENGTH) { // 限制10MB
             log.error("消息体长度不合法: {}", bodyLength);
             ctx.close(); // 关闭连接
             return;
         }
-        
+
         // 如果数据不足以解析消息体，则重置读取位置，等待更多数据
         if (in.readableBytes() < bodyLength) {
             in.resetReaderIndex();
             return;
         }
-        
-        // 读取消息体
-        byte[] bodyBytes = new byte[bodyLength];
-        in.readBytes(bodyBytes);
-        
-        // 解析为字符串
-        String messageContent = new String(bodyBytes, StandardCharsets.UTF_8);
-        
-        // 将解析后的消息传递给下一个处理器
-        out.add(messageContent);
+
+        boolean binary = magic == MrcpBinaryCodec.BINARY_MAGIC;
+        ctx.channel().attr(MrcpBinaryCodec.BINARY_MODE).set(binary);
+        if (!binary) {
+            // 解析为字符串，将解析后的消息传递给下一个处理器
+            out.add(in.readCharSequence(bodyLength, StandardCharsets.UTF_8).toString());
+            return;
+        }
+
+        int bodyEnd = in.readerIndex() + bodyLength;
+        try {
+            out.add(MrcpBinaryCodec.read(in.slice(in.readerIndex(), bodyLength)));
+        } catch (RuntimeException e) {
+            // 单个消息体损坏时丢弃该帧，不影响后续消息
+            log.error("二进制消息解析失败, 长度: {}", bodyLength, e);
+        } finally {
+            in.readerIndex(bodyEnd);
+        }
     }
-} 
\ No newline at end of file
+}
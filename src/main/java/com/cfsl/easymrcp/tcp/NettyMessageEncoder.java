@@ -1,35 +1,56 @@
 package com.cfsl.easymrcp.tcp;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufOutputStream;
+import io.netty.channel.ChannelHandler;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.MessageToByteEncoder;
 import lombok.extern.slf4j.Slf4j;
 
+import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
 
 /**
  * Netty消息编码器
  * 将消息对象编码为字节流，添加魔数和长度信息
+ * MrcpEvent和TcpResponse按连接协商的格式直接序列化到输出缓冲区，不经过中间字符串和字节数组；
+ * 字符串按原样作为JSON消息体发送
  */
 @Slf4j
-public class NettyMessageEncoder extends MessageToByteEncoder<String> {
-    
-    // 魔数，用于标识消息的开始，固定为 0x66AABB99
-    private static final int MAGIC_NUMBER = 0x66AABB99;
-    
+@ChannelHandler.Sharable
+public class NettyMessageEncoder extends MessageToByteEncoder<Object> {
+
+    private final ObjectMapper objectMapper;
+
+    public NettyMessageEncoder(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
     @Override
-    protected void encode(ChannelHandlerContext ctx, String msg, ByteBuf out) throws Exception {
-        // 将消息转换为字节数组
-        byte[] bodyBytes = msg.getBytes(StandardCharsets.UTF_8);
-        int bodyLength = bodyBytes.length;
-        
-        // 写入魔数
-        out.writeInt(MAGIC_NUMBER);
-        
-        // 写入消息体长度
-        out.writeInt(bodyLength);
-        
-        // 写入消息体
-        out.writeBytes(bodyBytes);
+    protected void encode(ChannelHandlerContext ctx, Object msg, ByteBuf out) throws Exception {
+        if (msg instanceof String) {
+            writeJsonFrame(out, (String) msg);
+        } else if (Boolean.TRUE.equals(ctx.channel().attr(MrcpBinaryCodec.BINARY_MODE).get())) {
+            MrcpBinaryCodec.writeFrame(msg, out, objectMapper);
+        } else {
+            // 写入魔数
+            out.writeInt(MrcpBinaryCodec.JSON_MAGIC);
+            // 预留消息体长度，写完后回填
+            int lengthIndex = out.writerIndex();
+            out.writeInt(0);
+            // 写入消息体，ByteBufOutputStream同时实现了DataOutput，按OutputStream写入
+            OutputStream body = new ByteBufOutputStream(out);
+            objectMapper.writeValue(body, msg);
+            out.setInt(lengthIndex, out.writerIndex() - lengthIndex - 4);
+        }
+    }
+
+    private static void writeJsonFrame(ByteBuf out, String msg) {
+        out.writeInt(MrcpBinaryCodec.JSON_MAGIC);
+        int lengthIndex = out.writerIndex();
+        out.writeInt(0);
+        int bodyLength = out.writeCharSequence(msg, StandardCharsets.UTF_8);
+        out.setInt(lengthIndex, bodyLength);
     }
-} 
\ No newline at end of file
+}
@@ -2,12 +2,11 @@ package com.cfsl.easymrcp.tcp;
 
 import com.cfsl.easymrcp.common.EMConstant;
 import com.cfsl.easymrcp.mrcp.MrcpManage;
+import com.cfsl.easymrcp.utils.NettyTransport;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.netty.bootstrap.ServerBootstrap;
 import io.netty.channel.*;
-import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.channel.socket.SocketChannel;
-import io.netty.channel.socket.nio.NioServerSocketChannel;
 import io.netty.handler.timeout.IdleStateHandler;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -27,6 +26,10 @@ public class NettyTcpServer {
     
     @Value("${" + EMConstant.TCP_SERVER_PORT + ":" + EMConstant.DEFAULT_TCP_PORT + "}")
     private int port;
+
+    // 传输层：nio或epoll，epoll不可用时自动退回nio
+    @Value("${tcp.server.transport:nio}")
+    private String transportName;
     
     private final ObjectMapper objectMapper;
     private final NettyConnectionManager connectionManager;
@@ -50,13 +53,17 @@ public class NettyTcpServer {
     
     @PostConstruct
     public void start() {
-        bossGroup = new NioEventLoopGroup(1); // 接受连接的线程组
-        workerGroup = new NioEventLoopGroup(); // 处理IO的线程组
+        // 处理器无状态，所有连接共用
+        NettyTcpServerHandler serverHandler = new NettyTcpServerHandler(objectMapper, connectionManager, mrcpManage, tcpClientNotifier);
+        NettyMessageEncoder messageEncoder = new NettyMessageEncoder(objectMapper);
+        NettyTransport transport = NettyTransport.resolve(transportName);
+        bossGroup = transport.newEventLoopGroup(1); // 接受连接的线程组
+        workerGroup = transport.newEventLoopGroup(0); // 处理IO的线程组
         
         try {
             ServerBootstrap bootstrap = new ServerBootstrap()
                 .group(bossGroup, workerGroup)
-                .channel(NioServerSocketChannel.class)
+                .channel(transport.serverSocketChannelClass())
                 .childOption(ChannelOption.TCP_NODELAY, true)
                 .childOption(ChannelOption.SO_KEEPALIVE, true)
                 .childHandler(new ChannelInitializer<SocketChannel>() {
@@ -65,9 +72,9 @@ public class NettyTcpServer {
                         ChannelPipeline pipeline = ch.pipeline();
                         // 添加自定义消息编解码器
                         pipeline.addLast(new NettyMessageDecoder());
-                        pipeline.addLast(new NettyMessageEncoder());
+                        pipeline.addLast(messageEncoder);
                         // 添加业务处理器
-                        pipeline.addLast(new NettyTcpServerHandler(objectMapper, connectionManager, mrcpManage, tcpClientNotifier));
+                        pipeline.addLast(serverHandler);
                     }
                 });
             
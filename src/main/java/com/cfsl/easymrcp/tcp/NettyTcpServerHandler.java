@@ -4,6 +4,7 @@ import com.cfsl.easymrcp.mrcp.MrcpManage;
 import com.cfsl.easymrcp.tcp.handler.*;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandler;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelInboundHandlerAdapter;
 import io.netty.handler.timeout.IdleState;
@@ -13,12 +14,17 @@ import lombok.extern.slf4j.Slf4j;
 
 import java.io.IOException;
 import java.net.InetSocketAddress;
+import java.util.EnumMap;
+import java.util.Map;
 
 /**
  * Netty TCP服务器处理器
  * 负责处理客户端连接和消息
+ * 所有连接共用一个实例，io线程只解析消息和登记连接，事件处理器按callId投递到通话的事件邮箱中执行，
+ * 响应在处理完成后异步写回，一个慢厂商或一通电话的积压不会阻塞同一连接上的其他通话
  */
 @Slf4j
+@ChannelHandler.Sharable
 public class NettyTcpServerHandler extends ChannelInboundHandlerAdapter {
     
     // 用于存储客户端ID的Attribute Key
@@ -28,6 +34,10 @@ public class NettyTcpServerHandler extends ChannelInboundHandlerAdapter {
     private final NettyConnectionManager connectionManager;
     private final MrcpManage mrcpManage;
     private final TcpClientNotifier tcpClientNotifier;
+    // 事件处理器无状态，按事件类型复用
+    private final Map<TcpEventType, MrcpEventHandler> eventHandlers = new EnumMap<>(TcpEventType.class);
+    private final MrcpEventHandler echoCommandHandler;
+    private final MrcpEventHandler defaultEventHandler = new DefaultMrcpEventHandler();
     
     public NettyTcpServerHandler(ObjectMapper objectMapper,
                                 NettyConnectionManager connectionManager,
@@ -37,6 +47,19 @@ public class NettyTcpServerHandler extends ChannelInboundHandlerAdapter {
         this.connectionManager = connectionManager;
         this.mrcpManage = mrcpManage;
         this.tcpClientNotifier = tcpClientNotifier;
+        MrcpEventHandler speakEventHandler = new SpeakEventHandler(mrcpManage);
+        MrcpEventHandler pauseOrResumeEventHandler = new PauseOrResumeDetectSpeechEventHandler(mrcpManage);
+        eventHandlers.put(TcpEventType.DetectSpeech, new DetectSpeechEventHandler(mrcpManage));
+        eventHandlers.put(TcpEventType.Speak, speakEventHandler);
+        eventHandlers.put(TcpEventType.InterruptAndSpeak, speakEventHandler);
+        eventHandlers.put(TcpEventType.Silence, speakEventHandler);
+        eventHandlers.put(TcpEventType.SpeakWithNoInterrupt, speakEventHandler);
+        eventHandlers.put(TcpEventType.Interrupt, new InterruptEventHandler(mrcpManage));
+        eventHandlers.put(TcpEventType.PauseDetectSpeech, pauseOrResumeEventHandler);
+        eventHandlers.put(TcpEventType.ResumeDetectSpeech, pauseOrResumeEventHandler);
+        eventHandlers.put(TcpEventType.ClientConnect, new ClientConnectEventHandler(mrcpManage));
+        eventHandlers.put(TcpEventType.ClientDisConnect, new ClientDisConnectEventHandler(mrcpManage));
+        this.echoCommandHandler = new EchoCommandHandler(mrcpManage);
     }
     
     @Override
@@ -69,15 +92,14 @@ public class NettyTcpServerHandler extends ChannelInboundHandlerAdapter {
     
     @Override
     public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
-        // 消息已经被解码为字符串
-        String messageContent = (String) msg;
         Channel channel = ctx.channel();
         
-        log.info("收到客户端消息: {}", messageContent);
+        log.info("收到客户端消息: {}", msg);
         
         try {
-            // 解析客户端事件
-            MrcpEvent event = objectMapper.readValue(messageContent, MrcpEvent.class);
+            // 二进制帧已由解码器直接解析为事件，JSON帧为字符串
+            MrcpEvent event = msg instanceof MrcpEvent ? (MrcpEvent) msg
+                    : objectMapper.readValue((String) msg, MrcpEvent.class);
             
             // 检查客户端ID
             if (event.getId() == null || event.getId().isEmpty()) {
@@ -132,7 +154,7 @@ public class NettyTcpServerHandler extends ChannelInboundHandlerAdapter {
     }
     
     /**
-     * 处理客户端事件
+     * 处理客户端事件，事件处理器在通话的事件邮箱中执行，处理完成后写回响应
      *
      * @param ctx   Channel上下文
      * @param event 客户端事件
@@ -152,20 +174,32 @@ public class NettyTcpServerHandler extends ChannelInboundHandlerAdapter {
         }
         
         // 根据事件类型处理请求
-        TcpResponse response;
         if (event.getEvent() != null && !event.getEvent().isEmpty()) {
-            // 创建对应的命令处理器
-            MrcpEventHandler handler = createEventHandler(event.getEvent());
-            // 执行事件处理
-            response = handler.handleEvent(event, tcpClientNotifier);
+            // 获取对应的命令处理器
+            MrcpEventHandler handler = getEventHandler(event.getEvent());
+            // 在通话的事件邮箱中执行事件处理，完成后发送响应
+            boolean accepted = mrcpManage.getMrcpEventExecutor().execute(clientId, () -> {
+                TcpResponse response;
+                try {
+                    response = handler.handleEvent(event, tcpClientNotifier);
+                } catch (Exception e) {
+                    log.error("处理客户端事件错误: {}", event.getEvent(), e);
+                    response = TcpResponse.error(clientId, "处理请求错误: " + e.getMessage());
+                }
+                try {
+                    sendResponse(ctx, response);
+                } catch (IOException e) {
+                    log.error("发送响应失败: {}", clientId, e);
+                }
+            });
+            if (!accepted) {
+                sendResponse(ctx, TcpResponse.error(clientId, "事件队列已满，请求被拒绝"));
+            }
         } else {
             // 简单响应
-            response = TcpResponse.success(clientId, isExistingClient ?
-                    "事件已处理" : "连接已注册");
+            sendResponse(ctx, TcpResponse.success(clientId, isExistingClient ?
+                    "事件已处理" : "连接已注册"));
         }
-        
-        // 发送响应
-        sendResponse(ctx, response);
     }
     
     /**
@@ -177,13 +211,16 @@ public class NettyTcpServerHandler extends ChannelInboundHandlerAdapter {
      */
     private void sendResponse(ChannelHandlerContext ctx, TcpResponse response) throws IOException {
         try {
-            // 将响应对象转换为JSON字符串
-            String jsonResponse = objectMapper.writeValueAsString(response);
-            
-            // 直接发送字符串，编码器会处理格式化
-            ctx.writeAndFlush(jsonResponse);
+            if (response == null) {
+                // 处理器没有响应内容时与之前一样回复JSON的null
+                ctx.writeAndFlush("null");
+                log.info("已发送响应: null");
+                return;
+            }
+            // 直接发送响应对象，编码器按连接协商的格式序列化
+            ctx.writeAndFlush(response);
             
-            log.info("已发送响应: {}", jsonResponse);
+            log.info("已发送响应: id={}, code={}, message={}", response.getId(), response.getCode(), response.getMessage());
         } catch (Exception e) {
             log.error("发送响应失败", e);
             throw new IOException(e);
@@ -191,44 +228,23 @@ public class NettyTcpServerHandler extends ChannelInboundHandlerAdapter {
     }
     
     /**
-     * 根据事件类型创建对应的处理器
+     * 根据事件类型获取对应的处理器
      *
      * @param eventType 事件类型
      * @return 命令处理器
      */
-    private MrcpEventHandler createEventHandler(String eventType) {
+    private MrcpEventHandler getEventHandler(String eventType) {
         try {
             // 尝试将字符串转换为枚举值（区分大小写）
             TcpEventType enumEventType = TcpEventType.valueOf(eventType);
-            
-            // 使用枚举值进行比较
-            switch (enumEventType) {
-                case DetectSpeech:
-                    return new DetectSpeechEventHandler(mrcpManage);
-                case Speak:
-                case InterruptAndSpeak:
-                case Silence:
-                case SpeakWithNoInterrupt:
-                    return new SpeakEventHandler(mrcpManage);
-                case Interrupt:
-                    return new InterruptEventHandler(mrcpManage);
-                case PauseDetectSpeech:
-                case ResumeDetectSpeech:
-                    return new PauseOrResumeDetectSpeechEventHandler(mrcpManage);
-                case ClientConnect:
-                    return new ClientConnectEventHandler(mrcpManage);
-                case ClientDisConnect:
-                    return new ClientDisConnectEventHandler(mrcpManage);
-                default:
-                    return new DefaultMrcpEventHandler();
-            }
+            return eventHandlers.getOrDefault(enumEventType, defaultEventHandler);
         } catch (IllegalArgumentException e) {
             // 对于不是枚举值的字符串，使用传统方式处理
             switch (eventType.toLowerCase()) {
                 case "echo":
-                    return new EchoCommandHandler(mrcpManage);
+                    return echoCommandHandler;
                 default:
-                    return new DefaultMrcpEventHandler();
+                    return defaultEventHandler;
             }
         }
     }
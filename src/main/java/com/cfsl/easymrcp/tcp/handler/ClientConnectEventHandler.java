@@ -4,7 +4,6 @@ import com.alibaba.fastjson.JSON;
 import com.alibaba.fastjson.JSONObject;
 import com.cfsl.easymrcp.asr.AsrHandler;
 import com.cfsl.easymrcp.common.EMConstant;
-import com.cfsl.easymrcp.common.SipContext;
 import com.cfsl.easymrcp.mrcp.MrcpManage;
 import com.cfsl.easymrcp.rtp.RtpManager;
 import com.cfsl.easymrcp.sip.SipOptions;
@@ -27,7 +26,7 @@ public class ClientConnectEventHandler implements MrcpEventHandler {
         String id = event.getId();
         JSONObject connectParams = JSON.parseObject(event.getData());
         String asrEngineName = connectParams == null ? null : connectParams.getString("AsrEngine");
-        mrcpManage.updateConnection(id, null, asrEngineName);
+        mrcpManage.updateConnection(id, asrEngineName);
         if (connectParams != null && connectParams.getString("TtsEngine") != null) {
             // 设置TTS引擎和发音人
             String ttsEngineName = connectParams.getString("TtsEngine");
@@ -45,12 +44,11 @@ public class ClientConnectEventHandler implements MrcpEventHandler {
         if (connectParams != null && connectParams.getString("Type") != null && connectParams.getString("Type").equals("spy")) {
             mrcpManage.setPushAsrRealtimeResult(id, false);
             // 启动spy模式，对某一路通话进行asr识别
-            SipContext sipContext = SpringUtils.getBean(SipContext.class);
             RtpManager rtpManager = SpringUtils.getBean(RtpManager.class);
             SipOptions sipOptions = SpringUtils.getBean(SipOptions.class);
             HandleSipInit handleSipInit = SpringUtils.getBean(HandleSipInit.class);
             AsrHandler asrHandler = handleSipInit.initAsr(sipOptions.getFsServerIp(), 0, 8, EMConstant.VOIP_SAMPLES_PER_FRAME, 20, id);
-            int rtpPort = sipContext.getAsrRtpPort();
+            int rtpPort = rtpManager.allocateRtpPort(id);
             Channel rtpChannel = rtpManager.createRtpChannel(id, rtpPort, asrHandler.getNettyAsrRtpProcessor());
             JSONObject connectParamsRes = new JSONObject();
             connectParamsRes.put("rtpPort", rtpPort);
@@ -50,7 +50,7 @@ public class DetectSpeechEventHandler implements MrcpEventHandler {
         };
 
         // 创建超时管理器并设置超时参数
-        MrcpTimeoutManager timeoutManager = new MrcpTimeoutManager(timeoutCallback);
+        MrcpTimeoutManager timeoutManager = new MrcpTimeoutManager(id, timeoutCallback);
         JSONObject asrParams = JSON.parseObject(event.getData());
         if (asrParams != null) {
             if (asrParams.getBoolean(ASRConstant.StartInputTimers)) {
@@ -1,12 +1,13 @@
 package com.cfsl.easymrcp.tts;
 
-import com.cfsl.easymrcp.common.EMConstant;
+import com.cfsl.easymrcp.common.CachedAudio;
 import com.cfsl.easymrcp.mrcp.TtsCallback;
 import com.cfsl.easymrcp.rtp.AudioCodecUtil;
-import com.cfsl.easymrcp.rtp.NettyAudioRingBuffer;
+import com.cfsl.easymrcp.rtp.ChunkedAudioQueue;
 import com.cfsl.easymrcp.rtp.NettyRtpSender;
 import com.cfsl.easymrcp.tts.scheduler.TtsProcessScheduler;
 import com.cfsl.easymrcp.tts.scheduler.TtsRtpScheduler;
+import com.cfsl.easymrcp.utils.PcmResampler;
 import com.cfsl.easymrcp.utils.SpringUtils;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufAllocator;
@@ -20,30 +21,29 @@ import java.util.concurrent.atomic.AtomicBoolean;
 /**
  * 共享调度版 TTS RTP 处理器。
  * 保留当前主链路的 input/output 双缓冲、processOnce()、interrupt() 和共享调度语义。
+ * input/output 使用按需增长的分段队列，空闲会话不占用缓冲内存。
  */
 @Slf4j
 public class NettyTtsRtpProcessor {
-    /** 输入缓冲时长，单位秒。 */
-    private static final int TTS_INPUT_BUFFER_SECONDS = 30;
-    /** 输出缓冲时长，单位秒。 */
-    private static final int TTS_OUTPUT_BUFFER_SECONDS = 30;
-    /** TTS 链路统一按 8kHz 采样率组织缓冲。 */
-    private static final int SAMPLE_RATE = EMConstant.VOIP_SAMPLE_RATE;
-
     @Getter
-    private final NettyAudioRingBuffer inputRingBuffer;
+    private final ChunkedAudioQueue inputQueue;
     @Getter
-    private final NettyAudioRingBuffer outputRingBuffer;
+    private final ChunkedAudioQueue outputQueue;
     @Getter
     private final NettyRtpSender sender;
 
     private final AtomicBoolean stop = new AtomicBoolean(false);
+    /** processOnce() 与预编码录音直写 output 互斥，保证两者写入 output 的顺序与写入 input 的顺序一致。 */
+    private final Object processLock = new Object();
     private TtsProcessScheduler processScheduler;
     private TtsRtpScheduler rtpScheduler;
 
     @Setter
     private TtsCallback callback;
+    /** 所属通话，用于发送调度指标按通话展示。 */
     @Setter
+    @Getter
+    private String callId;
     private String reSample;
     @Setter
     @Getter
@@ -57,10 +57,14 @@ public class NettyTtsRtpProcessor {
     @Getter
     private final boolean encodeRequired;
 
+    /** 重采样器，跨批次保留滤波器历史；只在处理调度线程上使用。 */
+    private PcmResampler resampler;
+    /** interrupt() 后由处理线程在下一次处理前清空重采样器历史。 */
+    private volatile boolean resetResampler;
     /**
-     * 为解决 24kHz -> 8kHz 时尾部不对齐带来的噪音问题，沿用旧版固定按 6*n 读取的策略。
+     * 结束标记到达前每次按整批读取，取 100ms 输入，保证重采样后输出始终是整数个 20ms 帧。
      */
-    private int receiveTakeBytes = 6 * 1000;
+    private int batchBytes = bytesPer100ms(8000);
 
     /** 处理调度任务 ID，接入共享处理调度器后用于取消任务。 */
     private String processTaskId;
@@ -82,14 +86,26 @@ public class NettyTtsRtpProcessor {
         } catch (Exception e) {
             this.rtpScheduler = null;
         }
-        ByteBufAllocator allocator = ByteBufAllocator.DEFAULT;
-        this.inputRingBuffer = new NettyAudioRingBuffer(allocator, SAMPLE_RATE, TTS_INPUT_BUFFER_SECONDS, true);
-        this.outputRingBuffer = new NettyAudioRingBuffer(allocator, SAMPLE_RATE, TTS_OUTPUT_BUFFER_SECONDS, true);
+        this.inputQueue = new ChunkedAudioQueue(ByteBufAllocator.DEFAULT);
+        this.outputQueue = new ChunkedAudioQueue(ByteBufAllocator.DEFAULT);
         this.sender = new NettyRtpSender(remoteIp, remotePort);
         this.sender.setPayloadType(mediaType);
         this.sender.configureSession(frameBytes, !encodeRequired);
     }
 
+    /**
+     * 设置重采样配置，同时按输入采样率调整批量读取大小。
+     */
+    public void setReSample(String reSample) {
+        this.reSample = reSample;
+        this.resampler = PcmResampler.forConfig(reSample);
+        this.batchBytes = bytesPer100ms(resampler != null ? resampler.getInputRate() : 8000);
+    }
+
+    private static int bytesPer100ms(int sampleRate) {
+        return sampleRate * 2 / 10;
+    }
+
     /**
      * 设置 RTP 通道，供外部在媒体链路建立后注入 Netty Channel。
      */
@@ -98,184 +114,177 @@ public class NettyTtsRtpProcessor {
     }
 
     /**
-     * 上游以 byte[] 形式写入原始 PCM 数据，写入 inputRingBuffer，供 processOnce() 后续处理。
+     * 设置 RTP 通道，sharedChannel 为 true 时表示共享媒体端口的通道，释放时不关闭。
+     */
+    public void setRtpChannel(Channel channel, boolean sharedChannel) {
+        sender.setRtpChannel(channel, sharedChannel);
+    }
+
+    /**
+     * 上游以 byte[] 形式写入原始 PCM 数据，写入 inputQueue，供 processOnce() 后续处理。
      */
     public void putData(byte[] data, int bytesRead) {
         if (data == null || data.length == 0 || bytesRead <= 0) {
             return;
         }
-        ByteBuf byteBuf = ByteBufAllocator.DEFAULT.buffer(bytesRead);
-        byteBuf.writeBytes(data, 0, bytesRead);
-        inputRingBuffer.write(byteBuf);
-        byteBuf.release();
+        inputQueue.write(data, 0, bytesRead);
     }
 
     /**
-     * 上游直接写入 ByteBuf 形式的原始 PCM 数据到 inputRingBuffer。
+     * 上游直接写入 ByteBuf 形式的原始 PCM 数据到 inputQueue。
      */
     public void putData(ByteBuf data) {
         if (data == null || data.readableBytes() == 0) {
             return;
         }
-        inputRingBuffer.write(data);
+        inputQueue.write(data);
+    }
+
+    /**
+     * 上游写入可在多路通话间共享的只读 PCM，inputQueue 只持有切片，不拷贝数据。
+     */
+    public void putSharedData(ByteBuf data) {
+        if (data == null || data.readableBytes() == 0) {
+            return;
+        }
+        inputQueue.writeShared(data);
+    }
+
+    /**
+     * 上游写入缓存录音。
+     * 不需要重采样且 input 中没有待处理数据时，直接把录音缓存中已编码好的负载切片排入 output，
+     * 由发送调度按帧读取，不再经过处理调度的读取/编码；否则按普通 PCM 写入 input。
+     */
+    public void putCachedAudio(CachedAudio audio) {
+        if (resampler == null) {
+            synchronized (processLock) {
+                if (!stop.get() && inputQueue.isEmpty()) {
+                    ByteBuf payload = encodeRequired ? audio.encoded(mediaType) : audio.getData();
+                    // 与 processOnce() 的裁尾一致，G.711 每个采样 1 字节
+                    int trimBytes = encodeRequired ? skipBytesInTheEndPacket / 2 : skipBytesInTheEndPacket;
+                    int keepBytes = payload.readableBytes() - trimBytes;
+                    if (keepBytes > 0) {
+                        outputQueue.writeShared(payload.slice(payload.readerIndex(), keepBytes));
+                    }
+                    return;
+                }
+            }
+        }
+        putSharedData(audio.getData());
     }
 
     /**
      * 单次推进一轮处理流程：检查 input、必要时裁尾、重采样、按协商编码组织输出，并写入 output。
+     * 结束标记作为独立条目随音频一起转入 output，不需要在音频中查找。
      * 该方法不阻塞、不自建线程，供共享处理调度器周期性调用。
      */
     public void processOnce() {
         if (stop.get()) {
             return;
         }
+        synchronized (processLock) {
+            process();
+        }
+    }
+
+    private void process() {
         try {
-            if (inputRingBuffer.getSize() == 0) {
+            // 先判断标记再取可读长度：标记只会追加在队尾，这样读到的长度一定截止到该标记
+            boolean lastChunk = inputQueue.hasMarker();
+            int readable = inputQueue.readableBytes();
+            if (readable == 0) {
+                // 队头是标记：前面的音频都已处理完，直接转入 output
+                ChunkedAudioQueue.Marker marker = inputQueue.pollMarker();
+                if (marker != null) {
+                    outputQueue.writeMarker(marker);
+                }
                 return;
             }
 
-            if (inputRingBuffer.getSize() < receiveTakeBytes) {
-                ByteBuf peek = inputRingBuffer.peek(receiveTakeBytes);
-                try {
-                    if (peek == null || peek.readableBytes() < 2) {
-                        return;
-                    }
-                    boolean hasEndFlag = peek.getByte(peek.readableBytes() - 2) == TTSConstant.TTS_END_BYTE
-                            && peek.getByte(peek.readableBytes() - 1) == TTSConstant.TTS_END_BYTE;
-                    if (!hasEndFlag) {
-                        return;
-                    }
-                    if (skipBytesInTheEndPacket != 0) {
-                        skipEndData();
-                    }
-                } finally {
-                    if (peek != null) {
-                        peek.release();
-                    }
+            // 已经排着结束标记时，标记前的音频就是本次合成的最后一段，全部处理；否则只取整批
+            int takeBytes;
+            ChunkedAudioQueue.Marker marker = null;
+            if (lastChunk) {
+                takeBytes = endDataBytes(readable);
+            } else {
+                // 预留末尾待裁剪的字节，避免在结束标记到达前被提前发出
+                takeBytes = (readable - skipBytesInTheEndPacket) / batchBytes * batchBytes;
+                if (takeBytes <= 0) {
+                    return;
                 }
             }
 
-            ByteBuf pcmData = takeDataAsByteBuf(inputRingBuffer, receiveTakeBytes);
-            if (pcmData == null || pcmData.readableBytes() == 0) {
-                return;
+            ByteBuf pcmData = takeBytes > 0 ? inputQueue.read(takeBytes) : null;
+            if (lastChunk) {
+                // 最后一段：丢弃裁掉的尾部并取出紧随其后的标记
+                inputQueue.skip(readable - takeBytes);
+                marker = inputQueue.pollMarker();
             }
 
-            boolean hasEndFlag = false;
-            if (pcmData.readableBytes() >= 2
-                    && pcmData.getByte(pcmData.readableBytes() - 2) == TTSConstant.TTS_END_BYTE
-                    && pcmData.getByte(pcmData.readableBytes() - 1) == TTSConstant.TTS_END_BYTE) {
-                hasEndFlag = true;
-                pcmData.writerIndex(pcmData.writerIndex() - 2);
-            }
-
-            ByteBuf processedData = pcmData;
-            if ("downsample24kTo8k".equals(reSample)) {
-                processedData = downsample24kTo8k(pcmData);
-            }
+            if (pcmData != null) {
+                ByteBuf processedData = pcmData;
+                if (resampler != null) {
+                    if (resetResampler) {
+                        resetResampler = false;
+                        resampler.reset();
+                    }
+                    processedData = ByteBufAllocator.DEFAULT.buffer(resampler.maxOutputBytes(pcmData.readableBytes()));
+                    resampler.process(pcmData, processedData);
+                }
 
-            ByteBuf sendPayloadData = encodeRequired ? AudioCodecUtil.encode(processedData, mediaType) : processedData.retainedDuplicate();
-            putData(outputRingBuffer, sendPayloadData);
-            sendPayloadData.release();
+                ByteBuf sendPayloadData = encodeRequired ? AudioCodecUtil.encode(processedData, mediaType) : processedData.retainedDuplicate();
+                putData(outputQueue, sendPayloadData);
+                sendPayloadData.release();
 
-            if (hasEndFlag) {
-                putData(outputRingBuffer, TTSConstant.TTS_END_FLAG.retainedDuplicate());
+                if (processedData != pcmData) {
+                    processedData.release();
+                }
+                pcmData.release();
+            }
+            if (lastChunk && resampler != null) {
+                // 下一次合成与本次无关，不应带入本次末尾的滤波器历史
+                resampler.reset();
             }
 
-            if (processedData != pcmData) {
-                processedData.release();
+            if (marker != null) {
+                outputQueue.writeMarker(marker);
             }
-            pcmData.release();
         } catch (Exception e) {
             log.error("处理音频数据异常", e);
         }
     }
 
     /**
-     * 将 PCM 字节流从 24kHz 降采样到 8kHz，沿用旧版算法语义。
+     * 结束标记前的最后一段数据，按旧版语义裁掉末尾多余 PCM，返回需要保留的字节数。
      */
-    public static ByteBuf downsample24kTo8k(ByteBuf input) {
-        if (input == null || input.readableBytes() == 0) {
-            return ByteBufAllocator.DEFAULT.buffer(0);
-        }
-
-        int sampleSize = 2;
-        int ratio = 3;
-        int totalSamples = input.readableBytes() / sampleSize;
-        int newSamples = totalSamples / ratio;
-        ByteBuf output = ByteBufAllocator.DEFAULT.buffer(newSamples * sampleSize);
-
-        for (int i = 0; i < newSamples; i++) {
-            int idx1 = i * ratio * sampleSize;
-            int idx2 = idx1 + sampleSize;
-            int idx3 = idx2 + sampleSize;
-            if (idx3 + 1 >= input.readableBytes()) {
-                break;
-            }
-
-            int s1 = (input.getByte(idx1 + 1) << 8) | (input.getByte(idx1) & 0xFF);
-            int s2 = (input.getByte(idx2 + 1) << 8) | (input.getByte(idx2) & 0xFF);
-            int s3 = (input.getByte(idx3 + 1) << 8) | (input.getByte(idx3) & 0xFF);
-
-            int avg = (s1 + s2 + s3) / 3;
-            if (avg > Short.MAX_VALUE) {
-                avg = Short.MAX_VALUE;
-            }
-            if (avg < Short.MIN_VALUE) {
-                avg = Short.MIN_VALUE;
-            }
-
-            output.writeByte((byte) (avg & 0xFF));
-            output.writeByte((byte) ((avg >> 8) & 0xFF));
+    private int endDataBytes(int readable) {
+        if (skipBytesInTheEndPacket == 0) {
+            return readable;
         }
-
-        return output;
-    }
-
-    /**
-     * 检测到结束标记时，按旧版语义在 inputRingBuffer 中裁掉末尾多余 PCM，并重新补回 end flag。
-     */
-    private void skipEndData() {
-        int totalSize = inputRingBuffer.getSize();
-        if (totalSize > skipBytesInTheEndPacket + 2) {
-            ByteBuf allData = inputRingBuffer.read(totalSize);
-            int keepBytes = allData.readableBytes() - skipBytesInTheEndPacket - 2;
-            if (keepBytes > 0) {
-                ByteBuf keepData = allData.readSlice(keepBytes);
-                inputRingBuffer.write(keepData.retainedDuplicate());
-                log.info("检测到结束标志，已去除末尾{}字节，保留{}字节", skipBytesInTheEndPacket, keepBytes);
-            }
-            inputRingBuffer.write(TTSConstant.TTS_END_FLAG.retainedDuplicate());
-            allData.release();
-        } else {
-            inputRingBuffer.clear();
-            inputRingBuffer.write(TTSConstant.TTS_END_FLAG.retainedDuplicate());
-            log.info("检测到结束标志，剩余{}字节，剩余数据不足{}字节，已清空", totalSize, skipBytesInTheEndPacket);
+        int keepBytes = readable - skipBytesInTheEndPacket;
+        if (keepBytes > 0) {
+            log.info("检测到结束标志，已去除末尾{}字节，保留{}字节", skipBytesInTheEndPacket, keepBytes);
+            return keepBytes;
         }
+        log.info("检测到结束标志，剩余{}字节，剩余数据不足{}字节，已清空", readable, skipBytesInTheEndPacket);
+        return 0;
     }
 
     /**
-     * 从环形缓冲区读取一段 ByteBuf 数据，保持与旧版相同的读取上限语义。
+     * 将一段 ByteBuf 数据写入指定分段队列，用于复用旧版 output 写入路径。
      */
-    private ByteBuf takeDataAsByteBuf(NettyAudioRingBuffer buffer, int maxLength) {
-        if (buffer.getSize() == 0) {
-            return null;
-        }
-        int actualLength = Math.min(maxLength, buffer.getSize());
-        ByteBuf byteBuf = buffer.read(actualLength);
-        if (byteBuf.readableBytes() == 0) {
-            byteBuf.release();
-            return null;
+    private void putData(ChunkedAudioQueue buffer, ByteBuf data) {
+        if (data == null || data.readableBytes() == 0) {
+            return;
         }
-        return byteBuf;
+        buffer.write(data);
     }
 
     /**
-     * 将一段 ByteBuf 数据写入指定环形缓冲区，用于复用旧版 output 写入路径。
+     * 在已写入的音频之后追加控制标记，如本次合成的结束标记。
      */
-    private void putData(NettyAudioRingBuffer buffer, ByteBuf data) {
-        if (data == null || data.readableBytes() == 0) {
-            return;
-        }
-        buffer.write(data);
+    public void putMarker(ChunkedAudioQueue.Marker marker) {
+        inputQueue.writeMarker(marker);
     }
 
     /**
@@ -324,9 +333,10 @@ public class NettyTtsRtpProcessor {
      */
     public void interrupt() {
         try {
-            inputRingBuffer.clear();
-            outputRingBuffer.clear();
-            putData(outputRingBuffer, TTSConstant.TTS_INTERRUPT_FLAG.retainedDuplicate());
+            inputQueue.clear();
+            outputQueue.clear();
+            outputQueue.writeMarker(ChunkedAudioQueue.Marker.INTERRUPT);
+            resetResampler = true;
             log.debug("已中断TTS播放");
         } catch (Exception e) {
             log.error("中断TTS播放时出现异常", e);
@@ -334,16 +344,12 @@ public class NettyTtsRtpProcessor {
     }
 
     /**
-     * 释放 input/output ring buffer 资源。
+     * 释放 input/output 队列持有的分段。
      */
     public void releaseResources() {
         try {
-            if (!inputRingBuffer.isClosed()) {
-                inputRingBuffer.release();
-            }
-            if (!outputRingBuffer.isClosed()) {
-                outputRingBuffer.release();
-            }
+            inputQueue.release();
+            outputQueue.release();
         } catch (Exception e) {
             log.warn("释放缓冲区资源时出现异常", e);
         }
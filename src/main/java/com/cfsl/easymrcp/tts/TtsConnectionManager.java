@@ -0,0 +1,110 @@
+package com.cfsl.easymrcp.tts;
+
+import com.cfsl.easymrcp.ws.WsClientManager;
+import com.cfsl.easymrcp.ws.WsConnectionPool;
+import com.cfsl.easymrcp.ws.WsEndpoint;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * TTS厂商连接管理器
+ * TtsEngine每次speak都会新建，连接相关的对象统一放在这里跨引擎、跨通话复用：
+ * 1. HTTP接口(kokoro)共享一个HttpClient，优先HTTP/2，连接由客户端内部复用；
+ * 2. 每次合成必须新建WebSocket的厂商(讯飞)使用预热连接池，省去握手和签名；
+ * 3. 支持在同一连接上连续合成的厂商SDK(阿里云CosyVoice)按厂商/模型/音色缓存合成会话；
+ * 4. 线程安全、可共享的厂商SDK客户端(腾讯云SpeechClient)全局只创建一个。
+ */
+@Slf4j
+@Component
+public class TtsConnectionManager {
+    private final WsClientManager wsClientManager;
+
+    // HTTP协议版本：HTTP_2(服务端不支持时自动回退HTTP/1.1)或HTTP_1_1
+    @Value("${tts.connection.http-version:HTTP_2}")
+    private String httpVersion;
+    @Value("${tts.connection.connect-timeout-ms:5000}")
+    private long connectTimeoutMs;
+    // 每个厂商/音色最多保留的空闲合成会话数
+    @Value("${tts.connection.max-idle-sessions:8}")
+    private int maxIdleSessions;
+    // 空闲合成会话的最长保留时间，需小于厂商的空闲断开时间
+    @Value("${tts.connection.session-idle-ttl-ms:50000}")
+    private long sessionIdleTtlMs;
+
+    @Getter
+    private HttpClient httpClient;
+    private final Map<String, TtsSessionPool<?>> sessionPools = new ConcurrentHashMap<>();
+    private final Map<String, Object> sharedClients = new ConcurrentHashMap<>();
+
+    public TtsConnectionManager(WsClientManager wsClientManager) {
+        this.wsClientManager = wsClientManager;
+    }
+
+    @PostConstruct
+    public void init() {
+        httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.valueOf(httpVersion))
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .build();
+        log.info("TTS连接管理器初始化完成，HTTP协议: {}，空闲会话保留时间: {}ms", httpVersion, sessionIdleTtlMs);
+    }
+
+    /**
+     * 厂商WebSocket预热连接池，用于每次合成都需要新连接的协议
+     *
+     * @param vendor    厂商名称
+     * @param endpoint  每次建连时生成地址和鉴权信息
+     * @param idleTtlMs 预热连接的空闲保留时间
+     */
+    public WsConnectionPool wsPool(String vendor, Supplier<WsEndpoint> endpoint, long idleTtlMs) {
+        return wsClientManager.pool("tts-" + vendor, endpoint, idleTtlMs);
+    }
+
+    /**
+     * 获取(首次调用时创建)合成会话池
+     *
+     * @param key    厂商/模型/音色等决定会话能否复用的参数组合
+     * @param closer 关闭会话底层连接
+     */
+    @SuppressWarnings("unchecked")
+    public <T> TtsSessionPool<T> sessionPool(String key, Consumer<T> closer) {
+        return (TtsSessionPool<T>) sessionPools.computeIfAbsent(key,
+                k -> new TtsSessionPool<>(k, maxIdleSessions, sessionIdleTtlMs, closer));
+    }
+
+    /**
+     * 获取(首次调用时创建)可在多次合成间共享的厂商SDK客户端
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T sharedClient(String key, Supplier<T> factory) {
+        return (T) sharedClients.computeIfAbsent(key, k -> factory.get());
+    }
+
+    /**
+     * 定时关闭过期的空闲合成会话
+     */
+    @Scheduled(fixedDelayString = "${tts.connection.evict-interval-ms:10000}")
+    public void evictExpiredSessions() {
+        sessionPools.values().forEach(TtsSessionPool::evictExpired);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        sessionPools.values().forEach(TtsSessionPool::closeAll);
+        sessionPools.clear();
+        sharedClients.clear();
+        log.info("TTS连接管理器已关闭");
+    }
+}
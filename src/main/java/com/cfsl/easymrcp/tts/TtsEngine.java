@@ -1,12 +1,15 @@
 package com.cfsl.easymrcp.tts;
 
-import com.cfsl.easymrcp.rtp.NettyAudioRingBuffer;
+import com.cfsl.easymrcp.common.CachedAudio;
+import com.cfsl.easymrcp.rtp.ChunkedAudioQueue;
 import io.netty.buffer.ByteBuf;
-import io.netty.buffer.ByteBufAllocator;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 
+import java.io.ByteArrayOutputStream;
+import java.util.function.Consumer;
+
 @Slf4j
 public abstract class TtsEngine {
     // 用于预加载查询id
@@ -15,11 +18,15 @@ public abstract class TtsEngine {
     private String id;
     @Setter
     protected TtsHandler ttsHandler;
+    @Getter
+    @Setter
+    private String engineName;
+    @Getter
     @Setter
     protected String voice;
     // TTS预加载缓存
     @Setter
-    private NettyAudioRingBuffer nettyAudioRingBuffer;
+    private ChunkedAudioQueue preloadQueue;
     // 本次tts的版本
     @Setter
     private int ttsVersion = 0;
@@ -34,6 +41,11 @@ public abstract class TtsEngine {
     @Getter
     @Setter
     private int charCount;
+    // 合成结果录制，合成正常结束时交给resultSink保存，超过上限时放弃录制
+    private ByteArrayOutputStream resultRecording;
+    private int resultRecordingLimit;
+    private Consumer<byte[]> resultSink;
+    private volatile boolean synthesisFailed;
 
     public abstract void create();
 
@@ -53,7 +65,75 @@ public abstract class TtsEngine {
             putAudioData(chunk, length);
             offset += length;
         }
-        putAudioData(TTSConstant.TTS_END_FLAG.retainedDuplicate());
+        putEndMarker();
+    }
+
+    /**
+     * 播放缓存录音，直接播放时优先使用录音缓存中已编码好的RTP负载，预加载时按PCM切片缓存
+     * @param audio 缓存录音
+     */
+    public void playCached(CachedAudio audio) {
+        if (ttsVersion == ttsHandler.getTtsVersion() && preloadQueue == null) {
+            this.ttsHandler.putCachedAudio(audio);
+            putEndMarker();
+        } else {
+            playPcm(audio.getData());
+        }
+    }
+
+    /**
+     * 播放缓存录音，按切片排队不拷贝，多路通话共享同一份数据
+     * @param pcm 只读PCM数据，调用方保留引用，不会改变其索引
+     */
+    public void playPcm(ByteBuf pcm) {
+        if (ttsVersion == ttsHandler.getTtsVersion() && preloadQueue == null) {
+            this.ttsHandler.putSharedAudioData(pcm);
+        } else if (ttsVersion > ttsHandler.getTtsVersion() || preloadQueue != null) {
+            preloadQueue.writeShared(pcm);
+        }
+        putEndMarker();
+    }
+
+    /**
+     * 录制本次合成写入的音频，合成正常结束(写入结束标志且未标记失败)时交给sink
+     * @param maxBytes 录制上限，超过时放弃本次录制
+     * @param sink     接收完整的合成结果
+     */
+    public synchronized void recordResult(int maxBytes, Consumer<byte[]> sink) {
+        this.resultRecording = new ByteArrayOutputStream();
+        this.resultRecordingLimit = maxBytes;
+        this.resultSink = sink;
+    }
+
+    /**
+     * 标记本次合成失败或不完整，录制的结果不会被保存
+     */
+    protected void markSynthesisFailed() {
+        synthesisFailed = true;
+    }
+
+    private synchronized void record(byte[] audioChunk, int bytesRead) {
+        if (resultRecording == null) {
+            return;
+        }
+        if (resultRecording.size() + bytesRead > resultRecordingLimit) {
+            resultRecording = null;
+            return;
+        }
+        resultRecording.write(audioChunk, 0, bytesRead);
+    }
+
+    private synchronized void commitRecording() {
+        ByteArrayOutputStream recording = resultRecording;
+        resultRecording = null;
+        if (recording == null || synthesisFailed || recording.size() == 0) {
+            return;
+        }
+        try {
+            resultSink.accept(recording.toByteArray());
+        } catch (RuntimeException e) {
+            log.warn("{}保存合成结果失败: {}", getId(), e.getMessage());
+        }
     }
 
     /**
@@ -62,26 +142,27 @@ public abstract class TtsEngine {
      * @param bytesRead     音频数据大小
      */
     protected void putAudioData(byte[] audioChunk, int bytesRead) {
-        if (ttsVersion == ttsHandler.getTtsVersion() && nettyAudioRingBuffer == null) {
+        record(audioChunk, bytesRead);
+        if (ttsVersion == ttsHandler.getTtsVersion() && preloadQueue == null) {
             log.debug("{}, 播放", ttsVersion);
             this.ttsHandler.putAudioData(audioChunk, bytesRead);
-        } else if (ttsVersion > ttsHandler.getTtsVersion() || nettyAudioRingBuffer != null) {
+        } else if (ttsVersion > ttsHandler.getTtsVersion() || preloadQueue != null) {
             log.debug("{}, 预加载", ttsVersion);
             preloadData(audioChunk, bytesRead);
         } else if (ttsVersion < ttsHandler.getTtsVersion()) return;
     }
 
     /**
-     * ByteBuf形式写入结束标志
-     * @param byteBuf 结束标志
+     * 写入结束标志，作为独立标记排在已写入的音频之后
      */
-    protected void putAudioData(ByteBuf byteBuf) {
-        if (ttsVersion == ttsHandler.getTtsVersion() && nettyAudioRingBuffer == null) {
+    protected void putEndMarker() {
+        commitRecording();
+        if (ttsVersion == ttsHandler.getTtsVersion() && preloadQueue == null) {
             log.debug("{}, 播放停止位", ttsVersion);
-            this.ttsHandler.putAudioData(byteBuf);
-        } else if (ttsVersion > ttsHandler.getTtsVersion() || nettyAudioRingBuffer != null) {
+            this.ttsHandler.putEndMarker();
+        } else if (ttsVersion > ttsHandler.getTtsVersion() || preloadQueue != null) {
             log.debug("{}, 预加载停止位", ttsVersion);
-            preloadData(byteBuf);
+            preloadQueue.writeMarker(ChunkedAudioQueue.Marker.END);
         } else if (ttsVersion < ttsHandler.getTtsVersion()) return;
     }
 
@@ -118,64 +199,36 @@ public abstract class TtsEngine {
         if (audioChunk == null || audioChunk.length == 0) {
             return;
         }
-        ByteBuf byteBuf = ByteBufAllocator.DEFAULT.buffer(bytesRead);
-        byteBuf.writeBytes(audioChunk, 0 , bytesRead);
-        nettyAudioRingBuffer.write(byteBuf);
-        byteBuf.release();
-    }
-
-    /**
-     * 预加载情况
-     * 写入结束标志
-     * @param byteBuf   结束标志
-     */
-    private void preloadData(ByteBuf byteBuf) {
-        nettyAudioRingBuffer.write(byteBuf);
-        byteBuf.release();
+        preloadQueue.write(audioChunk, 0, bytesRead);
     }
 
     /**
      * 播放预加载音频
-     * 等待缓冲中有数据后再读取，运行完后自动清空缓存音频数据
+     * 等待缓冲中有数据后再读取，读到结束标志后自动清空缓存音频数据
      */
     public void playPreLoadData() {
         try {
-            // 循环读取nettyAudioRingBuffer直到遇到TTS_END_FLAG结束标志
+            // 循环读取preloadQueue直到遇到结束标志
             while (true) {
                 // 如果缓冲区为空，短暂等待
-                if (nettyAudioRingBuffer.isEmpty()) {
+                if (preloadQueue.isEmpty()) {
                     Thread.sleep(100);
                     continue;
                 }
-                
-                // 读取所有可用数据
-                ByteBuf audioData = nettyAudioRingBuffer.readAll();
-                if (audioData != null && audioData.readableBytes() > 0) {
-                    // 检查最后两个字节是否为结束标志
-                    boolean hasEndFlag = false;
-                    if (audioData.readableBytes() >= 2) {
-                        int lastIndex = audioData.writerIndex() - 1;
-                        byte lastByte = audioData.getByte(lastIndex);
-                        byte secondLastByte = audioData.getByte(lastIndex - 1);
-                        
-                        if (secondLastByte == TTSConstant.TTS_END_BYTE && lastByte == TTSConstant.TTS_END_BYTE) {
-                            hasEndFlag = true;
-                        }
-                    }
-                    
-                    // 发送数据（包含结束标志）
+
+                // 读取结束标志之前的全部数据
+                ByteBuf audioData = preloadQueue.readAll();
+                if (audioData.readableBytes() > 0) {
                     this.ttsHandler.putAudioData(audioData);
-                    audioData.release(); // 释放ByteBuf
-                    
-                    // 如果检测到结束标志，清空缓冲区并退出循环
-                    if (hasEndFlag) {
-                        nettyAudioRingBuffer.clear();
-                        nettyAudioRingBuffer.release();
-                        nettyAudioRingBuffer = null;
-                        break;
-                    }
-                } else if (audioData != null) {
-                    audioData.release();
+                }
+                audioData.release();
+
+                // 如果检测到结束标志，转发后清空缓冲区并退出循环
+                if (preloadQueue.pollMarker() == ChunkedAudioQueue.Marker.END) {
+                    this.ttsHandler.putEndMarker();
+                    preloadQueue.release();
+                    preloadQueue = null;
+                    break;
                 }
             }
         } catch (Exception e) {
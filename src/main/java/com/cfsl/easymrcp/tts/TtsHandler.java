@@ -1,10 +1,10 @@
 package com.cfsl.easymrcp.tts;
 
-import com.cfsl.easymrcp.common.EMConstant;
+import com.cfsl.easymrcp.common.CachedAudio;
 import com.cfsl.easymrcp.common.ProcessorCreator;
 import com.cfsl.easymrcp.mrcp.TtsCallback;
+import com.cfsl.easymrcp.rtp.ChunkedAudioQueue;
 import com.cfsl.easymrcp.rtp.MrcpConnection;
-import com.cfsl.easymrcp.rtp.NettyAudioRingBuffer;
 import com.cfsl.easymrcp.utils.SpringUtils;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufAllocator;
@@ -32,6 +32,7 @@ public class TtsHandler implements MrcpConnection {
     private Map<String, TtsCallback> callbacks = new HashMap<>();
     @Getter
     boolean stop = false;
+    @Getter
     protected String reSample;
     protected int skipBytesInTheEndPacket;
     // 音频处理器
@@ -60,6 +61,7 @@ public class TtsHandler implements MrcpConnection {
     }
 
     public void startRtpSender() {
+        rtpProcessor.setCallId(callId);
         rtpProcessor.startRtpSender();
     }
 
@@ -67,6 +69,10 @@ public class TtsHandler implements MrcpConnection {
         rtpProcessor.setRtpChannel(channel);
     }
 
+    public void setRtpChannel(Channel channel, boolean sharedChannel) {
+        rtpProcessor.setRtpChannel(channel, sharedChannel);
+    }
+
     public void setReSample(String reSample) {
         this.reSample = reSample;
         rtpProcessor.setReSample(reSample);
@@ -121,9 +127,8 @@ public class TtsHandler implements MrcpConnection {
             // 设置对接的tts引擎
             TtsEngine ttsEngine = ttsChose.createTtsEngine(id, ttsProcessor, pre, ttsEngineId);
             if (pre.equals("pre")) {
-                ByteBufAllocator allocator = ByteBufAllocator.DEFAULT;
-                NettyAudioRingBuffer nettyAudioRingBuffer = new NettyAudioRingBuffer(allocator, EMConstant.VOIP_SAMPLE_RATE, 30, true);// TTS模式
-                ttsEngine.setNettyAudioRingBuffer(nettyAudioRingBuffer);
+                // 预加载音频按需占用分段，不再预分配30秒缓冲
+                ttsEngine.setPreloadQueue(new ChunkedAudioQueue(ByteBufAllocator.DEFAULT));
             }
             ttsProcessor.createAndSpeak(ttsEngine, request);
         }
@@ -144,8 +149,7 @@ public class TtsHandler implements MrcpConnection {
         byte[] silenceData = new byte[i];
         Arrays.fill(silenceData, (byte) 0x00);
         putAudioData(silenceData, silenceData.length);
-        // 使用ByteBuf版本的结束标记
-        rtpProcessor.putData(TTSConstant.TTS_END_FLAG.retainedDuplicate());
+        putEndMarker();
     }
 
     @Override
@@ -174,6 +178,31 @@ public class TtsHandler implements MrcpConnection {
         rtpProcessor.putData(pcmBuffer);
     }
 
+    /**
+     * 向音频处理器中添加缓存录音，条件允许时直接使用录音缓存中已编码的负载
+     *
+     * @param audio 缓存录音
+     */
+    public void putCachedAudio(CachedAudio audio) {
+        rtpProcessor.putCachedAudio(audio);
+    }
+
+    /**
+     * 向音频处理器中添加共享的只读音频，只排队切片不拷贝
+     *
+     * @param pcmBuffer      缓存录音的PCM数据，调用方保留引用
+     */
+    public void putSharedAudioData(ByteBuf pcmBuffer) {
+        rtpProcessor.putSharedData(pcmBuffer);
+    }
+
+    /**
+     * 写入本次合成的结束标志，排在已写入的音频之后
+     */
+    public void putEndMarker() {
+        rtpProcessor.putMarker(ChunkedAudioQueue.Marker.END);
+    }
+
     /**
      * 中断当前TTS播放
      */
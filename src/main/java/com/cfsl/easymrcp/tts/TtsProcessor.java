@@ -2,6 +2,7 @@ package com.cfsl.easymrcp.tts;
 
 import com.cfsl.easymrcp.common.AudioCacheService;
 import com.cfsl.easymrcp.common.CachedAudio;
+import com.cfsl.easymrcp.common.TtsResultCache;
 import com.cfsl.easymrcp.utils.SpringUtils;
 import lombok.Getter;
 import lombok.Setter;
@@ -14,6 +15,7 @@ import java.util.concurrent.ExecutorService;
 public class TtsProcessor {
     private ExecutorService executorService;
     private final AudioCacheService audioCacheService;
+    private final TtsResultCache resultCache;
 
     @Setter
     protected TtsHandler ttsHandler;
@@ -26,8 +28,13 @@ public class TtsProcessor {
     }
 
     public TtsProcessor(ExecutorService executorService, AudioCacheService audioCacheService) {
+        this(executorService, audioCacheService, null);
+    }
+
+    public TtsProcessor(ExecutorService executorService, AudioCacheService audioCacheService, TtsResultCache resultCache) {
         this.executorService = executorService;
         this.audioCacheService = audioCacheService;
+        this.resultCache = resultCache;
     }
 
     public void setTtsEngine(String ttsEngineId, TtsEngine ttsEngine) {
@@ -47,17 +54,32 @@ public class TtsProcessor {
                     CachedAudio audio = cacheService.getOrDownload(request.getCache());
                     ttsEngine.setCacheHit(true);
                     ttsEngine.setCharCount(audio.getCharCount());
-                    ttsEngine.playPcm(audio.getPcm());
+                    ttsEngine.playCached(audio);
                     return;
                 } catch (Exception e) {
                     log.warn("录音缓存不可用，回退实时TTS, objectName={}, reason={}",
                             request.getCache(), e.getMessage());
                 }
             }
+            String text = request.getText();
+            if (resultCache != null && resultCache.isActive() && !text.isEmpty()) {
+                String key = TtsResultCache.key(ttsEngine.getEngineName(), ttsEngine.getVoice(),
+                        ttsHandler == null ? null : ttsHandler.getReSample(), text);
+                CachedAudio audio = resultCache.get(key, text.length());
+                if (audio != null) {
+                    log.debug("命中实时TTS结果缓存, engineId={}", ttsEngine.getId());
+                    ttsEngine.setCacheHit(true);
+                    ttsEngine.setCharCount(text.length());
+                    ttsEngine.playCached(audio);
+                    return;
+                }
+                ttsEngine.recordResult(resultCache.getMaxEntryKb() * 1024,
+                        pcm -> resultCache.put(key, pcm, text.length()));
+            }
             ttsEngine.setCacheHit(false);
-            ttsEngine.setCharCount(request.getText().length());
+            ttsEngine.setCharCount(text.length());
             ttsEngine.create();
-            ttsEngine.speak(request.getText());
+            ttsEngine.speak(text);
         });
     }
 
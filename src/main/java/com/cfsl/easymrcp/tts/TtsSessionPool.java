@@ -0,0 +1,114 @@
+package com.cfsl.easymrcp.tts;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Deque;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * 同一厂商/音色下可复用的合成会话
+ * 会话由厂商SDK对象持有底层长连接，一次合成完成后归还，下一次合成直接复用，不再重新建连和鉴权。
+ * 只有协议允许在同一连接上连续合成的厂商才应归还会话；合成失败或被中断的会话应丢弃。
+ */
+@Slf4j
+public class TtsSessionPool<T> {
+    @Getter
+    private final String key;
+    private final int maxIdle;
+    private final long idleTtlMs;
+    private final Consumer<T> closer;
+    // 尾部是最近归还的会话
+    private final Deque<IdleSession<T>> idle = new ConcurrentLinkedDeque<>();
+
+    TtsSessionPool(String key, int maxIdle, long idleTtlMs, Consumer<T> closer) {
+        this.key = key;
+        this.maxIdle = maxIdle;
+        this.idleTtlMs = idleTtlMs;
+        this.closer = closer;
+    }
+
+    /**
+     * 取出一个未过期的空闲会话，没有时用factory新建
+     */
+    public T borrow(Supplier<T> factory) {
+        long now = now();
+        IdleSession<T> entry;
+        while ((entry = idle.pollLast()) != null) {
+            if (entry.expireAt > now) {
+                log.debug("TTS会话[{}]复用空闲会话，剩余空闲: {}", key, idle.size());
+                return entry.session;
+            }
+            close(entry.session);
+        }
+        return factory.get();
+    }
+
+    /**
+     * 合成正常结束后归还会话，池满时关闭
+     */
+    public void giveBack(T session) {
+        if (session == null) {
+            return;
+        }
+        if (idle.size() >= maxIdle) {
+            close(session);
+            return;
+        }
+        idle.addLast(new IdleSession<>(session, now() + idleTtlMs));
+    }
+
+    /**
+     * 丢弃不可复用的会话
+     */
+    public void discard(T session) {
+        if (session != null) {
+            close(session);
+        }
+    }
+
+    public int idleCount() {
+        return idle.size();
+    }
+
+    void evictExpired() {
+        long now = now();
+        for (IdleSession<T> entry : idle) {
+            if (entry.expireAt <= now && idle.removeFirstOccurrence(entry)) {
+                close(entry.session);
+            }
+        }
+    }
+
+    void closeAll() {
+        IdleSession<T> entry;
+        while ((entry = idle.pollFirst()) != null) {
+            close(entry.session);
+        }
+    }
+
+    private void close(T session) {
+        try {
+            closer.accept(session);
+        } catch (RuntimeException e) {
+            log.warn("TTS会话[{}]关闭异常: {}", key, e.getMessage());
+        }
+    }
+
+    private static long now() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime());
+    }
+
+    private static final class IdleSession<T> {
+        private final T session;
+        private final long expireAt;
+
+        private IdleSession(T session, long expireAt) {
+            this.session = session;
+            this.expireAt = expireAt;
+        }
+    }
+}
@@ -5,13 +5,17 @@ import com.alibaba.dashscope.audio.ttsv2.SpeechSynthesisAudioFormat;
 import com.alibaba.dashscope.audio.ttsv2.SpeechSynthesisParam;
 import com.alibaba.dashscope.audio.ttsv2.SpeechSynthesizer;
 import com.alibaba.dashscope.common.ResultCallback;
-import com.cfsl.easymrcp.tts.TTSConstant;
+import com.cfsl.easymrcp.common.EMConstant;
+import com.cfsl.easymrcp.tts.TtsConnectionManager;
 import com.cfsl.easymrcp.tts.TtsEngine;
+import com.cfsl.easymrcp.tts.TtsSessionPool;
+import com.cfsl.easymrcp.utils.SpringUtils;
 import lombok.extern.slf4j.Slf4j;
 import com.alibaba.dashscope.utils.Constants;
 
 import java.nio.ByteBuffer;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
 
 @Slf4j
 public class AliyunCosyVoiceEngine extends TtsEngine {
@@ -20,7 +24,11 @@ public class AliyunCosyVoiceEngine extends TtsEngine {
     public String APIKey;
     private String baseWebsocketApiUrl;
 
+    private TtsSessionPool<SpeechSynthesizer> sessionPool;
+    // 正在使用的合成会话，合成结束后归还会话池，被中断时丢弃
+    private final AtomicReference<SpeechSynthesizer> inUse = new AtomicReference<>();
     private SpeechSynthesizer synthesizer;
+    private volatile boolean completed;
     private final CountDownLatch latch = new CountDownLatch(1);
 
     public AliyunCosyVoiceEngine(AliyunTtsConfig aliyunTtsConfig) {
@@ -49,7 +57,8 @@ public class AliyunCosyVoiceEngine extends TtsEngine {
 
             @Override
             public void onComplete() {
-                putAudioData(TTSConstant.TTS_END_FLAG.retainedDuplicate());
+                completed = true;
+                putEndMarker();
                 log.info("{}完成合成", getId());
                 latch.countDown();
             }
@@ -79,8 +88,13 @@ public class AliyunCosyVoiceEngine extends TtsEngine {
                         .voice(voice) // 音色
                         .format(SpeechSynthesisAudioFormat.PCM_8000HZ_MONO_16BIT)
                         .build();
+        // 同一模型和音色的合成会话可复用，SDK在会话内保持WebSocket连接，下一次合成不再重新建连
+        sessionPool = SpringUtils.getBean(TtsConnectionManager.class).sessionPool(
+                EMConstant.ALIYUN + ":" + actualModel + ":" + voice, AliyunCosyVoiceEngine::closeSession);
         // 第二个参数“callback”传入回调即启用异步模式
-        synthesizer = new SpeechSynthesizer(param, callback);
+        synthesizer = sessionPool.borrow(() -> new SpeechSynthesizer(param, callback));
+        synthesizer.updateParamAndCallback(param, callback);
+        inUse.set(synthesizer);
     }
 
     @Override
@@ -94,14 +108,28 @@ public class AliyunCosyVoiceEngine extends TtsEngine {
         } catch (Exception e) {
             log.error(e.getMessage(), e);
         } finally {
-            // 任务结束后关闭websocket连接
-            synthesizer.getDuplexApi().close(1000, "bye");
+            // 合成正常结束时归还会话复用连接，失败时关闭连接
+            SpeechSynthesizer session = inUse.getAndSet(null);
+            if (session != null) {
+                if (completed) {
+                    sessionPool.giveBack(session);
+                } else {
+                    sessionPool.discard(session);
+                }
+            }
         }
     }
 
     @Override
     public void ttsClose() {
-        // 任务结束后关闭websocket连接
-        synthesizer.getDuplexApi().close(1000, "bye");
+        // 合成尚未结束时关闭websocket连接，已归还的会话不受影响
+        SpeechSynthesizer session = inUse.getAndSet(null);
+        if (session != null) {
+            sessionPool.discard(session);
+        }
+    }
+
+    private static void closeSession(SpeechSynthesizer session) {
+        session.getDuplexApi().close(1000, "bye");
     }
 }
@@ -1,6 +1,5 @@
 package com.cfsl.easymrcp.tts.example;
 
-import com.cfsl.easymrcp.tts.TTSConstant;
 import com.cfsl.easymrcp.tts.TtsEngine;
 import com.cfsl.easymrcp.tts.TtsHandler;
 import com.cfsl.easymrcp.tts.TtsProcessor;
@@ -41,7 +40,7 @@ public class ExampleTtsProcessor extends TtsEngine {
                 putAudioData(audioChunk, bytesRead);
             }
             // 发送结束标志
-            putAudioData(TTSConstant.TTS_END_FLAG.retainedDuplicate());
+            putEndMarker();
         } catch (Exception e) {
             log.error("发送失败: " + e.getMessage(), e);
         }
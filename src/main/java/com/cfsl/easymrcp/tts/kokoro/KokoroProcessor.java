@@ -1,7 +1,8 @@
 package com.cfsl.easymrcp.tts.kokoro;
 
-import com.cfsl.easymrcp.tts.TTSConstant;
+import com.cfsl.easymrcp.tts.TtsConnectionManager;
 import com.cfsl.easymrcp.tts.TtsEngine;
+import com.cfsl.easymrcp.utils.SpringUtils;
 import lombok.extern.slf4j.Slf4j;
 
 import java.io.IOException;
@@ -28,8 +29,8 @@ public class KokoroProcessor extends TtsEngine {
 
     @Override
     public void create() {
-        // 创建kokoro的连接
-        httpClient = HttpClient.newHttpClient();
+        // 使用共享的HttpClient，连接在多次合成之间复用
+        httpClient = SpringUtils.getBean(TtsConnectionManager.class).getHttpClient();
     }
 
     @Override
@@ -76,7 +77,7 @@ public class KokoroProcessor extends TtsEngine {
                 }
             }
             // tts语音合成结束，写入结束标志
-            putAudioData(TTSConstant.TTS_END_FLAG.retainedDuplicate());
+            putEndMarker();
             log.info("Kokoro tts end");
         } catch (Exception e) {
             throw new RuntimeException(e);
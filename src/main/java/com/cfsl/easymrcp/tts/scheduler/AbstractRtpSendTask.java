@@ -1,5 +1,7 @@
 package com.cfsl.easymrcp.tts.scheduler;
 
+import com.cfsl.easymrcp.rtp.RtpFlushBatch;
+
 /**
  * RTP 发送任务抽象。
  *
@@ -16,6 +18,12 @@ package com.cfsl.easymrcp.tts.scheduler;
 abstract class AbstractRtpSendTask {
     private final String taskId;
     private volatile boolean canceled;
+    /** 任务当前所在的时间轮 tick，只由 worker 线程读写。 */
+    private long wheelTick;
+    /** 上一次发送的时间，用于统计报文间隔。 */
+    private long lastSendNanos;
+    /** 延迟超过一个发送间隔的发送次数。 */
+    private volatile long lateSends;
 
     AbstractRtpSendTask(String taskId) {
         this.taskId = taskId;
@@ -33,9 +41,61 @@ abstract class AbstractRtpSendTask {
         return canceled;
     }
 
-    /** 执行一次发送推进，由外层 worker 按节拍调用。 */
+    long getWheelTick() {
+        return wheelTick;
+    }
+
+    void setWheelTick(long wheelTick) {
+        this.wheelTick = wheelTick;
+    }
+
+    long getLastSendNanos() {
+        return lastSendNanos;
+    }
+
+    void setLastSendNanos(long lastSendNanos) {
+        this.lastSendNanos = lastSendNanos;
+    }
+
+    long getLateSends() {
+        return lateSends;
+    }
+
+    void countLateSend() {
+        lateSends++;
+    }
+
+    /** 执行一次发送推进，由外层 worker 在任务到期时调用。 */
     abstract void doSendOnce(long nowNanos);
 
+    /** 任务自己的发送间隔，worker 据此在一个间隔内错开各任务的发送相位。 */
+    abstract long intervalNanos();
+
+    /** 下一次发送的时间点，worker 按它把任务重新放入时间轮。 */
+    abstract long nextSendTimeNanos();
+
+    /** 设置首次发送的时间点。 */
+    abstract void startAt(long nanos);
+
+    /** 任务所属通话，用于按通话查看发送指标，默认未知。 */
+    String getCallId() {
+        return null;
+    }
+
+    /** 已发送的音频帧数，默认不统计。 */
+    long getAudioFrames() {
+        return 0L;
+    }
+
+    /** 已发送的静音补帧数，默认不统计。 */
+    long getSilenceFrames() {
+        return 0L;
+    }
+
+    /** 任务进入 worker 时绑定该 worker 的延迟 flush 集合，默认无操作。 */
+    void bindFlushBatch(RtpFlushBatch flushBatch) {
+    }
+
     /** 释放任务私有资源，默认无操作。 */
     void release() {
     }
@@ -0,0 +1,118 @@
+package com.cfsl.easymrcp.tts.scheduler;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 发送调度指标用的直方图，记录微秒值。
+ *
+ * <p>分桶方式与 HdrHistogram 相同：32 以内逐值分桶，更大的值每个 2 的幂区间再分 16 个子桶，
+ * 相对误差不超过约 6%，内存固定。只由 worker 线程写入，指标接口和日志线程读取快照。
+ */
+final class RtpLatencyHistogram {
+    private static final int LINEAR_BUCKETS = 32;
+    private static final int SUB_BUCKETS = 16;
+    /** 覆盖到 2^40 微秒，远超任何有意义的延迟。 */
+    private static final int BUCKETS = LINEAR_BUCKETS + 36 * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+    /** 记录一个微秒值，负值按 0 记录。 */
+    void record(long valueUs) {
+        int index = indexOf(Math.max(0L, valueUs));
+        // 单线程写入，lazySet 即可让读取方看到
+        counts.lazySet(index, counts.get(index) + 1);
+    }
+
+    Snapshot snapshot() {
+        long[] copy = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            copy[i] = counts.get(i);
+        }
+        return new Snapshot(copy);
+    }
+
+    static int indexOf(long value) {
+        if (value < LINEAR_BUCKETS) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - 4;
+        int index = LINEAR_BUCKETS + (shift - 1) * SUB_BUCKETS + (int) (value >>> shift) - SUB_BUCKETS;
+        return Math.min(index, BUCKETS - 1);
+    }
+
+    /** 桶内的最大值，百分位按它报告，与 HdrHistogram 的 highestEquivalentValue 一致。 */
+    static long highestValueOf(int index) {
+        if (index < LINEAR_BUCKETS) {
+            return index;
+        }
+        int shift = (index - LINEAR_BUCKETS) / SUB_BUCKETS + 1;
+        long top = (index - LINEAR_BUCKETS) % SUB_BUCKETS + SUB_BUCKETS;
+        return ((top + 1) << shift) - 1;
+    }
+
+    /**
+     * 某一时刻的分桶计数，两次快照相减即为这段时间内的分布。
+     */
+    static final class Snapshot {
+        private final long[] counts;
+        private final long total;
+
+        private Snapshot(long[] counts) {
+            this.counts = counts;
+            long sum = 0;
+            for (long count : counts) {
+                sum += count;
+            }
+            this.total = sum;
+        }
+
+        Snapshot minus(Snapshot earlier) {
+            long[] diff = new long[counts.length];
+            for (int i = 0; i < counts.length; i++) {
+                diff[i] = counts[i] - (earlier == null ? 0 : earlier.counts[i]);
+            }
+            return new Snapshot(diff);
+        }
+
+        long getTotal() {
+            return total;
+        }
+
+        long percentile(double percentile) {
+            if (total == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(total * percentile / 100.0));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return highestValueOf(i);
+                }
+            }
+            return max();
+        }
+
+        long max() {
+            for (int i = counts.length - 1; i >= 0; i--) {
+                if (counts[i] > 0) {
+                    return highestValueOf(i);
+                }
+            }
+            return 0;
+        }
+
+        Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("count", total);
+            map.put("p50Us", percentile(50));
+            map.put("p90Us", percentile(90));
+            map.put("p99Us", percentile(99));
+            map.put("p999Us", percentile(99.9));
+            map.put("maxUs", max());
+            return map;
+        }
+    }
+}
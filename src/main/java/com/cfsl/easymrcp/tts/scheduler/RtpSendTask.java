@@ -1,7 +1,8 @@
 package com.cfsl.easymrcp.tts.scheduler;
 
-import com.cfsl.easymrcp.rtp.NettyAudioRingBuffer;
+import com.cfsl.easymrcp.rtp.ChunkedAudioQueue;
 import com.cfsl.easymrcp.rtp.NettyRtpSender;
+import com.cfsl.easymrcp.rtp.RtpFlushBatch;
 import com.cfsl.easymrcp.tts.NettyTtsRtpProcessor;
 import com.cfsl.easymrcp.tts.TTSConstant;
 import com.cfsl.easymrcp.utils.SipUtils;
@@ -16,9 +17,9 @@ import java.util.function.Consumer;
  *
  * <p>该类封装单个会话的发送状态，包括：
  * <ul>
- *     <li>output ring buffer 读取</li>
+ *     <li>output 队列读取</li>
  *     <li>按 frameBytes 取帧 / 补帧</li>
- *     <li>END / INTERRUPT 标记识别与替换</li>
+ *     <li>END / INTERRUPT 标记出队与回调</li>
  *     <li>空缓冲时持续补静音</li>
  *     <li>completed / interrupt 回调</li>
  * </ul>
@@ -26,23 +27,28 @@ import java.util.function.Consumer;
  * <p>它不负责选择在哪个线程运行，只负责“单轮发送一次”的语义。
  */
 final class RtpSendTask extends AbstractRtpSendTask {
-    private final NettyAudioRingBuffer buffer;
+    private final ChunkedAudioQueue buffer;
     private final NettyRtpSender sender;
     private final Consumer<String> callback;
     private final int frameBytes;
     private final long taskIntervalNanos;
+    private final String callId;
     /** 当前任务自己的静音帧，避免每轮发送都重复构造。 */
     private final ByteBuf silenceData;
     /** 当前任务下一次允许发送的时间点。 */
     private long nextSendTimeNanos = 0L;
+    /** 音频帧 / 静音补帧计数，只由 worker 线程写入。 */
+    private volatile long audioFrames;
+    private volatile long silenceFrames;
 
     RtpSendTask(String taskId, NettyTtsRtpProcessor processor, Consumer<String> callback) {
         super(taskId);
-        this.buffer = processor.getOutputRingBuffer();
+        this.buffer = processor.getOutputQueue();
         this.sender = processor.getSender();
         this.callback = callback;
         this.frameBytes = processor.getFrameBytes();
         this.taskIntervalNanos = processor.getSendIntervalMs() * 1_000_000L;
+        this.callId = processor.getCallId();
         this.silenceData = ByteBufAllocator.DEFAULT.buffer(frameBytes);
         byte[] silenceBytes = new byte[frameBytes];
         Arrays.fill(silenceBytes, TTSConstant.TTS_SILENCE_BYTE);
@@ -51,7 +57,7 @@ final class RtpSendTask extends AbstractRtpSendTask {
 
     /**
      * 单轮发送逻辑参考 V3 版本共享发送调度：
-     * 每轮只发送一帧，不足一帧时补静音，结束/中断标记替换为静音并异步回调结果。
+     * 每轮只发送一帧，不足一帧时补静音；发送后队头若是结束/中断标记则取出并异步回调结果。
      * 实际发送节拍由会话级 sendIntervalMs 控制。
      */
     @Override
@@ -66,53 +72,59 @@ final class RtpSendTask extends AbstractRtpSendTask {
             return;
         }
 
-        int dataSize = buffer.getSize();
-        if (dataSize >= frameBytes) {
-            ByteBuf frame = buffer.read(frameBytes);
-            int result = checkMarker(frame);
-            sender.sendFrame(frame);
-            frame.release();
-            handleResult(result);
-            nextSendTimeNanos += taskIntervalNanos;
-        } else if (dataSize > 0) {
-            ByteBuf frame = buffer.read(dataSize);
-            int result = checkMarker(frame);
-            ByteBuf fullFrame = fillToFullFrame(frame, frameBytes);
-            sender.sendFrame(fullFrame);
-            frame.release();
-            fullFrame.release();
-            handleResult(result);
-            nextSendTimeNanos += taskIntervalNanos;
-        } else {
-            sender.sendFrame(silenceData);
+        try {
+            int dataSize = buffer.readableBytes();
+            if (dataSize >= frameBytes) {
+                ByteBuf frame = buffer.read(frameBytes);
+                sender.sendFrame(frame);
+                frame.release();
+                audioFrames++;
+            } else if (dataSize > 0) {
+                ByteBuf frame = buffer.read(dataSize);
+                ByteBuf fullFrame = fillToFullFrame(frame, frameBytes);
+                sender.sendFrame(fullFrame);
+                frame.release();
+                fullFrame.release();
+                audioFrames++;
+            } else {
+                sender.sendFrame(silenceData);
+                silenceFrames++;
+            }
+            handleMarker(buffer.pollMarker());
+        } finally {
+            // 发送异常时也推进节拍，避免任务在时间轮里每个 tick 都被重复触发
             nextSendTimeNanos += taskIntervalNanos;
         }
     }
 
-    /**
-     * 检查帧尾的 END / INTERRUPT 标记，并把标记字节替换成静音，避免发出控制字节噪音。
-     */
-    private int checkMarker(ByteBuf frame) {
-        int readable = frame.readableBytes();
-        if (readable < 2) {
-            return 0;
-        }
+    @Override
+    String getCallId() {
+        return callId;
+    }
 
-        byte last1 = frame.getByte(readable - 2);
-        byte last2 = frame.getByte(readable - 1);
+    @Override
+    long getAudioFrames() {
+        return audioFrames;
+    }
 
-        int result = 0;
-        if (last1 == TTSConstant.TTS_END_BYTE && last2 == TTSConstant.TTS_END_BYTE) {
-            result = 1;
-        } else if (last1 == TTSConstant.TTS_INTERRUPT_BYTE && last2 == TTSConstant.TTS_INTERRUPT_BYTE) {
-            result = 2;
-        }
+    @Override
+    long getSilenceFrames() {
+        return silenceFrames;
+    }
 
-        if (result != 0) {
-            frame.setByte(readable - 2, TTSConstant.TTS_SILENCE_BYTE);
-            frame.setByte(readable - 1, TTSConstant.TTS_SILENCE_BYTE);
-        }
-        return result;
+    @Override
+    long intervalNanos() {
+        return taskIntervalNanos;
+    }
+
+    @Override
+    long nextSendTimeNanos() {
+        return nextSendTimeNanos;
+    }
+
+    @Override
+    void startAt(long nanos) {
+        nextSendTimeNanos = nanos;
     }
 
     /**
@@ -135,16 +147,22 @@ final class RtpSendTask extends AbstractRtpSendTask {
     /**
      * END / INTERRUPT 结果通过异步回调回传上层业务。
      */
-    private void handleResult(int result) {
-        if (result == 1) {
-            SipUtils.executeTask(() -> callback.accept("completed"));
-        } else if (result == 2) {
-            SipUtils.executeTask(() -> callback.accept("interrupt"));
+    private void handleMarker(ChunkedAudioQueue.Marker marker) {
+        if (marker == ChunkedAudioQueue.Marker.END) {
+            SipUtils.executeTask(callId, () -> callback.accept("completed"));
+        } else if (marker == ChunkedAudioQueue.Marker.INTERRUPT) {
+            SipUtils.executeTask(callId, () -> callback.accept("interrupt"));
         }
     }
 
+    @Override
+    void bindFlushBatch(RtpFlushBatch flushBatch) {
+        sender.setFlushBatch(flushBatch);
+    }
+
     @Override
     void release() {
+        sender.setFlushBatch(null);
         silenceData.release();
     }
 }
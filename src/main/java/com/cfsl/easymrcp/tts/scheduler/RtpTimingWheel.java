@@ -0,0 +1,130 @@
+package com.cfsl.easymrcp.tts.scheduler;
+
+import java.util.ArrayDeque;
+import java.util.function.Consumer;
+
+/**
+ * RTP 发送时间轮。
+ *
+ * <p>按下一次发送时间把任务放进对应的时间槽，worker 每次只处理到期的槽，
+ * 不再在每个节拍遍历全部任务。槽按 tick 编号取模定位，任务记录自己的绝对 tick，
+ * 超出一圈的任务留在槽中等下一圈（与 Netty HashedWheelTimer 的 rounds 相同）。
+ *
+ * <p>任务在所属槽的时间段结束后才触发，保证触发时已经到达任务自己的发送时间。
+ * 只在 worker 自己的线程上使用，不做同步。
+ */
+final class RtpTimingWheel {
+    private final long tickNanos;
+    private final long originNanos;
+    private final ArrayDeque<AbstractRtpSendTask>[] slots;
+    private final int mask;
+    /** 下一个待处理的 tick。 */
+    private long currentTick;
+    private int size;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    RtpTimingWheel(long tickNanos, int minSlots, long originNanos) {
+        this.tickNanos = tickNanos;
+        this.originNanos = originNanos;
+        int slotCount = Integer.highestOneBit(Math.max(2, minSlots) - 1) << 1;
+        this.slots = new ArrayDeque[slotCount];
+        for (int i = 0; i < slotCount; i++) {
+            slots[i] = new ArrayDeque<>();
+        }
+        this.mask = slotCount - 1;
+    }
+
+    long getTickNanos() {
+        return tickNanos;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * 按发送时间放入时间轮，已经过期的任务放到下一个待处理的 tick。
+     */
+    void schedule(AbstractRtpSendTask task, long deadlineNanos) {
+        long tick = Math.max(tickOf(deadlineNanos), currentTick);
+        task.setWheelTick(tick);
+        slots[(int) (tick & mask)].addLast(task);
+        size++;
+    }
+
+    /**
+     * 为新任务选择首次发送时间：在一个发送间隔内挑选任务最少的 tick，使各任务的发送相位错开。
+     */
+    long spreadDeadline(long nowNanos, long intervalNanos) {
+        long firstTick = Math.max(tickOf(nowNanos), currentTick);
+        int candidates = (int) Math.max(1, Math.min(slots.length, intervalNanos / tickNanos));
+        long bestTick = firstTick;
+        int bestLoad = Integer.MAX_VALUE;
+        for (int i = 0; i < candidates; i++) {
+            int load = slots[(int) ((firstTick + i) & mask)].size();
+            if (load < bestLoad) {
+                bestLoad = load;
+                bestTick = firstTick + i;
+                if (load == 0) {
+                    break;
+                }
+            }
+        }
+        return Math.max(nowNanos, tickStart(bestTick));
+    }
+
+    /**
+     * 处理时间段已经结束的全部 tick，依次把到期任务交给 fire；fire 可以把任务重新放回时间轮。
+     *
+     * @return 本次触发的任务数
+     */
+    int expire(long nowNanos, Consumer<AbstractRtpSendTask> fire) {
+        int fired = 0;
+        while (tickStart(currentTick + 1) <= nowNanos) {
+            long tick = currentTick++;
+            ArrayDeque<AbstractRtpSendTask> slot = slots[(int) (tick & mask)];
+            // 只遍历本轮开始前的任务，fire 中重新放入同一槽的任务留到下一圈
+            for (int i = slot.size(); i > 0; i--) {
+                AbstractRtpSendTask task = slot.pollFirst();
+                if (task.getWheelTick() > tick) {
+                    slot.addLast(task);
+                    continue;
+                }
+                size--;
+                if (!task.isCanceled()) {
+                    fire.accept(task);
+                    fired++;
+                }
+            }
+        }
+        return fired;
+    }
+
+    /**
+     * 下一个有任务的 tick 结束的时间，时间轮为空时返回 -1。
+     */
+    long nextExpireNanos() {
+        if (size == 0) {
+            return -1L;
+        }
+        long earliest = Long.MAX_VALUE;
+        for (int i = 0; i < slots.length; i++) {
+            long tick = currentTick + i;
+            for (AbstractRtpSendTask task : slots[(int) (tick & mask)]) {
+                earliest = Math.min(earliest, task.getWheelTick());
+            }
+            if (earliest <= tick) {
+                break;
+            }
+        }
+        return tickStart(earliest + 1);
+    }
+
+    private long tickOf(long nanos) {
+        return Math.floorDiv(nanos - originNanos, tickNanos);
+    }
+
+    private long tickStart(long tick) {
+        return originNanos + tick * tickNanos;
+    }
+}
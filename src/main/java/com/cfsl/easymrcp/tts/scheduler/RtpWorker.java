@@ -1,12 +1,16 @@
 package com.cfsl.easymrcp.tts.scheduler;
 
+import com.cfsl.easymrcp.rtp.RtpFlushBatch;
+
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
-import java.util.HashMap;
 import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
 
 /**
  * RTP 发送 worker。
@@ -14,28 +18,37 @@ import java.util.concurrent.atomic.AtomicInteger;
  * <p>一个 worker 对应一个实际发送线程，独占管理自己的发送任务集合。
  * 外部线程不直接改 activeTasks，而是只投递新增/取消请求；
  * worker 再在自己的线程里合并请求、执行发送，并处理延迟释放。
+ *
+ * <p>活动任务按下一次发送时间放在时间轮里，每个 tick 只触发到期的任务，
+ * 新任务的首次发送时间错开到一个发送间隔内任务最少的 tick 上。
  */
 final class RtpWorker {
     private final int index;
     private final int capacity;
     /** 当前任务总数，用于扩缩容判断，不要求和 activeTasks 严格同一时刻一致。 */
     private final AtomicInteger taskCount = new AtomicInteger();
-    /** 当前已生效、由 worker 自己线程直接遍历执行的发送任务集合。 */
-    private final Map<String, AbstractRtpSendTask> activeTasks = new HashMap<>();
+    /** 当前已生效的发送任务集合，用于取消查找和关闭时回收；指标接口会从其他线程读取。 */
+    private final Map<String, AbstractRtpSendTask> activeTasks = new ConcurrentHashMap<>();
     /** 待新增发送任务队列。 */
     private final Queue<AbstractRtpSendTask> pendingAddTasks = new ConcurrentLinkedQueue<>();
     /** 待取消任务 ID 队列。 */
     private final Queue<String> pendingCancelTaskIds = new ConcurrentLinkedQueue<>();
     /** 已取消但还不能立刻释放的任务队列，由 worker 在安全点统一释放。 */
     private final Queue<AbstractRtpSendTask> pendingReleaseTasks = new ConcurrentLinkedQueue<>();
+    /** 当前 worker 一个发送节拍内写过的通道，节拍结束时统一 flush。 */
+    private final RtpFlushBatch flushBatch = new RtpFlushBatch();
+    /** 按下一次发送时间排列的活动任务，只在 worker 线程上访问。 */
+    private final RtpTimingWheel timingWheel;
+    private final RtpWorkerStats stats = new RtpWorkerStats();
     private volatile Thread thread;
     private volatile boolean running;
     /** 当前 worker 进入空闲状态的起始时间，用于尾部缩容判断。 */
     private volatile long idleStartTime;
 
-    RtpWorker(int index, int capacity) {
+    RtpWorker(int index, int capacity, long tickNanos, int wheelSlots) {
         this.index = index;
         this.capacity = capacity;
+        this.timingWheel = new RtpTimingWheel(tickNanos, wheelSlots, System.nanoTime());
     }
 
     int getIndex() {
@@ -70,19 +83,31 @@ final class RtpWorker {
         this.idleStartTime = 0L;
     }
 
-    boolean hasActiveTasks() {
-        return !activeTasks.isEmpty();
+    RtpWorkerStats getStats() {
+        return stats;
+    }
+
+    long getTickNanos() {
+        return timingWheel.getTickNanos();
     }
 
     Collection<AbstractRtpSendTask> activeTasksView() {
         return activeTasks.values();
     }
 
-    /** 把新增发送任务投递给当前 worker。 */
+    boolean hasActiveTasks() {
+        return !activeTasks.isEmpty();
+    }
+
+    /** 把新增发送任务投递给当前 worker，并唤醒 worker 尽快纳入时间轮。 */
     void enqueueAdd(AbstractRtpSendTask task) {
         pendingAddTasks.add(task);
         taskCount.incrementAndGet();
         idleStartTime = 0L;
+        Thread current = thread;
+        if (current != null) {
+            LockSupport.unpark(current);
+        }
     }
 
     /** 把取消请求投递给当前 worker。 */
@@ -94,13 +119,18 @@ final class RtpWorker {
     /**
      * 将待新增/待取消请求合并到 activeTasks。
      *
-     * <p>取消中的任务会先标记 canceled，再放入待释放队列，
-     * 由 worker 在循环安全点统一释放，避免并发释放 ByteBuf。
+     * <p>新任务按错开后的首次发送时间放入时间轮。
+     * 取消中的任务会先标记 canceled，再放入待释放队列，
+     * 由 worker 在循环安全点统一释放，避免并发释放 ByteBuf；时间轮到期时直接丢弃已取消的任务。
      */
-    void applyPendingChanges() {
+    void applyPendingChanges(long nowNanos) {
         AbstractRtpSendTask task;
         while ((task = pendingAddTasks.poll()) != null) {
+            task.bindFlushBatch(flushBatch);
             activeTasks.put(task.getTaskId(), task);
+            long startNanos = timingWheel.spreadDeadline(nowNanos, task.intervalNanos());
+            task.startAt(startNanos);
+            timingWheel.schedule(task, startNanos);
         }
 
         String taskId;
@@ -141,6 +171,28 @@ final class RtpWorker {
         return removed;
     }
 
+    /**
+     * 触发全部已到期的任务，发送后按任务自己的下一次发送时间放回时间轮。
+     *
+     * @return 本次触发的任务数
+     */
+    int runDueTasks(long nowNanos, Consumer<AbstractRtpSendTask> send) {
+        return timingWheel.expire(nowNanos, task -> {
+            send.accept(task);
+            timingWheel.schedule(task, task.nextSendTimeNanos());
+        });
+    }
+
+    /** 下一个任务到期的时间，没有任务时返回 -1。 */
+    long nextDueNanos() {
+        return timingWheel.nextExpireNanos();
+    }
+
+    /** 一个 tick 结束时 flush 本 tick 写过的全部通道。 */
+    void flushWrites() {
+        flushBatch.flush();
+    }
+
     /** 在 worker 自己的线程安全点统一释放已取消任务资源。 */
     void releasePendingTasks() {
         AbstractRtpSendTask task;
@@ -0,0 +1,78 @@
+package com.cfsl.easymrcp.tts.scheduler;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 单个 RTP 发送 worker 的运行指标。
+ *
+ * <ul>
+ *     <li>lateness：每次发送相对任务自身发送时间点的延迟</li>
+ *     <li>loopDuration：一次有发送的循环耗时</li>
+ *     <li>sendInterval：同一任务相邻两个报文的实际间隔</li>
+ *     <li>lateOverruns：延迟超过一个发送间隔的发送次数，即对端会感知到断续</li>
+ *     <li>loopOverruns：单次循环耗时超过一个 tick 的次数，说明 worker 已接近处理上限</li>
+ * </ul>
+ *
+ * <p>计数只由 worker 线程写入。
+ */
+final class RtpWorkerStats {
+    private final RtpLatencyHistogram lateness = new RtpLatencyHistogram();
+    private final RtpLatencyHistogram loopDuration = new RtpLatencyHistogram();
+    private final RtpLatencyHistogram sendInterval = new RtpLatencyHistogram();
+    private volatile long lateOverruns;
+    private volatile long loopOverruns;
+
+    /** 上次输出周期日志时的快照，只由日志线程使用。 */
+    private RtpLatencyHistogram.Snapshot lastLateness;
+    private RtpLatencyHistogram.Snapshot lastLoopDuration;
+    private long lastLateOverruns;
+    private long lastLoopOverruns;
+
+    void recordSend(long latenessNanos, long intervalNanos, long previousSendNanos, long nowNanos) {
+        lateness.record(latenessNanos / 1000);
+        if (previousSendNanos != 0L) {
+            sendInterval.record((nowNanos - previousSendNanos) / 1000);
+        }
+        if (latenessNanos > intervalNanos) {
+            lateOverruns++;
+        }
+    }
+
+    void recordLoop(long durationNanos, long tickNanos) {
+        loopDuration.record(durationNanos / 1000);
+        if (durationNanos > tickNanos) {
+            loopOverruns++;
+        }
+    }
+
+    Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("lateness", lateness.snapshot().toMap());
+        map.put("loopDuration", loopDuration.snapshot().toMap());
+        map.put("sendInterval", sendInterval.snapshot().toMap());
+        map.put("lateOverruns", lateOverruns);
+        map.put("loopOverruns", loopOverruns);
+        return map;
+    }
+
+    /**
+     * 自上次调用以来的延迟摘要，用于周期日志。
+     */
+    synchronized String intervalSummary() {
+        RtpLatencyHistogram.Snapshot latenessNow = lateness.snapshot();
+        RtpLatencyHistogram.Snapshot loopNow = loopDuration.snapshot();
+        RtpLatencyHistogram.Snapshot latenessDelta = latenessNow.minus(lastLateness);
+        RtpLatencyHistogram.Snapshot loopDelta = loopNow.minus(lastLoopDuration);
+        long lateNow = lateOverruns;
+        long loopOverNow = loopOverruns;
+        String summary = String.format("sends=%d, lateness p50/p99/max=%d/%d/%dus, loop p99/max=%d/%dus, lateOverruns=%d, loopOverruns=%d",
+                latenessDelta.getTotal(), latenessDelta.percentile(50), latenessDelta.percentile(99), latenessDelta.max(),
+                loopDelta.percentile(99), loopDelta.max(), lateNow - lastLateOverruns, loopOverNow - lastLoopOverruns);
+        lastLateness = latenessNow;
+        lastLoopDuration = loopNow;
+        lastLateOverruns = lateNow;
+        lastLoopOverruns = loopOverNow;
+        return summary;
+    }
+}
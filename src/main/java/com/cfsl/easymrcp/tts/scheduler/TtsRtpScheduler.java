@@ -1,6 +1,5 @@
 package com.cfsl.easymrcp.tts.scheduler;
 
-import com.cfsl.easymrcp.rtp.NettyAudioRingBuffer;
 import com.cfsl.easymrcp.rtp.NettyRtpSender;
 import com.cfsl.easymrcp.tts.NettyTtsRtpProcessor;
 import com.cfsl.easymrcp.tts.TTSConstant;
@@ -9,13 +8,16 @@ import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufAllocator;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
 import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -40,7 +42,12 @@ public class TtsRtpScheduler {
     @Value("${tts.rtp-scheduler.send-interval-ms:20}")
     private int sendIntervalMs;
 
-    @Value("${tts.rtp-scheduler.worker-capacity:50}")
+    /** 时间轮精度，取值 1~5ms；各任务的发送相位按该精度错开。 */
+    @Value("${tts.rtp-scheduler.tick-ms:1}")
+    private int tickMs;
+
+    /** 任务按到期时间触发，单个 tick 只处理少量任务，单个 worker 可以承载更多会话。 */
+    @Value("${tts.rtp-scheduler.worker-capacity:200}")
     private int workerCapacity;
 
     @Value("${tts.rtp-scheduler.expand-threshold:0.8}")
@@ -55,6 +62,10 @@ public class TtsRtpScheduler {
     @Value("${tts.rtp-scheduler.max-workers:20}")
     private int maxWorkers;
 
+    /** 是否周期输出发送延迟摘要日志，输出间隔见 stats-log-interval-ms。 */
+    @Value("${tts.rtp-scheduler.stats-log-enabled:true}")
+    private boolean statsLogEnabled;
+
     private final Map<Integer, RtpWorker> workers = new HashMap<>();
     private final Map<String, Integer> taskOwnerIndexMap = new HashMap<>();
     private final Object lifecycleLock = new Object();
@@ -160,12 +171,24 @@ public class TtsRtpScheduler {
             throw new IllegalStateException("TTS RTP 调度器 worker 数已达到上限: " + maxWorkers);
         }
         int newIndex = maxWorkerIndex + 1;
-        RtpWorker worker = new RtpWorker(newIndex, workerCapacity);
+        RtpWorker worker = new RtpWorker(newIndex, workerCapacity, tickNanos(), wheelSlots());
         workers.put(newIndex, worker);
         maxWorkerIndex = newIndex;
         return worker;
     }
 
+    private long tickNanos() {
+        return Math.min(5, Math.max(1, tickMs)) * 1_000_000L;
+    }
+
+    /**
+     * 时间轮一圈覆盖若干个发送间隔，常见 ptime 的任务不需要跨圈。
+     */
+    private int wheelSlots() {
+        long intervalNanos = Math.max(1, sendIntervalMs) * 1_000_000L;
+        return (int) Math.max(64, intervalNanos * 4 / tickNanos());
+    }
+
     /**
      * 扩容阈值按“任务数 / 容量”计算，语义类似 HashMap 装载因子。
      */
@@ -176,32 +199,34 @@ public class TtsRtpScheduler {
     /**
      * worker 主循环。
      *
-     * <p>worker 先合并自己的待新增/待取消请求，再直接遍历自己拥有的活动任务集合。
-     * 这里不做全局任务快照，发送热路径只围绕当前 worker 自己的数据结构展开。
+     * <p>worker 先合并自己的待新增/待取消请求，再从时间轮中取出已到期的任务发送，
+     * 然后休眠到下一个任务到期。各任务的发送相位分散在发送间隔内，每个 tick 只处理一部分任务，
+     * 报文间隔更均匀，CPU 占用也不再集中在每个间隔的开头。
      */
     private void runWorkerLoop(RtpWorker worker) {
-        final long schedulerIntervalNanos = sendIntervalMs * 1_000_000L;
-        long shouldWakeUp = System.nanoTime();
+        final long idleParkNanos = Math.max(1, sendIntervalMs) * 1_000_000L;
         while (running && worker.isRunning() && !Thread.currentThread().isInterrupted()) {
-            long startTime = System.nanoTime();
-            long timeDifference = startTime - shouldWakeUp;
-
-            worker.applyPendingChanges();
+            long now = System.nanoTime();
+            worker.applyPendingChanges(now);
             if (worker.hasActiveTasks()) {
                 worker.clearIdle();
-                sendAllTasks(worker.activeTasksView(), startTime);
             } else {
                 worker.markIdleIfNecessary();
             }
+            // 已取消的任务也要在到期时移出时间轮，所以没有活动任务时同样推进
+            if (worker.runDueTasks(now, task -> sendTask(worker, task)) > 0) {
+                // 同一 tick 内只write，最后统一flush，epoll下同一通道的多帧合并为一次sendmmsg
+                worker.flushWrites();
+                worker.getStats().recordLoop(System.nanoTime() - now, worker.getTickNanos());
+            }
             worker.releasePendingTasks();
             if (!worker.hasActiveTasks() && tryShrinkTailWorker(worker)) {
                 break;
             }
 
-            long endTime = System.nanoTime();
-            long elapsed = endTime - startTime;
-            long sleepNanos = schedulerIntervalNanos - elapsed - timeDifference;
-            shouldWakeUp = endTime + sleepNanos;
+            // 新任务注册时会唤醒 worker，这里最多休眠一个发送间隔
+            long nextDue = worker.nextDueNanos();
+            long sleepNanos = nextDue < 0 ? idleParkNanos : Math.min(idleParkNanos, nextDue - System.nanoTime());
             if (sleepNanos > 0) {
                 LockSupport.parkNanos(sleepNanos);
             }
@@ -214,21 +239,81 @@ public class TtsRtpScheduler {
     }
 
     /**
-     * 执行当前 worker 的所有活动发送任务。
+     * 执行一个到期任务的单次发送，异常只记录日志，不影响同一 worker 的其他任务。
+     * 发送前记录本次相对任务发送时间点的延迟和与上一个报文的间隔。
+     */
+    private void sendTask(RtpWorker worker, AbstractRtpSendTask task) {
+        long now = System.nanoTime();
+        long latenessNanos = now - task.nextSendTimeNanos();
+        worker.getStats().recordSend(latenessNanos, task.intervalNanos(), task.getLastSendNanos(), now);
+        if (latenessNanos > task.intervalNanos()) {
+            task.countLateSend();
+        }
+        task.setLastSendNanos(now);
+        try {
+            task.doSendOnce(now);
+        } catch (Exception e) {
+            log.error("RTP发送任务执行异常，任务ID: {}", task.getTaskId(), e);
+        }
+    }
+
+    /**
+     * 各 worker 的发送延迟、循环耗时、报文间隔分布和超限次数，用于评估 worker-capacity / max-workers。
      *
-     * <p>取消中的任务会先被 worker 标记，这里直接跳过即可。
+     * @param includeTasks 是否附带每个通话的音频帧 / 静音帧计数
      */
-    private void sendAllTasks(Iterable<AbstractRtpSendTask> tasks, long nowNanos) {
-        for (AbstractRtpSendTask task : tasks) {
-            if (task.isCanceled()) {
-                continue;
-            }
-            try {
-                task.doSendOnce(nowNanos);
-            } catch (Exception e) {
-                log.error("RTP发送任务执行异常，任务ID: {}", task.getTaskId(), e);
+    public Map<String, Object> stats(boolean includeTasks) {
+        List<Map<String, Object>> workerStats = new ArrayList<>();
+        for (RtpWorker worker : workersSnapshot()) {
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("index", worker.getIndex());
+            item.put("tasks", worker.taskCount());
+            item.put("capacity", worker.getCapacity());
+            item.putAll(worker.getStats().toMap());
+            if (includeTasks) {
+                List<Map<String, Object>> tasks = new ArrayList<>();
+                for (AbstractRtpSendTask task : worker.activeTasksView()) {
+                    Map<String, Object> taskStats = new LinkedHashMap<>();
+                    taskStats.put("taskId", task.getTaskId());
+                    taskStats.put("callId", task.getCallId());
+                    taskStats.put("audioFrames", task.getAudioFrames());
+                    taskStats.put("silenceFrames", task.getSilenceFrames());
+                    taskStats.put("lateSends", task.getLateSends());
+                    tasks.add(taskStats);
+                }
+                item.put("taskStats", tasks);
             }
+            workerStats.add(item);
+        }
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("workerCapacity", workerCapacity);
+        stats.put("maxWorkers", maxWorkers);
+        stats.put("tickMs", tickNanos() / 1_000_000L);
+        stats.put("workers", workerStats);
+        return stats;
+    }
+
+    /**
+     * 周期输出各 worker 自上次输出以来的发送延迟摘要。
+     */
+    @Scheduled(fixedDelayString = "${tts.rtp-scheduler.stats-log-interval-ms:60000}")
+    public void logStats() {
+        if (!statsLogEnabled) {
+            return;
+        }
+        for (RtpWorker worker : workersSnapshot()) {
+            log.info("RTP发送调度 worker-{} 任务数: {}/{}, {}", worker.getIndex(), worker.taskCount(),
+                    worker.getCapacity(), worker.getStats().intervalSummary());
+        }
+    }
+
+    private List<RtpWorker> workersSnapshot() {
+        List<RtpWorker> snapshot;
+        synchronized (lifecycleLock) {
+            snapshot = new ArrayList<>(workers.values());
         }
+        snapshot.sort(Comparator.comparingInt(RtpWorker::getIndex));
+        return snapshot;
     }
 
     /**
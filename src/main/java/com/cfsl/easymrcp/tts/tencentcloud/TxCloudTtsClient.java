@@ -1,7 +1,7 @@
 package com.cfsl.easymrcp.tts.tencentcloud;
 
-import com.cfsl.easymrcp.tts.TTSConstant;
-import com.cfsl.easymrcp.tts.TtsHandler;
+import com.cfsl.easymrcp.tts.TtsConnectionManager;
+import com.cfsl.easymrcp.utils.SpringUtils;
 import com.google.gson.Gson;
 import com.tencent.core.ws.Credential;
 import com.tencent.core.ws.SpeechClient;
@@ -13,18 +13,20 @@ import java.util.UUID;
 
 @Slf4j
 public class TxCloudTtsClient {
-    TtsHandler ttsHandler;
+    TxCloudTtsProcessor engine;
     SpeechClient proxy;
     TxCloudTtsConfig config;
     Credential credential;
 
-    public TxCloudTtsClient(TxCloudTtsConfig config, TtsHandler ttsHandler) {
+    public TxCloudTtsClient(TxCloudTtsConfig config, TxCloudTtsProcessor engine) {
         this.config = config;
-        this.ttsHandler = ttsHandler;
+        this.engine = engine;
     }
 
     public void create() {
-        proxy = new SpeechClient(TtsConstant.DEFAULT_TTS_REQ_URL);
+        // SpeechClient内部持有连接池，全局共享一个
+        proxy = SpringUtils.getBean(TtsConnectionManager.class)
+                .sharedClient("tencent-cloud", () -> new SpeechClient(TtsConstant.DEFAULT_TTS_REQ_URL));
         credential = new Credential(config.getAppId(), config.getSecretId(), config.getSecretKey());
     }
 
@@ -54,8 +56,7 @@ public class TxCloudTtsClient {
                 log.info("{} session_id:{},{}", "onSynthesisEnd", response.getSessionId(), new Gson().toJson(response));
                 // tts语音合成结束，写入结束标志
                 try {
-                    // 直接使用TtsHandler的putAudioData方法
-                    ttsHandler.putAudioData(TTSConstant.TTS_END_FLAG.retainedDuplicate());
+                    engine.onSynthesisEnd();
                 } catch (Exception e) {
                     log.error(e.getMessage(), e);
                 }
@@ -66,8 +67,7 @@ public class TxCloudTtsClient {
                 byte[] data = new byte[buffer.remaining()];
                 buffer.get(data);
                 try {
-                    // 直接使用TtsHandler的putAudioData方法
-                    ttsHandler.putAudioData(data, data.length);
+                    engine.onAudio(data);
                 } catch (Exception e) {
                     log.error("处理音频数据失败", e);
                 }
@@ -81,6 +81,7 @@ public class TxCloudTtsClient {
             @Override
             public void onSynthesisFail(SpeechSynthesizerResponse response) {
                 log.info("{} session_id:{},{}", "onSynthesisFail", response.getSessionId(), new Gson().toJson(response));
+                engine.onSynthesisFail();
             }
         };
         //synthesizer不可重复使用，每次合成需要重新生成新对象
@@ -1,8 +1,6 @@
 package com.cfsl.easymrcp.tts.tencentcloud;
 
 import com.cfsl.easymrcp.tts.TtsEngine;
-import com.cfsl.easymrcp.tts.TtsHandler;
-import com.cfsl.easymrcp.tts.TtsProcessor;
 import lombok.extern.slf4j.Slf4j;
 
 /**
@@ -19,8 +17,8 @@ public class TxCloudTtsProcessor extends TtsEngine {
 
     @Override
     public void create() {
-        // 直接传递this，以便TxCloudTtsClient可以调用putAudioData方法
-        txCloudTtsClient = new TxCloudTtsClient(config, ttsHandler);
+        // 直接传递this，以便TxCloudTtsClient经由引擎写入音频，按版本区分播放/预加载
+        txCloudTtsClient = new TxCloudTtsClient(config, this);
         txCloudTtsClient.create();
     }
 
@@ -29,6 +27,18 @@ public class TxCloudTtsProcessor extends TtsEngine {
         txCloudTtsClient.speak(text);
     }
 
+    void onAudio(byte[] data) {
+        putAudioData(data, data.length);
+    }
+
+    void onSynthesisEnd() {
+        putEndMarker();
+    }
+
+    void onSynthesisFail() {
+        markSynthesisFailed();
+    }
+
     @Override
     public void ttsClose() {
         log.info("txCloudTtsClient close");
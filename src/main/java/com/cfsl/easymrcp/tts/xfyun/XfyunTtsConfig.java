@@ -21,4 +21,6 @@ public class XfyunTtsConfig extends TtsConfig {
     public String APIKey;
     // 小语种必须使用UNICODE编码作为值
     public String TTE;
+    // 预热连接的空闲保留时间(ms)，服务端约10秒收不到数据会断开连接
+    public long poolIdleTtlMs = 8000;
 }
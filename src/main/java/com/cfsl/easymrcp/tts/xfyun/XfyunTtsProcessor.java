@@ -1,24 +1,28 @@
 package com.cfsl.easymrcp.tts.xfyun;
 
-import com.cfsl.easymrcp.tts.TTSConstant;
+import com.cfsl.easymrcp.common.EMConstant;
+import com.cfsl.easymrcp.tts.TtsConnectionManager;
 import com.cfsl.easymrcp.tts.TtsEngine;
 import com.cfsl.easymrcp.tts.TtsHandler;
 import com.cfsl.easymrcp.tts.TtsProcessor;
+import com.cfsl.easymrcp.utils.SpringUtils;
+import com.cfsl.easymrcp.ws.WsCodec;
+import com.cfsl.easymrcp.ws.WsConnection;
+import com.cfsl.easymrcp.ws.WsConnectionPool;
+import com.cfsl.easymrcp.ws.WsEndpoint;
 import com.google.gson.Gson;
 import lombok.extern.slf4j.Slf4j;
 import okhttp3.HttpUrl;
-import org.java_websocket.client.WebSocketClient;
-import org.java_websocket.enums.ReadyState;
-import org.java_websocket.handshake.ServerHandshake;
 
 import javax.crypto.Mac;
 import javax.crypto.spec.SecretKeySpec;
-import java.net.URI;
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
 import java.text.SimpleDateFormat;
 import java.util.*;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
 
 @Slf4j
 public class XfyunTtsProcessor extends TtsEngine {
@@ -36,8 +40,8 @@ public class XfyunTtsProcessor extends TtsEngine {
     public String OUTPUT_FILE_PATH = "src/main/resources/" + System.currentTimeMillis() + ".pcm";
     // json
     public Gson gson = new Gson();
-    String wsUrl;
-    WebSocketClient webSocketClient;
+    private long poolIdleTtlMs;
+    WsConnection webSocketClient;
     private CountDownLatch countDownLatch = new CountDownLatch(1);
 
     public XfyunTtsProcessor(XfyunTtsConfig xfyunTtsConfig) {
@@ -47,36 +51,37 @@ public class XfyunTtsProcessor extends TtsEngine {
         this.APISecret = xfyunTtsConfig.getAPISecret();
         this.TTE = xfyunTtsConfig.getTTE();
         this.voice = xfyunTtsConfig.getVoice();
+        this.poolIdleTtlMs = xfyunTtsConfig.getPoolIdleTtlMs();
     }
 
     @Override
     public void create() {
-        try {
-            wsUrl = getAuthUrl(hostUrl, APIKey, APISecret).replace("https://", "wss://");
-        } catch (Exception e) {
-            throw new RuntimeException(e);
-        }
+        // 鉴权url在预热连接建连时生成
     }
 
     @Override
     public void speak(String text) {
         this.text = text;
-        websocketWork(wsUrl);
+        websocketWork();
     }
 
     @Override
     public void ttsClose() {
-        if (webSocketClient != null) webSocketClient.close();
+        if (webSocketClient != null) webSocketClient.close(1000, "");
         log.info("xfyun tts close");
     }
 
     // Websocket方法
-    public void websocketWork(String wsUrl) {
+    public void websocketWork() {
+        // 收到status=2才表示合成完整结束，连接提前关闭或失败时不完整
+        AtomicBoolean finished = new AtomicBoolean();
         try {
-            URI uri = new URI(wsUrl);
-            webSocketClient = new WebSocketClient(uri) {
+            // 讯飞每个连接只能合成一次，从预热池租用已握手的连接，用完关闭
+            WsConnectionPool pool = SpringUtils.getBean(TtsConnectionManager.class)
+                    .wsPool(EMConstant.XFYUN, endpoint(hostUrl, APIKey, APISecret), poolIdleTtlMs);
+            webSocketClient = pool.lease(new WsCodec() {
                 @Override
-                public void onOpen(ServerHandshake serverHandshake) {
+                public void onOpen(WsConnection connection) {
                     log.info("ws建立连接成功...");
                     String requestJson;//请求参数json串
                         requestJson = "{\n" +
@@ -98,15 +103,16 @@ public class XfyunTtsProcessor extends TtsEngine {
                                 //"    \"text\": \"" + Base64.getEncoder().encodeToString(TEXT.getBytes("UTF-16LE")) + "\"\n" +
                                 "  }\n" +
                                 "}";
-                        webSocketClient.send(requestJson);
+                        connection.sendText(requestJson);
                 }
 
                 @Override
-                public void onMessage(String text) {
+                public void onText(WsConnection connection, String text) {
                     //log.info(text);//打印响应参数到控制台
                     JsonParse myJsonParse = gson.fromJson(text, JsonParse.class);
                     if (myJsonParse.code != 0) {
                         log.info("发生错误，错误码为: {}", myJsonParse.code);
+                        markSynthesisFailed();
                         log.info("本次请求的sid为: {}", myJsonParse.sid);
                     }
                     if (myJsonParse.data != null) {
@@ -121,6 +127,7 @@ public class XfyunTtsProcessor extends TtsEngine {
                         }
                         if (myJsonParse.data.status == 2) {
                             log.info("本次请求的sid==>" + myJsonParse.sid);
+                            finished.set(true);
                             // 可以关闭连接，释放资源
                             countDownLatch.countDown();
                         }
@@ -128,25 +135,26 @@ public class XfyunTtsProcessor extends TtsEngine {
                 }
 
                 @Override
-                public void onClose(int i, String s, boolean b) {
+                public void onClose(WsConnection connection, int code, String reason) {
                     log.info("ws链接已关闭，本次请求完成...");
                     countDownLatch.countDown();
                 }
 
                 @Override
-                public void onError(Exception e) {
+                public void onFailure(WsConnection connection, Throwable e) {
                     log.info("发生错误: {}", e.getMessage());
                     countDownLatch.countDown();
                 }
-            };
-            // 建立连接
-            webSocketClient.connect();
+            });
             try {
                 // 等待服务端返回完毕后关闭
                 countDownLatch.await();
-                webSocketClient.close();
+                webSocketClient.close(1000, "");
+                if (!finished.get()) {
+                    markSynthesisFailed();
+                }
                 // tts语音合成结束，写入结束标志
-                putAudioData(TTSConstant.TTS_END_FLAG.retainedDuplicate());
+                putEndMarker();
             } catch (Exception e) {
                 log.error(e.getMessage(), e);
             }
@@ -156,8 +164,18 @@ public class XfyunTtsProcessor extends TtsEngine {
     }
 
 
+    private static Supplier<WsEndpoint> endpoint(String hostUrl, String apiKey, String apiSecret) {
+        return () -> {
+            try {
+                return new WsEndpoint(getAuthUrl(hostUrl, apiKey, apiSecret).replace("https://", "wss://"));
+            } catch (Exception e) {
+                throw new IllegalStateException("讯飞鉴权url生成失败", e);
+            }
+        };
+    }
+
     // 鉴权方法
-    public String getAuthUrl(String hostUrl, String apiKey, String apiSecret) throws Exception {
+    public static String getAuthUrl(String hostUrl, String apiKey, String apiSecret) throws Exception {
         URL url = new URL(hostUrl);
         // 时间
         SimpleDateFormat format = new SimpleDateFormat("EEE, dd MMM yyyy HH:mm:ss z", Locale.US);
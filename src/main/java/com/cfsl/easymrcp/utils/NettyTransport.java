@@ -0,0 +1,62 @@
+package com.cfsl.easymrcp.utils;
+
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.ServerChannel;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollDatagramChannel;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollServerSocketChannel;
+import io.netty.channel.epoll.EpollSocketChannel;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.DatagramChannel;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioDatagramChannel;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Netty传输层选择
+ * 默认使用NIO，配置为epoll且当前系统支持native epoll时使用EpollEventLoopGroup/EpollDatagramChannel，
+ * 可以使用recvmmsg/sendmmsg批量收发UDP报文
+ */
+@Slf4j
+public enum NettyTransport {
+    NIO,
+    EPOLL;
+
+    /**
+     * 根据配置解析传输层，epoll不可用时退回NIO
+     *
+     * @param name 配置值：nio或epoll
+     */
+    public static NettyTransport resolve(String name) {
+        if (!"epoll".equalsIgnoreCase(name)) {
+            return NIO;
+        }
+        if (Epoll.isAvailable()) {
+            return EPOLL;
+        }
+        log.warn("配置了epoll传输但当前系统不支持native epoll，退回NIO: {}", String.valueOf(Epoll.unavailabilityCause()));
+        return NIO;
+    }
+
+    /**
+     * @param threads 线程数，0表示Netty默认值（CPU核心数的2倍）
+     */
+    public EventLoopGroup newEventLoopGroup(int threads) {
+        return this == EPOLL ? new EpollEventLoopGroup(threads) : new NioEventLoopGroup(threads);
+    }
+
+    public Class<? extends DatagramChannel> datagramChannelClass() {
+        return this == EPOLL ? EpollDatagramChannel.class : NioDatagramChannel.class;
+    }
+
+    public Class<? extends ServerChannel> serverSocketChannelClass() {
+        return this == EPOLL ? EpollServerSocketChannel.class : NioServerSocketChannel.class;
+    }
+
+    public Class<? extends SocketChannel> socketChannelClass() {
+        return this == EPOLL ? EpollSocketChannel.class : NioSocketChannel.class;
+    }
+}
@@ -0,0 +1,243 @@
+package com.cfsl.easymrcp.utils;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 16-bit 小端序单声道PCM的流式重采样器
+ * 按输入/输出采样率约分得到L/M，使用定点(Q15)多相FIR滤波器实现任意有理数比例的重采样。
+ * 每路音频流持有一个实例，滤波器历史、相位和不成对的尾字节跨调用保留，
+ * 因此可以按任意大小分块输入，不会在块边界产生噪音。
+ *
+ * <p>滤波器系数按采样率组合全局共享；实例本身不是线程安全的，同一路音频只能由同一个线程处理。</p>
+ */
+public final class PcmResampler {
+    /** 配置项re-sample：8kHz上采样到16kHz（ASR） */
+    public static final String UPSAMPLE_8K_TO_16K = "upsample8kTo16k";
+    /** 配置项re-sample：24kHz下采样到8kHz（TTS） */
+    public static final String DOWNSAMPLE_24K_TO_8K = "downsample24kTo8k";
+
+    // 每个过零点区间对应的抽头数，决定过渡带宽度
+    private static final int TAPS_PER_ZERO_CROSSING = 16;
+    // 通带截止频率占较低采样率奈奎斯特频率的比例
+    private static final double CUTOFF_RATIO = 0.9;
+    // Kaiser窗参数，约80dB阻带衰减
+    private static final double KAISER_BETA = 8.0;
+    private static final int COEFF_SHIFT = 15;
+
+    private static final Map<Long, Filter> FILTERS = new ConcurrentHashMap<>();
+
+    private final int inputRate;
+    private final int outputRate;
+    private final Filter filter;
+    // 延迟线长度为2*taps，同一采样写两份，保证[pos, pos+taps)始终是连续的最近taps个采样
+    private final short[] delay;
+    private int pos;
+    private int phase;
+    private boolean hasPendingByte;
+    private byte pendingByte;
+
+    /**
+     * 某一组采样率比例的多相滤波器
+     */
+    private static final class Filter {
+        private final int up;
+        private final int down;
+        private final int taps;
+        // 按相位平铺，相位p的第j个系数在coeffs[p * taps + j]，与延迟线从新到旧的顺序对应
+        private final int[] coeffs;
+
+        private Filter(int up, int down, int taps, int[] coeffs) {
+            this.up = up;
+            this.down = down;
+            this.taps = taps;
+            this.coeffs = coeffs;
+        }
+    }
+
+    public PcmResampler(int inputRate, int outputRate) {
+        if (inputRate <= 0 || outputRate <= 0) {
+            throw new IllegalArgumentException("sample rates must be positive");
+        }
+        this.inputRate = inputRate;
+        this.outputRate = outputRate;
+        this.filter = FILTERS.computeIfAbsent(((long) inputRate << 32) | outputRate,
+                key -> design(inputRate, outputRate));
+        this.delay = new short[filter.taps * 2];
+    }
+
+    /**
+     * 按re-sample配置创建重采样器，未配置或不识别时返回null
+     */
+    public static PcmResampler forConfig(String reSample) {
+        if (UPSAMPLE_8K_TO_16K.equals(reSample)) {
+            return new PcmResampler(8000, 16000);
+        }
+        if (DOWNSAMPLE_24K_TO_8K.equals(reSample)) {
+            return new PcmResampler(24000, 8000);
+        }
+        return null;
+    }
+
+    public int getInputRate() {
+        return inputRate;
+    }
+
+    public int getOutputRate() {
+        return outputRate;
+    }
+
+    /**
+     * 处理inputBytes字节输入时最多产生的输出字节数，用于预分配输出缓冲区
+     */
+    public int maxOutputBytes(int inputBytes) {
+        long samples = (inputBytes + 1L) / 2 * filter.up / filter.down + 1;
+        return (int) (samples * 2);
+    }
+
+    /**
+     * 重采样input中全部可读数据并写入output，不改变input的readerIndex
+     * 奇数长度时最后一个字节留到下次调用与下一个字节拼成采样
+     *
+     * @return 写入output的字节数
+     */
+    public int process(ByteBuf input, ByteBuf output) {
+        int index = input.readerIndex();
+        int end = index + input.readableBytes();
+        if (index == end) {
+            return 0;
+        }
+        output.ensureWritable(maxOutputBytes(end - index));
+        int out = output.writerIndex();
+        int start = out;
+
+        if (hasPendingByte) {
+            hasPendingByte = false;
+            out = push((short) ((pendingByte & 0xFF) | (input.getByte(index++) << 8)), output, out);
+        }
+        for (; index + 1 < end; index += 2) {
+            out = push(input.getShortLE(index), output, out);
+        }
+        if (index < end) {
+            hasPendingByte = true;
+            pendingByte = input.getByte(index);
+        }
+        output.writerIndex(out);
+        return out - start;
+    }
+
+    /**
+     * byte[]版本，返回重采样后的PCM
+     */
+    public byte[] process(byte[] pcm) {
+        ByteBuf input = Unpooled.wrappedBuffer(pcm);
+        ByteBuf output = Unpooled.buffer(maxOutputBytes(pcm.length));
+        process(input, output);
+        byte[] result = new byte[output.readableBytes()];
+        output.readBytes(result);
+        return result;
+    }
+
+    /**
+     * 清空滤波器历史和相位，用于音频流中断后重新开始
+     */
+    public void reset() {
+        Arrays.fill(delay, (short) 0);
+        pos = 0;
+        phase = 0;
+        hasPendingByte = false;
+    }
+
+    /**
+     * 写入一个输入采样，并输出以它为最新采样的全部输出采样
+     */
+    private int push(short sample, ByteBuf output, int out) {
+        int taps = filter.taps;
+        pos = pos == 0 ? taps - 1 : pos - 1;
+        delay[pos] = sample;
+        delay[pos + taps] = sample;
+
+        int up = filter.up;
+        int[] coeffs = filter.coeffs;
+        while (phase < up) {
+            long acc = 0;
+            int base = phase * taps;
+            for (int j = 0; j < taps; j++) {
+                acc += (long) coeffs[base + j] * delay[pos + j];
+            }
+            int value = (int) ((acc + (1L << (COEFF_SHIFT - 1))) >> COEFF_SHIFT);
+            if (value > Short.MAX_VALUE) {
+                value = Short.MAX_VALUE;
+            } else if (value < Short.MIN_VALUE) {
+                value = Short.MIN_VALUE;
+            }
+            output.setShortLE(out, value);
+            out += 2;
+            phase += filter.down;
+        }
+        phase -= up;
+        return out;
+    }
+
+    /**
+     * 设计Kaiser窗sinc低通原型滤波器并拆分为up个相位，每个相位单独归一化为单位直流增益
+     */
+    private static Filter design(int inputRate, int outputRate) {
+        int gcd = gcd(inputRate, outputRate);
+        int up = outputRate / gcd;
+        int down = inputRate / gcd;
+        // 下采样时截止频率更低，需要按比例加长滤波器
+        int taps = (int) Math.ceil((double) TAPS_PER_ZERO_CROSSING * Math.max(up, down) / up);
+        int length = taps * up;
+        // 原型滤波器工作在inputRate*up采样率上
+        double cutoff = CUTOFF_RATIO * 0.5 / Math.max(up, down);
+        double center = (length - 1) / 2.0;
+        double[] prototype = new double[length];
+        for (int n = 0; n < length; n++) {
+            double x = n - center;
+            double sinc = x == 0 ? 2 * cutoff : Math.sin(2 * Math.PI * cutoff * x) / (Math.PI * x);
+            double ratio = 2.0 * n / (length - 1) - 1;
+            double window = length == 1 ? 1 : bessel0(KAISER_BETA * Math.sqrt(1 - ratio * ratio)) / bessel0(KAISER_BETA);
+            prototype[n] = sinc * window;
+        }
+
+        int[] coeffs = new int[length];
+        for (int p = 0; p < up; p++) {
+            double sum = 0;
+            for (int j = 0; j < taps; j++) {
+                sum += prototype[p + j * up];
+            }
+            for (int j = 0; j < taps; j++) {
+                coeffs[p * taps + j] = (int) Math.round(prototype[p + j * up] / sum * (1 << COEFF_SHIFT));
+            }
+        }
+        return new Filter(up, down, taps, coeffs);
+    }
+
+    private static double bessel0(double x) {
+        double sum = 1;
+        double term = 1;
+        double half = x / 2;
+        for (int k = 1; k < 32; k++) {
+            term *= (half / k) * (half / k);
+            sum += term;
+            if (term < sum * 1e-12) {
+                break;
+            }
+        }
+        return sum;
+    }
+
+    private static int gcd(int a, int b) {
+        while (b != 0) {
+            int t = a % b;
+            a = b;
+            b = t;
+        }
+        return a;
+    }
+}
@@ -41,6 +41,14 @@ public class SipUtils {
         mrcpManage.executeTask(runnable);
     }
 
+    /**
+     * 在通话的事件邮箱中执行，同一通电话的回调按提交顺序串行执行
+     * @param callId 通话callId
+     */
+    public static void executeTask(String callId, Runnable runnable) {
+        mrcpManage.executeTask(callId, runnable);
+    }
+
     /**
      * 实时推送asr识别结果
      * @param callId 通话callId
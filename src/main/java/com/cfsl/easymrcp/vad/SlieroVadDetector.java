@@ -1,6 +1,7 @@
 package com.cfsl.easymrcp.vad;
 
 import ai.onnxruntime.OrtException;
+import io.netty.buffer.ByteBuf;
 import lombok.extern.slf4j.Slf4j;
 
 import java.math.BigDecimal;
@@ -9,6 +10,8 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
 
 /**
  * Silero VAD检测器，额外增加能量阈值过滤。
@@ -20,8 +23,10 @@ import java.util.Map;
 public class SlieroVadDetector {
     // 实时统计日志打印间隔，避免每个音频帧都刷日志
     private static final long REALTIME_STATS_LOG_INTERVAL_MS = 200L;
-    // Silero VAD ONNX模型，用于输出当前音频帧的人声概率
-    private final SlieroVadOnnxModel model;
+    // 全局共享的Silero VAD推理引擎，用于输出当前音频帧的人声概率
+    private final SlieroVadEngine engine;
+    // 本路通话的模型state/context
+    private final SlieroVadState vadState;
     // VAD语音开始阈值：speechProb >= startThreshold 时，模型侧认为可能开始说话
     private final float startThreshold;
     // VAD语音结束阈值：已触发说话后，speechProb < endThreshold 时进入可能结束判断
@@ -54,6 +59,8 @@ public class SlieroVadDetector {
     private final Map<String, Double> resultMap;
     // 上一次打印实时统计日志的时间戳
     private long lastRealtimeStatsLogMs;
+    // 异步推理在途帧的上下文，同一路同时只有一帧在途
+    private final AsyncInference asyncInference = new AsyncInference();
 
     public SlieroVadDetector(String modelPath,
                              float startThreshold,
@@ -88,7 +95,8 @@ public class SlieroVadDetector {
         }
 
         // 初始化参数
-        this.model = new SlieroVadOnnxModel(modelPath);
+        this.engine = SlieroVadEngine.shared(modelPath);
+        this.vadState = new SlieroVadState(samplingRate);
         this.startThreshold = startThreshold;
         this.endThreshold = endThreshold;
         this.samplingRate = samplingRate;
@@ -105,7 +113,11 @@ public class SlieroVadDetector {
      * 重置检测器状态
      */
     public void reset() {
-        model.resetStates();
+        vadState.reset();
+        resetDetection();
+    }
+
+    private void resetDetection() {
         triggered = false;
         tempEnd = 0;
         currentSample = 0;
@@ -183,7 +195,62 @@ public class SlieroVadDetector {
      * @return 检测到语音开始/结束事件时返回事件Map，否则返回空Map
      */
     public Map<String, Double> apply(byte[] data, boolean returnSeconds) {
+        int numSamples = convertPcm(data);
+        // 当前帧音频能量，后续会拿它和energyThreshold比较
+        float rmsEnergy = calculateRMSEnergy(audioBuffer, numSamples);
+
+        // VAD模型输出的人声概率
+        float speechProb = 0;
+        try {
+            speechProb = engine.infer(vadState, audioBuffer, numSamples);
+        } catch (OrtException e) {
+            throw new RuntimeException(e);
+        }
+        return onSpeechProb(speechProb, rmsEnergy, numSamples, returnSeconds);
+    }
 
+    /**
+     * 异步处理音频数据：帧交给共享引擎攒批推理，推理完成后在executor上执行状态判断并回调consumer。
+     * PCM直接从ByteBuf转换进本路的推理窗口，同时累计整帧能量，不产生每帧的堆分配。
+     * 同一路上一帧尚未返回或引擎队列已满时返回false，本帧不参与检测。
+     *
+     * @param data PCM音频数据（16位小端），只读取不移动readerIndex
+     * @param returnSeconds 是否用秒返回起止时间
+     * @param executor 执行状态判断和回调的线程，一般为通道所在的EventLoop
+     * @param consumer 检测结果回调，含义同{@link #apply(byte[], boolean)}的返回值
+     * @return 是否已提交
+     */
+    public boolean applyAsync(ByteBuf data, boolean returnSeconds, Executor executor, Consumer<Map<String, Double>> consumer) {
+        if (vadState.inFlight.get()) {
+            return false;
+        }
+        int numSamples = data.readableBytes() / 2;
+        float[] window = vadState.window;
+        int windowSamples = Math.min(numSamples, vadState.windowSamples);
+        int index = data.readerIndex();
+        float sum = 0.0f;
+        for (int i = 0; i < numSamples; i++) {
+            float sample = data.getShortLE(index + i * 2) / 32767.0f;
+            if (i < windowSamples) {
+                window[i] = sample;
+            }
+            sum += sample * sample;
+        }
+        vadState.padWindow(windowSamples);
+
+        AsyncInference inference = asyncInference;
+        inference.rmsEnergy = numSamples == 0 ? 0.0f : (float) Math.sqrt(sum / numSamples);
+        inference.numSamples = numSamples;
+        inference.returnSeconds = returnSeconds;
+        inference.executor = executor;
+        inference.consumer = consumer;
+        return engine.submit(vadState, inference);
+    }
+
+    /**
+     * 将16位小端PCM转换为float采样值，返回采样点数
+     */
+    private int convertPcm(byte[] data) {
         int numSamples = data.length / 2;
 
         // 尽量复用缓冲区
@@ -191,27 +258,19 @@ public class SlieroVadDetector {
             audioBuffer = new float[numSamples];
         }
 
-        // 将16位小端PCM转换为float采样值
         for (int i = 0; i < numSamples; i++) {
             audioBuffer[i] = ((data[i * 2] & 0xff) | (data[i * 2 + 1] << 8)) / 32767.0f;
         }
+        return numSamples;
+    }
 
-        // 当前处理窗口的采样点数量
-        int windowSizeSamples = numSamples;
+    /**
+     * 根据模型概率和帧能量推进说话状态
+     */
+    private Map<String, Double> onSpeechProb(float speechProb, float rmsEnergy, int windowSizeSamples, boolean returnSeconds) {
         // 更新当前累计采样点位置
         currentSample += windowSizeSamples;
 
-        // 当前帧音频能量，后续会拿它和energyThreshold比较
-        float rmsEnergy = calculateRMSEnergy(audioBuffer, numSamples);
-
-        // VAD模型输出的人声概率
-        float speechProb = 0;
-        try {
-            speechProb = model.call(new float[][]{audioBuffer}, samplingRate)[0];
-        } catch (OrtException e) {
-            throw new RuntimeException(e);
-        }
-
         updateNoiseFloorIfNeeded(rmsEnergy);
         //logRealtimeStats(speechProb, rmsEnergy);
 
@@ -282,8 +341,49 @@ public class SlieroVadDetector {
         return Collections.emptyMap();
     }
 
+    /**
+     * 释放本路状态；模型会话由引擎全局共享，不在这里关闭
+     */
     public void close() throws OrtException {
-        reset();
-        model.close();
+        // 推理线程可能还在处理本路的在途帧，模型状态由SlieroVadState按在途标记决定谁来重置
+        vadState.close();
+        resetDetection();
+    }
+
+    /**
+     * 异步推理回调：推理线程只记录概率，状态判断切回调用方指定的executor执行
+     */
+    private final class AsyncInference implements SlieroVadEngine.Listener, Runnable {
+        private float rmsEnergy;
+        private int numSamples;
+        private boolean returnSeconds;
+        private Executor executor;
+        private Consumer<Map<String, Double>> consumer;
+        private volatile float speechProb;
+        private volatile Throwable failure;
+
+        @Override
+        public void onSpeechProbability(float probability) {
+            speechProb = probability;
+            failure = null;
+            executor.execute(this);
+        }
+
+        @Override
+        public void onFailure(Throwable cause) {
+            failure = cause;
+            executor.execute(this);
+        }
+
+        @Override
+        public void run() {
+            Throwable cause = failure;
+            if (cause != null) {
+                log.error("Silero VAD inference failed: {}", cause.getMessage(), cause);
+                consumer.accept(Collections.emptyMap());
+                return;
+            }
+            consumer.accept(onSpeechProb(speechProb, rmsEnergy, numSamples, returnSeconds));
+        }
     }
 }
@@ -0,0 +1,241 @@
+package com.cfsl.easymrcp.vad;
+
+import ai.onnxruntime.OrtException;
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.FloatBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * 进程级共享的Silero VAD推理引擎。
+ * silero_vad.onnx只加载一次，各路通话只持有自己的{@link SlieroVadState}；
+ * 异步提交的帧由单个推理线程攒批，同采样率的多路帧合并成一次batch维度为N的session.run，
+ * 推理结果再按路回写state/context并回调概率。
+ */
+@Slf4j
+public final class SlieroVadEngine {
+    // 待推理队列容量，超出时提交失败，由调用方跳过该帧
+    private static final int QUEUE_CAPACITY = 4096;
+    // 单次session.run的最大batch，避免一次推理耗时过长拖慢所有通话
+    private static final int MAX_BATCH_SIZE = 64;
+
+    private static SlieroVadEngine shared;
+
+    private final String modelPath;
+    private final SlieroVadOnnxModel model;
+    private final BlockingQueue<SlieroVadState> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final Thread worker;
+    // 按batch大小缓存的复用张量，下标为batch大小
+    private final SlieroVadOnnxModel.Batch[] batches8k = new SlieroVadOnnxModel.Batch[MAX_BATCH_SIZE + 1];
+    private final SlieroVadOnnxModel.Batch[] batches16k = new SlieroVadOnnxModel.Batch[MAX_BATCH_SIZE + 1];
+
+    /**
+     * 推理结果回调，在推理线程上执行，实现方不应阻塞
+     */
+    public interface Listener {
+        void onSpeechProbability(float probability);
+
+        void onFailure(Throwable cause);
+    }
+
+    private SlieroVadEngine(String modelPath) throws OrtException {
+        this.modelPath = modelPath;
+        this.model = new SlieroVadOnnxModel(modelPath);
+        this.worker = new Thread(this::runLoop, "silero-vad-engine");
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    /**
+     * 获取全局共享引擎，首次调用时加载模型
+     */
+    public static synchronized SlieroVadEngine shared(String modelPath) throws OrtException {
+        if (shared == null) {
+            shared = new SlieroVadEngine(modelPath);
+            log.info("Silero VAD engine initialized, model: {}", modelPath);
+        } else if (!shared.modelPath.equals(modelPath)) {
+            log.warn("Silero VAD engine already loaded from {}, ignore model path {}", shared.modelPath, modelPath);
+        }
+        return shared;
+    }
+
+    /**
+     * 在调用线程上同步推理一帧，batch为1
+     *
+     * @param state   通话的VAD状态
+     * @param samples 音频采样，只使用前windowSamples个采样点
+     * @param length  samples中有效采样点数
+     * @return 人声概率
+     */
+    public float infer(SlieroVadState state, float[] samples, int length) throws OrtException {
+        state.loadWindow(samples, length);
+        return infer(state);
+    }
+
+    /**
+     * 在调用线程上同步推理state中已填好的窗口，batch为1
+     */
+    public float infer(SlieroVadState state) throws OrtException {
+        SlieroVadState[] single = {state};
+        runBatch(Arrays.asList(single));
+        return state.probability;
+    }
+
+    /**
+     * 异步提交state中已填好的窗口到推理队列。
+     * 调用方需先确认该路没有在途帧再写window，同一路只能由同一个线程提交。
+     *
+     * @return 该路上一帧仍在推理中或队列已满时返回false，本帧不会被推理
+     */
+    public boolean submit(SlieroVadState state, Listener listener) {
+        if (state.closed || !state.inFlight.compareAndSet(false, true)) {
+            return false;
+        }
+        state.listener = listener;
+        if (!queue.offer(state)) {
+            state.listener = null;
+            state.inFlight.set(false);
+            log.warn("Silero VAD queue is full, drop frame");
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * 异步提交一帧到推理队列
+     *
+     * @return 该路上一帧仍在推理中或队列已满时返回false，本帧不会被推理
+     */
+    public boolean submit(SlieroVadState state, float[] samples, int length, Listener listener) {
+        if (state.closed || state.inFlight.get()) {
+            return false;
+        }
+        state.loadWindow(samples, length);
+        return submit(state, listener);
+    }
+
+    private void runLoop() {
+        List<SlieroVadState> drained = new ArrayList<>(MAX_BATCH_SIZE);
+        List<SlieroVadState> batch = new ArrayList<>(MAX_BATCH_SIZE);
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                drained.add(queue.take());
+                // 不额外等待，只把已经排队的帧一并带走
+                queue.drainTo(drained, MAX_BATCH_SIZE - 1);
+                runGrouped(drained, 8000, batch);
+                runGrouped(drained, 16000, batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Throwable t) {
+                log.error("Silero VAD engine loop error", t);
+            } finally {
+                drained.clear();
+            }
+        }
+    }
+
+    private void runGrouped(List<SlieroVadState> drained, int sampleRate, List<SlieroVadState> batch) {
+        batch.clear();
+        for (SlieroVadState state : drained) {
+            if (state.sampleRate == sampleRate) {
+                batch.add(state);
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            runBatch(batch);
+        } catch (Throwable t) {
+            for (SlieroVadState state : batch) {
+                Listener listener = complete(state);
+                if (listener != null) {
+                    listener.onFailure(t);
+                }
+            }
+            return;
+        }
+        for (SlieroVadState state : batch) {
+            Listener listener = complete(state);
+            if (listener != null) {
+                listener.onSpeechProbability(state.probability);
+            }
+        }
+    }
+
+    /**
+     * 结束一路的在途标记；已关闭的通话在这里重置状态并返回null，不再回调
+     */
+    private Listener complete(SlieroVadState state) {
+        Listener listener = state.listener;
+        state.listener = null;
+        if (state.closed) {
+            state.reset();
+        }
+        state.inFlight.set(false);
+        return state.closed ? null : listener;
+    }
+
+    /**
+     * 把多路的context+window和state写入该batch形状的复用张量推理，并回写各路的state、context和概率
+     */
+    private void runBatch(List<SlieroVadState> states) throws OrtException {
+        int batchSize = states.size();
+        SlieroVadState first = states.get(0);
+        SlieroVadOnnxModel.Batch batch = batchFor(first.sampleRate, batchSize);
+        int stateSize = SlieroVadOnnxModel.STATE_SIZE;
+
+        // 同步推理和推理线程可能同时使用同一形状的张量
+        synchronized (batch) {
+            FloatBuffer input = batch.input;
+            FloatBuffer state = batch.state;
+            input.clear();
+            for (int i = 0; i < batchSize; i++) {
+                SlieroVadState s = states.get(i);
+                input.put(s.context);
+                input.put(s.window);
+            }
+            // state张量布局为[2][batch][128]
+            state.clear();
+            for (int k = 0; k < 2; k++) {
+                for (int i = 0; i < batchSize; i++) {
+                    state.put(states.get(i).state, k * stateSize, stateSize);
+                }
+            }
+
+            model.run(batch);
+
+            FloatBuffer stateOut = batch.stateOut;
+            stateOut.clear();
+            for (int k = 0; k < 2; k++) {
+                for (int i = 0; i < batchSize; i++) {
+                    stateOut.get(states.get(i).state, k * stateSize, stateSize);
+                }
+            }
+            for (int i = 0; i < batchSize; i++) {
+                SlieroVadState s = states.get(i);
+                s.probability = batch.output.get(i);
+                s.advanceContext();
+            }
+        }
+    }
+
+    /**
+     * 按采样率和batch大小取复用张量，首次使用时创建
+     */
+    private SlieroVadOnnxModel.Batch batchFor(int sampleRate, int batchSize) throws OrtException {
+        SlieroVadOnnxModel.Batch[] bySize = sampleRate == 16000 ? batches16k : batches8k;
+        synchronized (bySize) {
+            SlieroVadOnnxModel.Batch batch = bySize[batchSize];
+            if (batch == null) {
+                batch = model.newBatch(sampleRate, batchSize);
+                bySize[batchSize] = batch;
+            }
+            return batch;
+        }
+    }
+}
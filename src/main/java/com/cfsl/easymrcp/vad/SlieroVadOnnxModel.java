@@ -5,34 +5,37 @@ import ai.onnxruntime.OrtEnvironment;
 import ai.onnxruntime.OrtException;
 import ai.onnxruntime.OrtSession;
 
-import java.util.Arrays;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
 import java.util.HashMap;
-import java.util.List;
+import java.util.Iterator;
 import java.util.Map;
 
 /**
  * Silero VAD ONNX Model Wrapper
- * 
+ *
+ * <p>The wrapper is stateless: the recurrent {@code state} and the audio context of every call
+ * are owned by {@link SlieroVadState} and passed in per batch, so a single session can be
+ * shared by all calls in the process (see {@link SlieroVadEngine}).
+ *
  * @author VvvvvGH
  */
 public class SlieroVadOnnxModel {
+    // Hidden state size of the Silero v5 model
+    static final int STATE_SIZE = 128;
+    // ONNX runtime environment
+    private final OrtEnvironment env;
     // ONNX runtime session
     private final OrtSession session;
-    // Model state - dimensions: [2, batch_size, 128]
-    private float[][][] state;
-    // Context - stores the tail of the previous audio chunk
-    private float[][] context;
-    // Last sample rate
-    private int lastSr = 0;
-    // Last batch size
-    private int lastBatchSize = 0;
-    // Supported sample rates
-    private static final List<Integer> SAMPLE_RATES = Arrays.asList(8000, 16000);
+    // Output names: speech probability and next state
+    private final String outputName;
+    private final String stateOutputName;
 
     // Constructor
     public SlieroVadOnnxModel(String modelPath) throws OrtException {
         // Get the ONNX runtime environment
-        OrtEnvironment env = OrtEnvironment.getEnvironment();
+        env = OrtEnvironment.getEnvironment();
         // Create ONNX session options
         OrtSession.SessionOptions opts = new OrtSession.SessionOptions();
         // Set InterOp thread count to 1 (for parallel processing of different graph operations)
@@ -43,27 +46,9 @@ public class SlieroVadOnnxModel {
         opts.addCPU(true);
         // Create ONNX session with the environment, model path, and options
         session = env.createSession(modelPath, opts);
-        // Reset states
-        resetStates();
-    }
-
-    /**
-     * Reset states with default batch size
-     */
-    void resetStates() {
-        resetStates(1);
-    }
-    
-    /**
-     * Reset states with specific batch size
-     * 
-     * @param batchSize Batch size for state initialization
-     */
-    void resetStates(int batchSize) {
-        state = new float[2][batchSize][128];
-        context = new float[0][]; // Empty context
-        lastSr = 0;
-        lastBatchSize = 0;
+        Iterator<String> outputNames = session.getOutputNames().iterator();
+        outputName = outputNames.next();
+        stateOutputName = outputNames.next();
     }
 
     public void close() throws OrtException {
@@ -71,155 +56,94 @@ public class SlieroVadOnnxModel {
     }
 
     /**
-     * Inner class for validation result
+     * Create reusable tensors for a fixed sample rate and batch size
+     *
+     * @param sr        Sample rate, 8000 or 16000
+     * @param batchSize Batch size
+     * @return Batch whose tensors are backed by direct buffers and can be run repeatedly
+     * @throws OrtException If ONNX runtime error occurs
      */
-    public static class ValidationResult {
-        public final float[][] x;
-        public final int sr;
-
-        public ValidationResult(float[][] x, int sr) {
-            this.x = x;
-            this.sr = sr;
-        }
+    public Batch newBatch(int sr, int batchSize) throws OrtException {
+        return new Batch(env, sr, batchSize, outputName, stateOutputName);
     }
 
     /**
-     * Validate input data
-     * 
-     * @param x Audio data array
-     * @param sr Sample rate
-     * @return Validated input data and sample rate
+     * Run ONNX model inference in place: reads {@link Batch#input}/{@link Batch#state},
+     * writes {@link Batch#output}/{@link Batch#stateOut}
+     *
+     * @param batch Batch prepared by {@link #newBatch(int, int)}
+     * @throws OrtException If ONNX runtime error occurs
      */
-    private ValidationResult validateInput(float[][] x, int sr) {
-        // Ensure input is at least 2D
-        if (x.length == 1) {
-            x = new float[][]{x[0]};
-        }
-        // Check if input dimension is valid
-        if (x.length > 2) {
-            throw new IllegalArgumentException("Incorrect audio data dimension: " + x[0].length);
-        }
-
-        // Downsample if sample rate is a multiple of 16000
-        if (sr != 16000 && (sr % 16000 == 0)) {
-            int step = sr / 16000;
-            float[][] reducedX = new float[x.length][];
-
-            for (int i = 0; i < x.length; i++) {
-                float[] current = x[i];
-                float[] newArr = new float[(current.length + step - 1) / step];
-
-                for (int j = 0, index = 0; j < current.length; j += step, index++) {
-                    newArr[index] = current[j];
-                }
-
-                reducedX[i] = newArr;
-            }
-
-            x = reducedX;
-            sr = 16000;
-        }
-
-        // Validate sample rate
-        if (!SAMPLE_RATES.contains(sr)) {
-            throw new IllegalArgumentException("Only supports sample rates " + SAMPLE_RATES + " (or multiples of 16000)");
-        }
-
-        // Check if audio chunk is too short
-        if (((float) sr) / x[0].length > 31.25) {
-            throw new IllegalArgumentException("Input audio is too short");
-        }
-
-        return new ValidationResult(x, sr);
+    public void run(Batch batch) throws OrtException {
+        OrtSession.Result result = session.run(batch.inputs, batch.outputs);
+        // Outputs are pinned to the batch buffers, nothing to copy out
+        result.close();
     }
 
     /**
-     * Call the ONNX model for inference
-     * 
-     * @param x Audio data array
-     * @param sr Sample rate
-     * @return Speech probability output
-     * @throws OrtException If ONNX runtime error occurs
+     * Preallocated input/output tensors of one batch shape.
+     * Tensors share memory with the direct buffers, so filling the buffers is enough to feed the model.
      */
-    public float[] call(float[][] x, int sr) throws OrtException {
-        ValidationResult result = validateInput(x, sr);
-        x = result.x;
-        sr = result.sr;
-
-        int batchSize = x.length;
-        int numSamples = sr == 16000 ? 512 : 256;
-        int contextSize = sr == 16000 ? 64 : 32;
-
-        // Reset states only when sample rate or batch size changes
-        if (lastSr != 0 && lastSr != sr) {
-            resetStates(batchSize);
-        } else if (lastBatchSize != 0 && lastBatchSize != batchSize) {
-            resetStates(batchSize);
-        } else if (lastBatchSize == 0) {
-            // First call - state is already initialized, just set batch size
-            lastBatchSize = batchSize;
-        }
-
-        // Initialize context if needed
-        if (context.length == 0) {
-            context = new float[batchSize][contextSize];
-        }
-
-        // Concatenate context and input
-        float[][] xWithContext = new float[batchSize][contextSize + numSamples];
-        for (int i = 0; i < batchSize; i++) {
-            // Copy context
-            System.arraycopy(context[i], 0, xWithContext[i], 0, contextSize);
-            // Copy input
-            System.arraycopy(x[i], 0, xWithContext[i], contextSize, numSamples);
-        }
-
-        OrtEnvironment env = OrtEnvironment.getEnvironment();
-
-        OnnxTensor inputTensor = null;
-        OnnxTensor stateTensor = null;
-        OnnxTensor srTensor = null;
-        OrtSession.Result ortOutputs = null;
-
-        try {
-            // Create input tensors
-            inputTensor = OnnxTensor.createTensor(env, xWithContext);
-            stateTensor = OnnxTensor.createTensor(env, state);
+    public static final class Batch implements AutoCloseable {
+        // Sample rate of this batch
+        final int sampleRate;
+        // Number of rows in this batch
+        final int batchSize;
+        // Samples per row, context + window
+        final int rowSamples;
+        // Audio with context prepended, dimensions: [batch_size, context + window]
+        final FloatBuffer input;
+        // Model state, dimensions: [2, batch_size, 128]
+        final FloatBuffer state;
+        // Speech probability, dimensions: [batch_size, 1]
+        final FloatBuffer output;
+        // Next model state, dimensions: [2, batch_size, 128]
+        final FloatBuffer stateOut;
+
+        private final OnnxTensor inputTensor;
+        private final OnnxTensor stateTensor;
+        private final OnnxTensor srTensor;
+        private final OnnxTensor outputTensor;
+        private final OnnxTensor stateOutTensor;
+        private final Map<String, OnnxTensor> inputs = new HashMap<>(4);
+        private final Map<String, OnnxTensor> outputs = new HashMap<>(4);
+
+        private Batch(OrtEnvironment env, int sr, int batchSize, String outputName, String stateOutputName) throws OrtException {
+            this.sampleRate = sr;
+            this.batchSize = batchSize;
+            int windowSamples = sr == 16000 ? 512 : 256;
+            int contextSamples = sr == 16000 ? 64 : 32;
+            this.rowSamples = contextSamples + windowSamples;
+
+            input = directFloats(batchSize * rowSamples);
+            state = directFloats(2 * batchSize * STATE_SIZE);
+            output = directFloats(batchSize);
+            stateOut = directFloats(2 * batchSize * STATE_SIZE);
+
+            inputTensor = OnnxTensor.createTensor(env, input, new long[]{batchSize, rowSamples});
+            stateTensor = OnnxTensor.createTensor(env, state, new long[]{2, batchSize, STATE_SIZE});
             srTensor = OnnxTensor.createTensor(env, new long[]{sr});
+            outputTensor = OnnxTensor.createTensor(env, output, new long[]{batchSize, 1});
+            stateOutTensor = OnnxTensor.createTensor(env, stateOut, new long[]{2, batchSize, STATE_SIZE});
 
-            Map<String, OnnxTensor> inputs = new HashMap<>();
             inputs.put("input", inputTensor);
             inputs.put("sr", srTensor);
             inputs.put("state", stateTensor);
+            outputs.put(outputName, outputTensor);
+            outputs.put(stateOutputName, stateOutTensor);
+        }
 
-            // Run ONNX model inference
-            ortOutputs = session.run(inputs);
-            // Get output results
-            float[][] output = (float[][]) ortOutputs.get(0).getValue();
-            state = (float[][][]) ortOutputs.get(1).getValue();
-
-            // Update context - save the last contextSize samples from input
-            for (int i = 0; i < batchSize; i++) {
-                System.arraycopy(xWithContext[i], xWithContext[i].length - contextSize, 
-                               context[i], 0, contextSize);
-            }
+        private static FloatBuffer directFloats(int size) {
+            return ByteBuffer.allocateDirect(size * Float.BYTES).order(ByteOrder.nativeOrder()).asFloatBuffer();
+        }
 
-            lastSr = sr;
-            lastBatchSize = batchSize;
-            return output[0];
-        } finally {
-            if (inputTensor != null) {
-                inputTensor.close();
-            }
-            if (stateTensor != null) {
-                stateTensor.close();
-            }
-            if (srTensor != null) {
-                srTensor.close();
-            }
-            if (ortOutputs != null) {
-                ortOutputs.close();
-            }
+        @Override
+        public void close() {
+            inputTensor.close();
+            stateTensor.close();
+            srTensor.close();
+            outputTensor.close();
+            stateOutTensor.close();
         }
     }
 }
@@ -0,0 +1,85 @@
+package com.cfsl.easymrcp.vad;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 单路通话的Silero VAD推理状态。
+ * 模型会话由{@link SlieroVadEngine}全局共享，每路通话只保留自己的state/context，
+ * 批量推理时由引擎把多路状态拼成batch维度，推理完成后再回写到各自的状态对象。
+ */
+final class SlieroVadState {
+    // 采样率，只支持8000或16000
+    final int sampleRate;
+    // 每次推理的窗口采样点数：8k为256，16k为512
+    final int windowSamples;
+    // 拼接在窗口前面的上一帧尾部采样点数：8k为32，16k为64
+    final int contextSamples;
+    // 模型递归状态，对应state张量中本路的[2][128]切片，按行展开复用
+    final float[] state = new float[2 * SlieroVadOnnxModel.STATE_SIZE];
+    // 上一窗口尾部采样点
+    final float[] context;
+    // 待推理的窗口采样点，提交异步推理时拷贝进来，避免调用方复用缓冲区时被覆盖
+    final float[] window;
+    // 是否已提交到引擎且尚未回调，同一路通话同时只允许一帧在途
+    final AtomicBoolean inFlight = new AtomicBoolean(false);
+    // 通话已释放时不再回写状态和回调
+    volatile boolean closed;
+    // 本次异步推理的回调
+    SlieroVadEngine.Listener listener;
+    // 最近一次推理输出的人声概率
+    float probability;
+
+    SlieroVadState(int sampleRate) {
+        if (sampleRate != 8000 && sampleRate != 16000) {
+            throw new IllegalArgumentException("Does not support sampling rates other than [8000, 16000]");
+        }
+        this.sampleRate = sampleRate;
+        this.windowSamples = sampleRate == 16000 ? 512 : 256;
+        this.contextSamples = sampleRate == 16000 ? 64 : 32;
+        this.context = new float[contextSamples];
+        this.window = new float[windowSamples];
+    }
+
+    /**
+     * 拷贝本次推理窗口，不足一个窗口时补零
+     */
+    void loadWindow(float[] samples, int length) {
+        int n = Math.min(length, windowSamples);
+        System.arraycopy(samples, 0, window, 0, n);
+        padWindow(n);
+    }
+
+    /**
+     * 从filled位置开始把窗口剩余部分补零
+     */
+    void padWindow(int filled) {
+        if (filled < windowSamples) {
+            Arrays.fill(window, Math.max(filled, 0), windowSamples, 0f);
+        }
+    }
+
+    /**
+     * 推理完成后，把当前窗口尾部保存为下一次推理的context
+     */
+    void advanceContext() {
+        System.arraycopy(window, windowSamples - contextSamples, context, 0, contextSamples);
+    }
+
+    void reset() {
+        Arrays.fill(state, 0f);
+        Arrays.fill(context, 0f);
+    }
+
+    /**
+     * 释放本路：没有在途帧时直接重置；有在途帧时推理线程可能正在读写state/context，
+     * 由引擎在该帧完成时看到closed后重置
+     */
+    void close() {
+        closed = true;
+        if (inFlight.compareAndSet(false, true)) {
+            reset();
+            inFlight.set(false);
+        }
+    }
+}
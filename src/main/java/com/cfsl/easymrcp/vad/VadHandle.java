@@ -1,13 +1,14 @@
 package com.cfsl.easymrcp.vad;
 
 import ai.onnxruntime.OrtException;
-import com.cfsl.easymrcp.utils.SipUtils;
+import io.netty.buffer.ByteBuf;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
 import java.io.File;
 import java.util.Map;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
 
 /**
  * 新版VAD处理器，使用vadNew包中的SlieroVadDetector实现
@@ -34,6 +35,10 @@ public class VadHandle {
     private SlieroVadDetector vadDetector;
     @Getter
     private Boolean isSpeaking = false;
+    // 异步检测时本帧完成后的回调
+    private Runnable pendingComplete;
+    // 异步检测结果处理，复用同一个实例避免每帧创建lambda
+    private final Consumer<Map<String, Double>> asyncResultHandler = this::onAsyncResult;
 
     public VadHandle(int sampleRate) {
         this.sampleRate = sampleRate;
@@ -111,43 +116,79 @@ public class VadHandle {
      */
     public void receivePcm(byte[] pcmData) {
         try {
-            Map<String, Double> detectResult = vadDetector.apply(pcmData, true);
+            handleDetectResult(vadDetector.apply(pcmData, true));
+        } catch (Exception e) {
+            log.error("Error applying VAD detector: {}", e.getMessage(), e);
+        }
+    }
 
-            if (detectResult != null && !detectResult.isEmpty()) {
-                if (detectResult.containsKey("start")) {
-                    isSpeaking = true;
-                    log.debug("VAD detected speech start at {}s, probability: {}, energy: {}",
-                            detectResult.get("start"),
-                            detectResult.get("probability"),
-                            detectResult.get("energy"));
-                } else if (detectResult.containsKey("end")) {
-                    isSpeaking = false;
-                    log.debug("VAD detected speech end at {}s, probability: {}, energy: {}",
-                            detectResult.get("end"),
-                            detectResult.get("probability"),
-                            detectResult.get("energy"));
-                }
+    /**
+     * 异步进行VAD检测，推理由共享引擎攒批完成，结果在callbackExecutor上更新isSpeaking后执行onComplete
+     *
+     * @param pcmData PCM音频数据（16位，单声道），只读取不释放
+     * @param callbackExecutor 回调执行线程
+     * @param onComplete 本帧检测完成后的回调
+     * @return 上一帧仍在检测中或引擎繁忙时返回false，本帧跳过且不会回调
+     */
+    public boolean receivePcmAsync(ByteBuf pcmData, Executor callbackExecutor, Runnable onComplete) {
+        if (vadDetector == null) {
+            onComplete.run();
+            return true;
+        }
+        pendingComplete = onComplete;
+        try {
+            if (vadDetector.applyAsync(pcmData, true, callbackExecutor, asyncResultHandler)) {
+                return true;
             }
         } catch (Exception e) {
             log.error("Error applying VAD detector: {}", e.getMessage(), e);
         }
+        pendingComplete = null;
+        return false;
+    }
+
+    private void onAsyncResult(Map<String, Double> detectResult) {
+        Runnable onComplete = pendingComplete;
+        pendingComplete = null;
+        try {
+            handleDetectResult(detectResult);
+        } catch (Exception e) {
+            log.error("Error applying VAD detector: {}", e.getMessage(), e);
+        }
+        if (onComplete != null) {
+            onComplete.run();
+        }
+    }
+
+    private void handleDetectResult(Map<String, Double> detectResult) {
+        if (detectResult != null && !detectResult.isEmpty()) {
+            if (detectResult.containsKey("start")) {
+                isSpeaking = true;
+                log.debug("VAD detected speech start at {}s, probability: {}, energy: {}",
+                        detectResult.get("start"),
+                        detectResult.get("probability"),
+                        detectResult.get("energy"));
+            } else if (detectResult.containsKey("end")) {
+                isSpeaking = false;
+                log.debug("VAD detected speech end at {}s, probability: {}, energy: {}",
+                        detectResult.get("end"),
+                        detectResult.get("probability"),
+                        detectResult.get("energy"));
+            }
+        }
     }
 
     /**
-     * 延时释放VAD资源，防止出现onnxruntime原生空指针错误从而导致jvm崩溃
+     * 释放VAD资源。模型会话由全局引擎持有，这里只释放本路状态，无需再延时关闭
      */
     public void release() {
-        SipUtils.wheelTimer.newTimeout(timeout -> {
-            SipUtils.executeTask(() -> {
-                try {
-                    if (vadDetector != null) {
-                        log.debug("VadHandleNew released");
-                        vadDetector.close();
-                    }
-                } catch (OrtException e) {
-                    log.error("Error closing VAD detector: {}", e.getMessage(), e);
-                }
-            });
-        }, 2000, TimeUnit.MILLISECONDS);
+        try {
+            if (vadDetector != null) {
+                log.debug("VadHandleNew released");
+                vadDetector.close();
+            }
+        } catch (OrtException e) {
+            log.error("Error closing VAD detector: {}", e.getMessage(), e);
+        }
     }
 }
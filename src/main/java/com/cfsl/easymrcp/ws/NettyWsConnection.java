@@ -0,0 +1,261 @@
+package com.cfsl.easymrcp.ws;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.handler.codec.http.websocketx.BinaryWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.CloseWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.PingWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.PongWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.TextWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.WebSocketClientHandshaker;
+import io.netty.handler.codec.http.websocketx.WebSocketHandshakeException;
+import io.netty.util.ReferenceCountUtil;
+import io.netty.util.concurrent.ScheduledFuture;
+import lombok.extern.slf4j.Slf4j;
+
+import java.net.URI;
+import java.nio.channels.ClosedChannelException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 基于Netty channel的WebSocket连接，同时作为pipeline末端的handler完成握手、控制帧处理和消息分发
+ */
+@Slf4j
+class NettyWsConnection extends ChannelInboundHandlerAdapter implements WsConnection {
+    // 未收到关闭帧时的关闭码(RFC 6455 abnormal closure)
+    static final int ABNORMAL_CLOSURE = 1006;
+    // 关闭帧中没有关闭码
+    static final int NO_STATUS_RECEIVED = 1005;
+
+    private final URI uri;
+    private final WebSocketClientHandshaker handshaker;
+    // 连接池租出/归还连接时会切换codec，只在EventLoop线程中切换
+    private volatile WsCodec codec;
+    private final long handshakeTimeoutMs;
+    private final long closeTimeoutMs;
+
+    private volatile Channel channel;
+    private volatile boolean open;
+    private final AtomicBoolean closeSent = new AtomicBoolean(false);
+    // onClose/onFailure只触发一次
+    private final AtomicBoolean terminated = new AtomicBoolean(false);
+    // 以下字段只在EventLoop线程中访问
+    private int closeCode = ABNORMAL_CLOSURE;
+    private String closeReason = "";
+    private ScheduledFuture<?> handshakeTimeout;
+
+    NettyWsConnection(URI uri, WebSocketClientHandshaker handshaker, WsCodec codec, long handshakeTimeoutMs, long closeTimeoutMs) {
+        this.uri = uri;
+        this.handshaker = handshaker;
+        this.codec = codec;
+        this.handshakeTimeoutMs = handshakeTimeoutMs;
+        this.closeTimeoutMs = closeTimeoutMs;
+    }
+
+    /**
+     * 绑定发起连接的channel，TCP连接失败时通知codec
+     */
+    void bind(ChannelFuture connectFuture) {
+        channel = connectFuture.channel();
+        connectFuture.addListener((ChannelFutureListener) future -> {
+            if (!future.isSuccess()) {
+                fail(future.cause());
+            }
+        });
+    }
+
+    /**
+     * 将已打开的连接转交给新的codec，之后的消息和关闭事件都回调新codec
+     * 切换在EventLoop中执行，连接仍可用时回调新codec.onOpen，已关闭时回调onFailure
+     */
+    void attach(WsCodec next) {
+        channel.eventLoop().execute(() -> {
+            codec = next;
+            if (isOpen()) {
+                invoke(() -> next.onOpen(this));
+            } else if (terminated.get()) {
+                invoke(() -> next.onFailure(this, new ClosedChannelException()));
+            } else {
+                fail(new ClosedChannelException());
+            }
+        });
+    }
+
+    @Override
+    public boolean sendText(String text) {
+        if (!isOpen()) {
+            return false;
+        }
+        channel.writeAndFlush(new TextWebSocketFrame(text), channel.voidPromise());
+        return true;
+    }
+
+    @Override
+    public boolean sendBinary(byte[] data) {
+        if (!isOpen()) {
+            return false;
+        }
+        ByteBuf payload = channel.alloc().buffer(data.length).writeBytes(data);
+        channel.writeAndFlush(new BinaryWebSocketFrame(payload), channel.voidPromise());
+        return true;
+    }
+
+    @Override
+    public boolean close(int code, String reason) {
+        Channel ch = channel;
+        if (ch == null || !closeSent.compareAndSet(false, true)) {
+            return false;
+        }
+        if (!open) {
+            ch.close();
+            return true;
+        }
+        ch.writeAndFlush(new CloseWebSocketFrame(code, reason));
+        // 服务端不回复关闭帧时按超时断开
+        ch.eventLoop().schedule(() -> {
+            ch.close();
+        }, closeTimeoutMs, TimeUnit.MILLISECONDS);
+        return true;
+    }
+
+    @Override
+    public void cancel() {
+        closeSent.set(true);
+        Channel ch = channel;
+        if (ch != null) {
+            ch.close();
+        }
+    }
+
+    @Override
+    public boolean isOpen() {
+        return open && !closeSent.get();
+    }
+
+    @Override
+    public void handlerAdded(ChannelHandlerContext ctx) {
+        channel = ctx.channel();
+    }
+
+    @Override
+    public void channelActive(ChannelHandlerContext ctx) throws Exception {
+        handshakeTimeout = ctx.executor().schedule(() -> {
+            if (!handshaker.isHandshakeComplete()) {
+                fail(new WebSocketHandshakeException("WebSocket握手超时: " + handshakeTimeoutMs + "ms"));
+            }
+        }, handshakeTimeoutMs, TimeUnit.MILLISECONDS);
+        handshaker.handshake(ctx.channel()).addListener((ChannelFutureListener) future -> {
+            if (!future.isSuccess()) {
+                fail(future.cause());
+            }
+        });
+        super.channelActive(ctx);
+    }
+
+    @Override
+    public void channelRead(ChannelHandlerContext ctx, Object msg) {
+        try {
+            if (!handshaker.isHandshakeComplete()) {
+                if (msg instanceof FullHttpResponse) {
+                    finishHandshake(ctx, (FullHttpResponse) msg);
+                }
+                return;
+            }
+            if (msg instanceof TextWebSocketFrame) {
+                String text = ((TextWebSocketFrame) msg).text();
+                invoke(() -> codec.onText(this, text));
+            } else if (msg instanceof BinaryWebSocketFrame) {
+                ByteBuf data = ((BinaryWebSocketFrame) msg).content();
+                invoke(() -> codec.onBinary(this, data));
+            } else if (msg instanceof PingWebSocketFrame) {
+                ctx.writeAndFlush(new PongWebSocketFrame(((PingWebSocketFrame) msg).content().retain()));
+            } else if (msg instanceof CloseWebSocketFrame) {
+                CloseWebSocketFrame frame = (CloseWebSocketFrame) msg;
+                closeCode = frame.statusCode() < 0 ? NO_STATUS_RECEIVED : frame.statusCode();
+                closeReason = frame.reasonText();
+                open = false;
+                if (closeSent.compareAndSet(false, true)) {
+                    // 服务端发起关闭，回复关闭帧后断开
+                    ctx.writeAndFlush(new CloseWebSocketFrame(closeCode == NO_STATUS_RECEIVED ? 1000 : closeCode, closeReason))
+                            .addListener(ChannelFutureListener.CLOSE);
+                } else {
+                    ctx.close();
+                }
+            }
+        } finally {
+            ReferenceCountUtil.release(msg);
+        }
+    }
+
+    @Override
+    public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+        open = false;
+        cancelHandshakeTimeout();
+        if (handshaker.isHandshakeComplete()) {
+            if (terminated.compareAndSet(false, true)) {
+                invoke(() -> codec.onClose(this, closeCode, closeReason));
+            }
+        } else {
+            fail(new ClosedChannelException());
+        }
+        super.channelInactive(ctx);
+    }
+
+    @Override
+    public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+        fail(cause);
+    }
+
+    private void finishHandshake(ChannelHandlerContext ctx, FullHttpResponse response) {
+        try {
+            handshaker.finishHandshake(ctx.channel(), response);
+        } catch (WebSocketHandshakeException e) {
+            fail(e);
+            return;
+        }
+        cancelHandshakeTimeout();
+        open = true;
+        log.debug("WebSocket握手完成: {}{}", uri.getHost(), uri.getPath());
+        invoke(() -> codec.onOpen(this));
+    }
+
+    /**
+     * 连接失败或异常，通知codec后断开
+     */
+    private void fail(Throwable cause) {
+        open = false;
+        closeSent.set(true);
+        if (terminated.compareAndSet(false, true)) {
+            log.warn("WebSocket连接异常: {}{}, {}", uri.getHost(), uri.getPath(), String.valueOf(cause));
+            invoke(() -> codec.onFailure(this, cause));
+        }
+        Channel ch = channel;
+        if (ch != null) {
+            ch.close();
+        }
+    }
+
+    private void cancelHandshakeTimeout() {
+        if (handshakeTimeout != null) {
+            handshakeTimeout.cancel(false);
+            handshakeTimeout = null;
+        }
+    }
+
+    /**
+     * codec抛出的异常只记录日志，不影响连接
+     */
+    private void invoke(Runnable callback) {
+        try {
+            callback.run();
+        } catch (RuntimeException e) {
+            log.error("WebSocket回调处理异常: {}{}", uri.getHost(), uri.getPath(), e);
+        }
+    }
+}
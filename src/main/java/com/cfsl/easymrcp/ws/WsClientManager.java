@@ -0,0 +1,198 @@
+package com.cfsl.easymrcp.ws;
+
+import com.cfsl.easymrcp.utils.NettyTransport;
+import io.netty.bootstrap.Bootstrap;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.ChannelPipeline;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.handler.codec.http.DefaultHttpHeaders;
+import io.netty.handler.codec.http.HttpClientCodec;
+import io.netty.handler.codec.http.HttpHeaders;
+import io.netty.handler.codec.http.HttpObjectAggregator;
+import io.netty.handler.codec.http.websocketx.WebSocketClientHandshaker;
+import io.netty.handler.codec.http.websocketx.WebSocketClientHandshakerFactory;
+import io.netty.handler.codec.http.websocketx.WebSocketFrameAggregator;
+import io.netty.handler.codec.http.websocketx.WebSocketVersion;
+import io.netty.handler.ssl.SslContext;
+import io.netty.handler.ssl.SslContextBuilder;
+import io.netty.handler.ssl.SslHandler;
+import io.netty.resolver.dns.DnsAddressResolverGroup;
+import io.netty.resolver.dns.DnsServerAddressStreamProviders;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLException;
+import javax.net.ssl.SSLParameters;
+import java.net.URI;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * 厂商ASR/TTS WebSocket客户端管理器
+ * 所有厂商连接共享一个EventLoopGroup，每条连接只占用一个channel，不再按连接创建读写线程；
+ * 域名解析使用Netty的异步DNS，连接、握手和收发都不阻塞调用线程。
+ */
+@Slf4j
+@Component
+public class WsClientManager {
+    private static final int HTTP_RESPONSE_MAX_BYTES = 64 * 1024;
+
+    @Value("${ws.client.nettyThreads:0}")
+    private int nettyThreads;
+    // 传输层：nio或epoll，epoll不可用时自动退回nio
+    @Value("${ws.client.transport:nio}")
+    private String transportName;
+    @Value("${ws.client.connect-timeout-ms:5000}")
+    private int connectTimeoutMs;
+    @Value("${ws.client.handshake-timeout-ms:10000}")
+    private long handshakeTimeoutMs;
+    // 主动关闭后等待服务端回复关闭帧的时间
+    @Value("${ws.client.close-timeout-ms:5000}")
+    private long closeTimeoutMs;
+    // 单条消息(聚合分片后)的最大长度
+    @Value("${ws.client.max-message-bytes:10485760}")
+    private int maxMessageBytes;
+    // 预热连接池，关闭后所有池都退化为直接建连
+    @Value("${ws.pool.enabled:true}")
+    private boolean poolEnabled;
+    // 每个池至少保持的空闲连接数
+    @Value("${ws.pool.min-idle:0}")
+    private int poolMinIdle;
+    @Value("${ws.pool.max-idle:8}")
+    private int poolMaxIdle;
+    // 统计租用速率的时间窗口
+    @Value("${ws.pool.rate-window-ms:60000}")
+    private long poolRateWindowMs;
+    // 预热连接需要覆盖的未来租用时长，空闲连接数 = 租用速率 * refill-lead-ms
+    @Value("${ws.pool.refill-lead-ms:3000}")
+    private long poolRefillLeadMs;
+    @Value("${ws.pool.maintain-interval-ms:1000}")
+    private long poolMaintainIntervalMs;
+
+    // 共享的EventLoopGroup
+    @Getter
+    private EventLoopGroup wsEventLoopGroup;
+    @Getter
+    private NettyTransport transport;
+    private DnsAddressResolverGroup resolverGroup;
+    private SslContext sslContext;
+    private final Map<String, WsConnectionPool> pools = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() throws SSLException {
+        transport = NettyTransport.resolve(transportName);
+        wsEventLoopGroup = transport.newEventLoopGroup(Math.max(nettyThreads, 0));
+        resolverGroup = new DnsAddressResolverGroup(transport.datagramChannelClass(), DnsServerAddressStreamProviders.platformDefault());
+        sslContext = SslContextBuilder.forClient().build();
+        log.info("WebSocket客户端管理器初始化完成，线程数: {}，传输层: {}", nettyThreads > 0 ? nettyThreads : "默认", transport);
+    }
+
+    /**
+     * 获取(首次调用时创建)指定厂商的预热连接池
+     *
+     * @param name      池名称，同名的池只创建一次
+     * @param endpoint  每次建连时调用，生成地址和鉴权header
+     * @param idleTtlMs 空闲连接的最长保留时间，应小于厂商的空闲断开时间和鉴权有效期
+     */
+    public WsConnectionPool pool(String name, Supplier<WsEndpoint> endpoint, long idleTtlMs) {
+        return pools.computeIfAbsent(name, key -> {
+            WsConnectionPool pool = new WsConnectionPool(key, this, endpoint, idleTtlMs,
+                    poolEnabled ? poolMinIdle : 0, poolEnabled ? poolMaxIdle : 0, poolRateWindowMs, poolRefillLeadMs);
+            pool.start(wsEventLoopGroup.next(), Math.max(poolMaintainIntervalMs, 100));
+            log.info("WebSocket连接池[{}]已创建，空闲连接保留时间: {}ms", key, idleTtlMs);
+            return pool;
+        });
+    }
+
+    public WsConnection connect(WsEndpoint endpoint, WsCodec codec) {
+        return connect(endpoint.getUri(), endpoint.getHeaders(), codec);
+    }
+
+    public WsConnection connect(String url, WsCodec codec) {
+        return connect(URI.create(url), Collections.emptyMap(), codec);
+    }
+
+    public WsConnection connect(String url, Map<String, String> headers, WsCodec codec) {
+        return connect(URI.create(url), headers, codec);
+    }
+
+    /**
+     * 发起WebSocket连接，立即返回；握手完成后回调codec.onOpen，失败回调codec.onFailure
+     *
+     * @param uri     ws或wss地址
+     * @param headers 握手请求附加的header，如鉴权、Origin
+     */
+    public WsConnection connect(URI uri, Map<String, String> headers, WsCodec codec) {
+        String scheme = uri.getScheme() == null ? "" : uri.getScheme().toLowerCase();
+        if (!"ws".equals(scheme) && !"wss".equals(scheme)) {
+            throw new IllegalArgumentException("不支持的WebSocket地址: " + uri);
+        }
+        boolean ssl = "wss".equals(scheme);
+        String host = uri.getHost();
+        int port = uri.getPort() > 0 ? uri.getPort() : (ssl ? 443 : 80);
+
+        HttpHeaders httpHeaders = new DefaultHttpHeaders();
+        headers.forEach(httpHeaders::set);
+        WebSocketClientHandshaker handshaker = WebSocketClientHandshakerFactory.newHandshaker(
+                uri, WebSocketVersion.V13, null, false, httpHeaders, maxMessageBytes);
+        NettyWsConnection connection = new NettyWsConnection(uri, handshaker, codec, handshakeTimeoutMs, closeTimeoutMs);
+
+        Bootstrap bootstrap = new Bootstrap()
+                .group(wsEventLoopGroup)
+                .channel(transport.socketChannelClass())
+                .resolver(resolverGroup)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeoutMs)
+                .option(ChannelOption.TCP_NODELAY, true)
+                .handler(new ChannelInitializer<SocketChannel>() {
+                    @Override
+                    protected void initChannel(SocketChannel ch) {
+                        ChannelPipeline pipeline = ch.pipeline();
+                        if (ssl) {
+                            pipeline.addLast(newSslHandler(ch, host, port));
+                        }
+                        pipeline.addLast(new HttpClientCodec());
+                        pipeline.addLast(new HttpObjectAggregator(HTTP_RESPONSE_MAX_BYTES));
+                        pipeline.addLast(new WebSocketFrameAggregator(maxMessageBytes));
+                        pipeline.addLast(connection);
+                    }
+                });
+        ChannelFuture connectFuture = bootstrap.connect(host, port);
+        connection.bind(connectFuture);
+        return connection;
+    }
+
+    /**
+     * 带SNI和主机名校验的SslHandler
+     */
+    private SslHandler newSslHandler(SocketChannel ch, String host, int port) {
+        SslHandler sslHandler = sslContext.newHandler(ch.alloc(), host, port);
+        SSLEngine engine = sslHandler.engine();
+        SSLParameters parameters = engine.getSSLParameters();
+        parameters.setEndpointIdentificationAlgorithm("HTTPS");
+        engine.setSSLParameters(parameters);
+        return sslHandler;
+    }
+
+    @PreDestroy
+    public void destroy() {
+        pools.values().forEach(WsConnectionPool::shutdown);
+        pools.clear();
+        if (resolverGroup != null) {
+            resolverGroup.close();
+        }
+        if (wsEventLoopGroup != null) {
+            wsEventLoopGroup.shutdownGracefully();
+            log.info("WebSocket客户端管理器已关闭");
+        }
+    }
+}
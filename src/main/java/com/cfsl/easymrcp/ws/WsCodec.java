@@ -0,0 +1,42 @@
+package com.cfsl.easymrcp.ws;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * 厂商WebSocket协议适配接口
+ * 所有回调都在连接所属的EventLoop线程中执行，不能阻塞；耗时操作需转交业务线程池(如SipUtils.executeTask)。
+ * 一条连接的回调按顺序执行，onClose和onFailure两者只会触发其一，且只触发一次。
+ */
+public interface WsCodec {
+
+    /**
+     * 握手完成，可以开始发送首帧
+     */
+    void onOpen(WsConnection connection);
+
+    /**
+     * 收到文本消息，分片消息已聚合为完整消息
+     */
+    default void onText(WsConnection connection, String text) {
+    }
+
+    /**
+     * 收到二进制消息，data在回调返回后释放，需要保留时自行拷贝
+     */
+    default void onBinary(WsConnection connection, ByteBuf data) {
+    }
+
+    /**
+     * 连接已关闭
+     *
+     * @param code 服务端关闭码，未收到关闭帧时为1006
+     */
+    default void onClose(WsConnection connection, int code, String reason) {
+    }
+
+    /**
+     * 连接建立、握手失败或连接过程中出现异常，连接已不可用
+     */
+    default void onFailure(WsConnection connection, Throwable cause) {
+    }
+}
@@ -0,0 +1,39 @@
+package com.cfsl.easymrcp.ws;
+
+/**
+ * 厂商WebSocket连接
+ * 发送方法可以在任意线程调用，消息进入Netty写队列后立即返回，不等待写出。
+ */
+public interface WsConnection {
+
+    /**
+     * 发送文本消息
+     *
+     * @return 握手未完成或连接已关闭时返回false，消息被丢弃
+     */
+    boolean sendText(String text);
+
+    /**
+     * 发送二进制消息，data会被拷贝，调用方可以复用数组
+     *
+     * @return 握手未完成或连接已关闭时返回false，消息被丢弃
+     */
+    boolean sendBinary(byte[] data);
+
+    /**
+     * 发送关闭帧，服务端回复关闭帧或超时后断开连接；握手未完成时直接断开
+     *
+     * @return 已经关闭过时返回false
+     */
+    boolean close(int code, String reason);
+
+    /**
+     * 不发送关闭帧，直接断开连接
+     */
+    void cancel();
+
+    /**
+     * 握手已完成且未关闭
+     */
+    boolean isOpen();
+}
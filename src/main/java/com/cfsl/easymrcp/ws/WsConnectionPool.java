@@ -0,0 +1,222 @@
+package com.cfsl.easymrcp.ws;
+
+import io.netty.util.concurrent.EventExecutor;
+import io.netty.util.concurrent.ScheduledFuture;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Deque;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * 单个厂商的WebSocket预热连接池
+ * 提前完成TCP/TLS/WebSocket握手和鉴权，检测到说话时直接租用空闲连接，省去首包前的建连时间。
+ * 空闲连接数按最近一段时间的租用速率估算：target = ceil(租用次数 * refillLeadMs / rateWindowMs)，并限制在[minIdle, maxIdle]之间；
+ * 空闲连接超过idleTtlMs(应小于厂商的空闲断开时间)后关闭重建。
+ * 池中没有可用连接时直接建连，行为与不使用连接池一致。
+ */
+@Slf4j
+public class WsConnectionPool {
+    private static final int NORMAL_CLOSURE = 1000;
+
+    @Getter
+    private final String name;
+    private final WsClientManager manager;
+    private final Supplier<WsEndpoint> endpoint;
+    private final long idleTtlMs;
+    private final int minIdle;
+    private final int maxIdle;
+    private final long rateWindowMs;
+    private final long refillLeadMs;
+
+    // 尾部是最新放入的连接，租用时优先取尾部
+    private final Deque<IdleConnection> idle = new ConcurrentLinkedDeque<>();
+    // 最近rateWindowMs内每次租用的时间
+    private final Deque<Long> leaseTimes = new ConcurrentLinkedDeque<>();
+    // 正在握手的预热连接数
+    private final AtomicInteger warming = new AtomicInteger();
+    private EventExecutor executor;
+    private ScheduledFuture<?> maintainTask;
+    private volatile boolean closed;
+
+    WsConnectionPool(String name, WsClientManager manager, Supplier<WsEndpoint> endpoint, long idleTtlMs,
+                     int minIdle, int maxIdle, long rateWindowMs, long refillLeadMs) {
+        this.name = name;
+        this.manager = manager;
+        this.endpoint = endpoint;
+        this.idleTtlMs = idleTtlMs;
+        this.maxIdle = Math.max(maxIdle, 0);
+        this.minIdle = Math.min(Math.max(minIdle, 0), this.maxIdle);
+        this.rateWindowMs = Math.max(rateWindowMs, 1);
+        this.refillLeadMs = Math.max(refillLeadMs, 0);
+    }
+
+    /**
+     * 在EventLoop上定时淘汰过期连接并补充预热连接
+     */
+    void start(EventExecutor executor, long maintainIntervalMs) {
+        this.executor = executor;
+        maintainTask = executor.scheduleAtFixedRate(this::maintain, 0, maintainIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 租用一条连接：有可用的空闲连接时立即回调codec.onOpen，否则新建连接
+     */
+    public WsConnection lease(WsCodec codec) {
+        long now = now();
+        leaseTimes.addLast(now);
+        IdleConnection entry;
+        while ((entry = idle.pollLast()) != null) {
+            if (entry.expireAt > now && entry.connection.isOpen()) {
+                entry.connection.attach(codec);
+                log.debug("WebSocket连接池[{}]租用预热连接，剩余空闲: {}", name, idle.size());
+                return entry.connection;
+            }
+            entry.connection.close(NORMAL_CLOSURE, "idle timeout");
+        }
+        // 没有可用连接，按新的租用速率提前补充
+        if (!closed) {
+            executor.execute(this::maintain);
+        }
+        return manager.connect(endpoint.get(), codec);
+    }
+
+    /**
+     * 归还连接：连接仍可用且池未满时放回空闲队列，否则关闭
+     * 只有协议允许在同一连接上开始新任务的厂商才应归还，其余厂商直接关闭连接
+     */
+    public void release(WsConnection connection) {
+        if (connection == null) {
+            return;
+        }
+        if (closed || !(connection instanceof NettyWsConnection) || !connection.isOpen() || idle.size() >= maxIdle) {
+            connection.close(NORMAL_CLOSURE, "");
+            return;
+        }
+        ((NettyWsConnection) connection).attach(new IdleCodec(false));
+    }
+
+    public int idleCount() {
+        return idle.size();
+    }
+
+    public int warmingCount() {
+        return warming.get();
+    }
+
+    /**
+     * 当前租用速率下期望保持的空闲连接数
+     */
+    int targetIdle() {
+        long demand = (leaseTimes.size() * refillLeadMs + rateWindowMs - 1) / rateWindowMs;
+        return (int) Math.max(minIdle, Math.min(maxIdle, demand));
+    }
+
+    void maintain() {
+        if (closed) {
+            return;
+        }
+        long now = now();
+        for (IdleConnection entry : idle) {
+            if ((entry.expireAt <= now || !entry.connection.isOpen()) && idle.removeFirstOccurrence(entry)) {
+                entry.connection.close(NORMAL_CLOSURE, "idle timeout");
+            }
+        }
+        Long oldest;
+        while ((oldest = leaseTimes.peekFirst()) != null && oldest <= now - rateWindowMs) {
+            leaseTimes.pollFirst();
+        }
+        int deficit = targetIdle() - idle.size() - warming.get();
+        for (int i = 0; i < deficit; i++) {
+            warm();
+        }
+    }
+
+    void shutdown() {
+        closed = true;
+        if (maintainTask != null) {
+            maintainTask.cancel(false);
+        }
+        IdleConnection entry;
+        while ((entry = idle.pollFirst()) != null) {
+            entry.connection.cancel();
+        }
+    }
+
+    private void warm() {
+        WsEndpoint target;
+        try {
+            // 每条预热连接都重新生成鉴权信息
+            target = endpoint.get();
+        } catch (RuntimeException e) {
+            log.warn("WebSocket连接池[{}]生成连接地址失败", name, e);
+            return;
+        }
+        warming.incrementAndGet();
+        try {
+            manager.connect(target, new IdleCodec(true));
+        } catch (RuntimeException e) {
+            warming.decrementAndGet();
+            log.warn("WebSocket连接池[{}]预热连接失败", name, e);
+        }
+    }
+
+    private static long now() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime());
+    }
+
+    /**
+     * 空闲期间挂在连接上的codec，连接被服务端断开时从空闲队列移除
+     */
+    private final class IdleCodec implements WsCodec {
+        private final boolean warmup;
+        private boolean opened;
+
+        private IdleCodec(boolean warmup) {
+            this.warmup = warmup;
+        }
+
+        @Override
+        public void onOpen(WsConnection connection) {
+            opened = true;
+            if (warmup) {
+                warming.decrementAndGet();
+            }
+            if (closed || idle.size() >= maxIdle) {
+                connection.close(NORMAL_CLOSURE, "");
+                return;
+            }
+            idle.addLast(new IdleConnection((NettyWsConnection) connection, now() + idleTtlMs));
+        }
+
+        @Override
+        public void onClose(WsConnection connection, int code, String reason) {
+            remove(connection);
+        }
+
+        @Override
+        public void onFailure(WsConnection connection, Throwable cause) {
+            remove(connection);
+        }
+
+        private void remove(WsConnection connection) {
+            if (warmup && !opened) {
+                warming.decrementAndGet();
+            }
+            idle.removeIf(entry -> entry.connection == connection);
+        }
+    }
+
+    private static final class IdleConnection {
+        private final NettyWsConnection connection;
+        private final long expireAt;
+
+        private IdleConnection(NettyWsConnection connection, long expireAt) {
+            this.connection = connection;
+            this.expireAt = expireAt;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.cfsl.easymrcp.ws;
+
+import lombok.Getter;
+
+import java.net.URI;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * 一次WebSocket连接的目标地址和握手header
+ * 鉴权参数有时效的厂商(如讯飞的签名url)每次建连都应重新生成
+ */
+@Getter
+public class WsEndpoint {
+    private final URI uri;
+    private final Map<String, String> headers;
+
+    public WsEndpoint(String url, Map<String, String> headers) {
+        this.uri = URI.create(url);
+        this.headers = headers == null ? Collections.emptyMap() : headers;
+    }
+
+    public WsEndpoint(String url) {
+        this(url, Collections.emptyMap());
+    }
+}
@@ -1,23 +1,19 @@
 package com.cfsl.easymrcp.asr.aliyunfunasr.dictation;
 
 import com.cfsl.easymrcp.asr.aliyunfunasr.AliyunFunasrConfig;
-import okhttp3.OkHttpClient;
-import okhttp3.Protocol;
-import okhttp3.Request;
-import okhttp3.Response;
-import okhttp3.WebSocket;
-import okhttp3.WebSocketListener;
-import okio.ByteString;
+import com.cfsl.easymrcp.ws.WsCodec;
+import com.cfsl.easymrcp.ws.WsConnection;
 import org.junit.jupiter.api.Test;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.TimeUnit;
+import java.util.Map;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertSame;
 
@@ -30,14 +26,11 @@ class AliyunFunasrDictationProcessorTests {
 
         processor.create();
 
-        assertNotNull(factory.client);
-        assertEquals("https", factory.request.url().scheme());
-        assertEquals("nls-gateway.example", factory.request.url().host());
-        assertEquals("/ws", factory.request.url().encodedPath());
-        assertEquals("Bearer test-api-key", factory.request.header("Authorization"));
-        assertEquals("workspace-1", factory.request.header("X-DashScope-WorkSpace"));
+        assertEquals("wss://nls-gateway.example/ws", factory.url);
+        assertEquals("Bearer test-api-key", factory.headers.get("Authorization"));
+        assertEquals("workspace-1", factory.headers.get("X-DashScope-WorkSpace"));
         assertSame(factory.webSocket, factory.openedWebSocket);
-        assertNotNull(factory.listener);
+        assertNotNull(factory.codec);
     }
 
     @Test
@@ -51,7 +44,7 @@ class AliyunFunasrDictationProcessorTests {
 
         processor.receive(audio);
 
-        assertArrayEquals(audio, factory.webSocket.binaryMessages.get(0).toByteArray());
+        assertArrayEquals(audio, factory.webSocket.binaryMessages.get(0));
     }
 
     @Test
@@ -83,7 +76,42 @@ class AliyunFunasrDictationProcessorTests {
         assertEquals(1, factory.webSocket.closeCount);
         assertEquals(1000, factory.webSocket.closeCode);
         assertEquals("正常关闭", factory.webSocket.closeReason);
-        assertNull(factory.request.header("X-DashScope-WorkSpace"));
+        assertNull(factory.headers.get("X-DashScope-WorkSpace"));
+    }
+
+    @Test
+    void createRecyclesFinishedSocketBeforeOpeningNextTask() {
+        RecordingFactory factory = new RecordingFactory();
+        AliyunFunasrDictationProcessor processor = newProcessor(config("workspace-1"), factory);
+
+        processor.create();
+        factory.openListener();
+        processor.sendEof();
+        factory.codec.onText(factory.webSocket, "{\"header\":{\"event\":\"task-finished\"}}");
+        WsCodec firstCodec = factory.codec;
+
+        processor.create();
+
+        assertSame(factory.webSocket, factory.recycled);
+        assertEquals(0, factory.webSocket.closeCount);
+        assertNotSame(firstCodec, factory.codec);
+    }
+
+    @Test
+    void asrCloseRecyclesSocketAfterTaskFinishedWithoutClosing() {
+        RecordingFactory factory = new RecordingFactory();
+        AliyunFunasrDictationProcessor processor = newProcessor(config("workspace-1"), factory);
+
+        processor.create();
+        factory.openListener();
+        processor.sendEof();
+        factory.codec.onText(factory.webSocket, "{\"header\":{\"event\":\"task-finished\"}}");
+
+        processor.asrClose();
+
+        assertSame(factory.webSocket, factory.recycled);
+        assertEquals(List.of("run-task", "finish-task"), factory.webSocket.textMessages);
+        assertEquals(0, factory.webSocket.closeCount);
     }
 
     private AliyunFunasrDictationProcessor newProcessor(
@@ -112,59 +140,41 @@ class AliyunFunasrDictationProcessorTests {
     }
 
     private static final class RecordingFactory implements AliyunFunasrDictationProcessor.WebSocketFactory {
-        private OkHttpClient client;
-        private Request request;
-        private WebSocketListener listener;
-        private WebSocket openedWebSocket;
+        private String url;
+        private Map<String, String> headers;
+        private WsCodec codec;
+        private WsConnection openedWebSocket;
+        private WsConnection recycled;
         private final RecordingWebSocket webSocket = new RecordingWebSocket();
 
         @Override
-        public OkHttpClient createClient() {
-            client = new OkHttpClient.Builder()
-                    .connectTimeout(1, TimeUnit.SECONDS)
-                    .readTimeout(1, TimeUnit.SECONDS)
-                    .writeTimeout(1, TimeUnit.SECONDS)
-                    .build();
-            return client;
+        public WsConnection open(String url, Map<String, String> headers, WsCodec codec) {
+            this.url = url;
+            this.headers = headers;
+            this.codec = codec;
+            this.openedWebSocket = webSocket;
+            return webSocket;
         }
 
         @Override
-        public WebSocket open(OkHttpClient client, Request request, WebSocketListener listener) {
-            this.request = request;
-            this.listener = listener;
-            this.openedWebSocket = webSocket;
-            return webSocket;
+        public void recycle(WsConnection webSocket) {
+            this.recycled = webSocket;
         }
 
         private void openListener() {
-            listener.onOpen(webSocket, new Response.Builder()
-                    .request(new Request.Builder().url(request.url()).build())
-                    .protocol(Protocol.HTTP_1_1)
-                    .code(101)
-                    .message("Switching Protocols")
-                    .build());
+            codec.onOpen(webSocket);
         }
     }
 
-    private static final class RecordingWebSocket implements WebSocket {
+    private static final class RecordingWebSocket implements WsConnection {
         private final List<String> textMessages = new ArrayList<>();
-        private final List<ByteString> binaryMessages = new ArrayList<>();
+        private final List<byte[]> binaryMessages = new ArrayList<>();
         private int closeCount;
         private Integer closeCode;
         private String closeReason;
 
         @Override
-        public Request request() {
-            return new Request.Builder().url("http://localhost/ws").build();
-        }
-
-        @Override
-        public long queueSize() {
-            return 0;
-        }
-
-        @Override
-        public boolean send(String text) {
+        public boolean sendText(String text) {
             String action = com.google.gson.JsonParser.parseString(text)
                     .getAsJsonObject()
                     .getAsJsonObject("header")
@@ -175,8 +185,8 @@ class AliyunFunasrDictationProcessorTests {
         }
 
         @Override
-        public boolean send(ByteString bytes) {
-            binaryMessages.add(bytes);
+        public boolean sendBinary(byte[] data) {
+            binaryMessages.add(data);
             return true;
         }
 
@@ -191,5 +201,10 @@ class AliyunFunasrDictationProcessorTests {
         @Override
         public void cancel() {
         }
+
+        @Override
+        public boolean isOpen() {
+            return closeCount == 0;
+        }
     }
 }
@@ -11,13 +11,9 @@ import com.cfsl.easymrcp.mrcp.AsrCallback;
 import com.cfsl.easymrcp.tcp.TcpClientNotifier;
 import com.cfsl.easymrcp.tcp.TcpEventType;
 import com.cfsl.easymrcp.utils.SipUtils;
+import com.cfsl.easymrcp.ws.WsConnection;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
-import okhttp3.Protocol;
-import okhttp3.Request;
-import okhttp3.Response;
-import okhttp3.WebSocket;
-import okio.ByteString;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -75,10 +71,10 @@ class AliyunFunasrDictationWsClientTests {
         List<String> callbacks = new ArrayList<>();
         AliyunFunasrDictationWsClient client = newClient(new CountDownLatch(1), new AtomicBoolean(true), new AtomicBoolean(false), false, recordCallbacks(callbacks));
         RecordingWebSocket webSocket = new RecordingWebSocket();
-        client.onOpen(webSocket, websocketResponse());
+        client.onOpen(webSocket);
 
-        client.onMessage(webSocket, resultMessage("hello", false, false));
-        client.onMessage(webSocket, resultMessage("hello again", false, false));
+        client.onText(webSocket, resultMessage("hello", false, false));
+        client.onText(webSocket, resultMessage("hello again", false, false));
 
         assertEquals(List.of(ASRConstant.Interrupt + "|hello"), callbacks);
     }
@@ -88,11 +84,11 @@ class AliyunFunasrDictationWsClientTests {
         List<String> callbacks = new ArrayList<>();
         AliyunFunasrDictationWsClient client = newClient(new CountDownLatch(1), new AtomicBoolean(true), new AtomicBoolean(false), false, recordCallbacks(callbacks));
         RecordingWebSocket webSocket = new RecordingWebSocket();
-        client.onOpen(webSocket, websocketResponse());
+        client.onOpen(webSocket);
 
-        client.onMessage(webSocket, resultMessage("hello", false, false));
-        client.onMessage(webSocket, resultMessage("hello world", false, true));
-        client.onMessage(webSocket, resultMessage("next turn", false, false));
+        client.onText(webSocket, resultMessage("hello", false, false));
+        client.onText(webSocket, resultMessage("hello world", false, true));
+        client.onText(webSocket, resultMessage("next turn", false, false));
 
         assertEquals(List.of(
                 ASRConstant.Interrupt + "|hello",
@@ -108,10 +104,10 @@ class AliyunFunasrDictationWsClientTests {
         List<String> callbacks = new ArrayList<>();
         AliyunFunasrDictationWsClient client = newClient(new CountDownLatch(1), new AtomicBoolean(false), new AtomicBoolean(true), false, recordCallbacks(callbacks));
         RecordingWebSocket webSocket = new RecordingWebSocket();
-        client.onOpen(webSocket, websocketResponse());
+        client.onOpen(webSocket);
 
-        client.onMessage(webSocket, resultMessage("streaming text", false, false));
-        client.onMessage(webSocket, resultMessage("final text", false, true));
+        client.onText(webSocket, resultMessage("streaming text", false, false));
+        client.onText(webSocket, resultMessage("final text", false, true));
 
         verify(notifier).sendEvent(eq("call-123"), isNull(), eq(TcpEventType.AsrRealTimeResult),
                 eq("{\"asrEngine\":\"" + EMConstant.ALIYUN_FUNASR + "\",\"asrResult\":\"streaming text\"}"));
@@ -126,11 +122,11 @@ class AliyunFunasrDictationWsClientTests {
         List<String> callbacks = new ArrayList<>();
         AliyunFunasrDictationWsClient client = newClient(latch, new AtomicBoolean(true), new AtomicBoolean(true), false, recordCallbacks(callbacks));
         RecordingWebSocket webSocket = new RecordingWebSocket();
-        client.onOpen(webSocket, websocketResponse());
+        client.onOpen(webSocket);
 
-        client.onMessage(webSocket, eventMessage("task-started"));
-        client.onMessage(webSocket, eventMessage("task-failed"));
-        client.onMessage(webSocket, resultMessage("stale text", false, true));
+        client.onText(webSocket, eventMessage("task-started"));
+        client.onText(webSocket, eventMessage("task-failed"));
+        client.onText(webSocket, resultMessage("stale text", false, true));
 
         assertEquals(0L, latch.getCount());
         assertTrue(callbacks.isEmpty());
@@ -144,8 +140,8 @@ class AliyunFunasrDictationWsClientTests {
         RecordingWebSocket webSocket = new RecordingWebSocket();
         webSocket.queueTextSendResult(false);
 
-        client.onOpen(webSocket, websocketResponse());
-        client.onMessage(webSocket, resultMessage("stale text", false, true));
+        client.onOpen(webSocket);
+        client.onText(webSocket, resultMessage("stale text", false, true));
 
         assertEquals(0L, latch.getCount());
         assertEquals(0, webSocket.textMessages.size());
@@ -158,12 +154,12 @@ class AliyunFunasrDictationWsClientTests {
         AliyunFunasrDictationWsClient client = newClient(new CountDownLatch(1), new AtomicBoolean(true), new AtomicBoolean(false), false, recordCallbacks(callbacks));
         RecordingWebSocket webSocket = new RecordingWebSocket();
 
-        client.onOpen(webSocket, websocketResponse());
-        client.onMessage(webSocket, eventMessage("task-started"));
-        client.onMessage(webSocket, resultMessage("hello", false, false));
-        client.onMessage(webSocket, resultMessage("hello world", false, true));
+        client.onOpen(webSocket);
+        client.onText(webSocket, eventMessage("task-started"));
+        client.onText(webSocket, resultMessage("hello", false, false));
+        client.onText(webSocket, resultMessage("hello world", false, true));
         client.sendFinishTask();
-        client.onMessage(webSocket, eventMessage("task-finished"));
+        client.onText(webSocket, eventMessage("task-finished"));
         client.closeSocket("client done");
 
         List<ILoggingEvent> infoEvents = logAppender.list.stream()
@@ -231,15 +227,6 @@ class AliyunFunasrDictationWsClientTests {
         return config;
     }
 
-    private Response websocketResponse() {
-        return new Response.Builder()
-                .request(new Request.Builder().url("http://localhost/ws").build())
-                .protocol(Protocol.HTTP_1_1)
-                .code(101)
-                .message("Switching Protocols")
-                .build();
-    }
-
     private String eventMessage(String event) {
         JsonObject message = new JsonObject();
         JsonObject header = new JsonObject();
@@ -268,24 +255,14 @@ class AliyunFunasrDictationWsClientTests {
         return message.toString();
     }
 
-    private static final class RecordingWebSocket implements WebSocket {
+    private static final class RecordingWebSocket implements WsConnection {
         private final List<String> textMessages = new ArrayList<>();
         private final Deque<Boolean> textSendResults = new ArrayDeque<>();
         private int closeCount;
         private int cancelCount;
 
         @Override
-        public Request request() {
-            return new Request.Builder().url("http://localhost/ws").build();
-        }
-
-        @Override
-        public long queueSize() {
-            return 0;
-        }
-
-        @Override
-        public boolean send(String text) {
+        public boolean sendText(String text) {
             boolean accepted = textSendResults.isEmpty() ? true : textSendResults.removeFirst();
             if (accepted) {
                 textMessages.add(text);
@@ -294,7 +271,7 @@ class AliyunFunasrDictationWsClientTests {
         }
 
         @Override
-        public boolean send(ByteString bytes) {
+        public boolean sendBinary(byte[] data) {
             return true;
         }
 
@@ -309,6 +286,11 @@ class AliyunFunasrDictationWsClientTests {
             cancelCount++;
         }
 
+        @Override
+        public boolean isOpen() {
+            return closeCount == 0 && cancelCount == 0;
+        }
+
         private void queueTextSendResult(boolean accepted) {
             textSendResults.addLast(accepted);
         }
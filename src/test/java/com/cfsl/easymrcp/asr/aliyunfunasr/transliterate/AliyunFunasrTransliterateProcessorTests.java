@@ -1,18 +1,13 @@
 package com.cfsl.easymrcp.asr.aliyunfunasr.transliterate;
 
 import com.cfsl.easymrcp.asr.aliyunfunasr.AliyunFunasrConfig;
-import okhttp3.OkHttpClient;
-import okhttp3.Protocol;
-import okhttp3.Request;
-import okhttp3.Response;
-import okhttp3.WebSocket;
-import okhttp3.WebSocketListener;
-import okio.ByteString;
+import com.cfsl.easymrcp.ws.WsCodec;
+import com.cfsl.easymrcp.ws.WsConnection;
 import org.junit.jupiter.api.Test;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.TimeUnit;
+import java.util.Map;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
@@ -30,14 +25,11 @@ class AliyunFunasrTransliterateProcessorTests {
 
         processor.create();
 
-        assertNotNull(factory.client);
-        assertEquals("https", factory.request.url().scheme());
-        assertEquals("nls-gateway.example", factory.request.url().host());
-        assertEquals("/ws", factory.request.url().encodedPath());
-        assertEquals("Bearer test-api-key", factory.request.header("Authorization"));
-        assertEquals("workspace-2", factory.request.header("X-DashScope-WorkSpace"));
+        assertEquals("wss://nls-gateway.example/ws", factory.url);
+        assertEquals("Bearer test-api-key", factory.headers.get("Authorization"));
+        assertEquals("workspace-2", factory.headers.get("X-DashScope-WorkSpace"));
         assertSame(factory.webSocket, factory.openedWebSocket);
-        assertNotNull(factory.listener);
+        assertNotNull(factory.codec);
     }
 
     @Test
@@ -51,7 +43,7 @@ class AliyunFunasrTransliterateProcessorTests {
 
         processor.receive(audio);
 
-        assertArrayEquals(audio, factory.webSocket.binaryMessages.get(0).toByteArray());
+        assertArrayEquals(audio, factory.webSocket.binaryMessages.get(0));
     }
 
     @Test
@@ -80,7 +72,7 @@ class AliyunFunasrTransliterateProcessorTests {
 
         assertEquals(List.of("run-task", "finish-task"), factory.webSocket.textMessages);
         assertEquals(0, factory.webSocket.closeCount);
-        assertNull(factory.request.header("X-DashScope-WorkSpace"));
+        assertNull(factory.headers.get("X-DashScope-WorkSpace"));
     }
 
     private AliyunFunasrTransliterateProcessor newProcessor(
@@ -109,59 +101,35 @@ class AliyunFunasrTransliterateProcessorTests {
     }
 
     private static final class RecordingFactory implements AliyunFunasrTransliterateProcessor.WebSocketFactory {
-        private OkHttpClient client;
-        private Request request;
-        private WebSocketListener listener;
-        private WebSocket openedWebSocket;
+        private String url;
+        private Map<String, String> headers;
+        private WsCodec codec;
+        private WsConnection openedWebSocket;
         private final RecordingWebSocket webSocket = new RecordingWebSocket();
 
         @Override
-        public OkHttpClient createClient() {
-            client = new OkHttpClient.Builder()
-                    .connectTimeout(1, TimeUnit.SECONDS)
-                    .readTimeout(1, TimeUnit.SECONDS)
-                    .writeTimeout(1, TimeUnit.SECONDS)
-                    .build();
-            return client;
-        }
-
-        @Override
-        public WebSocket open(OkHttpClient client, Request request, WebSocketListener listener) {
-            this.request = request;
-            this.listener = listener;
+        public WsConnection open(String url, Map<String, String> headers, WsCodec codec) {
+            this.url = url;
+            this.headers = headers;
+            this.codec = codec;
             this.openedWebSocket = webSocket;
             return webSocket;
         }
 
         private void openListener() {
-            listener.onOpen(webSocket, new Response.Builder()
-                    .request(new Request.Builder().url(request.url()).build())
-                    .protocol(Protocol.HTTP_1_1)
-                    .code(101)
-                    .message("Switching Protocols")
-                    .build());
+            codec.onOpen(webSocket);
         }
     }
 
-    private static final class RecordingWebSocket implements WebSocket {
+    private static final class RecordingWebSocket implements WsConnection {
         private final List<String> textMessages = new ArrayList<>();
-        private final List<ByteString> binaryMessages = new ArrayList<>();
+        private final List<byte[]> binaryMessages = new ArrayList<>();
         private int closeCount;
         private Integer closeCode;
         private String closeReason;
 
         @Override
-        public Request request() {
-            return new Request.Builder().url("http://localhost/ws").build();
-        }
-
-        @Override
-        public long queueSize() {
-            return 0;
-        }
-
-        @Override
-        public boolean send(String text) {
+        public boolean sendText(String text) {
             String action = com.google.gson.JsonParser.parseString(text)
                     .getAsJsonObject()
                     .getAsJsonObject("header")
@@ -172,8 +140,8 @@ class AliyunFunasrTransliterateProcessorTests {
         }
 
         @Override
-        public boolean send(ByteString bytes) {
-            binaryMessages.add(bytes);
+        public boolean sendBinary(byte[] data) {
+            binaryMessages.add(data);
             return true;
         }
 
@@ -188,5 +156,10 @@ class AliyunFunasrTransliterateProcessorTests {
         @Override
         public void cancel() {
         }
+
+        @Override
+        public boolean isOpen() {
+            return closeCount == 0;
+        }
     }
 }
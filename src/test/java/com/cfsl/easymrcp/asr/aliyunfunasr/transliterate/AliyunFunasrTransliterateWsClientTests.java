@@ -7,13 +7,9 @@ import com.cfsl.easymrcp.mrcp.AsrCallback;
 import com.cfsl.easymrcp.tcp.TcpClientNotifier;
 import com.cfsl.easymrcp.tcp.TcpEventType;
 import com.cfsl.easymrcp.utils.SipUtils;
+import com.cfsl.easymrcp.ws.WsConnection;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
-import okhttp3.Protocol;
-import okhttp3.Request;
-import okhttp3.Response;
-import okhttp3.WebSocket;
-import okio.ByteString;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -55,9 +51,9 @@ class AliyunFunasrTransliterateWsClientTests {
         List<String> callbacks = new ArrayList<>();
         AliyunFunasrTransliterateWsClient client = newClient(new CountDownLatch(1), new AtomicBoolean(true), false, recordCallbacks(callbacks));
         RecordingWebSocket webSocket = new RecordingWebSocket();
-        client.onOpen(webSocket, websocketResponse());
+        client.onOpen(webSocket);
 
-        client.onMessage(webSocket, resultMessage("streaming text", false, false));
+        client.onText(webSocket, resultMessage("streaming text", false, false));
 
         verify(notifier).sendEvent(eq("call-123"), isNull(), eq(TcpEventType.AsrRealTimeResult),
                 eq("{\"asrEngine\":\"" + EMConstant.ALIYUN_FUNASR + "\",\"asrResult\":\"streaming text\"}"));
@@ -71,10 +67,10 @@ class AliyunFunasrTransliterateWsClientTests {
         List<String> callbacks = new ArrayList<>();
         AliyunFunasrTransliterateWsClient client = newClient(new CountDownLatch(1), new AtomicBoolean(true), false, recordCallbacks(callbacks));
         RecordingWebSocket webSocket = new RecordingWebSocket();
-        client.onOpen(webSocket, websocketResponse());
+        client.onOpen(webSocket);
 
-        client.onMessage(webSocket, resultMessage("final text", false, true));
-        client.onMessage(webSocket, eventMessage("task-finished"));
+        client.onText(webSocket, resultMessage("final text", false, true));
+        client.onText(webSocket, eventMessage("task-finished"));
 
         assertEquals(List.of(
                 ASRConstant.Result + "|final text",
@@ -91,11 +87,11 @@ class AliyunFunasrTransliterateWsClientTests {
         List<String> callbacks = new ArrayList<>();
         AliyunFunasrTransliterateWsClient client = newClient(latch, new AtomicBoolean(true), false, recordCallbacks(callbacks));
         RecordingWebSocket webSocket = new RecordingWebSocket();
-        client.onOpen(webSocket, websocketResponse());
+        client.onOpen(webSocket);
 
-        client.onMessage(webSocket, eventMessage("task-started"));
-        client.onMessage(webSocket, eventMessage("task-failed"));
-        client.onMessage(webSocket, resultMessage("stale text", false, true));
+        client.onText(webSocket, eventMessage("task-started"));
+        client.onText(webSocket, eventMessage("task-failed"));
+        client.onText(webSocket, resultMessage("stale text", false, true));
 
         assertEquals(0L, latch.getCount());
         assertTrue(callbacks.isEmpty());
@@ -109,8 +105,8 @@ class AliyunFunasrTransliterateWsClientTests {
         RecordingWebSocket webSocket = new RecordingWebSocket();
         webSocket.queueTextSendResult(false);
 
-        client.onOpen(webSocket, websocketResponse());
-        client.onMessage(webSocket, resultMessage("stale text", false, true));
+        client.onOpen(webSocket);
+        client.onText(webSocket, resultMessage("stale text", false, true));
 
         assertEquals(0L, latch.getCount());
         assertTrue(callbacks.isEmpty());
@@ -152,15 +148,6 @@ class AliyunFunasrTransliterateWsClientTests {
         return config;
     }
 
-    private Response websocketResponse() {
-        return new Response.Builder()
-                .request(new Request.Builder().url("http://localhost/ws").build())
-                .protocol(Protocol.HTTP_1_1)
-                .code(101)
-                .message("Switching Protocols")
-                .build();
-    }
-
     private String eventMessage(String event) {
         JsonObject message = new JsonObject();
         JsonObject header = new JsonObject();
@@ -189,24 +176,14 @@ class AliyunFunasrTransliterateWsClientTests {
         return message.toString();
     }
 
-    private static final class RecordingWebSocket implements WebSocket {
+    private static final class RecordingWebSocket implements WsConnection {
         private final List<String> textMessages = new ArrayList<>();
         private final java.util.Deque<Boolean> textSendResults = new java.util.ArrayDeque<>();
         private int closeCount;
         private int cancelCount;
 
         @Override
-        public Request request() {
-            return new Request.Builder().url("http://localhost/ws").build();
-        }
-
-        @Override
-        public long queueSize() {
-            return 0;
-        }
-
-        @Override
-        public boolean send(String text) {
+        public boolean sendText(String text) {
             boolean accepted = textSendResults.isEmpty() ? true : textSendResults.removeFirst();
             if (accepted) {
                 textMessages.add(text);
@@ -215,7 +192,7 @@ class AliyunFunasrTransliterateWsClientTests {
         }
 
         @Override
-        public boolean send(ByteString bytes) {
+        public boolean sendBinary(byte[] data) {
             return true;
         }
 
@@ -230,6 +207,11 @@ class AliyunFunasrTransliterateWsClientTests {
             cancelCount++;
         }
 
+        @Override
+        public boolean isOpen() {
+            return closeCount == 0 && cancelCount == 0;
+        }
+
         private void queueTextSendResult(boolean accepted) {
             textSendResults.addLast(accepted);
         }
@@ -0,0 +1,116 @@
+package com.cfsl.easymrcp.common;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AudioCacheWarmupServiceTest {
+
+    @Test
+    void warmsObjectsAndPrefixWithBoundedConcurrency() throws Exception {
+        StubCacheService cache = new StubCacheService();
+        AudioCacheWarmupService service = service(cache, 2);
+        try {
+            AudioCacheWarmupTask task = service.warmup(Arrays.asList("a.wav", "bad.wav", "a.wav"),
+                    Collections.singletonList("tts-cache/agent-speak/"));
+
+            awaitFinished(task);
+
+            assertEquals(5, task.getTotal());
+            assertEquals(4, task.getSucceeded());
+            assertEquals(1, task.getFailed());
+            assertTrue(task.getFailures().containsKey("bad.wav"));
+            assertEquals(5, cache.fetched.size());
+            assertTrue(cache.maxConcurrent.get() <= 2);
+            assertSame(task, service.getTask(task.getId()));
+        } finally {
+            service.destroy();
+        }
+    }
+
+    @Test
+    void listingFailureIsReportedAndTaskFinishes() throws Exception {
+        StubCacheService cache = new StubCacheService();
+        AudioCacheWarmupService service = service(cache, 2);
+        try {
+            AudioCacheWarmupTask task = service.warmup(null, Collections.singletonList("other/"));
+
+            awaitFinished(task);
+
+            assertEquals(0, task.getTotal());
+            assertTrue(task.getFailures().containsKey("other/"));
+        } finally {
+            service.destroy();
+        }
+    }
+
+    @Test
+    void rejectsEmptyRequest() {
+        AudioCacheWarmupService service = service(new StubCacheService(), 1);
+        try {
+            assertThrows(IllegalArgumentException.class,
+                    () -> service.warmup(Collections.singletonList(" "), null));
+        } finally {
+            service.destroy();
+        }
+    }
+
+    private static AudioCacheWarmupService service(AudioCacheService cache, int concurrency) {
+        AudioCacheWarmupService service = new AudioCacheWarmupService(cache);
+        ReflectionTestUtils.setField(service, "concurrency", concurrency);
+        service.init();
+        return service;
+    }
+
+    private static void awaitFinished(AudioCacheWarmupTask task) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (task.getState() != AudioCacheWarmupTask.State.FINISHED && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(AudioCacheWarmupTask.State.FINISHED, task.getState());
+    }
+
+    private static class StubCacheService extends AudioCacheService {
+        private final Set<String> fetched = ConcurrentHashMap.newKeySet();
+        private final AtomicInteger running = new AtomicInteger();
+        private final AtomicInteger maxConcurrent = new AtomicInteger();
+
+        @Override
+        public List<String> listObjects(String prefix) {
+            if (!prefix.startsWith("tts-cache/agent-speak/")) {
+                throw new IllegalArgumentException("非法录音前缀");
+            }
+            return Arrays.asList(prefix + "1.wav", prefix + "2.wav", prefix + "3.wav");
+        }
+
+        @Override
+        public CachedAudio getOrDownload(String objectName) {
+            int current = running.incrementAndGet();
+            maxConcurrent.accumulateAndGet(current, Math::max);
+            try {
+                Thread.sleep(20);
+                fetched.add(objectName);
+                if (objectName.startsWith("bad")) {
+                    throw new IllegalStateException("download failed");
+                }
+                return new CachedAudio(new byte[2], 1);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            } finally {
+                running.decrementAndGet();
+            }
+        }
+    }
+}
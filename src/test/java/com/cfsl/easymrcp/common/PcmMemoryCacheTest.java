@@ -0,0 +1,182 @@
+package com.cfsl.easymrcp.common;
+
+import com.cfsl.easymrcp.rtp.AudioCodecUtil;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PcmMemoryCacheTest {
+    @TempDir
+    Path cacheDir;
+
+    @Test
+    void evictsLeastRecentlyUsedEntriesBeyondByteLimit() {
+        PcmMemoryCache cache = new PcmMemoryCache(10);
+        cache.put("a", new CachedAudio(new byte[4], 1));
+        cache.put("b", new CachedAudio(new byte[4], 1));
+        assertNotNull(cache.get("a"));
+
+        cache.put("c", new CachedAudio(new byte[4], 1));
+
+        assertNotNull(cache.get("a"));
+        assertNull(cache.get("b"));
+        assertNotNull(cache.get("c"));
+        assertEquals(8, cache.totalBytes());
+    }
+
+    @Test
+    void skipsEntriesLargerThanLimitAndReplacesSameKey() {
+        PcmMemoryCache cache = new PcmMemoryCache(10);
+        cache.put("big", new CachedAudio(new byte[11], 1));
+        assertNull(cache.get("big"));
+
+        cache.put("a", new CachedAudio(new byte[4], 1));
+        cache.put("a", new CachedAudio(new byte[6], 1));
+        assertEquals(1, cache.size());
+        assertEquals(6, cache.totalBytes());
+    }
+
+    @Test
+    void encodedPayloadsCountTowardsByteLimit() {
+        PcmMemoryCache cache = new PcmMemoryCache(11);
+        CachedAudio a = new CachedAudio(new byte[4], 1);
+        CachedAudio b = new CachedAudio(new byte[4], 1);
+        cache.put("a", a);
+        cache.put("b", b);
+
+        b.encoded(AudioCodecUtil.PT_PCMA);
+        assertEquals(10, cache.totalBytes());
+        // 再生成一份PCMU后超出上限，淘汰最久未播放的a
+        b.encoded(AudioCodecUtil.PT_PCMU);
+
+        assertNull(cache.get("a"));
+        assertSame(b, cache.get("b"));
+        assertEquals(8, cache.totalBytes());
+        // 已缓存的编码结果不重复计数
+        b.encoded(AudioCodecUtil.PT_PCMA);
+        assertEquals(8, cache.totalBytes());
+        // 已淘汰的录音再编码不影响计数
+        a.encoded(AudioCodecUtil.PT_PCMA);
+        assertEquals(8, cache.totalBytes());
+    }
+
+    @Test
+    void repeatedHitsAreServedFromMemoryWithoutReadingFile() throws Exception {
+        byte[] wav = wav(new byte[] {1, 2, 3, 4});
+        CountingAudioCacheService service = new CountingAudioCacheService(wav);
+        ReflectionTestUtils.setField(service, "cacheDir", cacheDir.toString());
+        ReflectionTestUtils.setField(service, "allowedPrefix", "tts-cache/agent-speak/");
+        ReflectionTestUtils.setField(service, "memoryMaxMb", 1);
+        service.init();
+        String objectName = "tts-cache/agent-speak/20260817/1001_v1_c2_s" + wav.length + "_"
+                + AudioCacheService.sha256(wav) + ".wav";
+
+        CachedAudio first = service.getOrDownload(objectName);
+        // 文件删除后仍从内存命中
+        try (java.util.stream.Stream<Path> files = Files.list(cacheDir)) {
+            files.forEach(path -> path.toFile().delete());
+        }
+        CachedAudio second = service.getOrDownload(objectName);
+
+        assertSame(first, second);
+        assertArrayEquals(new byte[] {1, 2, 3, 4}, second.getPcm());
+        assertEquals(2, second.getCharCount());
+        assertEquals(1, service.downloadCount.get());
+    }
+
+    @Test
+    void corruptedCachedFileWithMatchingSizeIsDownloadedAgain() throws Exception {
+        byte[] wav = wav(new byte[] {1, 2, 3, 4});
+        CountingAudioCacheService service = new CountingAudioCacheService(wav);
+        ReflectionTestUtils.setField(service, "cacheDir", cacheDir.toString());
+        ReflectionTestUtils.setField(service, "allowedPrefix", "tts-cache/agent-speak/");
+        String objectName = "tts-cache/agent-speak/20260817/1001_v1_c2_s" + wav.length + "_"
+                + AudioCacheService.sha256(wav) + ".wav";
+        service.getOrDownload(objectName);
+        Path cached;
+        try (java.util.stream.Stream<Path> files = Files.list(cacheDir)) {
+            cached = files.findFirst().orElseThrow();
+        }
+        Files.write(cached, new byte[wav.length]);
+
+        CachedAudio audio = service.getOrDownload(objectName);
+
+        assertArrayEquals(new byte[] {1, 2, 3, 4}, audio.getPcm());
+        assertEquals(2, service.downloadCount.get());
+    }
+
+    @Test
+    void mappedCacheFileIsSharedWithoutHeapCopy() throws Exception {
+        byte[] wav = wav(new byte[] {1, 2, 3, 4});
+        CountingAudioCacheService service = new CountingAudioCacheService(wav);
+        ReflectionTestUtils.setField(service, "cacheDir", cacheDir.toString());
+        ReflectionTestUtils.setField(service, "allowedPrefix", "tts-cache/agent-speak/");
+        ReflectionTestUtils.setField(service, "memoryMaxMb", 1);
+        ReflectionTestUtils.setField(service, "mmapEnabled", true);
+        service.init();
+        String objectName = "tts-cache/agent-speak/20260817/1001_v1_c2_s" + wav.length + "_"
+                + AudioCacheService.sha256(wav) + ".wav";
+
+        CachedAudio audio = service.getOrDownload(objectName);
+
+        assertTrue(audio.getData().isDirect());
+        assertTrue(audio.getData().isReadOnly());
+        assertEquals(4, audio.size());
+        assertArrayEquals(new byte[] {1, 2, 3, 4}, audio.getPcm());
+        assertSame(audio, service.getOrDownload(objectName));
+    }
+
+    private static class CountingAudioCacheService extends AudioCacheService {
+        private final byte[] wav;
+        private final AtomicInteger downloadCount = new AtomicInteger();
+
+        CountingAudioCacheService(byte[] wav) {
+            this.wav = wav;
+        }
+
+        @Override
+        protected void download(AudioObjectName metadata, Path target) {
+            downloadCount.incrementAndGet();
+            try {
+                Files.createDirectories(target.getParent());
+                Files.write(target, wav);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    private static byte[] wav(byte[] pcm) {
+        ByteBuffer header = ByteBuffer.allocate(44).order(ByteOrder.LITTLE_ENDIAN);
+        header.put("RIFF".getBytes(StandardCharsets.US_ASCII));
+        header.putInt(36 + pcm.length);
+        header.put("WAVEfmt ".getBytes(StandardCharsets.US_ASCII));
+        header.putInt(16);
+        header.putShort((short) 1);
+        header.putShort((short) 1);
+        header.putInt(8000);
+        header.putInt(16000);
+        header.putShort((short) 2);
+        header.putShort((short) 16);
+        header.put("data".getBytes(StandardCharsets.US_ASCII));
+        header.putInt(pcm.length);
+        byte[] result = new byte[44 + pcm.length];
+        System.arraycopy(header.array(), 0, result, 0, 44);
+        System.arraycopy(pcm, 0, result, 44, pcm.length);
+        return result;
+    }
+}
@@ -0,0 +1,64 @@
+package com.cfsl.easymrcp.common;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class TtsResultCacheTest {
+    @Test
+    void keyDependsOnEngineVoiceResampleAndText() {
+        String key = TtsResultCache.key("aliyun", "longxiaochun", null, "请稍等");
+
+        assertEquals(key, TtsResultCache.key("aliyun", "longxiaochun", null, "请稍等"));
+        assertNotEquals(key, TtsResultCache.key("xfyun", "longxiaochun", null, "请稍等"));
+        assertNotEquals(key, TtsResultCache.key("aliyun", "other", null, "请稍等"));
+        assertNotEquals(key, TtsResultCache.key("aliyun", "longxiaochun", "downsample24kTo8k", "请稍等"));
+        assertNotEquals(key, TtsResultCache.key("aliyun", "longxiaochun", null, "请稍候"));
+    }
+
+    @Test
+    void storesResultsAndReportsHitRatioAndSavedChars() {
+        TtsResultCache cache = cache(true, 1);
+        String key = TtsResultCache.key("aliyun", null, null, "请稍等");
+
+        assertNull(cache.get(key, 3));
+        cache.put(key, new byte[] {1, 2, 3, 4}, 3);
+        CachedAudio audio = cache.get(key, 3);
+
+        assertArrayEquals(new byte[] {1, 2, 3, 4}, audio.getPcm());
+        Map<String, Object> stats = cache.stats();
+        assertEquals(1L, stats.get("hits"));
+        assertEquals(1L, stats.get("misses"));
+        assertEquals(0.5, stats.get("hitRatio"));
+        assertEquals(3L, stats.get("charsSaved"));
+        assertEquals(1, stats.get("entries"));
+    }
+
+    @Test
+    void skipsOversizedResultsAndDisabledCache() {
+        TtsResultCache cache = cache(true, 1);
+        cache.put("big", new byte[1025], 1);
+        assertNull(cache.get("big", 1));
+
+        TtsResultCache disabled = cache(false, 1);
+        disabled.put("a", new byte[4], 1);
+        assertFalse(disabled.isActive());
+        assertNull(disabled.get("a", 1));
+    }
+
+    private static TtsResultCache cache(boolean enabled, int maxEntryKb) {
+        TtsResultCache cache = new TtsResultCache();
+        ReflectionTestUtils.setField(cache, "enabled", enabled);
+        ReflectionTestUtils.setField(cache, "maxMb", 1);
+        ReflectionTestUtils.setField(cache, "maxEntryKb", maxEntryKb);
+        cache.init();
+        return cache;
+    }
+}
@@ -0,0 +1,101 @@
+package com.cfsl.easymrcp.mrcp;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CallSerialExecutorTests {
+
+    @Test
+    void execute_shouldRunEventsOfSameCallInOrderWithoutOverlap() throws Exception {
+        CallSerialExecutor executor = new CallSerialExecutor(8, 60, 4, 10000);
+        int calls = 16;
+        int eventsPerCall = 500;
+        Map<String, List<Integer>> executed = new ConcurrentHashMap<>();
+        Map<String, AtomicBoolean> running = new ConcurrentHashMap<>();
+        AtomicBoolean overlapped = new AtomicBoolean();
+        CountDownLatch done = new CountDownLatch(calls * eventsPerCall);
+        try {
+            for (int i = 0; i < eventsPerCall; i++) {
+                for (int c = 0; c < calls; c++) {
+                    String callId = "call-" + c;
+                    int seq = i;
+                    executed.computeIfAbsent(callId, id -> Collections.synchronizedList(new ArrayList<>()));
+                    running.computeIfAbsent(callId, id -> new AtomicBoolean());
+                    assertTrue(executor.execute(callId, () -> {
+                        if (!running.get(callId).compareAndSet(false, true)) {
+                            overlapped.set(true);
+                        }
+                        executed.get(callId).add(seq);
+                        running.get(callId).set(false);
+                        done.countDown();
+                    }));
+                }
+            }
+
+            assertTrue(done.await(10, TimeUnit.SECONDS));
+            assertFalse(overlapped.get());
+            List<Integer> expected = IntStream.range(0, eventsPerCall).boxed().collect(Collectors.toList());
+            executed.values().forEach(list -> assertEquals(expected, list));
+            assertEquals(0, executor.stats().get("queued"));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void execute_shouldRejectWhenMailboxIsFullInsteadOfRunningOnCaller() {
+        ArrayDeque<Runnable> pending = new ArrayDeque<>();
+        CallSerialExecutor executor = new CallSerialExecutor(pending::add, 1, 2);
+        List<String> executed = new ArrayList<>();
+        Thread caller = Thread.currentThread();
+        AtomicBoolean ranOnCaller = new AtomicBoolean();
+
+        assertTrue(executor.execute("call-1", () -> executed.add("a")));
+        assertTrue(executor.execute("call-1", () -> executed.add("b")));
+        assertFalse(executor.execute("call-1", () -> ranOnCaller.set(Thread.currentThread() == caller)));
+
+        assertEquals(1, pending.size());
+        assertEquals(1L, executor.stats().get("rejected"));
+        assertEquals(2, executor.stats().get("peakMailboxDepth"));
+        assertFalse(ranOnCaller.get());
+
+        pending.poll().run();
+        assertEquals(List.of("a", "b"), executed);
+        assertTrue(executor.execute("call-1", () -> executed.add("c")));
+        pending.poll().run();
+        assertEquals(List.of("a", "b", "c"), executed);
+    }
+
+    @Test
+    void execute_shouldKeepDrainingAfterFailedEvent() {
+        ArrayDeque<Runnable> pending = new ArrayDeque<>();
+        CallSerialExecutor executor = new CallSerialExecutor(pending::add, 1, 100);
+        List<String> executed = new ArrayList<>();
+
+        executor.execute("call-1", () -> {
+            throw new IllegalStateException("boom");
+        });
+        executor.execute("call-1", () -> executed.add("next"));
+        while (!pending.isEmpty()) {
+            pending.poll().run();
+        }
+
+        assertEquals(List.of("next"), executed);
+        assertEquals(1L, executor.stats().get("failed"));
+    }
+}
@@ -0,0 +1,183 @@
+package com.cfsl.easymrcp.rtp;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.Unpooled;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ChunkedAudioQueueTests {
+
+    @Test
+    void readsBackInWriteOrderAcrossSegments() {
+        ChunkedAudioQueue queue = new ChunkedAudioQueue(ByteBufAllocator.DEFAULT, 4);
+        try {
+            queue.write(new byte[]{1, 2, 3, 4, 5, 6}, 0, 6);
+            queue.write(Unpooled.wrappedBuffer(new byte[]{7, 8, 9}));
+
+            assertEquals(9, queue.getSize());
+            assertEquals(3, queue.getSegmentCount());
+            assertArrayEquals(new byte[]{1, 2, 3, 4, 5}, readBytes(queue.read(5)));
+            assertArrayEquals(new byte[]{6, 7, 8, 9}, readBytes(queue.readAll()));
+            assertTrue(queue.isEmpty());
+        } finally {
+            queue.release();
+        }
+    }
+
+    @Test
+    void drainedSegmentsAreReturnedSoIdleQueueHoldsNothing() {
+        ChunkedAudioQueue queue = new ChunkedAudioQueue(ByteBufAllocator.DEFAULT, 4);
+        try {
+            queue.write(new byte[10], 0, 10);
+            assertEquals(3, queue.getSegmentCount());
+
+            readBytes(queue.read(4));
+            assertEquals(2, queue.getSegmentCount());
+
+            readBytes(queue.read(6));
+            assertEquals(0, queue.getSegmentCount());
+            assertEquals(0, queue.getSize());
+        } finally {
+            queue.release();
+        }
+    }
+
+    @Test
+    void writeLeavesSourceReaderIndexUntouched() {
+        ChunkedAudioQueue queue = new ChunkedAudioQueue(ByteBufAllocator.DEFAULT, 4);
+        ByteBuf source = Unpooled.wrappedBuffer(new byte[]{1, 2, 3, 4, 5});
+        try {
+            queue.write(source);
+
+            assertEquals(0, source.readerIndex());
+            assertEquals(5, queue.getSize());
+        } finally {
+            queue.release();
+        }
+    }
+
+    @Test
+    void readsStopAtMarkerAndAudioAfterMarkerStartsNewSegment() {
+        ChunkedAudioQueue queue = new ChunkedAudioQueue(ByteBufAllocator.DEFAULT, 4);
+        try {
+            queue.write(new byte[]{1, 2, 3}, 0, 3);
+            queue.writeMarker(ChunkedAudioQueue.Marker.END);
+            queue.write(new byte[]{4, 5}, 0, 2);
+
+            assertEquals(5, queue.getSize());
+            assertEquals(3, queue.readableBytes());
+            assertEquals(2, queue.getSegmentCount());
+            assertTrue(queue.hasMarker());
+            assertNull(queue.pollMarker());
+
+            assertArrayEquals(new byte[]{1, 2, 3}, readBytes(queue.read(10)));
+            assertEquals(0, queue.readableBytes());
+            assertEquals(ChunkedAudioQueue.Marker.END, queue.pollMarker());
+            assertFalse(queue.hasMarker());
+            assertArrayEquals(new byte[]{4, 5}, readBytes(queue.readAll()));
+            assertTrue(queue.isEmpty());
+        } finally {
+            queue.release();
+        }
+    }
+
+    @Test
+    void skipDropsBytesUpToMarkerWithoutCopying() {
+        ChunkedAudioQueue queue = new ChunkedAudioQueue(ByteBufAllocator.DEFAULT, 4);
+        try {
+            queue.write(new byte[]{1, 2, 3, 4, 5, 6}, 0, 6);
+            queue.writeMarker(ChunkedAudioQueue.Marker.INTERRUPT);
+
+            assertEquals(6, queue.skip(10));
+            assertEquals(0, queue.getSegmentCount());
+            assertFalse(queue.isEmpty());
+            assertEquals(ChunkedAudioQueue.Marker.INTERRUPT, queue.pollMarker());
+            assertTrue(queue.isEmpty());
+        } finally {
+            queue.release();
+        }
+    }
+
+    @Test
+    void clearDropsQueuedMarkers() {
+        ChunkedAudioQueue queue = new ChunkedAudioQueue(ByteBufAllocator.DEFAULT, 4);
+        try {
+            queue.write(new byte[]{1, 2}, 0, 2);
+            queue.writeMarker(ChunkedAudioQueue.Marker.END);
+
+            queue.clear();
+
+            assertTrue(queue.isEmpty());
+            assertFalse(queue.hasMarker());
+            assertNull(queue.pollMarker());
+        } finally {
+            queue.release();
+        }
+    }
+
+    @Test
+    void releaseReturnsSegmentsAndIgnoresLaterWrites() {
+        ChunkedAudioQueue queue = new ChunkedAudioQueue(ByteBufAllocator.DEFAULT, 4);
+        queue.write(new byte[8], 0, 8);
+
+        queue.release();
+        queue.write(new byte[8], 0, 8);
+
+        assertTrue(queue.isClosed());
+        assertEquals(0, queue.getSize());
+        assertEquals(0, queue.getSegmentCount());
+        assertEquals(0, queue.read(4).readableBytes());
+    }
+
+    @Test
+    void sharedDataIsQueuedAsSliceAndReleasedOnceDrained() {
+        ChunkedAudioQueue queue = new ChunkedAudioQueue(ByteBufAllocator.DEFAULT, 4);
+        ByteBuf shared = Unpooled.directBuffer(6).writeBytes(new byte[]{1, 2, 3, 4, 5, 6});
+        try {
+            queue.writeShared(shared);
+            queue.write(new byte[]{7, 8}, 0, 2);
+
+            assertEquals(2, shared.refCnt());
+            assertEquals(0, shared.readerIndex());
+            assertEquals(8, queue.getSize());
+            assertEquals(2, queue.getSegmentCount());
+            assertArrayEquals(new byte[]{1, 2, 3}, readBytes(queue.read(3)));
+            assertEquals(1, queue.skip(1));
+            assertArrayEquals(new byte[]{5, 6, 7, 8}, readBytes(queue.readAll()));
+            assertEquals(1, shared.refCnt());
+        } finally {
+            queue.release();
+            shared.release();
+        }
+    }
+
+    @Test
+    void clearReleasesPendingSharedSlices() {
+        ChunkedAudioQueue queue = new ChunkedAudioQueue(ByteBufAllocator.DEFAULT, 4);
+        ByteBuf shared = Unpooled.wrappedBuffer(new byte[]{1, 2, 3, 4});
+        queue.writeShared(shared);
+        queue.writeShared(shared);
+
+        queue.clear();
+
+        assertEquals(1, shared.refCnt());
+        assertTrue(queue.isEmpty());
+        queue.release();
+    }
+
+    private static byte[] readBytes(ByteBuf buffer) {
+        try {
+            byte[] bytes = new byte[buffer.readableBytes()];
+            buffer.readBytes(bytes);
+            return bytes;
+        } finally {
+            buffer.release();
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.cfsl.easymrcp.rtp;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.Unpooled;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class G711CodecTests {
+
+    @Test
+    void encodeTablesMatchReferenceForEverySample() {
+        for (int i = Short.MIN_VALUE; i <= Short.MAX_VALUE; i++) {
+            short sample = (short) i;
+            assertEquals(G711AUtil.linearToALawSample(sample), G711Codec.encodeALaw(sample));
+            assertEquals(G711UUtil.linearToUlaw(sample), G711Codec.encodeULaw(sample));
+        }
+    }
+
+    @Test
+    void bulkEncodeMatchesPerSampleOnHeapAndDirectBuffers() {
+        // 13个采样加一个奇数字节：覆盖4采样块、剩余采样和被忽略的尾字节
+        byte[] pcm = randomBytes(27);
+        byte[] expectedA = new byte[13];
+        byte[] expectedU = new byte[13];
+        for (int i = 0; i < 13; i++) {
+            short sample = (short) ((pcm[i * 2] & 0xFF) | (pcm[i * 2 + 1] << 8));
+            expectedA[i] = G711AUtil.linearToALawSample(sample);
+            expectedU[i] = G711UUtil.linearToUlaw(sample);
+        }
+
+        for (boolean direct : new boolean[]{false, true}) {
+            ByteBuf input = buffer(pcm, direct);
+            ByteBuf alaw = direct ? ByteBufAllocator.DEFAULT.directBuffer() : Unpooled.buffer();
+            ByteBuf ulaw = direct ? ByteBufAllocator.DEFAULT.directBuffer() : Unpooled.buffer();
+            try {
+                assertEquals(13, G711Codec.encodeALaw(input, alaw));
+                assertEquals(13, G711Codec.encodeULaw(input, ulaw));
+                assertEquals(0, input.readerIndex());
+                assertArrayEquals(expectedA, bytes(alaw));
+                assertArrayEquals(expectedU, bytes(ulaw));
+            } finally {
+                input.release();
+                alaw.release();
+                ulaw.release();
+            }
+        }
+    }
+
+    @Test
+    void bulkDecodeMatchesByteArrayDecodeOnHeapAndDirectBuffers() {
+        byte[] encoded = randomBytes(11);
+
+        for (boolean direct : new boolean[]{false, true}) {
+            ByteBuf input = buffer(encoded, direct);
+            ByteBuf alaw = direct ? ByteBufAllocator.DEFAULT.directBuffer() : Unpooled.buffer();
+            ByteBuf ulaw = direct ? ByteBufAllocator.DEFAULT.directBuffer() : Unpooled.buffer();
+            try {
+                assertEquals(22, G711Codec.decodeALaw(input, alaw));
+                assertEquals(22, G711Codec.decodeULaw(input, ulaw));
+                assertEquals(0, input.readerIndex());
+                assertArrayEquals(G711AUtil.decode(encoded), bytes(alaw));
+                assertArrayEquals(G711UUtil.decode(encoded), bytes(ulaw));
+            } finally {
+                input.release();
+                alaw.release();
+                ulaw.release();
+            }
+        }
+    }
+
+    @Test
+    void byteBufEncodeStillAdvancesReaderIndex() {
+        ByteBuf input = Unpooled.wrappedBuffer(randomBytes(7));
+        ByteBuf output = G711AUtil.encode(input);
+        try {
+            assertEquals(3, output.readableBytes());
+            assertEquals(6, input.readerIndex());
+        } finally {
+            output.release();
+        }
+    }
+
+    @Test
+    void swapL16SwapsEveryPairAndLeavesOddTailToCaller() {
+        byte[] pcm = new byte[21];
+        for (int i = 0; i < pcm.length; i++) {
+            pcm[i] = (byte) i;
+        }
+        byte[] expected = new byte[20];
+        for (int i = 0; i < expected.length; i += 2) {
+            expected[i] = pcm[i + 1];
+            expected[i + 1] = pcm[i];
+        }
+
+        for (boolean direct : new boolean[]{false, true}) {
+            ByteBuf input = buffer(pcm, direct);
+            ByteBuf output = direct ? ByteBufAllocator.DEFAULT.directBuffer() : Unpooled.buffer();
+            try {
+                assertEquals(20, AudioCodecUtil.swapL16(input, 0, pcm.length, output));
+                assertArrayEquals(expected, bytes(output));
+            } finally {
+                input.release();
+                output.release();
+            }
+        }
+    }
+
+    private static ByteBuf buffer(byte[] data, boolean direct) {
+        ByteBuf buffer = direct ? ByteBufAllocator.DEFAULT.directBuffer(data.length) : Unpooled.buffer(data.length);
+        return buffer.writeBytes(data);
+    }
+
+    private static byte[] randomBytes(int length) {
+        byte[] data = new byte[length];
+        new Random(42).nextBytes(data);
+        return data;
+    }
+
+    private static byte[] bytes(ByteBuf buffer) {
+        byte[] data = new byte[buffer.readableBytes()];
+        buffer.getBytes(buffer.readerIndex(), data);
+        return data;
+    }
+}
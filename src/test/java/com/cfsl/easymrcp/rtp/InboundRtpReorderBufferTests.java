@@ -1,5 +1,7 @@
 package com.cfsl.easymrcp.rtp;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 import org.junit.jupiter.api.Test;
 
 import java.lang.reflect.Constructor;
@@ -126,6 +128,66 @@ class InboundRtpReorderBufferTests {
         assertSequences(emitted, 65535, 0);
     }
 
+    @Test
+    void pooledViewsAreReleasedWhenEmittedDroppedOrReset() {
+        InboundRtpReorderBuffer buffer = new InboundRtpReorderBuffer(PAYLOAD_TYPE, DEFAULT_PAYLOAD_SIZE, 2, 3, 160L);
+        ByteBuf datagram100 = datagram(100);
+        ByteBuf datagram101 = datagram(101);
+        ByteBuf late101 = datagram(101);
+        ByteBuf datagram103 = datagram(103);
+
+        List<Integer> sequences = new ArrayList<>();
+        buffer.offer(RtpPacket.view(datagram100), packet -> sequences.add(packet.getSequenceNumber()));
+        buffer.offer(RtpPacket.view(datagram101), packet -> sequences.add(packet.getSequenceNumber()));
+        buffer.offer(RtpPacket.view(late101), packet -> sequences.add(packet.getSequenceNumber()));
+        buffer.offer(RtpPacket.view(datagram103), packet -> sequences.add(packet.getSequenceNumber()));
+
+        assertEquals(List.of(100, 101), sequences);
+        assertEquals(1, datagram100.refCnt());
+        assertEquals(1, datagram101.refCnt());
+        assertEquals(1, late101.refCnt());
+        assertEquals(2, datagram103.refCnt());
+
+        buffer.reset();
+
+        assertEquals(1, datagram103.refCnt());
+        assertEquals(0, buffer.getBufferedPacketCount());
+    }
+
+    @Test
+    void sequenceJumpOntoOccupiedRingSlotDrainsOlderPacketsFirst() {
+        InboundRtpReorderBuffer buffer = new InboundRtpReorderBuffer(PAYLOAD_TYPE, DEFAULT_PAYLOAD_SIZE, 2, 1, 160L);
+
+        assertTrue(offer(buffer, packet(100)).isEmpty());
+        assertSequences(offer(buffer, packet(101)), 100, 101);
+        assertTrue(offer(buffer, packet(103)).isEmpty());
+
+        // 103 + 64 落在同一个环形下标上
+        List<RtpPacket> emitted = offer(buffer, packet(167));
+
+        assertSequences(emitted, 102, 103);
+        assertSilence(emitted.get(0), 102, (byte) 0xD5);
+        assertEquals(1, buffer.getBufferedPacketCount());
+        assertEquals(0, buffer.getLateCount());
+    }
+
+    @Test
+    void latePacketOnOccupiedRingSlotLeavesWindowUntouched() {
+        InboundRtpReorderBuffer buffer = new InboundRtpReorderBuffer(PAYLOAD_TYPE, DEFAULT_PAYLOAD_SIZE, 2, 1, 160L);
+
+        assertTrue(offer(buffer, packet(100)).isEmpty());
+        assertSequences(offer(buffer, packet(101)), 100, 101);
+        assertTrue(offer(buffer, packet(103)).isEmpty());
+
+        // 103 - 64 落在 103 的环形下标上，但它早于 expectedSeq，只能按晚到包丢弃
+        assertTrue(offer(buffer, packet(39)).isEmpty());
+
+        assertEquals(1, buffer.getLateCount());
+        assertEquals(0, buffer.getLossFillCount());
+        assertEquals(1, buffer.getBufferedPacketCount());
+        assertSequences(offer(buffer, packet(102)), 102, 103);
+    }
+
     private static void assertSequences(List<RtpPacket> packets, int... expectedSequences) {
         assertEquals(expectedSequences.length, packets.size());
         for (int i = 0; i < expectedSequences.length; i++) {
@@ -155,6 +217,17 @@ class InboundRtpReorderBufferTests {
         return RtpPacket.of(97, sequenceNumber, timestamp, new byte[payloadSize]);
     }
 
+    private static ByteBuf datagram(int sequenceNumber) {
+        ByteBuf datagram = Unpooled.buffer(12 + DEFAULT_PAYLOAD_SIZE);
+        datagram.writeByte(0x80);
+        datagram.writeByte(PAYLOAD_TYPE);
+        datagram.writeShort(sequenceNumber);
+        datagram.writeInt(sequenceNumber * 160);
+        datagram.writeInt(0x12345678);
+        datagram.writeBytes(new byte[]{0x01, 0x02, 0x03, 0x04});
+        return datagram;
+    }
+
     private static InboundRtpReorderBuffer newBuffer(int payloadType,
                                                      int defaultPayloadSize,
                                                      int reorderWindowPackets,
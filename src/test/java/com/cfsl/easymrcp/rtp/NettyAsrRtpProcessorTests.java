@@ -2,6 +2,7 @@ package com.cfsl.easymrcp.rtp;
 
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.Unpooled;
 import org.junit.jupiter.api.Test;
 
 import java.lang.reflect.Constructor;
@@ -167,12 +168,12 @@ class NettyAsrRtpProcessorTests {
     }
 
     private static byte[] invokeDecodePayload(NettyAsrRtpProcessor processor, byte[] payload) throws Exception {
-        Method method = NettyAsrRtpProcessor.class.getDeclaredMethod("decodePayload", byte[].class, ByteBufAllocator.class);
+        Method method = NettyAsrRtpProcessor.class.getDeclaredMethod("decodePayload", ByteBuf.class, ByteBufAllocator.class);
         method.setAccessible(true);
 
         ByteBuf result = null;
         try {
-            result = (ByteBuf) method.invoke(processor, payload, ByteBufAllocator.DEFAULT);
+            result = (ByteBuf) method.invoke(processor, Unpooled.wrappedBuffer(payload), ByteBufAllocator.DEFAULT);
             return readBytes(result);
         } finally {
             if (result != null) {
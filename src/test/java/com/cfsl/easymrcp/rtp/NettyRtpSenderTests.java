@@ -13,6 +13,8 @@ import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class NettyRtpSenderTests {
 
@@ -102,4 +104,45 @@ class NettyRtpSenderTests {
 
         assertFalse(hasInterruptMethod);
     }
+
+    @Test
+    void close_shouldKeepSharedChannelOpen() throws Exception {
+        NettyRtpSender sender = new NettyRtpSender("127.0.0.1", 9003);
+        EmbeddedChannel channel = new EmbeddedChannel();
+        sender.setRtpChannel(channel, true);
+
+        sender.close();
+
+        assertTrue(channel.isOpen());
+        channel.finishAndReleaseAll();
+    }
+
+    @Test
+    void sendFrame_shouldDeferFlushUntilBatchFlush() throws Exception {
+        NettyRtpSender sender = new NettyRtpSender("127.0.0.1", 9004);
+        sender.setPayloadType(AudioCodecUtil.PT_PCMA);
+        sender.configureSession(EMConstant.VOIP_SAMPLES_PER_FRAME, false);
+        EmbeddedChannel channel = new EmbeddedChannel();
+        sender.setRtpChannel(channel);
+        RtpFlushBatch batch = new RtpFlushBatch();
+        sender.setFlushBatch(batch);
+
+        sender.sendSilence();
+        sender.sendSilence();
+
+        assertNull(channel.readOutbound());
+        assertEquals(1, batch.size());
+
+        batch.flush();
+
+        DatagramPacket first = channel.readOutbound();
+        DatagramPacket second = channel.readOutbound();
+        assertNotNull(first);
+        assertNotNull(second);
+        assertEquals(0, batch.size());
+        first.release();
+        second.release();
+        sender.close();
+        channel.finishAndReleaseAll();
+    }
 }
@@ -1,5 +1,6 @@
 package com.cfsl.easymrcp.rtp;
 
+import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
 import org.junit.jupiter.api.Test;
 
@@ -109,6 +110,36 @@ class RtpPacketTests {
         assertArrayEquals(replacementPayload, silence.getPayload());
     }
 
+    @Test
+    void viewSlicesPayloadWithoutCopyAndReleasesDatagramWithPacket() {
+        byte[] payload = new byte[]{0x51, 0x52, 0x53};
+        ByteBuf datagram = Unpooled.wrappedBuffer(buildPacket(8, 4321, 0x0A0B0C0DL, payload));
+
+        RtpPacket packet = RtpPacket.view(datagram);
+
+        assertEquals(8, packet.getPayloadType());
+        assertEquals(4321, packet.getSequenceNumber());
+        assertEquals(0x0A0B0C0DL, packet.getTimestamp());
+        assertEquals(2, datagram.refCnt());
+        assertEquals(0, datagram.readerIndex());
+        ByteBuf payloadBuffer = packet.payloadBuffer();
+        assertEquals(payload.length, payloadBuffer.readableBytes());
+        datagram.setByte(12, 0x61);
+        assertEquals(0x61, payloadBuffer.getByte(payloadBuffer.readerIndex()));
+
+        assertTrue(packet.release());
+        assertEquals(1, datagram.refCnt());
+        datagram.release();
+    }
+
+    @Test
+    void viewRejectsMalformedPacketsWithoutRetainingDatagram() {
+        ByteBuf datagram = Unpooled.wrappedBuffer(new byte[11]);
+
+        assertThrows(IllegalArgumentException.class, () -> RtpPacket.view(datagram));
+        assertEquals(1, datagram.refCnt());
+    }
+
     @Test
     void ofDefensivelyCopiesInputPayload() {
         byte[] payload = new byte[]{0x41, 0x42};
@@ -0,0 +1,77 @@
+package com.cfsl.easymrcp.rtp;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RtpPortAllocatorTests {
+
+    @Test
+    void allocate_shouldHandOutEvenPortsWithRtcpInsideRange() {
+        RtpPortAllocator allocator = new RtpPortAllocator(20001, 20010, 0L);
+
+        assertEquals(4, allocator.capacity());
+        for (int i = 0; i < 4; i++) {
+            int port = allocator.allocate();
+            assertEquals(0, port % 2);
+            assertTrue(port >= 20002 && port + 1 <= 20010);
+        }
+        assertThrows(IllegalStateException.class, allocator::allocate);
+        assertEquals(1L, allocator.stats().get("exhausted"));
+    }
+
+    @Test
+    void release_shouldQuarantinePortBeforeReuse() {
+        AtomicLong now = new AtomicLong(1000L);
+        RtpPortAllocator allocator = new RtpPortAllocator(20000, 20003, 500L, now::get);
+        int first = allocator.allocate();
+        int second = allocator.allocate();
+
+        allocator.release(first);
+        assertEquals(1, allocator.inUse());
+        assertEquals(1, allocator.stats().get("quarantined"));
+        assertThrows(IllegalStateException.class, allocator::allocate);
+
+        now.addAndGet(500L);
+        assertEquals(first, allocator.allocate());
+        allocator.release(second);
+        allocator.release(second);
+        assertEquals(1, allocator.inUse());
+    }
+
+    @Test
+    void allocate_shouldNeverHandOutSamePortConcurrently() throws Exception {
+        RtpPortAllocator allocator = new RtpPortAllocator(30000, 32000, 0L);
+        Set<Integer> ports = ConcurrentHashMap.newKeySet();
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] threads = new Thread[8];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < 100; i++) {
+                    assertTrue(ports.add(allocator.allocate()));
+                }
+            });
+            threads[t].start();
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(800, ports.size());
+        assertEquals(800, allocator.inUse());
+    }
+}
@@ -0,0 +1,140 @@
+package com.cfsl.easymrcp.rtp;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.DatagramPacket;
+import io.netty.channel.socket.nio.NioDatagramChannel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class SharedRtpSocketTests {
+    private EventLoopGroup group;
+    private SharedRtpSocket socket;
+    private InetSocketAddress local;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        group = new NioEventLoopGroup(1);
+        socket = new SharedRtpSocket(0, 1, false, new Bootstrap().group(group).channel(NioDatagramChannel.class));
+        // 端口0由系统分配，从注册返回的通道取实际端口
+        RecordingProcessor probe = new RecordingProcessor();
+        int port = ((InetSocketAddress) socket.register("probe", new InetSocketAddress("10.255.0.1", 1), probe)
+                .localAddress()).getPort();
+        socket.unregister("probe");
+        local = new InetSocketAddress("127.0.0.1", port);
+    }
+
+    @AfterEach
+    void tearDown() {
+        socket.close();
+        group.shutdownGracefully(0, 1, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void unknownSourceLatchesToPendingCallOnSameHost() throws Exception {
+        RecordingProcessor nated = new RecordingProcessor();
+        RecordingProcessor other = new RecordingProcessor();
+        // SDP通告的端口与实际发送端口不同
+        socket.register("call-1", new InetSocketAddress("127.0.0.1", 1), nated);
+        socket.register("call-2", new InetSocketAddress("10.255.0.2", 40000), other);
+
+        try (DatagramChannel sender = DatagramChannel.open()) {
+            send(sender, 1, 0x1111);
+            send(sender, 2, 0x1111);
+
+            assertEquals(1, nated.received.poll(2, TimeUnit.SECONDS));
+            assertEquals(2, nated.received.poll(2, TimeUnit.SECONDS));
+        }
+        assertNull(other.received.poll());
+        assertEquals(0, socket.getUnmatchedDropCount());
+    }
+
+    @Test
+    void ambiguousUnknownSourceIsDroppedAndCounted() throws Exception {
+        RecordingProcessor first = new RecordingProcessor();
+        RecordingProcessor second = new RecordingProcessor();
+        socket.register("call-1", new InetSocketAddress("10.255.0.2", 40000), first);
+        socket.register("call-2", new InetSocketAddress("10.255.0.3", 40000), second);
+
+        try (DatagramChannel sender = DatagramChannel.open()) {
+            send(sender, 1, 0x2222);
+            long deadline = System.currentTimeMillis() + 2000;
+            while (socket.getUnmatchedDropCount() == 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(5);
+            }
+        }
+        assertEquals(1, socket.getUnmatchedDropCount());
+        assertNull(first.received.poll());
+        assertNull(second.received.poll());
+    }
+
+    @Test
+    void knownSsrcFromForeignHostDoesNotMoveRoute() throws Exception {
+        RecordingProcessor call = new RecordingProcessor();
+        socket.register("call-1", new InetSocketAddress("127.0.0.1", 1), call);
+
+        try (DatagramChannel owner = DatagramChannel.open();
+             DatagramChannel rebound = DatagramChannel.open();
+             DatagramChannel foreign = DatagramChannel.open()) {
+            owner.bind(new InetSocketAddress("127.0.0.1", 0));
+            foreign.bind(new InetSocketAddress("127.0.0.2", 0));
+            send(owner, 1, 0x3333);
+            assertEquals(1, call.received.poll(2, TimeUnit.SECONDS));
+
+            // 其他主机带着同一个SSRC，丢弃且不改变远端地址
+            send(foreign, 2, 0x3333);
+            long deadline = System.currentTimeMillis() + 2000;
+            while (socket.getUnmatchedDropCount() == 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(5);
+            }
+            assertEquals(1, socket.getUnmatchedDropCount());
+            send(owner, 3, 0x3333);
+            assertEquals(3, call.received.poll(2, TimeUnit.SECONDS));
+
+            // 同一主机换了端口（NAT重映射）仍按SSRC找回
+            rebound.bind(new InetSocketAddress("127.0.0.1", 0));
+            send(rebound, 4, 0x3333);
+            assertEquals(4, call.received.poll(2, TimeUnit.SECONDS));
+        }
+        assertNull(call.received.poll());
+        assertEquals(1, socket.getUnmatchedDropCount());
+    }
+
+    private void send(DatagramChannel sender, int sequenceNumber, int ssrc) throws Exception {
+        ByteBuffer rtp = ByteBuffer.allocate(12 + 4);
+        rtp.put((byte) 0x80).put((byte) AudioCodecUtil.PT_PCMA).putShort((short) sequenceNumber)
+                .putInt(sequenceNumber * 160).putInt(ssrc).putInt(0);
+        rtp.flip();
+        sender.send(rtp, local);
+    }
+
+    private static class RecordingProcessor extends NettyAsrRtpProcessor {
+        private final BlockingQueue<Integer> received = new LinkedBlockingQueue<>();
+
+        RecordingProcessor() {
+            super(AudioCodecUtil.PT_PCMA, 160, 20);
+        }
+
+        @Override
+        void receiveShared(ChannelHandlerContext ctx, DatagramPacket msg) {
+            received.add(msg.content().getUnsignedShort(msg.content().readerIndex() + 2));
+        }
+
+        @Override
+        void detachShared() {
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.cfsl.easymrcp.sip.handle;
+
+import com.cfsl.easymrcp.mrcp.MrcpManage;
+import com.cfsl.easymrcp.sdp.SdpMessage;
+import com.cfsl.easymrcp.sip.SipSession;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HandleSipInitTests {
+
+    @Test
+    void awaitClientConnection_shouldCompleteWhenClientConnectsLater() {
+        MrcpManage mrcpManage = new MrcpManage();
+
+        CompletableFuture<Void> pending = mrcpManage.awaitClientConnection("call-1");
+        assertFalse(pending.isDone());
+
+        mrcpManage.updateConnection("call-1", "funasr");
+
+        assertTrue(pending.isDone());
+        assertEquals("funasr", mrcpManage.getAsrEngineName("call-1"));
+    }
+
+    @Test
+    void awaitClientConnection_shouldBeCompletedWhenClientAlreadyConnected() {
+        MrcpManage mrcpManage = new MrcpManage();
+        mrcpManage.updateConnection("call-1", null);
+
+        assertTrue(mrcpManage.awaitClientConnection("call-1").isDone());
+    }
+
+    @Test
+    void initAsrAndTtsAsync_shouldSend486AfterClientConnectTimeout() throws Exception {
+        MrcpManage mrcpManage = new MrcpManage();
+        CountingHandleError handleError = new CountingHandleError();
+        HandleSipInit handleSipInit = handleSipInit(mrcpManage, handleError, 50L);
+        try {
+            CompletableFuture<SdpMessage> future = handleSipInit.initAsrAndTtsAsync(null, new SipSession(), "call-1");
+
+            ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(2, TimeUnit.SECONDS));
+            assertInstanceOf(TimeoutException.class, e.getCause());
+            assertEquals(1, handleError.sent486.get());
+            assertFalse(mrcpManage.containsCallId("call-1"));
+        } finally {
+            handleSipInit.destroy();
+        }
+    }
+
+    @Test
+    void initAsrAndTtsAsync_shouldSkipMediaSetupWhenCancelledBeforeClientConnects() throws Exception {
+        MrcpManage mrcpManage = new MrcpManage();
+        HandleSipInit handleSipInit = handleSipInit(mrcpManage, new CountingHandleError(), 5000L);
+        try {
+            SipSession session = new SipSession();
+            CompletableFuture<SdpMessage> future = handleSipInit.initAsrAndTtsAsync(null, session, "call-1");
+            session.setCancelled(true);
+            mrcpManage.updateConnection("call-1", null);
+
+            ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(2, TimeUnit.SECONDS));
+            assertInstanceOf(CancellationException.class, e.getCause());
+            assertFalse(mrcpManage.containsCallId("call-1"));
+        } finally {
+            handleSipInit.destroy();
+        }
+    }
+
+    @Test
+    void initAsrAndTtsAsync_shouldReleaseCallWhenCancelledDuringMediaSetup() throws Exception {
+        MrcpManage mrcpManage = new MrcpManage();
+        AtomicInteger setups = new AtomicInteger();
+        HandleSipInit handleSipInit = new HandleSipInit() {
+            @Override
+            public SdpMessage initAsrAndTts(SdpMessage sdpMessage, SipSession session, String customHeaderUUID) {
+                setups.incrementAndGet();
+                mrcpManage.addNewTts(customHeaderUUID, null);
+                // 媒体初始化期间收到CANCEL
+                session.setCancelled(true);
+                return sdpMessage;
+            }
+        };
+        handleSipInit.mrcpManage = mrcpManage;
+        handleSipInit.handleError = new CountingHandleError();
+        ReflectionTestUtils.setField(handleSipInit, "clientConnectTimeoutMs", 5000L);
+        ReflectionTestUtils.setField(handleSipInit, "setupPoolSize", 1);
+        handleSipInit.init();
+        try {
+            mrcpManage.updateConnection("call-1", null);
+            CompletableFuture<SdpMessage> future = handleSipInit.initAsrAndTtsAsync(null, new SipSession(), "call-1");
+
+            ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(2, TimeUnit.SECONDS));
+            assertInstanceOf(CancellationException.class, e.getCause());
+            assertEquals(1, setups.get());
+            assertFalse(mrcpManage.containsCallId("call-1"));
+        } finally {
+            handleSipInit.destroy();
+        }
+    }
+
+    private static HandleSipInit handleSipInit(MrcpManage mrcpManage, HandleError handleError, long timeoutMs) {
+        HandleSipInit handleSipInit = new HandleSipInit();
+        handleSipInit.mrcpManage = mrcpManage;
+        handleSipInit.handleError = handleError;
+        ReflectionTestUtils.setField(handleSipInit, "clientConnectTimeoutMs", timeoutMs);
+        ReflectionTestUtils.setField(handleSipInit, "setupPoolSize", 1);
+        handleSipInit.init();
+        return handleSipInit;
+    }
+
+    private static class CountingHandleError extends HandleError {
+        private final AtomicInteger sent486 = new AtomicInteger();
+
+        @Override
+        public void send486(SipSession session) {
+            sent486.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.cfsl.easymrcp.tcp;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NettyMessageCodecTests {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void binaryFrame_shouldDecodeEventAndSwitchRepliesToBinary() throws Exception {
+        EmbeddedChannel channel = newChannel();
+        MrcpEvent event = new MrcpEvent("call-1", "evt-1", TcpEventType.Speak, "你好，EasyMrcp");
+        ByteBuf frame = Unpooled.buffer();
+        MrcpBinaryCodec.writeFrame(event, frame, objectMapper);
+
+        // 拆成两段写入，验证半包等待
+        channel.writeInbound(frame.readRetainedSlice(7));
+        assertNull(channel.readInbound());
+        channel.writeInbound(frame);
+        MrcpEvent decoded = channel.readInbound();
+        assertEquals(event, decoded);
+        assertTrue(channel.attr(MrcpBinaryCodec.BINARY_MODE).get());
+
+        channel.writeOutbound(TcpResponse.success("call-1", "success"));
+        ByteBuf out = channel.readOutbound();
+        assertEquals(MrcpBinaryCodec.BINARY_MAGIC, out.getInt(0));
+        assertEquals(out.readableBytes() - MrcpBinaryCodec.HEADER_LENGTH, out.getInt(4));
+        TcpResponse response = (TcpResponse) MrcpBinaryCodec.read(out.skipBytes(MrcpBinaryCodec.HEADER_LENGTH));
+        out.release();
+        assertEquals("call-1", response.getId());
+        assertEquals(200, response.getCode());
+        assertEquals("Success", response.getMessage());
+        assertEquals("success", response.getData());
+        assertFalse(channel.finish());
+    }
+
+    @Test
+    void jsonFrame_shouldStayJsonForStringsAndObjects() throws Exception {
+        EmbeddedChannel channel = newChannel();
+        String json = "{\"id\":\"call-1\",\"event\":\"Speak\",\"data\":\"你好\"}";
+        ByteBuf frame = Unpooled.buffer();
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        frame.writeInt(MrcpBinaryCodec.JSON_MAGIC).writeInt(body.length).writeBytes(body);
+
+        channel.writeInbound(frame);
+        assertEquals(json, channel.readInbound());
+        assertFalse(channel.attr(MrcpBinaryCodec.BINARY_MODE).get());
+
+        channel.writeOutbound(new MrcpEvent("call-1", null, TcpEventType.SpeakComplete, "{\"status\":\"completed\"}"));
+        ByteBuf out = channel.readOutbound();
+        assertEquals(MrcpBinaryCodec.JSON_MAGIC, out.readInt());
+        int bodyLength = out.readInt();
+        assertEquals(out.readableBytes(), bodyLength);
+        MrcpEvent decoded = objectMapper.readValue(out.toString(StandardCharsets.UTF_8), MrcpEvent.class);
+        out.release();
+        assertEquals("SpeakComplete", decoded.getEvent());
+        assertEquals("{\"status\":\"completed\"}", decoded.getData());
+        assertFalse(channel.finish());
+    }
+
+    @Test
+    void binaryFrame_shouldDropCorruptBodyAndKeepReading() throws Exception {
+        EmbeddedChannel channel = newChannel();
+        ByteBuf corrupt = Unpooled.buffer();
+        corrupt.writeInt(MrcpBinaryCodec.BINARY_MAGIC).writeInt(5).writeByte(MrcpBinaryCodec.TYPE_EVENT).writeInt(100);
+        MrcpBinaryCodec.writeFrame(new MrcpEvent("call-2", null, TcpEventType.Interrupt, null), corrupt, objectMapper);
+
+        channel.writeInbound(corrupt);
+        MrcpEvent decoded = channel.readInbound();
+        assertEquals("call-2", decoded.getId());
+        assertNull(decoded.getData());
+        assertNull(channel.readInbound());
+        assertFalse(channel.finish());
+    }
+
+    @Test
+    void binaryResponse_shouldSerializeObjectDataWithObjectMapper() throws Exception {
+        ByteBuf frame = Unpooled.buffer();
+        MrcpBinaryCodec.writeFrame(TcpResponse.success("call-3", new ResponseData("ok")), frame, objectMapper);
+        String expected = objectMapper.writeValueAsString(new ResponseData("ok"));
+
+        TcpResponse response = (TcpResponse) MrcpBinaryCodec.read(frame.skipBytes(MrcpBinaryCodec.HEADER_LENGTH));
+        frame.release();
+
+        // 与JSON消息一样按Jackson注解序列化
+        assertEquals("{\"status_text\":\"ok\"}", expected);
+        assertEquals(expected, response.getData());
+    }
+
+    private EmbeddedChannel newChannel() {
+        return new EmbeddedChannel(new NettyMessageDecoder(), new NettyMessageEncoder(objectMapper));
+    }
+
+    static class ResponseData {
+        @JsonProperty("status_text")
+        private final String statusText;
+
+        ResponseData(String statusText) {
+            this.statusText = statusText;
+        }
+
+        public String getStatusText() {
+            return statusText;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.cfsl.easymrcp.tcp;
+
+import com.cfsl.easymrcp.mrcp.CallSerialExecutor;
+import com.cfsl.easymrcp.mrcp.MrcpManage;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class NettyTcpServerHandlerTests {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private CallSerialExecutor executor;
+    private MrcpManage mrcpManage;
+    private EmbeddedChannel channel;
+
+    @BeforeEach
+    void setUp() {
+        executor = new CallSerialExecutor(4, 60, 256, 100);
+        mrcpManage = new MrcpManage();
+        ReflectionTestUtils.setField(mrcpManage, "mrcpEventExecutor", executor);
+        mrcpManage.addNewTts("call-1", null);
+        mrcpManage.addNewTts("call-2", null);
+        NettyTcpServerHandler handler = new NettyTcpServerHandler(objectMapper,
+                new NettyConnectionManager(), mrcpManage, null);
+        // 连接建立后再加入处理器，跳过channelActive中的远端地址日志
+        channel = new EmbeddedChannel();
+        channel.pipeline().addLast(handler);
+    }
+
+    @AfterEach
+    void tearDown() {
+        channel.pipeline().remove(NettyTcpServerHandler.class);
+        channel.finishAndReleaseAll();
+        executor.shutdown();
+    }
+
+    @Test
+    void channelRead_shouldNotBlockOtherCallsWhenOneCallIsBusy() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        executor.execute("call-1", () -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        channel.writeInbound(echo("call-1", "first"));
+        channel.writeInbound(echo("call-2", "second"));
+
+        TcpResponse response = awaitResponse();
+        assertNotNull(response);
+        assertEquals("call-2", response.getId());
+        assertEquals("second", response.getData());
+        assertNull(channel.readOutbound());
+
+        release.countDown();
+        response = awaitResponse();
+        assertNotNull(response);
+        assertEquals("call-1", response.getId());
+        assertEquals("first", response.getData());
+    }
+
+    @Test
+    void channelRead_shouldReplyInOrderForSameCall() throws Exception {
+        channel.writeInbound(echo("call-1", "a"));
+        channel.writeInbound(echo("call-1", "b"));
+
+        assertEquals("a", awaitResponse().getData());
+        assertEquals("b", awaitResponse().getData());
+        assertEquals(0L, mrcpManage.getMrcpEventExecutor().stats().get("rejected"));
+    }
+
+    private String echo(String id, String data) throws Exception {
+        MrcpEvent event = new MrcpEvent();
+        event.setId(id);
+        event.setEvent("echo");
+        event.setData(data);
+        return objectMapper.writeValueAsString(event);
+    }
+
+    private TcpResponse awaitResponse() throws Exception {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (System.currentTimeMillis() < deadline) {
+            TcpResponse outbound = channel.readOutbound();
+            if (outbound != null) {
+                return outbound;
+            }
+            Thread.sleep(5);
+        }
+        return null;
+    }
+}
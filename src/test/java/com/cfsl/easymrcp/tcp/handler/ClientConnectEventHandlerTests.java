@@ -19,6 +19,6 @@ class ClientConnectEventHandlerTests {
 
         handler.handleEvent(event, mock(TcpClientNotifier.class));
 
-        verify(mrcpManage).updateConnection("call-1", null, "funasr");
+        verify(mrcpManage).updateConnection("call-1", "funasr");
     }
 }
@@ -1,8 +1,9 @@
 package com.cfsl.easymrcp.tts;
 
+import com.cfsl.easymrcp.common.CachedAudio;
 import com.cfsl.easymrcp.common.EMConstant;
 import com.cfsl.easymrcp.rtp.AudioCodecUtil;
-import com.cfsl.easymrcp.rtp.NettyAudioRingBuffer;
+import com.cfsl.easymrcp.rtp.ChunkedAudioQueue;
 import com.cfsl.easymrcp.tts.scheduler.TtsProcessScheduler;
 import com.cfsl.easymrcp.tts.scheduler.TtsRtpScheduler;
 import io.netty.buffer.ByteBuf;
@@ -14,6 +15,7 @@ import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class NettyTtsRtpProcessorTests {
@@ -21,16 +23,17 @@ class NettyTtsRtpProcessorTests {
     @Test
     void processOnce_shouldEncodeAndAppendEndFlag() throws Exception {
         NettyTtsRtpProcessor processor = new NettyTtsRtpProcessor("127.0.0.1", 9000, AudioCodecUtil.PT_PCMA, EMConstant.VOIP_SAMPLES_PER_FRAME, 20);
-        byte[] data = buildPcmWithEndFlag();
+        byte[] data = buildRawPcm(640);
         processor.putData(data, data.length);
+        processor.putMarker(ChunkedAudioQueue.Marker.END);
 
         processor.processOnce();
 
         ByteBuf output = outputBuffer(processor).readAll();
         try {
-            assertTrue(output.readableBytes() >= 2);
-            assertEquals(TTSConstant.TTS_END_BYTE, output.getByte(output.readableBytes() - 2));
-            assertEquals(TTSConstant.TTS_END_BYTE, output.getByte(output.readableBytes() - 1));
+            assertEquals(320, output.readableBytes());
+            assertEquals(ChunkedAudioQueue.Marker.END, outputBuffer(processor).pollMarker());
+            assertTrue(inputBuffer(processor).isEmpty());
         } finally {
             output.release();
             processor.releaseResources();
@@ -40,8 +43,9 @@ class NettyTtsRtpProcessorTests {
     @Test
     void processOnce_shouldPassThroughPcmWhenSessionUsesL16() throws Exception {
         NettyTtsRtpProcessor processor = new NettyTtsRtpProcessor("127.0.0.1", 9005, 97, EMConstant.VOIP_L16_BYTES_PER_FRAME, 20);
-        byte[] data = buildPcmWithEndFlag();
+        byte[] data = buildRawPcm(640);
         processor.putData(data, data.length);
+        processor.putMarker(ChunkedAudioQueue.Marker.END);
 
         processor.processOnce();
 
@@ -51,6 +55,7 @@ class NettyTtsRtpProcessorTests {
             output.getBytes(output.readerIndex(), actual);
             assertEquals(data.length, actual.length);
             assertArrayEquals(data, actual);
+            assertEquals(ChunkedAudioQueue.Marker.END, outputBuffer(processor).pollMarker());
         } finally {
             output.release();
             processor.releaseResources();
@@ -61,16 +66,17 @@ class NettyTtsRtpProcessorTests {
     void processOnce_shouldTrimTailBeforeEncodingWhenEndFlagArrives() throws Exception {
         NettyTtsRtpProcessor processor = new NettyTtsRtpProcessor("127.0.0.1", 9001, AudioCodecUtil.PT_PCMA, EMConstant.VOIP_SAMPLES_PER_FRAME, 20);
         processor.setSkipBytesInTheEndPacket(320);
-        byte[] data = buildPcmWithTailAndEndFlag();
+        byte[] data = buildRawPcm(960);
         processor.putData(data, data.length);
+        processor.putMarker(ChunkedAudioQueue.Marker.END);
 
         processor.processOnce();
 
         ByteBuf output = outputBuffer(processor).readAll();
         try {
-            assertTrue(output.readableBytes() > 2);
-            assertEquals(TTSConstant.TTS_END_BYTE, output.getByte(output.readableBytes() - 2));
-            assertEquals(TTSConstant.TTS_END_BYTE, output.getByte(output.readableBytes() - 1));
+            assertEquals(320, output.readableBytes());
+            assertEquals(ChunkedAudioQueue.Marker.END, outputBuffer(processor).pollMarker());
+            assertTrue(inputBuffer(processor).isEmpty());
         } finally {
             output.release();
             processor.releaseResources();
@@ -78,25 +84,131 @@ class NettyTtsRtpProcessorTests {
     }
 
     @Test
-    void interrupt_shouldClearBothBuffersAndWriteInterruptFlagToOutput() throws Exception {
-        NettyTtsRtpProcessor processor = new NettyTtsRtpProcessor("127.0.0.1", 9002, AudioCodecUtil.PT_PCMA, EMConstant.VOIP_SAMPLES_PER_FRAME, 20);
+    void processOnce_shouldTreatMarkerLikeSamplesAsAudio() throws Exception {
+        NettyTtsRtpProcessor processor = new NettyTtsRtpProcessor("127.0.0.1", 9006, 97, EMConstant.VOIP_L16_BYTES_PER_FRAME, 20);
         byte[] data = buildRawPcm(640);
+        data[data.length - 2] = 111;
+        data[data.length - 1] = 111;
         processor.putData(data, data.length);
-        processor.interrupt();
 
-        assertEquals(0, inputBuffer(processor).getSize());
-        assertEquals(2, outputBuffer(processor).getSize());
+        processor.processOnce();
+
+        try {
+            assertEquals(0, outputBuffer(processor).getSize());
+            assertEquals(data.length, inputBuffer(processor).getSize());
+            assertNull(outputBuffer(processor).pollMarker());
+        } finally {
+            processor.releaseResources();
+        }
+    }
+
+    @Test
+    void processOnce_shouldDownsampleWholeBatchesBeforeEndFlag() throws Exception {
+        NettyTtsRtpProcessor processor = new NettyTtsRtpProcessor("127.0.0.1", 9008, 97, EMConstant.VOIP_L16_BYTES_PER_FRAME, 20);
+        processor.setReSample("downsample24kTo8k");
+        byte[] data = buildRawPcm(4800 + 1000);
+        processor.putData(data, data.length);
+
+        try {
+            processor.processOnce();
+            // 100ms 的 24kHz 输入正好得到 5 个 8kHz 帧，剩余不足一批的数据等待结束标记
+            assertEquals(5 * EMConstant.VOIP_L16_BYTES_PER_FRAME, outputBuffer(processor).getSize());
+            assertEquals(1000, inputBuffer(processor).getSize());
+
+            processor.putMarker(ChunkedAudioQueue.Marker.END);
+            processor.processOnce();
+            // 剩余 500 个采样按 3:1 抽取得到 167 个采样
+            assertEquals(5 * EMConstant.VOIP_L16_BYTES_PER_FRAME + 334, outputBuffer(processor).getSize());
+            assertTrue(inputBuffer(processor).isEmpty());
+        } finally {
+            processor.releaseResources();
+        }
+    }
+
+    @Test
+    void processOnce_shouldKeepNextUtteranceBehindEndFlag() throws Exception {
+        NettyTtsRtpProcessor processor = new NettyTtsRtpProcessor("127.0.0.1", 9007, 97, EMConstant.VOIP_L16_BYTES_PER_FRAME, 20);
+        byte[] first = buildRawPcm(640);
+        byte[] second = buildRawPcm(320);
+        processor.putData(first, first.length);
+        processor.putMarker(ChunkedAudioQueue.Marker.END);
+        processor.putData(second, second.length);
+
+        processor.processOnce();
 
         ByteBuf output = outputBuffer(processor).readAll();
         try {
-            assertEquals(TTSConstant.TTS_INTERRUPT_BYTE, output.getByte(0));
-            assertEquals(TTSConstant.TTS_INTERRUPT_BYTE, output.getByte(1));
+            assertEquals(first.length, output.readableBytes());
+            assertEquals(ChunkedAudioQueue.Marker.END, outputBuffer(processor).pollMarker());
+            assertEquals(second.length, inputBuffer(processor).getSize());
         } finally {
             output.release();
             processor.releaseResources();
         }
     }
 
+    @Test
+    void putCachedAudio_shouldQueuePreEncodedPayloadWithoutProcessing() throws Exception {
+        NettyTtsRtpProcessor processor = new NettyTtsRtpProcessor("127.0.0.1", 9006, AudioCodecUtil.PT_PCMA, EMConstant.VOIP_SAMPLES_PER_FRAME, 20);
+        processor.setSkipBytesInTheEndPacket(320);
+        byte[] data = buildRawPcm(960);
+        CachedAudio audio = new CachedAudio(data, 1);
+
+        processor.putCachedAudio(audio);
+        processor.putMarker(ChunkedAudioQueue.Marker.END);
+
+        try {
+            assertEquals(320, outputBuffer(processor).getSize());
+            assertSame(audio.encoded(AudioCodecUtil.PT_PCMA), audio.encoded(AudioCodecUtil.PT_PCMA));
+            processor.processOnce();
+            ByteBuf output = outputBuffer(processor).readAll();
+            try {
+                byte[] actual = new byte[output.readableBytes()];
+                output.getBytes(output.readerIndex(), actual);
+                byte[] expected = AudioCodecUtil.encode(java.util.Arrays.copyOf(data, 640), AudioCodecUtil.PT_PCMA);
+                assertArrayEquals(expected, actual);
+            } finally {
+                output.release();
+            }
+            assertEquals(ChunkedAudioQueue.Marker.END, outputBuffer(processor).pollMarker());
+        } finally {
+            processor.releaseResources();
+        }
+    }
+
+    @Test
+    void putCachedAudio_shouldQueueBehindPendingInput() throws Exception {
+        NettyTtsRtpProcessor processor = new NettyTtsRtpProcessor("127.0.0.1", 9007, AudioCodecUtil.PT_PCMA, EMConstant.VOIP_SAMPLES_PER_FRAME, 20);
+        byte[] pending = buildRawPcm(100);
+        processor.putData(pending, pending.length);
+
+        processor.putCachedAudio(new CachedAudio(buildRawPcm(640), 1));
+
+        try {
+            assertEquals(0, outputBuffer(processor).getSize());
+            assertEquals(740, inputBuffer(processor).getSize());
+        } finally {
+            processor.releaseResources();
+        }
+    }
+
+    @Test
+    void interrupt_shouldClearBothBuffersAndWriteInterruptFlagToOutput() throws Exception {
+        NettyTtsRtpProcessor processor = new NettyTtsRtpProcessor("127.0.0.1", 9002, AudioCodecUtil.PT_PCMA, EMConstant.VOIP_SAMPLES_PER_FRAME, 20);
+        byte[] data = buildRawPcm(640);
+        processor.putData(data, data.length);
+        processor.interrupt();
+
+        try {
+            assertEquals(0, inputBuffer(processor).getSize());
+            assertEquals(0, outputBuffer(processor).getSize());
+            assertEquals(ChunkedAudioQueue.Marker.INTERRUPT, outputBuffer(processor).pollMarker());
+            assertTrue(outputBuffer(processor).isEmpty());
+        } finally {
+            processor.releaseResources();
+        }
+    }
+
     @Test
     void startRtpSender_shouldRegisterBothSchedulers() throws Exception {
         NettyTtsRtpProcessor processor = new NettyTtsRtpProcessor("127.0.0.1", 9003, AudioCodecUtil.PT_PCMA, EMConstant.VOIP_SAMPLES_PER_FRAME, 20);
@@ -138,24 +250,6 @@ class NettyTtsRtpProcessorTests {
         }
     }
 
-    private byte[] buildPcmWithEndFlag() {
-        byte[] pcm = buildRawPcm(640);
-        byte[] result = new byte[pcm.length + 2];
-        System.arraycopy(pcm, 0, result, 0, pcm.length);
-        result[result.length - 2] = TTSConstant.TTS_END_BYTE;
-        result[result.length - 1] = TTSConstant.TTS_END_BYTE;
-        return result;
-    }
-
-    private byte[] buildPcmWithTailAndEndFlag() {
-        byte[] pcm = buildRawPcm(960);
-        byte[] result = new byte[pcm.length + 2];
-        System.arraycopy(pcm, 0, result, 0, pcm.length);
-        result[result.length - 2] = TTSConstant.TTS_END_BYTE;
-        result[result.length - 1] = TTSConstant.TTS_END_BYTE;
-        return result;
-    }
-
     private byte[] buildRawPcm(int size) {
         byte[] data = new byte[size];
         for (int i = 0; i < size; i += 2) {
@@ -187,12 +281,12 @@ class NettyTtsRtpProcessorTests {
         field.set(target, value);
     }
 
-    private NettyAudioRingBuffer inputBuffer(NettyTtsRtpProcessor processor) {
-        return processor.getInputRingBuffer();
+    private ChunkedAudioQueue inputBuffer(NettyTtsRtpProcessor processor) {
+        return processor.getInputQueue();
     }
 
-    private NettyAudioRingBuffer outputBuffer(NettyTtsRtpProcessor processor) {
-        return processor.getOutputRingBuffer();
+    private ChunkedAudioQueue outputBuffer(NettyTtsRtpProcessor processor) {
+        return processor.getOutputQueue();
     }
 
     private static class RecordingProcessScheduler extends TtsProcessScheduler {
@@ -2,7 +2,11 @@ package com.cfsl.easymrcp.tts;
 
 import com.cfsl.easymrcp.common.AudioCacheService;
 import com.cfsl.easymrcp.common.CachedAudio;
+import com.cfsl.easymrcp.common.TtsResultCache;
+import com.cfsl.easymrcp.rtp.ChunkedAudioQueue;
+import io.netty.buffer.ByteBufAllocator;
 import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.util.Collections;
 import java.util.List;
@@ -42,6 +46,47 @@ class TtsProcessorAudioCacheTest {
         assertEquals("回退文本", engine.lastText);
     }
 
+    @Test
+    void repeatedLiveTextIsPlayedFromResultCache() {
+        TtsResultCache resultCache = new TtsResultCache();
+        ReflectionTestUtils.setField(resultCache, "enabled", true);
+        ReflectionTestUtils.setField(resultCache, "maxMb", 1);
+        ReflectionTestUtils.setField(resultCache, "maxEntryKb", 64);
+        resultCache.init();
+        TtsProcessor processor = new TtsProcessor(new DirectExecutor(), new StubCache(true), resultCache);
+
+        SynthesizingEngine first = new SynthesizingEngine();
+        processor.createAndSpeak(first, new TtsRequest("请稍等", null));
+        FakeEngine second = new FakeEngine();
+        processor.createAndSpeak(second, new TtsRequest("请稍等", null));
+
+        assertEquals(1, first.speakCount);
+        assertFalse(first.isCacheHit());
+        assertTrue(second.isCacheHit());
+        assertEquals(0, second.speakCount);
+        assertEquals(1, second.playCount);
+        assertEquals(3L, resultCache.stats().get("charsSaved"));
+    }
+
+    @Test
+    void failedLiveSynthesisIsNotCached() {
+        TtsResultCache resultCache = new TtsResultCache();
+        ReflectionTestUtils.setField(resultCache, "enabled", true);
+        ReflectionTestUtils.setField(resultCache, "maxMb", 1);
+        ReflectionTestUtils.setField(resultCache, "maxEntryKb", 64);
+        resultCache.init();
+        TtsProcessor processor = new TtsProcessor(new DirectExecutor(), new StubCache(true), resultCache);
+
+        SynthesizingEngine failed = new SynthesizingEngine();
+        failed.fail = true;
+        processor.createAndSpeak(failed, new TtsRequest("请稍等", null));
+        FakeEngine second = new FakeEngine();
+        processor.createAndSpeak(second, new TtsRequest("请稍等", null));
+
+        assertFalse(second.isCacheHit());
+        assertEquals(1, second.speakCount);
+    }
+
     private static class StubCache extends AudioCacheService {
         private final boolean fail;
 
@@ -80,11 +125,30 @@ class TtsProcessorAudioCacheTest {
         }
 
         @Override
-        public void playPcm(byte[] pcm) {
+        public void playCached(CachedAudio audio) {
             playCount++;
         }
     }
 
+    private static class SynthesizingEngine extends FakeEngine {
+        boolean fail;
+
+        SynthesizingEngine() {
+            setTtsHandler(new TtsHandler());
+            setPreloadQueue(new ChunkedAudioQueue(ByteBufAllocator.DEFAULT));
+        }
+
+        @Override
+        public void speak(String text) {
+            super.speak(text);
+            putAudioData(new byte[] {1, 2, 3, 4}, 4);
+            if (fail) {
+                markSynthesisFailed();
+            }
+            putEndMarker();
+        }
+    }
+
     private static class DirectExecutor extends AbstractExecutorService {
         private boolean shutdown;
 
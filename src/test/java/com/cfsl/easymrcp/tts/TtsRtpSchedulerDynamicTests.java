@@ -6,6 +6,7 @@ import com.cfsl.easymrcp.tts.scheduler.TtsRtpScheduler;
 import org.junit.jupiter.api.Test;
 
 import java.lang.reflect.Field;
+import java.util.List;
 import java.util.Map;
 import java.util.function.BooleanSupplier;
 
@@ -62,6 +63,32 @@ class TtsRtpSchedulerDynamicTests {
         }
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    void stats_shouldReportWorkerLatencyAndPerCallFrameCounts() throws Exception {
+        TtsRtpScheduler scheduler = newScheduler(4, 0.8d, 1000L, 0, 4, 20);
+        NettyTtsRtpProcessor processor = newProcessor(9305);
+        processor.setCallId("call-1");
+        try {
+            scheduler.register(processor, result -> { });
+            assertTrue(waitUntil(() -> {
+                List<Map<String, Object>> workers = (List<Map<String, Object>>) scheduler.stats(true).get("workers");
+                return !workers.isEmpty() && (Long) ((Map<String, Object>) workers.get(0).get("sendInterval")).get("count") >= 2L;
+            }, 1000));
+
+            Map<String, Object> worker = ((List<Map<String, Object>>) scheduler.stats(true).get("workers")).get(0);
+            Map<String, Object> lateness = (Map<String, Object>) worker.get("lateness");
+            assertTrue((Long) lateness.get("count") >= 3L);
+            Map<String, Object> task = ((List<Map<String, Object>>) worker.get("taskStats")).get(0);
+            assertEquals("call-1", task.get("callId"));
+            assertEquals(0L, task.get("audioFrames"));
+            assertTrue((Long) task.get("silenceFrames") >= 3L);
+        } finally {
+            scheduler.shutdown();
+            processor.releaseResources();
+        }
+    }
+
     private TtsRtpScheduler newScheduler(int workerCapacity,
                                          double expandThreshold,
                                          long idleTimeoutMs,
@@ -3,6 +3,7 @@ package com.cfsl.easymrcp.tts;
 import com.cfsl.easymrcp.common.EMConstant;
 import com.cfsl.easymrcp.mrcp.MrcpManage;
 import com.cfsl.easymrcp.rtp.AudioCodecUtil;
+import com.cfsl.easymrcp.rtp.ChunkedAudioQueue;
 import com.cfsl.easymrcp.tts.scheduler.TtsRtpScheduler;
 import com.cfsl.easymrcp.utils.SipUtils;
 import io.netty.buffer.Unpooled;
@@ -55,7 +56,7 @@ class TtsRtpSchedulerTests {
         for (int i = 0; i < twoFrames.length; i++) {
             twoFrames[i] = (byte) (i & 0x7F);
         }
-        processor.getOutputRingBuffer().write(Unpooled.wrappedBuffer(twoFrames));
+        processor.getOutputQueue().write(Unpooled.wrappedBuffer(twoFrames));
 
         Object task = createSendTask(processor, result -> {
         });
@@ -68,13 +69,12 @@ class TtsRtpSchedulerTests {
             packet.content().getBytes(12, actualPayload);
             assertEquals(EMConstant.VOIP_SAMPLES_PER_FRAME, actualPayload.length);
             assertArrayEquals(Arrays.copyOfRange(twoFrames, 0, EMConstant.VOIP_SAMPLES_PER_FRAME), actualPayload);
+            assertEquals(EMConstant.VOIP_SAMPLES_PER_FRAME, processor.getOutputQueue().getSize());
         } finally {
             packet.release();
             processor.releaseResources();
             channel.finishAndReleaseAll();
         }
-
-        assertEquals(EMConstant.VOIP_SAMPLES_PER_FRAME, processor.getOutputRingBuffer().getSize());
     }
 
     @Test
@@ -86,7 +86,7 @@ class TtsRtpSchedulerTests {
 
         byte[] partialFrame = new byte[80];
         Arrays.fill(partialFrame, (byte) 0x22);
-        processor.getOutputRingBuffer().write(Unpooled.wrappedBuffer(partialFrame));
+        processor.getOutputQueue().write(Unpooled.wrappedBuffer(partialFrame));
 
         Object task = createSendTask(processor, result -> {
         });
@@ -109,7 +109,7 @@ class TtsRtpSchedulerTests {
     }
 
     @Test
-    void rtpSendTask_shouldReplaceEndMarkerWithSilenceAndNotifyCompleted() throws Exception {
+    void rtpSendTask_shouldSendFrameUnchangedAndNotifyCompleted_whenEndMarkerFollows() throws Exception {
         setImmediateMrcpManage();
         NettyTtsRtpProcessor processor = new NettyTtsRtpProcessor("127.0.0.1", 9014, AudioCodecUtil.PT_PCMA, EMConstant.VOIP_SAMPLES_PER_FRAME, 20);
         EmbeddedChannel channel = new EmbeddedChannel();
@@ -117,9 +117,8 @@ class TtsRtpSchedulerTests {
 
         byte[] frame = new byte[EMConstant.VOIP_SAMPLES_PER_FRAME];
         Arrays.fill(frame, (byte) 0x33);
-        frame[frame.length - 2] = TTSConstant.TTS_END_BYTE;
-        frame[frame.length - 1] = TTSConstant.TTS_END_BYTE;
-        processor.getOutputRingBuffer().write(Unpooled.wrappedBuffer(frame));
+        processor.getOutputQueue().write(Unpooled.wrappedBuffer(frame));
+        processor.getOutputQueue().writeMarker(ChunkedAudioQueue.Marker.END);
 
         List<String> results = new ArrayList<>();
         CountDownLatch latch = new CountDownLatch(1);
@@ -134,9 +133,8 @@ class TtsRtpSchedulerTests {
         try {
             byte[] actualPayload = new byte[packet.content().readableBytes() - 12];
             packet.content().getBytes(12, actualPayload);
-            assertEquals(EMConstant.VOIP_SAMPLES_PER_FRAME, actualPayload.length);
-            assertEquals(TTSConstant.TTS_SILENCE_BYTE, actualPayload[actualPayload.length - 2]);
-            assertEquals(TTSConstant.TTS_SILENCE_BYTE, actualPayload[actualPayload.length - 1]);
+            assertArrayEquals(frame, actualPayload);
+            assertTrue(processor.getOutputQueue().isEmpty());
         } finally {
             packet.release();
             processor.releaseResources();
@@ -148,7 +146,7 @@ class TtsRtpSchedulerTests {
     }
 
     @Test
-    void rtpSendTask_shouldReplaceInterruptMarkerWithSilenceAndNotifyInterrupt() throws Exception {
+    void rtpSendTask_shouldSendFrameUnchangedAndNotifyInterrupt_whenInterruptMarkerFollows() throws Exception {
         setImmediateMrcpManage();
         NettyTtsRtpProcessor processor = new NettyTtsRtpProcessor("127.0.0.1", 9015, AudioCodecUtil.PT_PCMA, EMConstant.VOIP_SAMPLES_PER_FRAME, 20);
         EmbeddedChannel channel = new EmbeddedChannel();
@@ -156,9 +154,8 @@ class TtsRtpSchedulerTests {
 
         byte[] frame = new byte[EMConstant.VOIP_SAMPLES_PER_FRAME];
         Arrays.fill(frame, (byte) 0x44);
-        frame[frame.length - 2] = TTSConstant.TTS_INTERRUPT_BYTE;
-        frame[frame.length - 1] = TTSConstant.TTS_INTERRUPT_BYTE;
-        processor.getOutputRingBuffer().write(Unpooled.wrappedBuffer(frame));
+        processor.getOutputQueue().write(Unpooled.wrappedBuffer(frame));
+        processor.getOutputQueue().writeMarker(ChunkedAudioQueue.Marker.INTERRUPT);
 
         List<String> results = new ArrayList<>();
         CountDownLatch latch = new CountDownLatch(1);
@@ -173,9 +170,8 @@ class TtsRtpSchedulerTests {
         try {
             byte[] actualPayload = new byte[packet.content().readableBytes() - 12];
             packet.content().getBytes(12, actualPayload);
-            assertEquals(EMConstant.VOIP_SAMPLES_PER_FRAME, actualPayload.length);
-            assertEquals(TTSConstant.TTS_SILENCE_BYTE, actualPayload[actualPayload.length - 2]);
-            assertEquals(TTSConstant.TTS_SILENCE_BYTE, actualPayload[actualPayload.length - 1]);
+            assertArrayEquals(frame, actualPayload);
+            assertTrue(processor.getOutputQueue().isEmpty());
         } finally {
             packet.release();
             processor.releaseResources();
@@ -210,5 +206,10 @@ class TtsRtpSchedulerTests {
         public void executeTask(Runnable runnable) {
             runnable.run();
         }
+
+        @Override
+        public void executeTask(String callId, Runnable runnable) {
+            runnable.run();
+        }
     }
 }
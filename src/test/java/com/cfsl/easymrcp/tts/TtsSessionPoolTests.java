@@ -0,0 +1,101 @@
+package com.cfsl.easymrcp.tts;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TtsSessionPoolTests {
+
+    private final List<Object> closed = new ArrayList<>();
+
+    @Test
+    void borrow_shouldReuseSessionGivenBackAfterSynthesis() {
+        TtsSessionPool<Object> pool = new TtsSessionPool<>("aliyun:model:voice", 2, 60000, closed::add);
+        Object first = pool.borrow(Object::new);
+
+        pool.giveBack(first);
+
+        assertEquals(1, pool.idleCount());
+        assertSame(first, pool.borrow(Object::new));
+        assertEquals(0, pool.idleCount());
+        assertTrue(closed.isEmpty());
+    }
+
+    @Test
+    void discard_shouldCloseSessionInsteadOfPooling() {
+        TtsSessionPool<Object> pool = new TtsSessionPool<>("aliyun:model:voice", 2, 60000, closed::add);
+        Object session = pool.borrow(Object::new);
+
+        pool.discard(session);
+
+        assertEquals(0, pool.idleCount());
+        assertEquals(List.of(session), closed);
+        assertNotSame(session, pool.borrow(Object::new));
+    }
+
+    @Test
+    void giveBack_shouldCloseSessionWhenPoolIsFull() {
+        TtsSessionPool<Object> pool = new TtsSessionPool<>("aliyun:model:voice", 1, 60000, closed::add);
+        Object first = new Object();
+        Object second = new Object();
+
+        pool.giveBack(first);
+        pool.giveBack(second);
+
+        assertEquals(1, pool.idleCount());
+        assertEquals(List.of(second), closed);
+    }
+
+    @Test
+    void expiredSessions_shouldBeClosedOnBorrowAndEviction() throws Exception {
+        TtsSessionPool<Object> pool = new TtsSessionPool<>("aliyun:model:voice", 4, 50, closed::add);
+        Object first = new Object();
+        Object second = new Object();
+        pool.giveBack(first);
+        pool.giveBack(second);
+        Thread.sleep(80);
+
+        pool.evictExpired();
+        assertEquals(0, pool.idleCount());
+        assertEquals(List.of(first, second), closed);
+
+        Object third = new Object();
+        pool.giveBack(third);
+        Thread.sleep(80);
+        Object fresh = pool.borrow(Object::new);
+        assertNotSame(third, fresh);
+        assertEquals(3, closed.size());
+    }
+
+    @Test
+    void connectionManager_shouldShareSessionPoolsAndClientsByKey() {
+        TtsConnectionManager manager = new TtsConnectionManager(null);
+        ReflectionTestUtils.setField(manager, "maxIdleSessions", 2);
+        ReflectionTestUtils.setField(manager, "sessionIdleTtlMs", 60000L);
+        AtomicInteger created = new AtomicInteger();
+
+        TtsSessionPool<Object> pool = manager.sessionPool("aliyun:model:voice", closed::add);
+        assertSame(pool, manager.sessionPool("aliyun:model:voice", closed::add));
+        assertNotSame(pool, manager.sessionPool("aliyun:model:other", closed::add));
+
+        Object client = manager.sharedClient("tencent-cloud", () -> {
+            created.incrementAndGet();
+            return new Object();
+        });
+        assertSame(client, manager.sharedClient("tencent-cloud", Object::new));
+        assertEquals(1, created.get());
+
+        Object session = new Object();
+        pool.giveBack(session);
+        manager.destroy();
+        assertEquals(List.of(session), closed);
+    }
+}
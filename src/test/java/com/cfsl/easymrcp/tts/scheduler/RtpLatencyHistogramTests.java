@@ -0,0 +1,42 @@
+package com.cfsl.easymrcp.tts.scheduler;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RtpLatencyHistogramTests {
+
+    @Test
+    void percentile_shouldStayWithinBucketPrecision() {
+        RtpLatencyHistogram histogram = new RtpLatencyHistogram();
+        for (long value = 1; value <= 10_000; value++) {
+            histogram.record(value);
+        }
+
+        RtpLatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(10_000, snapshot.getTotal());
+        assertWithin(5_000, snapshot.percentile(50));
+        assertWithin(9_900, snapshot.percentile(99));
+        assertWithin(10_000, snapshot.max());
+    }
+
+    @Test
+    void minus_shouldOnlyCountValuesRecordedAfterEarlierSnapshot() {
+        RtpLatencyHistogram histogram = new RtpLatencyHistogram();
+        histogram.record(20_000);
+        RtpLatencyHistogram.Snapshot earlier = histogram.snapshot();
+        histogram.record(10);
+        histogram.record(12);
+
+        RtpLatencyHistogram.Snapshot delta = histogram.snapshot().minus(earlier);
+        assertEquals(2, delta.getTotal());
+        assertEquals(12, delta.max());
+    }
+
+    private static void assertWithin(long expected, long actual) {
+        // 每个 2 的幂区间分 16 个子桶，误差不超过 1/16
+        assertTrue(actual >= expected && actual <= expected + expected / 16,
+                "expected ~" + expected + " but was " + actual);
+    }
+}
@@ -0,0 +1,94 @@
+package com.cfsl.easymrcp.tts.scheduler;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RtpTimingWheelTests {
+    private static final long MS = 1_000_000L;
+
+    @Test
+    void expire_shouldFireOnlyDueTasksAndKeepIntervalAcrossRounds() {
+        RtpTimingWheel wheel = new RtpTimingWheel(MS, 8, 0L);
+        FakeTask task = new FakeTask("a", 20 * MS);
+        task.startAt(3 * MS);
+        wheel.schedule(task, 3 * MS);
+
+        List<Long> fired = new ArrayList<>();
+        for (long now = 0; now <= 70 * MS; now += MS) {
+            long current = now;
+            wheel.expire(now, t -> {
+                fired.add(current);
+                t.doSendOnce(current);
+                wheel.schedule(t, t.nextSendTimeNanos());
+            });
+        }
+
+        // 8 个槽只覆盖 8ms，20ms 间隔的任务需要跨圈，但仍按 3/23/43/63ms 的节拍触发
+        assertEquals(List.of(4 * MS, 24 * MS, 44 * MS, 64 * MS), fired);
+        assertEquals(84 * MS, wheel.nextExpireNanos());
+    }
+
+    @Test
+    void expire_shouldDropCanceledTasks() {
+        RtpTimingWheel wheel = new RtpTimingWheel(MS, 8, 0L);
+        FakeTask task = new FakeTask("a", 20 * MS);
+        wheel.schedule(task, 0L);
+        task.markCanceled();
+
+        assertEquals(0, wheel.expire(5 * MS, t -> { }));
+        assertEquals(0, wheel.size());
+        assertEquals(-1L, wheel.nextExpireNanos());
+    }
+
+    @Test
+    void spreadDeadline_shouldDistributeTasksAcrossInterval() {
+        RtpTimingWheel wheel = new RtpTimingWheel(MS, 64, 0L);
+        Set<Long> ticks = new HashSet<>();
+        for (int i = 0; i < 20; i++) {
+            FakeTask task = new FakeTask("t" + i, 20 * MS);
+            long deadline = wheel.spreadDeadline(0L, 20 * MS);
+            wheel.schedule(task, deadline);
+            ticks.add(deadline / MS);
+        }
+
+        assertEquals(20, ticks.size());
+        assertTrue(ticks.stream().allMatch(tick -> tick >= 0 && tick < 20));
+    }
+
+    private static class FakeTask extends AbstractRtpSendTask {
+        private final long intervalNanos;
+        private long nextSendTimeNanos;
+
+        FakeTask(String taskId, long intervalNanos) {
+            super(taskId);
+            this.intervalNanos = intervalNanos;
+        }
+
+        @Override
+        void doSendOnce(long nowNanos) {
+            nextSendTimeNanos += intervalNanos;
+        }
+
+        @Override
+        long intervalNanos() {
+            return intervalNanos;
+        }
+
+        @Override
+        long nextSendTimeNanos() {
+            return nextSendTimeNanos;
+        }
+
+        @Override
+        void startAt(long nanos) {
+            nextSendTimeNanos = nanos;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.cfsl.easymrcp.utils;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PcmResamplerTests {
+
+    @Test
+    void forConfigMapsKnownRatesAndIgnoresOthers() {
+        PcmResampler up = PcmResampler.forConfig(PcmResampler.UPSAMPLE_8K_TO_16K);
+        PcmResampler down = PcmResampler.forConfig(PcmResampler.DOWNSAMPLE_24K_TO_8K);
+
+        assertEquals(8000, up.getInputRate());
+        assertEquals(16000, up.getOutputRate());
+        assertEquals(24000, down.getInputRate());
+        assertEquals(8000, down.getOutputRate());
+        assertNull(PcmResampler.forConfig(null));
+        assertNull(PcmResampler.forConfig("none"));
+    }
+
+    @Test
+    void outputLengthFollowsRateRatio() {
+        assertEquals(320, new PcmResampler(8000, 16000).process(new byte[160]).length);
+        assertEquals(1600, new PcmResampler(24000, 8000).process(new byte[4800]).length);
+        assertEquals(640, new PcmResampler(16000, 8000).process(new byte[1280]).length);
+    }
+
+    @Test
+    void keepsDcLevelAfterFilterSettles() {
+        short[] output = samples(new PcmResampler(24000, 8000).process(constant(2400, 1000)));
+
+        for (int i = 100; i < output.length; i++) {
+            assertTrue(Math.abs(output[i] - 1000) <= 1, "sample " + i + " = " + output[i]);
+        }
+    }
+
+    @Test
+    void chunkedInputMatchesSingleCall() {
+        byte[] pcm = tone(1000, 8000, 800, 8000);
+        byte[] expected = new PcmResampler(8000, 16000).process(pcm);
+
+        PcmResampler resampler = new PcmResampler(8000, 16000);
+        ByteBuf output = Unpooled.buffer();
+        // 含奇数长度分块，验证跨调用拼接半个采样
+        int[] chunks = {33, 160, 1, 7, 320, 479, 600};
+        int offset = 0;
+        for (int chunk : chunks) {
+            ByteBuf input = Unpooled.wrappedBuffer(pcm, offset, chunk);
+            resampler.process(input, output);
+            assertEquals(0, input.readerIndex());
+            offset += chunk;
+        }
+        assertEquals(pcm.length, offset);
+
+        byte[] actual = new byte[output.readableBytes()];
+        output.readBytes(actual);
+        assertArrayEquals(expected, actual);
+    }
+
+    @Test
+    void resetDropsHistory() {
+        PcmResampler resampler = new PcmResampler(8000, 16000);
+        byte[] first = resampler.process(constant(160, 5000));
+        resampler.reset();
+        byte[] second = resampler.process(constant(160, 5000));
+
+        assertArrayEquals(first, second);
+    }
+
+    @Test
+    void downsamplingRejectsToneAboveNewNyquist() {
+        // 6kHz 在 8kHz 输出的奈奎斯特频率之上，直接抽取会混叠成 2kHz，滤波后应被压到很低
+        short[] aliased = samples(new PcmResampler(24000, 8000).process(tone(6000, 24000, 4800, 10000)));
+        short[] passed = samples(new PcmResampler(24000, 8000).process(tone(1000, 24000, 4800, 10000)));
+
+        assertTrue(rms(aliased, 200) < 100, "aliased rms " + rms(aliased, 200));
+        assertTrue(rms(passed, 200) > 6000, "passband rms " + rms(passed, 200));
+    }
+
+    private static byte[] constant(int samples, int value) {
+        byte[] pcm = new byte[samples * 2];
+        for (int i = 0; i < samples; i++) {
+            pcm[i * 2] = (byte) value;
+            pcm[i * 2 + 1] = (byte) (value >> 8);
+        }
+        return pcm;
+    }
+
+    private static byte[] tone(int frequency, int sampleRate, int samples, int amplitude) {
+        byte[] pcm = new byte[samples * 2];
+        for (int i = 0; i < samples; i++) {
+            int value = (int) Math.round(amplitude * Math.sin(2 * Math.PI * frequency * i / sampleRate));
+            pcm[i * 2] = (byte) value;
+            pcm[i * 2 + 1] = (byte) (value >> 8);
+        }
+        return pcm;
+    }
+
+    private static short[] samples(byte[] pcm) {
+        short[] samples = new short[pcm.length / 2];
+        for (int i = 0; i < samples.length; i++) {
+            samples[i] = (short) ((pcm[i * 2] & 0xFF) | (pcm[i * 2 + 1] << 8));
+        }
+        return samples;
+    }
+
+    private static double rms(short[] samples, int from) {
+        double sum = 0;
+        for (int i = from; i < samples.length; i++) {
+            sum += (double) samples[i] * samples[i];
+        }
+        return Math.sqrt(sum / (samples.length - from));
+    }
+}
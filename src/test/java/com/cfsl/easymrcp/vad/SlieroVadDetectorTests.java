@@ -1,11 +1,18 @@
 package com.cfsl.easymrcp.vad;
 
 import ai.onnxruntime.OrtException;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 import org.junit.jupiter.api.Test;
 
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
@@ -99,6 +106,37 @@ class SlieroVadDetectorTests {
         }
     }
 
+    @Test
+    void asyncByteBufPathMatchesByteArrayPath() throws Exception {
+        byte[] pcm = new byte[2048];
+        for (int i = 0; i < pcm.length / 2; i++) {
+            short sample = (short) (12000 * Math.sin(2 * Math.PI * 300 * i / 8000.0));
+            pcm[i * 2] = (byte) sample;
+            pcm[i * 2 + 1] = (byte) (sample >> 8);
+        }
+        SlieroVadDetector syncDetector = createDetector();
+        SlieroVadDetector asyncDetector = createDetector();
+        ByteBuf frame = Unpooled.wrappedBuffer(pcm);
+        try {
+            for (int round = 0; round < 5; round++) {
+                Map<String, Double> expected = new HashMap<>(syncDetector.apply(pcm, true));
+                AtomicReference<Map<String, Double>> actual = new AtomicReference<>();
+                CountDownLatch latch = new CountDownLatch(1);
+                assertTrue(asyncDetector.applyAsync(frame, true, Runnable::run, result -> {
+                    actual.set(new HashMap<>(result));
+                    latch.countDown();
+                }));
+                assertTrue(latch.await(5, TimeUnit.SECONDS));
+                assertEquals(expected, actual.get());
+                assertEquals(0, frame.readerIndex());
+            }
+        } finally {
+            frame.release();
+            syncDetector.close();
+            asyncDetector.close();
+        }
+    }
+
     private SlieroVadDetector createDetector() throws OrtException {
         return new SlieroVadDetector(MODEL_PATH, 0.4f, 0.8f, 8000, 300, 500, 0.01f, 1.4f);
     }
@@ -0,0 +1,108 @@
+package com.cfsl.easymrcp.vad;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Paths;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SlieroVadEngineTests {
+
+    private static final String MODEL_PATH = Paths.get("src/main/resources/silero_vad.onnx").toAbsolutePath().toString();
+    private static final float DELTA = 1.0e-4f;
+
+    @Test
+    void sharesOneEngineAcrossCallers() throws Exception {
+        assertSame(SlieroVadEngine.shared(MODEL_PATH), SlieroVadEngine.shared(MODEL_PATH));
+    }
+
+    @Test
+    void asyncBatchedInferenceMatchesPerCallInference() throws Exception {
+        SlieroVadEngine engine = SlieroVadEngine.shared(MODEL_PATH);
+        float[][] frames = {sine(256, 440f), sine(256, 1200f), new float[256]};
+
+        float[] expected = new float[frames.length];
+        for (int i = 0; i < frames.length; i++) {
+            expected[i] = engine.infer(new SlieroVadState(8000), frames[i], frames[i].length);
+        }
+
+        SlieroVadState[] states = {new SlieroVadState(8000), new SlieroVadState(8000), new SlieroVadState(8000)};
+        float[] actual = new float[states.length];
+        CountDownLatch latch = new CountDownLatch(states.length);
+        for (int i = 0; i < states.length; i++) {
+            int index = i;
+            assertTrue(engine.submit(states[i], frames[i], frames[i].length, new SlieroVadEngine.Listener() {
+                @Override
+                public void onSpeechProbability(float probability) {
+                    actual[index] = probability;
+                    latch.countDown();
+                }
+
+                @Override
+                public void onFailure(Throwable cause) {
+                    latch.countDown();
+                }
+            }));
+        }
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < states.length; i++) {
+            assertEquals(expected[i], actual[i], DELTA);
+            assertFalse(states[i].inFlight.get());
+        }
+    }
+
+    @Test
+    void rejectsSecondFrameWhileFirstIsInFlight() throws Exception {
+        SlieroVadEngine engine = SlieroVadEngine.shared(MODEL_PATH);
+        SlieroVadState state = new SlieroVadState(8000);
+        state.inFlight.set(true);
+
+        assertFalse(engine.submit(state, new float[256], 256, null));
+    }
+
+    @Test
+    void closeWhileInFlightLeavesStateToEngine() throws Exception {
+        SlieroVadEngine engine = SlieroVadEngine.shared(MODEL_PATH);
+        SlieroVadState idle = new SlieroVadState(8000);
+        idle.state[0] = 1f;
+        idle.close();
+        assertEquals(0f, idle.state[0]);
+
+        SlieroVadState busy = new SlieroVadState(8000);
+        busy.inFlight.set(true);
+        busy.state[0] = 1f;
+        busy.close();
+        // 在途帧的状态由推理线程重置，close不能同时写
+        assertEquals(1f, busy.state[0]);
+        assertTrue(busy.closed);
+
+        SlieroVadState submitted = new SlieroVadState(8000);
+        assertTrue(engine.submit(submitted, sine(256, 440f), 256, null));
+        submitted.close();
+        long deadline = System.currentTimeMillis() + 5000;
+        while (submitted.inFlight.get() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertFalse(submitted.inFlight.get());
+        for (float value : submitted.state) {
+            assertEquals(0f, value);
+        }
+        for (float value : submitted.context) {
+            assertEquals(0f, value);
+        }
+    }
+
+    private static float[] sine(int samples, float frequency) {
+        float[] data = new float[samples];
+        for (int i = 0; i < samples; i++) {
+            data[i] = (float) (0.5 * Math.sin(2 * Math.PI * frequency * i / 8000.0));
+        }
+        return data;
+    }
+}
@@ -0,0 +1,194 @@
+package com.cfsl.easymrcp.ws;
+
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.handler.codec.http.FullHttpRequest;
+import io.netty.handler.codec.http.HttpObjectAggregator;
+import io.netty.handler.codec.http.HttpServerCodec;
+import io.netty.handler.codec.http.websocketx.BinaryWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.CloseWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.TextWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.WebSocketFrame;
+import io.netty.handler.codec.http.websocketx.WebSocketServerProtocolHandler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.net.InetSocketAddress;
+import java.util.Collections;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WsClientManagerTests {
+
+    private EventLoopGroup serverGroup;
+    private Channel serverChannel;
+    private int port;
+    private final BlockingQueue<String> serverHeaders = new LinkedBlockingQueue<>();
+    private WsClientManager manager;
+
+    @BeforeEach
+    void startServer() throws Exception {
+        serverGroup = new NioEventLoopGroup(1);
+        serverChannel = new ServerBootstrap()
+                .group(serverGroup)
+                .channel(NioServerSocketChannel.class)
+                .childHandler(new ChannelInitializer<SocketChannel>() {
+                    @Override
+                    protected void initChannel(SocketChannel ch) {
+                        ch.pipeline().addLast(new HttpServerCodec());
+                        ch.pipeline().addLast(new HttpObjectAggregator(65536));
+                        ch.pipeline().addLast(new ChannelInboundHandlerAdapter() {
+                            @Override
+                            public void channelRead(ChannelHandlerContext ctx, Object msg) {
+                                if (msg instanceof FullHttpRequest) {
+                                    serverHeaders.add(String.valueOf(((FullHttpRequest) msg).headers().get("Authorization")));
+                                }
+                                ctx.fireChannelRead(msg);
+                            }
+                        });
+                        ch.pipeline().addLast(new WebSocketServerProtocolHandler("/asr"));
+                        ch.pipeline().addLast(new EchoHandler());
+                    }
+                })
+                .bind(new InetSocketAddress("127.0.0.1", 0)).sync().channel();
+        port = ((InetSocketAddress) serverChannel.localAddress()).getPort();
+
+        manager = new WsClientManager();
+        ReflectionTestUtils.setField(manager, "nettyThreads", 1);
+        ReflectionTestUtils.setField(manager, "transportName", "nio");
+        ReflectionTestUtils.setField(manager, "connectTimeoutMs", 2000);
+        ReflectionTestUtils.setField(manager, "handshakeTimeoutMs", 500L);
+        ReflectionTestUtils.setField(manager, "closeTimeoutMs", 2000L);
+        ReflectionTestUtils.setField(manager, "maxMessageBytes", 65536);
+        manager.init();
+    }
+
+    @AfterEach
+    void stopServer() {
+        manager.destroy();
+        serverChannel.close().syncUninterruptibly();
+        serverGroup.shutdownGracefully(0, 1, TimeUnit.SECONDS).syncUninterruptibly();
+    }
+
+    @Test
+    void connect_shouldSendHeadersAndExchangeTextAndBinaryMessages() throws Exception {
+        RecordingCodec codec = new RecordingCodec();
+        WsConnection connection = manager.connect("ws://127.0.0.1:" + port + "/asr",
+                Collections.singletonMap("Authorization", "Bearer test"), codec);
+
+        assertEquals("open", codec.poll());
+        assertEquals("Bearer test", serverHeaders.poll(2, TimeUnit.SECONDS));
+        assertTrue(connection.isOpen());
+
+        assertTrue(connection.sendText("hello"));
+        assertEquals("text:echo:hello", codec.poll());
+        assertTrue(connection.sendBinary(new byte[]{1, 2, 3}));
+        assertEquals("binary:3", codec.poll());
+
+        assertTrue(connection.close(1000, "bye"));
+        assertFalse(connection.isOpen());
+        assertFalse(connection.sendText("late"));
+        assertEquals("close:1000:bye", codec.poll());
+        assertFalse(connection.close(1000, "again"));
+    }
+
+    @Test
+    void serverClose_shouldReportCloseCodeAndRejectLaterSends() throws Exception {
+        RecordingCodec codec = new RecordingCodec();
+        WsConnection connection = manager.connect("ws://127.0.0.1:" + port + "/asr", codec);
+        assertEquals("open", codec.poll());
+
+        connection.sendText("close-me");
+
+        assertEquals("close:4000:done", codec.poll());
+        assertFalse(connection.isOpen());
+        assertFalse(connection.sendBinary(new byte[]{1}));
+        assertNull(codec.events.poll(200, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void connect_shouldReportFailureWhenHandshakeTimesOut() throws Exception {
+        RecordingCodec codec = new RecordingCodec();
+        // 服务端不处理未知路径的升级请求
+        WsConnection connection = manager.connect("ws://127.0.0.1:" + port + "/unknown", codec);
+
+        assertTrue(codec.poll().startsWith("failure:"));
+        assertFalse(connection.isOpen());
+        assertFalse(connection.sendText("hello"));
+        assertNull(codec.events.poll(200, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void connect_shouldRejectNonWebSocketScheme() {
+        assertThrows(IllegalArgumentException.class,
+                () -> manager.connect("http://127.0.0.1:" + port + "/asr", new RecordingCodec()));
+    }
+
+    private static final class EchoHandler extends SimpleChannelInboundHandler<WebSocketFrame> {
+        @Override
+        protected void channelRead0(ChannelHandlerContext ctx, WebSocketFrame frame) {
+            if (frame instanceof TextWebSocketFrame) {
+                String text = ((TextWebSocketFrame) frame).text();
+                if ("close-me".equals(text)) {
+                    ctx.writeAndFlush(new CloseWebSocketFrame(4000, "done"));
+                } else {
+                    ctx.writeAndFlush(new TextWebSocketFrame("echo:" + text));
+                }
+            } else if (frame instanceof BinaryWebSocketFrame) {
+                ctx.writeAndFlush(new BinaryWebSocketFrame(frame.content().retain()));
+            }
+        }
+    }
+
+    private static final class RecordingCodec implements WsCodec {
+        private final BlockingQueue<String> events = new LinkedBlockingQueue<>();
+
+        @Override
+        public void onOpen(WsConnection connection) {
+            events.add("open");
+        }
+
+        @Override
+        public void onText(WsConnection connection, String text) {
+            events.add("text:" + text);
+        }
+
+        @Override
+        public void onBinary(WsConnection connection, ByteBuf data) {
+            events.add("binary:" + data.readableBytes());
+        }
+
+        @Override
+        public void onClose(WsConnection connection, int code, String reason) {
+            events.add("close:" + code + ":" + reason);
+        }
+
+        @Override
+        public void onFailure(WsConnection connection, Throwable cause) {
+            events.add("failure:" + cause);
+        }
+
+        private String poll() throws InterruptedException {
+            String event = events.poll(3, TimeUnit.SECONDS);
+            return event == null ? "timeout" : event;
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package com.cfsl.easymrcp.ws;
+
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.handler.codec.http.FullHttpRequest;
+import io.netty.handler.codec.http.HttpObjectAggregator;
+import io.netty.handler.codec.http.HttpServerCodec;
+import io.netty.handler.codec.http.websocketx.TextWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.WebSocketServerProtocolHandler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.net.InetSocketAddress;
+import java.util.Deque;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WsConnectionPoolTests {
+
+    private EventLoopGroup serverGroup;
+    private Channel serverChannel;
+    private String url;
+    private final AtomicInteger handshakes = new AtomicInteger();
+    private WsClientManager manager;
+
+    @BeforeEach
+    void startServer() throws Exception {
+        serverGroup = new NioEventLoopGroup(1);
+        serverChannel = new ServerBootstrap()
+                .group(serverGroup)
+                .channel(NioServerSocketChannel.class)
+                .childHandler(new ChannelInitializer<SocketChannel>() {
+                    @Override
+                    protected void initChannel(SocketChannel ch) {
+                        ch.pipeline().addLast(new HttpServerCodec());
+                        ch.pipeline().addLast(new HttpObjectAggregator(65536));
+                        ch.pipeline().addLast(new ChannelInboundHandlerAdapter() {
+                            @Override
+                            public void channelRead(ChannelHandlerContext ctx, Object msg) {
+                                if (msg instanceof FullHttpRequest) {
+                                    handshakes.incrementAndGet();
+                                }
+                                ctx.fireChannelRead(msg);
+                            }
+                        });
+                        ch.pipeline().addLast(new WebSocketServerProtocolHandler("/asr"));
+                        ch.pipeline().addLast(new SimpleChannelInboundHandler<TextWebSocketFrame>() {
+                            @Override
+                            protected void channelRead0(ChannelHandlerContext ctx, TextWebSocketFrame frame) {
+                                ctx.writeAndFlush(new TextWebSocketFrame("echo:" + frame.text()));
+                            }
+                        });
+                    }
+                })
+                .bind(new InetSocketAddress("127.0.0.1", 0)).sync().channel();
+        url = "ws://127.0.0.1:" + ((InetSocketAddress) serverChannel.localAddress()).getPort() + "/asr";
+
+        manager = new WsClientManager();
+        ReflectionTestUtils.setField(manager, "nettyThreads", 1);
+        ReflectionTestUtils.setField(manager, "transportName", "nio");
+        ReflectionTestUtils.setField(manager, "connectTimeoutMs", 2000);
+        ReflectionTestUtils.setField(manager, "handshakeTimeoutMs", 2000L);
+        ReflectionTestUtils.setField(manager, "closeTimeoutMs", 2000L);
+        ReflectionTestUtils.setField(manager, "maxMessageBytes", 65536);
+        ReflectionTestUtils.setField(manager, "poolEnabled", true);
+        ReflectionTestUtils.setField(manager, "poolMinIdle", 1);
+        ReflectionTestUtils.setField(manager, "poolMaxIdle", 2);
+        ReflectionTestUtils.setField(manager, "poolRateWindowMs", 60000L);
+        ReflectionTestUtils.setField(manager, "poolRefillLeadMs", 3000L);
+        ReflectionTestUtils.setField(manager, "poolMaintainIntervalMs", 100L);
+        manager.init();
+    }
+
+    @AfterEach
+    void stopServer() {
+        manager.destroy();
+        serverChannel.close().syncUninterruptibly();
+        serverGroup.shutdownGracefully(0, 1, TimeUnit.SECONDS).syncUninterruptibly();
+    }
+
+    @Test
+    void lease_shouldHandOverWarmConnectionWithoutNewHandshake() throws Exception {
+        WsConnectionPool pool = manager.pool("test", () -> new WsEndpoint(url), 60000);
+        assertTrue(waitFor(() -> pool.idleCount() == 1));
+        assertEquals(1, handshakes.get());
+
+        RecordingCodec codec = new RecordingCodec();
+        WsConnection connection = pool.lease(codec);
+
+        assertEquals("open", codec.poll());
+        assertTrue(connection.sendText("hello"));
+        assertEquals("text:echo:hello", codec.poll());
+        // 租出后按最小空闲数补充一条新的预热连接
+        assertTrue(waitFor(() -> pool.idleCount() == 1));
+        assertEquals(2, handshakes.get());
+    }
+
+    @Test
+    void release_shouldReturnOpenConnectionForNextLease() throws Exception {
+        WsConnectionPool pool = manager.pool("test", () -> new WsEndpoint(url), 60000);
+        assertTrue(waitFor(() -> pool.idleCount() == 1));
+        RecordingCodec first = new RecordingCodec();
+        WsConnection connection = pool.lease(first);
+        assertEquals("open", first.poll());
+        assertTrue(waitFor(() -> pool.idleCount() == 1));
+
+        pool.release(connection);
+        assertTrue(waitFor(() -> pool.idleCount() == 2));
+
+        RecordingCodec second = new RecordingCodec();
+        assertSame(connection, pool.lease(second));
+        assertEquals("open", second.poll());
+        connection.sendText("again");
+        assertEquals("text:echo:again", second.poll());
+        assertNull(first.events.poll(200, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void maintain_shouldReplaceExpiredIdleConnection() throws Exception {
+        WsConnectionPool pool = manager.pool("test", () -> new WsEndpoint(url), 200);
+        assertTrue(waitFor(() -> pool.idleCount() == 1));
+
+        assertTrue(waitFor(() -> handshakes.get() >= 2));
+        assertTrue(waitFor(() -> pool.idleCount() == 1));
+    }
+
+    @Test
+    void disabledPool_shouldConnectOnLeaseAndCloseOnRelease() throws Exception {
+        ReflectionTestUtils.setField(manager, "poolEnabled", false);
+        WsConnectionPool pool = manager.pool("disabled", () -> new WsEndpoint(url), 60000);
+        Thread.sleep(300);
+        assertEquals(0, handshakes.get());
+
+        RecordingCodec codec = new RecordingCodec();
+        WsConnection connection = pool.lease(codec);
+        assertEquals("open", codec.poll());
+        assertEquals(1, handshakes.get());
+
+        pool.release(connection);
+        assertFalse(connection.isOpen());
+        assertEquals("close:1000:", codec.poll());
+        assertEquals(0, pool.idleCount());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void targetIdle_shouldFollowRecentLeaseRate() {
+        WsConnectionPool pool = new WsConnectionPool("rate", manager, () -> new WsEndpoint(url), 60000,
+                0, 8, 60000, 30000);
+        Deque<Long> leaseTimes = (Deque<Long>) ReflectionTestUtils.getField(pool, "leaseTimes");
+        assertEquals(0, pool.targetIdle());
+
+        leaseTimes.addLast(System.nanoTime());
+        assertEquals(1, pool.targetIdle());
+        for (int i = 0; i < 3; i++) {
+            leaseTimes.addLast(System.nanoTime());
+        }
+        assertEquals(2, pool.targetIdle());
+        for (int i = 0; i < 20; i++) {
+            leaseTimes.addLast(System.nanoTime());
+        }
+        assertEquals(8, pool.targetIdle());
+    }
+
+    private static boolean waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 3000;
+        while (System.currentTimeMillis() < deadline) {
+            if (condition.getAsBoolean()) {
+                return true;
+            }
+            Thread.sleep(20);
+        }
+        return condition.getAsBoolean();
+    }
+
+    private static final class RecordingCodec implements WsCodec {
+        private final BlockingQueue<String> events = new LinkedBlockingQueue<>();
+
+        @Override
+        public void onOpen(WsConnection connection) {
+            events.add("open");
+        }
+
+        @Override
+        public void onText(WsConnection connection, String text) {
+            events.add("text:" + text);
+        }
+
+        @Override
+        public void onClose(WsConnection connection, int code, String reason) {
+            events.add("close:" + code + ":" + reason);
+        }
+
+        @Override
+        public void onFailure(WsConnection connection, Throwable cause) {
+            events.add("failure:" + cause);
+        }
+
+        private String poll() throws InterruptedException {
+            String event = events.poll(3, TimeUnit.SECONDS);
+            return event == null ? "timeout" : event;
+        }
+    }
+}